@@ -3,6 +3,7 @@ plugins {
 	id("org.springframework.boot") version "3.4.0"
 	id("io.spring.dependency-management") version "1.1.7"
     id("com.google.protobuf") version "0.9.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.mysillydreams"
@@ -85,4 +86,67 @@ sourceSets {
 
 tasks.withType<Test> {
 	useJUnitPlatform()
+	// e.g. -Dtreasure.test.postgres.url=... runs repository tests against that database instead of a Testcontainer
+	System.getProperties().filterKeys { it.toString().startsWith("treasure.test.") }
+		.forEach { (key, value) -> systemProperty(key.toString(), value) }
+}
+
+// Microbenchmarks: ./gradlew jmh [-PjmhIncludes=Pricing]
+// jmhSaveBaseline records the current results; jmhCompare fails on regressions against them.
+jmh {
+    jmhVersion.set("1.37")
+    zip64.set(true) // the fat jar holds the whole Spring Boot classpath
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc") // adds gc.alloc.rate / gc.alloc.rate.norm per benchmark
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
+val jmhBaselineDir = layout.projectDirectory.dir("src/jmh/baseline")
+
+tasks.register<Copy>("jmhSaveBaseline") {
+    group = "benchmark"
+    description = "Copies the latest JMH results to src/jmh/baseline for review and commit"
+    dependsOn("jmh")
+    from(layout.buildDirectory.file("reports/jmh/results.json"))
+    into(jmhBaselineDir)
+}
+
+tasks.register("jmhCompare") {
+    group = "benchmark"
+    description = "Fails if time/op or allocated bytes/op regress beyond -PjmhTolerance (default 0.10)"
+    dependsOn("jmh")
+    doLast {
+        val tolerance = (findProperty("jmhTolerance") as String?)?.toDouble() ?: 0.10
+        val baselineFile = jmhBaselineDir.file("results.json").asFile
+        if (!baselineFile.exists()) throw GradleException("No baseline at $baselineFile; run jmhSaveBaseline first")
+
+        fun load(f: File): Map<String, Pair<Double, Double?>> {
+            @Suppress("UNCHECKED_CAST")
+            val runs = groovy.json.JsonSlurper().parse(f) as List<Map<String, Any?>>
+            return runs.associate { run ->
+                val params = (run["params"] as Map<*, *>?)?.entries?.joinToString(",", "[", "]") { "${it.key}=${it.value}" } ?: ""
+                val primary = run["primaryMetric"] as Map<*, *>
+                val secondary = (run["secondaryMetrics"] as Map<*, *>?).orEmpty()
+                    .mapKeys { it.key.toString().removePrefix("\u00b7") }
+                val allocNorm = (secondary["gc.alloc.rate.norm"] as Map<*, *>?)?.get("score") as Number?
+                "${run["benchmark"]}$params" to Pair((primary["score"] as Number).toDouble(), allocNorm?.toDouble())
+            }
+        }
+
+        val baseline = load(baselineFile)
+        val current = load(layout.buildDirectory.file("reports/jmh/results.json").get().asFile)
+        val regressions = current.mapNotNull { (name, now) ->
+            val before = baseline[name] ?: return@mapNotNull null
+            val slower = now.first > before.first * (1 + tolerance)
+            // small absolute slack so a few bytes of noise on tiny allocations do not fail the build
+            val allocs = now.second != null && before.second != null && now.second!! > before.second!! * (1 + tolerance) + 16
+            if (slower || allocs) "%s: %.1f -> %.1f ns/op, %s -> %s B/op".format(name, before.first, now.first, before.second, now.second) else null
+        }
+        if (regressions.isNotEmpty()) throw GradleException("JMH regressions:\n" + regressions.joinToString("\n"))
+        logger.lifecycle("JMH: ${current.size} benchmarks within ${(tolerance * 100).toInt()}% of baseline")
+    }
 }
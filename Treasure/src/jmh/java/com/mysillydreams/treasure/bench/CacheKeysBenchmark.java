@@ -0,0 +1,40 @@
+package com.mysillydreams.treasure.bench;
+
+import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.cache.CacheKeys;
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import com.mysillydreams.treasure.domain.model.TimeWindowType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheKeysBenchmark {
+
+    private SearchRequest sparse;
+    private SearchRequest full;
+
+    @Setup
+    public void setUp() {
+        sparse = new SearchRequest(null, null, null, null, null, null, null, null, "Hyderabad", null, null, null);
+        OffsetDateTime from = OffsetDateTime.of(2025, 9, 1, 0, 0, 0, 0, ZoneOffset.ofHoursMinutes(5, 30));
+        full = new SearchRequest(UUID.randomUUID(), Difficulty.INTERMEDIATE, 3, from, from.plusDays(30),
+                TimeWindowType.NIGHT, new BigDecimal("500"), new BigDecimal("2500"), "Hyderabad", 25, true, 28);
+    }
+
+    @Benchmark
+    public String searchKeySparse() {
+        return CacheKeys.searchKey(sparse);
+    }
+
+    @Benchmark
+    public String searchKeyFull() {
+        return CacheKeys.searchKey(full);
+    }
+}
@@ -0,0 +1,68 @@
+package com.mysillydreams.treasure.bench;
+
+import com.mysillydreams.treasure.domain.model.*;
+import com.mysillydreams.treasure.domain.repository.PromoCodeRepository;
+import com.mysillydreams.treasure.domain.repository.PromoCodeUsageRepository;
+import com.mysillydreams.treasure.domain.repository.PromotionRepository;
+import com.mysillydreams.treasure.domain.service.DiscountService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DiscountBenchmark {
+
+    private DiscountService discounts;
+    private DiscountService.DiscountRequest withCode;
+    private DiscountService.DiscountRequest withoutCode;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Promotion> promotions = List.of(
+                Promotion.builder().id(UUID.randomUUID()).name("Monsoon").promotionType(PromotionType.SEASONAL_SALE)
+                        .discountType(DiscountType.PERCENTAGE).discountValue(new BigDecimal("10"))
+                        .maxDiscountAmount(new BigDecimal("300")).startDate(now.minusDays(1)).endDate(now.plusDays(30))
+                        .priority(2).build(),
+                Promotion.builder().id(UUID.randomUUID()).name("Early bird").promotionType(PromotionType.EARLY_BIRD)
+                        .discountType(DiscountType.FIXED_AMOUNT).discountValue(new BigDecimal("100"))
+                        .startDate(now.minusDays(1)).endDate(now.plusDays(30)).priority(1).build());
+        PromoCode code = PromoCode.builder().id(UUID.randomUUID()).code("HUNT20")
+                .discountType(DiscountType.PERCENTAGE).discountValue(new BigDecimal("20"))
+                .validFrom(now.minusDays(1)).validUntil(now.plusDays(30)).build();
+
+        discounts = new DiscountService(
+                InMemoryRepositories.of(PromoCodeRepository.class,
+                        Map.of("findByCodeIgnoreCase", args -> Optional.of(code))),
+                InMemoryRepositories.of(PromoCodeUsageRepository.class, Map.of(
+                        "countByUserIdAndPromoCodeId", args -> 0L,
+                        "hasUserUsedAnyPromoCode", args -> Boolean.FALSE)),
+                InMemoryRepositories.of(PromotionRepository.class,
+                        Map.of("findApplicablePromotions", args -> promotions)));
+
+        UUID userId = UUID.randomUUID();
+        UUID planId = UUID.randomUUID();
+        withCode = new DiscountService.DiscountRequest(userId, planId, new BigDecimal("1999.00"),
+                EnrollmentType.INDIVIDUAL, Difficulty.BEGINNER, "HUNT20");
+        withoutCode = new DiscountService.DiscountRequest(userId, planId, new BigDecimal("1999.00"),
+                EnrollmentType.INDIVIDUAL, Difficulty.BEGINNER, null);
+    }
+
+    @Benchmark
+    public DiscountService.DiscountCalculation promotionsOnly() {
+        return discounts.calculateDiscount(withoutCode);
+    }
+
+    @Benchmark
+    public DiscountService.DiscountCalculation promotionsAndPromoCode() {
+        return discounts.calculateDiscount(withCode);
+    }
+}
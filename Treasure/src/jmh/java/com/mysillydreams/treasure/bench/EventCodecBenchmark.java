@@ -0,0 +1,49 @@
+package com.mysillydreams.treasure.bench;
+
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentType;
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import com.mysillydreams.treasure.grpc.events.v1.TaskCompleted;
+import com.mysillydreams.treasure.messaging.TopicNames;
+import com.mysillydreams.treasure.messaging.codec.EventCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode+decode round trip of a task completion event in both wire formats
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCodecBenchmark {
+
+    private EventEnvelope taskCompleted;
+
+    @Setup
+    public void setUp() {
+        taskCompleted = EventEnvelope.newBuilder()
+                .setEvent("treasure.task.completed")
+                .setVersion(2)
+                .setTsEpochMillis(Instant.parse("2025-03-01T10:15:30.123Z").toEpochMilli())
+                .setTaskCompleted(TaskCompleted.newBuilder()
+                        .setEnrollmentId(EventCodec.uuid(UUID.randomUUID()))
+                        .setUserId(EventCodec.uuid(UUID.randomUUID()))
+                        .setPlanId(EventCodec.uuid(UUID.randomUUID()))
+                        .setTaskId(EventCodec.uuid(UUID.randomUUID()))
+                        .setEnrollmentType(EnrollmentType.TEAM)
+                        .setCity("Bengaluru"))
+                .build();
+    }
+
+    @Benchmark
+    public EventEnvelope roundTripBinary() {
+        return EventCodec.decode(TopicNames.TASK_COMPLETED, EventCodec.encodeBinary(taskCompleted));
+    }
+
+    @Benchmark
+    public EventEnvelope roundTripJson() {
+        return EventCodec.decode(TopicNames.TASK_COMPLETED, EventCodec.encodeJson(taskCompleted));
+    }
+}
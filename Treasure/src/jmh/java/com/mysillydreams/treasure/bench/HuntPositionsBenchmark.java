@@ -0,0 +1,76 @@
+package com.mysillydreams.treasure.bench;
+
+import com.mysillydreams.treasure.geo.CheckpointSnapshot;
+import com.mysillydreams.treasure.geo.PlanCheckpointIndex;
+import com.mysillydreams.treasure.tracking.HuntPositions;
+import com.mysillydreams.treasure.tracking.LocationPing;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live ping ingest for one busy hunt: {@code participants} devices walking around
+ * 40 checkpoints spread over ~2 km. Reported as ns per ping like the other benchmarks,
+ * so jmhCompare reads a higher score as slower; pings per second per thread is 1e9 / score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HuntPositionsBenchmark {
+
+    private static final double LAT = 17.385, LON = 78.4867;
+
+    @Param({"500", "5000"})
+    int participants;
+
+    private HuntPositions hunt;
+    private PlanCheckpointIndex checkpoints;
+    private UUID[] ids;
+    private double[] lat, lon;
+    private SplittableRandom random;
+    private Instant base;
+    private long tick;
+
+    @Setup
+    public void setUp() {
+        UUID planId = UUID.randomUUID();
+        random = new SplittableRandom(7);
+        List<CheckpointSnapshot> list = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            list.add(new CheckpointSnapshot(UUID.randomUUID(), planId, null, "cp-" + i, i,
+                    LAT + random.nextDouble(-0.01, 0.01), LON + random.nextDouble(-0.01, 0.01), 50, false, false, true));
+        }
+        checkpoints = PlanCheckpointIndex.of(planId, list);
+        hunt = new HuntPositions(planId, Duration.ofSeconds(15), 25);
+        ids = new UUID[participants];
+        lat = new double[participants];
+        lon = new double[participants];
+        for (int i = 0; i < participants; i++) {
+            ids[i] = UUID.randomUUID();
+            lat[i] = LAT + random.nextDouble(-0.01, 0.01);
+            lon[i] = LON + random.nextDouble(-0.01, 0.01);
+        }
+        base = Instant.now();
+    }
+
+    @Benchmark
+    public HuntPositions.Update ping() {
+        long t = tick++;
+        int i = (int) (t % participants);
+        // ~1.4 m per step, about one ping per second of walking
+        lat[i] += random.nextDouble(-0.00001, 0.00001);
+        lon[i] += random.nextDouble(-0.00001, 0.00001);
+        return hunt.update(new LocationPing(ids[i], lat[i], lon[i], 8f, base.plusMillis(t)), checkpoints);
+    }
+
+    @Benchmark
+    public int viewport() {
+        return hunt.within(LAT - 0.003, LON - 0.003, LAT + 0.003, LON + 0.003).size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.mysillydreams.treasure.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repository fakes for benchmarks: a JDK proxy answering only the methods a
+ * benchmark needs, by name. Anything else fails loudly so a benchmark never
+ * silently measures an unexpected path.
+ */
+final class InMemoryRepositories {
+
+    static <R> R of(Class<R> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) return answer.apply(args);
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> type.getSimpleName() + "(in-memory)";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not faked");
+        });
+        return type.cast(proxy);
+    }
+
+    private InMemoryRepositories() {}
+}
@@ -0,0 +1,62 @@
+package com.mysillydreams.treasure.bench;
+
+import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import com.mysillydreams.treasure.domain.model.GeoFenceRule;
+import com.mysillydreams.treasure.domain.model.Plan;
+import com.mysillydreams.treasure.domain.model.TimeWindowType;
+import com.mysillydreams.treasure.search.AgeEligibilityIndex;
+import com.mysillydreams.treasure.search.PlanSpecificationFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of composing the search specification per request; translation to SQL
+ * happens inside Hibernate and is out of scope here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlanSpecificationBenchmark {
+
+    private PlanSpecificationFactory factory;
+    private SearchRequest request;
+    private Optional<GeoFenceRule> fence;
+    private Optional<Integer> age;
+
+    @Setup
+    public void setUp() {
+        // 40 subcategories over 4 bands, installed directly instead of loaded over JDBC
+        List<AgeEligibilityIndex.Band> bands = List.of(
+                new AgeEligibilityIndex.Band(UUID.randomUUID(), "Kids", 6, 12),
+                new AgeEligibilityIndex.Band(UUID.randomUUID(), "Teens", 13, 17),
+                new AgeEligibilityIndex.Band(UUID.randomUUID(), "Adults", 18, 59),
+                new AgeEligibilityIndex.Band(UUID.randomUUID(), "Seniors", 60, 99));
+        List<AgeEligibilityIndex.Allowed> allowed = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            UUID sub = UUID.randomUUID();
+            allowed.add(new AgeEligibilityIndex.Allowed(sub, bands.get(i % bands.size()).id()));
+            allowed.add(new AgeEligibilityIndex.Allowed(sub, bands.get((i + 1) % bands.size()).id()));
+        }
+        AgeEligibilityIndex ageEligibility = new AgeEligibilityIndex(null);
+        ageEligibility.install(AgeEligibilityIndex.Snapshot.build(bands, allowed));
+        factory = new PlanSpecificationFactory(ageEligibility);
+
+        request = new SearchRequest(UUID.randomUUID(), Difficulty.BEGINNER, 1, OffsetDateTime.now(), null,
+                TimeWindowType.DAY, null, null, "Mumbai", null, true, 12);
+        fence = Optional.of(GeoFenceRule.builder().enabled(true).scope("CITY").values(List.of("Mumbai", "Pune")).build());
+        age = Optional.of(12);
+    }
+
+    @Benchmark
+    public Specification<Plan> build() {
+        return factory.build(request, fence, age);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mysillydreams.treasure.bench;
+
+import com.mysillydreams.treasure.domain.model.PlanPrice;
+import com.mysillydreams.treasure.domain.model.PriceProfileSnapshot;
+import com.mysillydreams.treasure.domain.repository.PlanPriceRepository;
+import com.mysillydreams.treasure.domain.service.PricingService;
+import com.mysillydreams.treasure.pricing.PricingPlan;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    /** Number of price profile components (taxes, fees) on the plan */
+    @Param({"2", "8"})
+    int components;
+
+    private PricingService pricing;
+    private UUID planId;
+
+    @Setup
+    public void setUp() {
+        planId = UUID.randomUUID();
+        List<Map<String, Object>> comps = new ArrayList<>();
+        for (int i = 0; i < components; i++) {
+            comps.add(i % 2 == 0
+                    ? Map.of("type", "GST" + i, "calc", "PCT", "value", "18", "isEnforced", true)
+                    : Map.of("type", "FEE" + i, "calc", "FLAT", "value", "49.00"));
+        }
+        PlanPrice price = PlanPrice.builder()
+                .currency("INR")
+                .baseAmount(new BigDecimal("1499.00"))
+                .priceProfileSnapshot(PriceProfileSnapshot.builder().currency("INR").components(comps).build())
+                .build();
+        List<PlanPrice> prices = List.of(price);
+        // native-currency previews never touch FX rates
+        pricing = new PricingService(InMemoryRepositories.of(PlanPriceRepository.class,
+                Map.of("findActiveByPlanAndCurrency", args -> prices)), null);
+    }
+
+    @Benchmark
+    public PricingPlan previewForPlan() {
+        return pricing.previewForPlan(planId, "INR");
+    }
+}
@@ -0,0 +1,46 @@
+package com.mysillydreams.treasure.bench;
+
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import com.mysillydreams.treasure.domain.model.RegistrationSequence;
+import com.mysillydreams.treasure.domain.repository.RegistrationSequenceRepository;
+import com.mysillydreams.treasure.domain.service.RegistrationIdService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegistrationIdBenchmark {
+
+    private RegistrationIdService service;
+    private UUID planId;
+    private String registrationId;
+
+    @Setup
+    public void setUp() {
+        planId = UUID.fromString("7f3c2a10-4b5e-4c8d-9a1b-2c3d4e5f60a7");
+        // sequence wraps well below the 4-digit field so output length stays constant
+        RegistrationSequence sequence = RegistrationSequence.builder().currentSequence(0L).build();
+        service = new RegistrationIdService(InMemoryRepositories.of(RegistrationSequenceRepository.class, Map.of(
+                "findByMonthYearAndEnrollmentTypeAndPlanIdWithLock", args -> {
+                    if (sequence.getCurrentSequence() >= 9_000L) sequence.setCurrentSequence(0L);
+                    return Optional.of(sequence);
+                },
+                "save", args -> args[0])));
+        registrationId = service.generateRegistrationId(EnrollmentType.TEAM, planId);
+    }
+
+    @Benchmark
+    public String generate() {
+        return service.generateRegistrationId(EnrollmentType.INDIVIDUAL, planId);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return service.isValidRegistrationId(registrationId);
+    }
+}
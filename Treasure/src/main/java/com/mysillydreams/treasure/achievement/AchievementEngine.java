@@ -0,0 +1,117 @@
+package com.mysillydreams.treasure.achievement;
+
+import com.mysillydreams.treasure.domain.event.PlanChangedEvent;
+import com.mysillydreams.treasure.domain.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental achievement evaluation over the task completion stream.
+ * Work per batch is proportional to the number of events: each event updates
+ * its user's compact state, and rules only run when a hunt is completed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AchievementEngine {
+
+    private static final String PLAN_FASTEST_KEY = "achv:plan-fastest";
+
+    // Lowers the plan's fastest time, or sets it when missing; never raises it
+    private static final RedisScript<Long> PLAN_RECORD_SCRIPT = new DefaultRedisScript<>("""
+            local cur = redis.call('HGET', KEYS[1], ARGV[1])
+            if not cur or tonumber(ARGV[2]) < tonumber(cur) then
+              redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final AchievementEvaluator evaluator;
+    private final AchievementStateStore stateStore;
+    private final AchievementWriter writer;
+    private final TaskRepository taskRepo;
+    private final StringRedisTemplate redis;
+    private final Map<UUID, Integer> planTaskCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Process one poll worth of task events; state and unlocks are persisted before returning.
+     * Events are applied to copies of the users' states, which are only published by
+     * {@code saveAll} after the unlocks are written; if either write fails the batch can be
+     * replayed from the last saved state without double counting. Plan records are likewise
+     * only lowered after the unlocks are written, so a replayed batch still beats them.
+     */
+    public void process(List<TaskCompletedEvent> events) {
+        if (events.isEmpty()) return;
+        Set<UUID> userIds = new HashSet<>();
+        events.forEach(e -> userIds.add(e.userId()));
+        Map<UUID, AchievementState> states = stateStore.getAll(userIds);
+
+        List<AchievementWriter.Unlock> unlocks = new ArrayList<>();
+        Map<UUID, Long> fastest = new HashMap<>();   // plan -> best time, stored or set in this batch
+        Map<UUID, Long> lowered = new HashMap<>();
+        for (TaskCompletedEvent e : events) {
+            AchievementState state = states.get(e.userId());
+            int taskCount = planTaskCount(e.planId());
+            Optional<HuntCompletion> completion = evaluator.apply(state, e, taskCount);
+            if (completion.isEmpty()) continue;
+
+            HuntCompletion c = completion.get();
+            if (c.taskCount() > 1) c = c.withPlanRecord(beatsPlanRecord(c, fastest, lowered));
+            for (String name : evaluator.evaluate(state, c)) {
+                unlocks.add(new AchievementWriter.Unlock(c.userId(), c.enrollmentId(), c.planId(), name,
+                        c.completedAt(), Map.of(
+                                "completedHunts", state.getCompletedHunts(),
+                                "streak", state.getCompletionStreak(),
+                                "durationMillis", c.durationMillis())));
+            }
+        }
+
+        writer.write(unlocks);
+        lowered.forEach((planId, millis) -> redis.execute(PLAN_RECORD_SCRIPT, List.of(PLAN_FASTEST_KEY),
+                planId.toString(), Long.toString(millis)));
+        stateStore.saveAll(states);
+    }
+
+    public void resetLocalState() {
+        stateStore.clearLocal();
+    }
+
+    @EventListener
+    public void onPlanChanged(PlanChangedEvent event) {
+        planTaskCounts.remove(event.planId());
+    }
+
+    private int planTaskCount(UUID planId) {
+        // not computeIfAbsent: the query would run while holding the map's bin monitor
+        Integer cached = planTaskCounts.get(planId);
+        if (cached != null) return cached;
+        int count = (int) taskRepo.countByPlanId(planId);
+        planTaskCounts.putIfAbsent(planId, count);
+        return count;
+    }
+
+    /**
+     * True only when an existing record is beaten; the first time recorded for a plan is
+     * not a record. New bests are collected in {@code lowered} and stored after the write.
+     */
+    private boolean beatsPlanRecord(HuntCompletion c, Map<UUID, Long> fastest, Map<UUID, Long> lowered) {
+        if (!fastest.containsKey(c.planId())) {
+            Object stored = redis.opsForHash().get(PLAN_FASTEST_KEY, c.planId().toString());
+            fastest.put(c.planId(), stored == null ? null : Long.valueOf(stored.toString()));
+        }
+        Long current = fastest.get(c.planId());
+        if (current != null && c.durationMillis() >= current) return false;
+        fastest.put(c.planId(), c.durationMillis());
+        lowered.put(c.planId(), c.durationMillis());
+        return current != null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mysillydreams.treasure.achievement;
+
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Folds task events into {@link AchievementState} and evaluates rules on hunt completion.
+ * Pure in-memory logic; each call only touches the state of the event's user.
+ */
+@Component
+public class AchievementEvaluator {
+
+    private final List<AchievementRule> rules;
+    private final ZoneId zone;
+    private final long streakGapMillis;
+    private final long staleHuntMillis;
+
+    @Autowired
+    public AchievementEvaluator(@Value("${treasure.achievements.zone:Asia/Kolkata}") String zone,
+                                @Value("${treasure.achievements.streak-gap:P30D}") Duration streakGap) {
+        this(AchievementRule.defaults(), ZoneId.of(zone), streakGap, Duration.ofDays(90));
+    }
+
+    public AchievementEvaluator(List<AchievementRule> rules, ZoneId zone, Duration streakGap, Duration staleHunt) {
+        this.rules = List.copyOf(rules);
+        this.zone = zone;
+        this.streakGapMillis = streakGap.toMillis();
+        this.staleHuntMillis = staleHunt.toMillis();
+    }
+
+    /**
+     * Apply a task completion; returns the hunt completion if this was the enrollment's last task
+     */
+    public Optional<HuntCompletion> apply(AchievementState s, TaskCompletedEvent e, int planTaskCount) {
+        if (s.getRecentlyCompleted().contains(e.enrollmentId())) return Optional.empty();
+
+        long at = e.completedAt().toEpochMilli();
+        AchievementState.OpenHunt hunt = s.getOpen().computeIfAbsent(e.enrollmentId(), k -> {
+            AchievementState.OpenHunt h = new AchievementState.OpenHunt();
+            h.setFirstTaskAt(at);
+            return h;
+        });
+        hunt.getTasks().add(e.taskId());
+        hunt.setFirstTaskAt(Math.min(hunt.getFirstTaskAt(), at));
+        hunt.setLastTaskAt(Math.max(hunt.getLastTaskAt(), at));
+        s.getOpen().values().removeIf(h -> at - h.getLastTaskAt() > staleHuntMillis);
+
+        if (planTaskCount <= 0 || hunt.getTasks().size() < planTaskCount) return Optional.empty();
+
+        s.getOpen().remove(e.enrollmentId());
+        s.getRecentlyCompleted().add(e.enrollmentId());
+        if (s.getRecentlyCompleted().size() > AchievementState.MAX_RECENT_COMPLETIONS) {
+            s.getRecentlyCompleted().remove(0);
+        }
+
+        long completedAt = hunt.getLastTaskAt();
+        long duration = completedAt - hunt.getFirstTaskAt();
+        s.setCompletedHunts(s.getCompletedHunts() + 1);
+        if (e.enrollmentType() == EnrollmentType.TEAM) s.setTeamCompletions(s.getTeamCompletions() + 1);
+        if (e.city() != null && !e.city().isBlank() && s.getCities().size() < AchievementState.MAX_CITIES) {
+            s.getCities().add(e.city().trim().toLowerCase(Locale.ROOT));
+        }
+        int hour = e.completedAt().atZone(zone).getHour();
+        if (hour >= 20 || hour < 5) s.setNightCompletions(s.getNightCompletions() + 1);
+        else if (hour < 9) s.setMorningCompletions(s.getMorningCompletions() + 1);
+
+        boolean continuesStreak = s.getLastCompletionAt() > 0 && completedAt - s.getLastCompletionAt() <= streakGapMillis;
+        s.setCompletionStreak(continuesStreak ? s.getCompletionStreak() + 1 : 1);
+        s.setLongestStreak(Math.max(s.getLongestStreak(), s.getCompletionStreak()));
+        s.setLastCompletionAt(Math.max(s.getLastCompletionAt(), completedAt));
+        if (planTaskCount > 1 && (s.getFastestMillis() == null || duration < s.getFastestMillis())) {
+            s.setFastestMillis(duration);
+        }
+
+        return Optional.of(new HuntCompletion(e.userId(), e.enrollmentId(), e.planId(), planTaskCount,
+                duration, e.completedAt(), false));
+    }
+
+    /**
+     * Names of achievements newly unlocked by a completion; marks them on the state
+     */
+    public List<String> evaluate(AchievementState s, HuntCompletion c) {
+        List<String> unlocked = new ArrayList<>(2);
+        for (AchievementRule rule : rules) {
+            if (!rule.repeatable() && s.getUnlocked().contains(rule.achievementName())) continue;
+            if (rule.condition().test(s, c)) {
+                unlocked.add(rule.achievementName());
+                if (!rule.repeatable()) s.getUnlocked().add(rule.achievementName());
+            }
+        }
+        return unlocked;
+    }
+}
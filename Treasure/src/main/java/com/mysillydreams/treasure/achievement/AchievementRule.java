@@ -0,0 +1,28 @@
+package com.mysillydreams.treasure.achievement;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Condition for one achievement_type, evaluated when a hunt is completed.
+ * Non-repeatable rules unlock at most once per user.
+ */
+public record AchievementRule(
+        String achievementName,
+        boolean repeatable,
+        BiPredicate<AchievementState, HuntCompletion> condition
+) {
+
+    /** Rules for the achievement types seeded in V5 that can be derived from task events */
+    public static List<AchievementRule> defaults() {
+        return List.of(
+                new AchievementRule("First Steps", false, (s, c) -> s.getCompletedHunts() >= 1),
+                new AchievementRule("Speed Demon", true, (s, c) -> c.planRecord()),
+                new AchievementRule("Team Player", false, (s, c) -> s.getTeamCompletions() >= 5),
+                new AchievementRule("Explorer", false, (s, c) -> s.getCities().size() >= 5),
+                new AchievementRule("Streak Master", false, (s, c) -> s.getCompletionStreak() >= 10),
+                new AchievementRule("Night Owl", false, (s, c) -> s.getNightCompletions() >= 5),
+                new AchievementRule("Early Bird", false, (s, c) -> s.getMorningCompletions() >= 5)
+        );
+    }
+}
@@ -0,0 +1,67 @@
+package com.mysillydreams.treasure.achievement;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.*;
+
+/**
+ * Compact running state per user. Only counters and the tasks of hunts still in
+ * progress are kept, so its size does not grow with the user's history.
+ */
+@Getter @Setter @NoArgsConstructor
+public class AchievementState {
+
+    static final int MAX_RECENT_COMPLETIONS = 32;
+    static final int MAX_CITIES = 64;
+
+    private int completedHunts;
+    private int teamCompletions;
+    private int nightCompletions;
+    private int morningCompletions;
+    private int completionStreak;
+    private int longestStreak;
+    private long lastCompletionAt;   // epoch millis, 0 = never
+    private Long fastestMillis;
+    private Set<String> cities = new HashSet<>();
+    private Set<String> unlocked = new HashSet<>();
+    private Map<UUID, OpenHunt> open = new HashMap<>();
+    private List<UUID> recentlyCompleted = new ArrayList<>(); // guards against replayed task events
+
+    /**
+     * Deep copy, so a batch can be evaluated without touching the cached state
+     */
+    public AchievementState copy() {
+        AchievementState c = new AchievementState();
+        c.completedHunts = completedHunts;
+        c.teamCompletions = teamCompletions;
+        c.nightCompletions = nightCompletions;
+        c.morningCompletions = morningCompletions;
+        c.completionStreak = completionStreak;
+        c.longestStreak = longestStreak;
+        c.lastCompletionAt = lastCompletionAt;
+        c.fastestMillis = fastestMillis;
+        c.cities = new HashSet<>(cities);
+        c.unlocked = new HashSet<>(unlocked);
+        c.open = new HashMap<>(open.size() * 2);
+        open.forEach((enrollmentId, hunt) -> c.open.put(enrollmentId, hunt.copy()));
+        c.recentlyCompleted = new ArrayList<>(recentlyCompleted);
+        return c;
+    }
+
+    @Getter @Setter @NoArgsConstructor
+    public static class OpenHunt {
+        private Set<UUID> tasks = new HashSet<>();
+        private long firstTaskAt;
+        private long lastTaskAt;
+
+        OpenHunt copy() {
+            OpenHunt c = new OpenHunt();
+            c.tasks = new HashSet<>(tasks);
+            c.firstTaskAt = firstTaskAt;
+            c.lastTaskAt = lastTaskAt;
+            return c;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mysillydreams.treasure.achievement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyed per-user achievement state. Redis holds the durable copy; a local map
+ * serves users whose partitions this instance currently owns. Task events are
+ * keyed by user, so each user's state is only mutated by one consumer at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AchievementStateStore {
+
+    private static final String KEY_PREFIX = "achv:state:";
+    private static final int MAX_LOCAL_USERS = 50_000;
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, AchievementState> local = new ConcurrentHashMap<>();
+
+    /**
+     * Load states for a batch of users, reading misses from Redis with a single MGET.
+     * Locally cached states are returned as copies: changes only become visible to
+     * later batches through {@link #saveAll}, so a failed batch can be replayed.
+     */
+    public Map<UUID, AchievementState> getAll(Collection<UUID> userIds) {
+        Map<UUID, AchievementState> out = new HashMap<>(userIds.size() * 2);
+        List<UUID> misses = new ArrayList<>();
+        for (UUID userId : userIds) {
+            AchievementState s = local.get(userId);
+            if (s != null) out.put(userId, s.copy());
+            else misses.add(userId);
+        }
+        if (misses.isEmpty()) return out;
+
+        List<String> values = redis.opsForValue().multiGet(misses.stream().map(id -> KEY_PREFIX + id).toList());
+        for (int i = 0; i < misses.size(); i++) {
+            String json = values != null ? values.get(i) : null;
+            out.put(misses.get(i), json != null ? read(json) : new AchievementState());
+        }
+        return out;
+    }
+
+    /**
+     * Persist states touched by a batch (one MSET) and keep them locally.
+     * The local map is only updated once Redis has accepted the write.
+     */
+    public void saveAll(Map<UUID, AchievementState> states) {
+        if (states.isEmpty()) return;
+        Map<String, String> values = new HashMap<>(states.size() * 2);
+        states.forEach((userId, s) -> values.put(KEY_PREFIX + userId, write(s)));
+        redis.opsForValue().multiSet(values);
+
+        if (local.size() + states.size() > MAX_LOCAL_USERS) local.clear();
+        local.putAll(states);
+    }
+
+    /**
+     * Drop locally cached states, e.g. after a partition rebalance
+     */
+    public void clearLocal() {
+        local.clear();
+    }
+
+    private AchievementState read(String json) {
+        try {
+            return objectMapper.readValue(json, AchievementState.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Discarding unreadable achievement state: {}", ex.getMessage());
+            return new AchievementState();
+        }
+    }
+
+    private String write(AchievementState s) {
+        try {
+            return objectMapper.writeValueAsString(s);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize achievement state", ex);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mysillydreams.treasure.achievement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.domain.model.AchievementType;
+import com.mysillydreams.treasure.domain.repository.AchievementTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes unlocked achievements in one JDBC batch. Inserts are idempotent on
+ * uk_user_achievement, so replayed events never produce duplicates.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AchievementWriter {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO user_achievements (user_id, achievement_type_id, enrollment_id, plan_id, earned_at, points_earned, progress_data)
+        VALUES (?, ?, ?, ?, ?, ?, ?::jsonb)
+        ON CONFLICT ON CONSTRAINT uk_user_achievement DO NOTHING
+        """;
+
+    public record Unlock(UUID userId, UUID enrollmentId, UUID planId, String achievementName,
+                         Instant earnedAt, Map<String, Object> progress) {}
+
+    private final JdbcTemplate jdbc;
+    private final AchievementTypeRepository typeRepo;
+    private final ObjectMapper objectMapper;
+    private volatile Map<String, AchievementType> typesByName;
+
+    @Transactional
+    public int write(List<Unlock> unlocks) {
+        if (unlocks.isEmpty()) return 0;
+        Map<String, AchievementType> types = types();
+        List<Object[]> rows = new ArrayList<>(unlocks.size());
+        for (Unlock u : unlocks) {
+            AchievementType type = types.get(u.achievementName());
+            if (type == null) {
+                log.debug("Achievement type '{}' missing or inactive, skipping", u.achievementName());
+                continue;
+            }
+            rows.add(new Object[]{
+                    u.userId(), type.getId(), u.enrollmentId(), u.planId(),
+                    OffsetDateTime.ofInstant(u.earnedAt(), ZoneOffset.UTC),
+                    type.getPointsAwarded(), json(u.progress())
+            });
+        }
+        int[] counts = jdbc.batchUpdate(INSERT_SQL, rows);
+        int inserted = Arrays.stream(counts).map(c -> Math.max(c, 0)).sum();
+        log.info("Achievement batch: {} unlocks, {} new rows", rows.size(), inserted);
+        return inserted;
+    }
+
+    private Map<String, AchievementType> types() {
+        Map<String, AchievementType> t = typesByName;
+        if (t == null) {
+            t = typeRepo.findByIsActiveTrue().stream()
+                    .collect(Collectors.toUnmodifiableMap(AchievementType::getName, Function.identity()));
+            typesByName = t;
+        }
+        return t;
+    }
+
+    private String json(Map<String, Object> progress) {
+        try {
+            return objectMapper.writeValueAsString(progress);
+        } catch (JsonProcessingException ex) {
+            return "{}";
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mysillydreams.treasure.achievement;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Emitted when the last outstanding task of an enrollment is completed
+ */
+public record HuntCompletion(
+        UUID userId,
+        UUID enrollmentId,
+        UUID planId,
+        int taskCount,
+        long durationMillis,
+        Instant completedAt,
+        boolean planRecord
+) {
+    public HuntCompletion withPlanRecord(boolean planRecord) {
+        return new HuntCompletion(userId, enrollmentId, planId, taskCount, durationMillis, completedAt, planRecord);
+    }
+}
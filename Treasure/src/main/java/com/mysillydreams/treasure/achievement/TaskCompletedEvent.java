@@ -0,0 +1,19 @@
+package com.mysillydreams.treasure.achievement;
+
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Decoded treasure.task.completed event, as consumed by the achievement engine
+ */
+public record TaskCompletedEvent(
+        UUID enrollmentId,
+        UUID userId,
+        UUID planId,
+        UUID taskId,
+        EnrollmentType enrollmentType,
+        String city,
+        Instant completedAt
+) {}
@@ -1,15 +1,21 @@
 package com.mysillydreams.treasure.api.grpc.client;
 
 import com.mysillydreams.notifications.v1.NotificationServiceGrpc;
+import com.mysillydreams.notifications.v1.SendBatchRequest;
 import com.mysillydreams.notifications.v1.SendRequest;
 import com.mysillydreams.notifications.v1.SendResponse;
+import com.mysillydreams.notifications.v1.SendResult;
 import io.grpc.StatusRuntimeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -19,6 +25,9 @@ public class NotificationGrpcClient {
     @GrpcClient("notifications")
     private NotificationServiceGrpc.NotificationServiceBlockingStub stub;
 
+    @Value("${treasure.notifications.batch-deadline:PT5S}")
+    private Duration batchDeadline;
+
     public String send(String userId, String channel, String template, Map<String,String> data) {
         try {
             SendResponse rsp = stub.send(SendRequest.newBuilder()
@@ -30,4 +39,14 @@ public class NotificationGrpcClient {
             return null;
         }
     }
+
+    /**
+     * Send many notifications in one call; results are in request order.
+     * Throws {@link StatusRuntimeException} when the call as a whole fails.
+     */
+    public List<SendResult> sendBatch(List<SendRequest> items) {
+        return stub.withDeadlineAfter(batchDeadline.toMillis(), TimeUnit.MILLISECONDS)
+                .sendBatch(SendBatchRequest.newBuilder().addAllItems(items).build())
+                .getResultsList();
+    }
 }
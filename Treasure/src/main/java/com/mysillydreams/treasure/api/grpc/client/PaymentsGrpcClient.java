@@ -1,35 +1,201 @@
 package com.mysillydreams.treasure.api.grpc.client;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.mysillydreams.payments.v1.CreatePaymentLinkRequest;
 import com.mysillydreams.payments.v1.CreatePaymentLinkResponse;
 import com.mysillydreams.payments.v1.PaymentsServiceGrpc;
-import io.grpc.StatusRuntimeException;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking payments client. Every attempt carries a deadline, concurrent calls
+ * are capped so a slow payment service cannot absorb every caller, and transient
+ * failures are retried with backoff. All attempts of one call share an idempotency
+ * key, which also makes the optional hedge safe: if the first attempt is still
+ * running after the observed p95 latency, a second one is sent and the first
+ * answer wins.
+ */
 @Slf4j
 @Component
 public class PaymentsGrpcClient {
 
+    private static final Set<Status.Code> RETRYABLE = Set.of(
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED, Status.Code.ABORTED, Status.Code.RESOURCE_EXHAUSTED);
+
+    private PaymentsServiceGrpc.PaymentsServiceFutureStub stub;
+    private final Duration deadline;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final boolean hedging;
+    private final Duration minHedgeDelay;
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService scheduler;
+
+    private final MeterRegistry registry;
+    private final Timer attemptLatency;
+    private final Counter retries;
+    private final Counter hedges;
+    private final Counter rejected;
+
+    public PaymentsGrpcClient(@Value("${treasure.payments.deadline:PT2S}") Duration deadline,
+                              @Value("${treasure.payments.max-in-flight:64}") int maxInFlight,
+                              @Value("${treasure.payments.max-attempts:3}") int maxAttempts,
+                              @Value("${treasure.payments.initial-backoff:PT0.1S}") Duration initialBackoff,
+                              @Value("${treasure.payments.hedging.enabled:true}") boolean hedging,
+                              @Value("${treasure.payments.hedging.min-delay:PT0.05S}") Duration minHedgeDelay,
+                              MeterRegistry registry) {
+        this.deadline = deadline;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.hedging = hedging;
+        this.minHedgeDelay = minHedgeDelay;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("payments-retry").daemon().factory());
+        this.registry = registry;
+        this.attemptLatency = Timer.builder("treasure.payments.attempt.duration")
+                .publishPercentiles(0.95)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.retries = Counter.builder("treasure.payments.retries").register(registry);
+        this.hedges = Counter.builder("treasure.payments.hedges").register(registry);
+        this.rejected = Counter.builder("treasure.payments.rejected").register(registry);
+    }
+
     @GrpcClient("payments")
-    private PaymentsServiceGrpc.PaymentsServiceBlockingStub stub;
-
-    public CreatePaymentLinkResponse createLink(String enrollmentId, String userId,
-                                                String currency, String amount,
-                                                String planId) {
-        try {
-            return stub.createPaymentLink(CreatePaymentLinkRequest.newBuilder()
-                    .setEnrollmentId(enrollmentId)
-                    .setUserId(userId)
-                    .setCurrency(currency)
-                    .setAmount(amount)
-                    .setPurpose("TREASURE_PLAN")
-                    .setPlanId(planId)
-                    .build());
-        } catch (StatusRuntimeException e) {
-            log.error("Create payment link failed: {}", e.getStatus(), e);
-            return CreatePaymentLinkResponse.newBuilder().build(); // null object
+    void setStub(PaymentsServiceGrpc.PaymentsServiceFutureStub stub) {
+        this.stub = stub;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Request a payment link; the enrollment id is the idempotency key.
+     * Fails fast with RESOURCE_EXHAUSTED when too many calls are already in flight.
+     */
+    public CompletableFuture<CreatePaymentLinkResponse> createLink(String enrollmentId, String userId,
+                                                                   String currency, String amount,
+                                                                   String planId) {
+        if (!inFlight.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(Status.RESOURCE_EXHAUSTED
+                    .withDescription("Too many payment calls in flight").asRuntimeException());
+        }
+        long started = System.nanoTime();
+        Call call = new Call(CreatePaymentLinkRequest.newBuilder()
+                .setEnrollmentId(enrollmentId)
+                .setUserId(userId)
+                .setCurrency(currency)
+                .setAmount(amount)
+                .setPurpose("TREASURE_PLAN")
+                .setPlanId(planId)
+                .setIdempotencyKey(enrollmentId)
+                .build());
+        call.result.whenComplete((response, ex) -> {
+            inFlight.release();
+            String outcome = ex == null ? "OK" : Status.fromThrowable(ex).getCode().name();
+            Timer.builder("treasure.payments.call.duration").tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry).record(Duration.ofNanos(System.nanoTime() - started));
+            if (ex != null) log.warn("Create payment link for enrollment {} failed: {}", enrollmentId, outcome);
+        });
+        call.attempt(false);
+        return call.result;
+    }
+
+    /** Observed p95 attempt latency, bounded below by the configured minimum and above by half the deadline */
+    long hedgeDelayMillis() {
+        long p95 = 0;
+        for (ValueAtPercentile v : attemptLatency.takeSnapshot().percentileValues()) {
+            if (v.percentile() == 0.95) p95 = (long) v.value(TimeUnit.MILLISECONDS);
+        }
+        return Math.min(Math.max(p95, minHedgeDelay.toMillis()), deadline.toMillis() / 2);
+    }
+
+    /** One logical call: its attempts, whichever finishes first completes {@link #result} */
+    private final class Call {
+        final CreatePaymentLinkRequest request;
+        final CompletableFuture<CreatePaymentLinkResponse> result = new CompletableFuture<>();
+        final List<ListenableFuture<CreatePaymentLinkResponse>> attempts = new CopyOnWriteArrayList<>();
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger outstanding = new AtomicInteger();
+
+        Call(CreatePaymentLinkRequest request) {
+            this.request = request;
+        }
+
+        void attempt(boolean hedge) {
+            if (result.isDone()) return;
+            int n = started.incrementAndGet();
+            outstanding.incrementAndGet();
+            long attemptStart = System.nanoTime();
+            ListenableFuture<CreatePaymentLinkResponse> f = stub
+                    .withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                    .createPaymentLink(request);
+            attempts.add(f);
+            Futures.addCallback(f, new FutureCallback<>() {
+                @Override
+                public void onSuccess(CreatePaymentLinkResponse response) {
+                    outstanding.decrementAndGet();
+                    attemptLatency.record(Duration.ofNanos(System.nanoTime() - attemptStart));
+                    if (result.complete(response)) cancelOthers(f);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    boolean last = outstanding.decrementAndGet() == 0;
+                    if (result.isDone()) return;  // lost the race, or cancelled by the winner
+                    attemptLatency.record(Duration.ofNanos(System.nanoTime() - attemptStart));
+                    // a sibling attempt is still running; let it decide
+                    if (!last) return;
+                    if (RETRYABLE.contains(Status.fromThrowable(t).getCode()) && started.get() < maxAttempts) {
+                        retries.increment();
+                        scheduler.schedule(() -> attempt(false), backoffMillis(n), TimeUnit.MILLISECONDS);
+                    } else {
+                        result.completeExceptionally(t);
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+
+            if (hedging && !hedge && n == 1 && maxAttempts > 1) {
+                scheduler.schedule(() -> {
+                    if (!result.isDone() && outstanding.get() > 0 && started.get() < maxAttempts) {
+                        hedges.increment();
+                        attempt(true);
+                    }
+                }, hedgeDelayMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void cancelOthers(ListenableFuture<CreatePaymentLinkResponse> winner) {
+            for (ListenableFuture<CreatePaymentLinkResponse> other : attempts) {
+                if (other != winner) other.cancel(true);
+            }
+        }
+
+        private long backoffMillis(int attempt) {
+            long base = initialBackoff.toMillis() << Math.min(attempt - 1, 6);
+            return base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
         }
     }
 }
@@ -0,0 +1,82 @@
+package com.mysillydreams.treasure.api.grpc.server;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends stream messages from a producer thread while honouring gRPC flow control:
+ * {@link #send} parks until the transport reports {@code isReady()}, woken by the
+ * call's onReady handler. Must be created inside the RPC method, before it returns.
+ */
+final class FlowControlledSender<T> {
+
+    private final ServerCallStreamObserver<T> call;
+    private final long stallTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private volatile boolean cancelled;
+
+    FlowControlledSender(ServerCallStreamObserver<T> call, Duration stallTimeout) {
+        this.call = call;
+        this.stallTimeoutNanos = stallTimeout.toNanos();
+        call.setOnReadyHandler(this::signal);
+        call.setOnCancelHandler(() -> {
+            cancelled = true;
+            signal();
+        });
+    }
+
+    /**
+     * Blocks until the client can take another message; throws CANCELLED / DEADLINE_EXCEEDED
+     * if the client went away or stopped reading for longer than the stall timeout
+     */
+    void send(T message) {
+        if (!call.isReady()) awaitReady();
+        if (cancelled) throw Status.CANCELLED.withDescription("Client cancelled").asRuntimeException();
+        call.onNext(message);
+    }
+
+    void complete() {
+        if (!cancelled) call.onCompleted();
+    }
+
+    void fail(StatusRuntimeException error) {
+        if (!cancelled) call.onError(error);
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void awaitReady() {
+        lock.lock();
+        try {
+            long remaining = stallTimeoutNanos;
+            while (!call.isReady() && !cancelled) {
+                if (remaining <= 0) {
+                    throw Status.DEADLINE_EXCEEDED.withDescription("Client stopped reading").asRuntimeException();
+                }
+                remaining = ready.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withDescription("Interrupted").asRuntimeException();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            ready.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -2,36 +2,71 @@ package com.mysillydreams.treasure.api.grpc.server;
 
 import com.google.protobuf.Empty;
 import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.config.BoundedVirtualThreadExecutor;
+import com.mysillydreams.treasure.config.ExecutorConfig;
 import com.mysillydreams.treasure.domain.model.*;
 import com.mysillydreams.treasure.domain.repository.*;
+import com.mysillydreams.treasure.domain.service.PlanAvailabilityService;
 import com.mysillydreams.treasure.domain.service.PlanService;
 import com.mysillydreams.treasure.domain.service.SearchService;
 import com.mysillydreams.treasure.grpc.catalog.v1.*;
 import com.mysillydreams.treasure.grpc.common.v1.*;
+import com.mysillydreams.treasure.search.PlanSummaryCursor;
 import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
+@Slf4j
 @GrpcService
-@RequiredArgsConstructor
 public class TreasureCatalogGrpcServer extends TreasureCatalogServiceGrpc.TreasureCatalogServiceImplBase {
 
     private final CategoryRepository categoryRepo;
     private final SubcategoryRepository subRepo;
     private final AgeBandRepository ageBandRepo;
     private final PlanPriceRepository priceRepo;
+    private final GeoFenceRuleRepository fenceRepo;
     private final SearchService searchService;
     private final PlanService planService;
+    private final PlanAvailabilityService availabilityService;
+    private final PlanSummaryCursor planCursor;
+    private final BoundedVirtualThreadExecutor streamExecutor;
 
     private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final Duration STREAM_STALL_TIMEOUT = Duration.ofMinutes(2);
+
+    public TreasureCatalogGrpcServer(CategoryRepository categoryRepo, SubcategoryRepository subRepo,
+                                     AgeBandRepository ageBandRepo, PlanPriceRepository priceRepo,
+                                     GeoFenceRuleRepository fenceRepo, SearchService searchService,
+                                     PlanService planService, PlanAvailabilityService availabilityService,
+                                     PlanSummaryCursor planCursor,
+                                     @Qualifier(ExecutorConfig.CATALOG_STREAM_EXECUTOR) BoundedVirtualThreadExecutor streamExecutor) {
+        this.categoryRepo = categoryRepo;
+        this.subRepo = subRepo;
+        this.ageBandRepo = ageBandRepo;
+        this.priceRepo = priceRepo;
+        this.fenceRepo = fenceRepo;
+        this.searchService = searchService;
+        this.planService = planService;
+        this.availabilityService = availabilityService;
+        this.planCursor = planCursor;
+        this.streamExecutor = streamExecutor;
+    }
 
     // @Override
     public void ListCategories(Empty request, StreamObserver<ListCategoriesResponse> responseObserver) {
@@ -69,21 +104,16 @@ public class TreasureCatalogGrpcServer extends TreasureCatalogServiceGrpc.Treasu
                 req.getPage().getSize() == 0 ? 12 : req.getPage().getSize(),
                 Sort.by("startAt").ascending());
 
-        var sr = new SearchRequest(
-                parseUUID(req.getSubcategoryId()), mapDifficulty(req.getDifficulty()),
-                req.getLevel()==0?null:req.getLevel(),
-                parseTime(req.getDateFrom()), parseTime(req.getDateTo()),
-                mapTimeWindow(req.getTimeWindow()),
-                parseDecimal(req.getPriceMin()), parseDecimal(req.getPriceMax()),
-                blankToNull(req.getCity()),
-                req.getWithinKm()==0?null:req.getWithinKm(),
-                req.getHasSlots()?Boolean.TRUE:null,
-                req.getAge()==0?null:req.getAge()
-        );
+        var sr = toSearchRequest(req);
 
         var page = searchService.search(sr, pageable, sr.age()==null?Optional.empty():Optional.of(sr.age()));
+        Map<UUID, BigDecimal> minPrices = new HashMap<>();
+        if (page.hasContent()) {
+            priceRepo.findMinBaseAmounts(page.getContent().stream().map(Plan::getId).toList())
+                    .forEach(mp -> minPrices.put(mp.getPlanId(), mp.getMinAmount()));
+        }
         List<com.mysillydreams.treasure.grpc.common.v1.PlanSummary> items = page.getContent().stream().map(p -> {
-            BigDecimal priceFrom = priceRepo.findMinBaseAmount(p.getId());
+            BigDecimal priceFrom = minPrices.get(p.getId());
             String dr = p.getDifficulties().isEmpty() ? "N/A" :
                     p.getDifficulties().stream()
                             .map(d -> d.getDifficulty().name()+" L"+d.getLevelNumber())
@@ -118,6 +148,64 @@ public class TreasureCatalogGrpcServer extends TreasureCatalogServiceGrpc.Treasu
         rsp.onCompleted();
     }
 
+    /**
+     * Streams every matching plan straight from a DB cursor. Rows are produced on a
+     * bounded virtual-thread executor and sent only when the transport is ready,
+     * so memory stays constant and the first plans arrive immediately.
+     */
+    // @Override
+    public void StreamPlans(ListPlansRequest req, StreamObserver<com.mysillydreams.treasure.grpc.common.v1.PlanSummary> rsp) {
+        SearchRequest sr;
+        try {
+            sr = toSearchRequest(req);
+        } catch (RuntimeException e) {
+            rsp.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+
+        var call = (ServerCallStreamObserver<com.mysillydreams.treasure.grpc.common.v1.PlanSummary>) rsp;
+        var sender = new FlowControlledSender<>(call, STREAM_STALL_TIMEOUT);
+        try {
+            streamExecutor.execute(() -> {
+                try {
+                    var fence = fenceRepo.findLatest().stream().findFirst();
+                    planCursor.forEach(sr, fence, row -> sender.send(toSummary(row)));
+                    sender.complete();
+                } catch (StatusRuntimeException e) {
+                    sender.fail(e);
+                } catch (Exception e) {
+                    log.error("StreamPlans failed", e);
+                    sender.fail(Status.INTERNAL.withDescription("stream failed").asRuntimeException());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rsp.onError(Status.RESOURCE_EXHAUSTED.withDescription("Too many concurrent plan streams").asRuntimeException());
+        }
+    }
+
+    // @Override
+    public void BatchGetAvailability(BatchGetAvailabilityRequest req, StreamObserver<BatchGetAvailabilityResponse> rsp) {
+        try {
+            List<UUID> ids = req.getPlanIdsList().stream().map(UUID::fromString).toList();
+            BatchGetAvailabilityResponse.Builder out = BatchGetAvailabilityResponse.newBuilder();
+            for (PlanAvailabilityService.Availability a : availabilityService.getAll(ids)) {
+                PlanAvailability.Builder item = PlanAvailability.newBuilder()
+                        .setPlanId(a.planId().toString())
+                        .setStatus(PlanAvailability.Status.valueOf(a.status().name()))
+                        .setSeatsAvailable(a.seatsAvailable() == null ? -1 : a.seatsAvailable())
+                        .setAvailableView(a.availableView());
+                if (a.priceFrom() != null) {
+                    item.setPriceFrom(Money.newBuilder().setCurrency("INR").setAmount(a.priceFrom().toPlainString()));
+                }
+                out.addItems(item);
+            }
+            rsp.onNext(out.build());
+            rsp.onCompleted();
+        } catch (IllegalArgumentException e) {
+            rsp.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
     // @Override
     public void GetPlan(GetPlanRequest req, StreamObserver<GetPlanResponse> rsp) {
         try {
@@ -159,6 +247,37 @@ public class TreasureCatalogGrpcServer extends TreasureCatalogServiceGrpc.Treasu
         }
     }
 
+    private static SearchRequest toSearchRequest(ListPlansRequest req) {
+        return new SearchRequest(
+                parseUUID(req.getSubcategoryId()), mapDifficulty(req.getDifficulty()),
+                req.getLevel()==0?null:req.getLevel(),
+                parseTime(req.getDateFrom()), parseTime(req.getDateTo()),
+                mapTimeWindow(req.getTimeWindow()),
+                parseDecimal(req.getPriceMin()), parseDecimal(req.getPriceMax()),
+                blankToNull(req.getCity()),
+                req.getWithinKm()==0?null:req.getWithinKm(),
+                req.getHasSlots()?Boolean.TRUE:null,
+                req.getAge()==0?null:req.getAge()
+        );
+    }
+
+    private static com.mysillydreams.treasure.grpc.common.v1.PlanSummary toSummary(PlanSummaryCursor.PlanSummaryRow r) {
+        return com.mysillydreams.treasure.grpc.common.v1.PlanSummary.newBuilder()
+                .setId(r.id().toString())
+                .setTitle(r.title())
+                .setSubcategoryName(r.subcategoryName())
+                .setCity(nvl(r.city()))
+                .setIsVirtual(r.isVirtual())
+                .setTimeWindow(mapTimeWindowToGrpc(r.timeWindowType()))
+                .setStartAt(r.startAt()==null?"":r.startAt().format(ISO))
+                .setEndAt(r.endAt()==null?"":r.endAt().format(ISO))
+                .setDifficultyRange(r.difficultyRange()==null?"N/A":r.difficultyRange())
+                .setPriceFrom(com.mysillydreams.treasure.grpc.common.v1.Money.newBuilder().setCurrency("INR").setAmount(r.priceFrom()==null?"0":r.priceFrom().toPlainString()))
+                .setHasFiniteSlots(r.hasFiniteSlots())
+                .setAvailableView(r.availableView())
+                .build();
+    }
+
     private static java.util.UUID parseUUID(String s){ return (s==null||s.isBlank())?null:java.util.UUID.fromString(s); }
     private static java.time.OffsetDateTime parseTime(String s){ return (s==null||s.isBlank())?null:java.time.OffsetDateTime.parse(s); }
     private static BigDecimal parseDecimal(String s){ return (s==null||s.isBlank())?null:new BigDecimal(s); }
@@ -82,14 +82,48 @@ public class TreasureEnrollmentGrpcServer extends TreasureEnrollmentServiceGrpc.
         rsp.onCompleted();
     }
 
+    // @Override
+    public void ListUserEnrollments(ListUserEnrollmentsRequest req, StreamObserver<ListUserEnrollmentsResponse> rsp) {
+        try {
+            var slice = enrollmentService.history(UUID.fromString(req.getUserId()), req.getPageToken(), req.getPageSize());
+            ListUserEnrollmentsResponse.Builder out = ListUserEnrollmentsResponse.newBuilder()
+                    .setNextPageToken(slice.hasNext() ? slice.nextCursor() : "");
+            for (Enrollment e : slice.content()) {
+                out.addEnrollments(EnrollmentSummary.newBuilder()
+                        .setEnrollmentId(e.getId().toString())
+                        .setPlanId(e.getPlan().getId().toString())
+                        .setPlanTitle(e.getPlan().getTitle())
+                        .setStatus(map(e.getStatus()))
+                        .setPaymentStatus(map(e.getPaymentStatus()))
+                        .setRegistrationId(e.getRegistrationId() != null ? e.getRegistrationId() : "")
+                        .setEnrollmentType(map(e.getEnrollmentType()))
+                        .setTeamName(e.getTeamName() != null ? e.getTeamName() : "")
+                        .setEnrolledAt(e.getEnrolledAt().toString()));
+            }
+            rsp.onNext(out.build());
+            rsp.onCompleted();
+        } catch (IllegalArgumentException ex) {
+            rsp.onError(Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException());
+        }
+    }
+
     // @Override
     public void CompleteTask(CompleteTaskRequest req, StreamObserver<CompleteTaskResponse> rsp) {
-        var tp = taskProgressService.completeTask(UUID.fromString(req.getEnrollmentId()), UUID.fromString(req.getTaskId()));
-        rsp.onNext(CompleteTaskResponse.newBuilder()
-                .setTaskProgressId(tp.getId().toString())
-                .setStatus(tp.getStatus().name())
-                .build());
-        rsp.onCompleted();
+        try {
+            Double latitude = req.hasLatitude() ? req.getLatitude() : null;
+            Double longitude = req.hasLongitude() ? req.getLongitude() : null;
+            var tp = taskProgressService.completeTask(UUID.fromString(req.getEnrollmentId()), UUID.fromString(req.getTaskId()),
+                    latitude, longitude);
+            rsp.onNext(CompleteTaskResponse.newBuilder()
+                    .setTaskProgressId(tp.getId().toString())
+                    .setStatus(tp.getStatus().name())
+                    .build());
+            rsp.onCompleted();
+        } catch (IllegalStateException ex) {
+            rsp.onError(Status.FAILED_PRECONDITION.withDescription(ex.getMessage()).asRuntimeException());
+        } catch (IllegalArgumentException ex) {
+            rsp.onError(Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException());
+        }
     }
 
     // @Override
@@ -0,0 +1,64 @@
+package com.mysillydreams.treasure.api.grpc.server;
+
+import com.mysillydreams.treasure.grpc.tracking.v1.IngestSummary;
+import com.mysillydreams.treasure.grpc.tracking.v1.LocationPing;
+import com.mysillydreams.treasure.grpc.tracking.v1.TreasureTrackingServiceGrpc;
+import com.mysillydreams.treasure.tracking.LiveTrackingService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@GrpcService
+@RequiredArgsConstructor
+public class TreasureTrackingGrpcServer extends TreasureTrackingServiceGrpc.TreasureTrackingServiceImplBase {
+
+    private final LiveTrackingService trackingService;
+
+    /**
+     * Each ping is applied as it arrives, so the live map never waits for the stream to
+     * end; ingest is in-memory, the DB writes are batched behind it.
+     */
+    @Override
+    public StreamObserver<LocationPing> streamPings(StreamObserver<IngestSummary> rsp) {
+        return new StreamObserver<>() {
+            long accepted;
+            long rejected;
+
+            @Override
+            public void onNext(LocationPing p) {
+                UUID planId, enrollmentId;
+                try {
+                    planId = UUID.fromString(p.getPlanId());
+                    enrollmentId = UUID.fromString(p.getEnrollmentId());
+                } catch (IllegalArgumentException ex) {
+                    rejected++;
+                    return;
+                }
+                var result = trackingService.ingest(planId, List.of(new com.mysillydreams.treasure.tracking.LocationPing(
+                        enrollmentId, p.getLatitude(), p.getLongitude(),
+                        p.hasAccuracyMeters() ? p.getAccuracyMeters() : null,
+                        Instant.ofEpochMilli(p.getRecordedAtMs()))));
+                accepted += result.accepted();
+                rejected += result.rejected();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Ping stream ended by client: {}", Status.fromThrowable(t));
+            }
+
+            @Override
+            public void onCompleted() {
+                rsp.onNext(IngestSummary.newBuilder().setAccepted(accepted).setRejected(rejected).build());
+                rsp.onCompleted();
+            }
+        };
+    }
+}
@@ -1,15 +1,41 @@
 package com.mysillydreams.treasure.api.rest;
 
+import com.mysillydreams.treasure.api.rest.dto.response.WaitlistResponse;
+import com.mysillydreams.treasure.domain.service.WaitlistedException;
+import com.mysillydreams.treasure.evidence.EvidenceTooLargeException;
+import com.mysillydreams.treasure.importer.PlanImportException;
 import org.springframework.http.*;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
+    // queued instead of enrolled: accepted for later, the client should wait for the offer rather than retry
+    @ExceptionHandler(WaitlistedException.class)
+    public ResponseEntity<WaitlistResponse> waitlisted(WaitlistedException ex) {
+        var p = ex.getPosition();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new WaitlistResponse(p.entryId(), ex.getPlanId(), p.status(), p.position(), p.holdExpiresAt()));
+    }
+
+    @ExceptionHandler(EvidenceTooLargeException.class)
+    public ResponseEntity<?> tooLarge(EvidenceTooLargeException ex) {
+        return problem(HttpStatus.PAYLOAD_TOO_LARGE, "payload_too_large", ex.getMessage());
+    }
+
+    // every bad row at once, so an import file can be fixed in one pass
+    @ExceptionHandler(PlanImportException.class)
+    public ResponseEntity<?> importRejected(PlanImportException ex) {
+        var body = new LinkedHashMap<>(problem(HttpStatus.BAD_REQUEST, "import_rejected", ex.getMessage()).getBody());
+        body.put("errors", ex.getErrors());
+        return ResponseEntity.badRequest().body(body);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<?> illegalState(IllegalStateException ex) {
         return problem(HttpStatus.CONFLICT, "conflict", ex.getMessage());
@@ -4,9 +4,14 @@ import com.mysillydreams.treasure.api.rest.dto.request.*;
 import com.mysillydreams.treasure.api.rest.dto.response.*;
 import com.mysillydreams.treasure.api.rest.mapper.CategoryMapper;
 import com.mysillydreams.treasure.api.rest.mapper.SubcategoryMapper;
+import com.mysillydreams.treasure.domain.event.CatalogChangedEvent;
+import com.mysillydreams.treasure.domain.event.SeatsFreedEvent;
 import com.mysillydreams.treasure.domain.model.*;
 import com.mysillydreams.treasure.domain.repository.*;
 import com.mysillydreams.treasure.domain.service.PlanService;
+import com.mysillydreams.treasure.importer.PlanImportReader;
+import com.mysillydreams.treasure.importer.PlanImportService;
+import com.mysillydreams.treasure.qr.QrCheckpointService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,13 +20,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @RestController
@@ -39,6 +51,9 @@ public class AdminController {
     private final PlanSlotRepository planSlotRepo;
     private final CategoryMapper categoryMapper;
     private final SubcategoryMapper subcategoryMapper;
+    private final ApplicationEventPublisher events;
+    private final QrCheckpointService qrCheckpointService;
+    private final PlanImportService planImportService;
 
     // Category Management
     @Operation(
@@ -170,7 +185,9 @@ public class AdminController {
             var bands = ageBandRepo.findAllById(req.ageBandIds());
             s.setAllowedAgeBands(new HashSet<>(bands));
         }
-        return subcategoryMapper.toResponse(subcategoryRepo.save(s));
+        Subcategory saved = subcategoryRepo.save(s);
+        events.publishEvent(new CatalogChangedEvent("subcategory-created"));
+        return subcategoryMapper.toResponse(saved);
     }
 
     // Plan (create minimal, including rules/tasks/pricing)
@@ -220,9 +237,25 @@ public class AdminController {
 
         var saved = planService.createPlan(plan, rules, tasks, diffs, price, snapshotRepo.save(snap));
         BigDecimal priceFrom = planPriceRepo.findMinBaseAmount(saved.getId());
-        var pricingPreview = new com.mysillydreams.treasure.api.rest.dto.response.PlanDetailResponse.PricingPreview(priceFrom, List.of(), priceFrom);
+        var pricingPreview = new com.mysillydreams.treasure.api.rest.dto.response.PlanDetailResponse.PricingPreview(priceFrom, List.of(), priceFrom, null);
         return com.mysillydreams.treasure.api.rest.mapper.PlanMapperImplFactory.INSTANCE
-                .toDetail(saved, priceFrom, pricingPreview); // see factory below
+                .toDetail(saved, priceFrom, pricingPreview, List.of()); // see factory below
+    }
+
+    @Operation(summary = "Bulk import plans",
+            description = """
+                    Creates every plan in a CSV (text/csv) or JSON Lines (application/x-ndjson) body in one
+                    transaction. The whole file is validated first; any invalid row rejects the import with
+                    a 400 listing every bad row by line number.
+                    """)
+    @PostMapping(value = "/plans/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE, "application/jsonl"})
+    public PlanImportResponse importPlans(HttpServletRequest request) throws IOException {
+        var format = "csv".equals(MediaType.parseMediaType(request.getContentType()).getSubtype())
+                ? PlanImportReader.Format.CSV : PlanImportReader.Format.JSONL;
+        try (var in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            List<UUID> ids = planImportService.importPlans(in, format);
+            return new PlanImportResponse(ids.size(), ids);
+        }
     }
 
     // slot tuning (finite: transactional cap; open: cosmetic only)
@@ -230,9 +263,23 @@ public class AdminController {
     @Transactional
     public void slotTuning(@PathVariable UUID planId, @RequestParam(required=false) Integer capacity, @RequestParam(required=false) Integer availableView) {
         var slot = planSlotRepo.findByPlanId(planId).orElseThrow();
+        Integer before = slot.getCapacityNullMeansOpen();
         if (capacity != null) slot.setCapacityNullMeansOpen(capacity);
         if (availableView != null && slot.getCapacityNullMeansOpen()==null) slot.setAvailableView(availableView);
         planSlotRepo.save(slot);
+        // raised cap: hand the new seats to the waitlist once committed
+        if (before != null && capacity != null && capacity > before) {
+            events.publishEvent(new SeatsFreedEvent(planId, "capacity-raised"));
+        }
+    }
+
+    @Operation(summary = "Issue a QR code for a checkpoint",
+            description = "Returns a signed token to print as the checkpoint's QR code; it is only accepted between validFrom and validUntil")
+    @PostMapping("/plans/{planId}/checkpoints/{checkpointId}/qr")
+    public QrCodeResponse issueQr(@PathVariable UUID planId, @PathVariable UUID checkpointId,
+                                  @Validated @RequestBody QrIssueRequest req) {
+        String token = qrCheckpointService.issue(planId, checkpointId, req.validFrom(), req.validUntil());
+        return new QrCodeResponse(checkpointId, token, req.validFrom(), req.validUntil());
     }
 
     // Age bands & geofence & policy endpoints can be added similarly…
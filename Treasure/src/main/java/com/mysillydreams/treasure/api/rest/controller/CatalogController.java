@@ -4,10 +4,12 @@ import com.mysillydreams.treasure.api.rest.dto.response.*;
 import com.mysillydreams.treasure.api.rest.mapper.CategoryMapper;
 import com.mysillydreams.treasure.api.rest.mapper.SubcategoryMapper;
 import com.mysillydreams.treasure.domain.model.Subcategory;
+import com.mysillydreams.treasure.domain.repository.AgeBandRepository;
 import com.mysillydreams.treasure.domain.repository.CategoryRepository;
 import com.mysillydreams.treasure.domain.repository.SubcategoryRepository;
-import com.mysillydreams.treasure.domain.repository.AgeBandRepository;
 import com.mysillydreams.treasure.api.rest.dto.response.AgeBandResponse;
+import com.mysillydreams.treasure.search.AgeEligibilityIndex;
+import com.mysillydreams.treasure.search.AutocompleteIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +24,8 @@ public class CatalogController {
     private final CategoryRepository categoryRepo;
     private final SubcategoryRepository subcategoryRepo;
     private final AgeBandRepository ageBandRepo;
+    private final AgeEligibilityIndex ageEligibility;
+    private final AutocompleteIndex autocomplete;
     private final CategoryMapper categoryMapper;
     private final SubcategoryMapper subcategoryMapper;
 
@@ -38,16 +42,28 @@ public class CatalogController {
 
     @GetMapping("/filters")
     public SearchFiltersResponse filters() {
-        List<String> cities = List.of("Hyderabad","Bengaluru","Mumbai"); // TODO: fetch from distinct plans
+        List<String> cities = autocomplete.cities();
         var timeWindowTypes = java.util.Arrays.asList(
                 com.mysillydreams.treasure.domain.model.TimeWindowType.values());
         var difficulties = java.util.Arrays.asList(
                 com.mysillydreams.treasure.domain.model.Difficulty.values());
         List<Integer> levels = java.util.stream.IntStream.rangeClosed(0, 200).boxed().toList();
-        List<AgeBandResponse> ageBands = ageBandRepo.findAll().stream()
-                .map(a -> new AgeBandResponse(a.getId(), a.getLabel(), a.getMinAge(), a.getMaxAge()))
-                .toList();
+        List<AgeBandResponse> ageBands = ageEligibility.isLoaded()
+                ? ageEligibility.ageBands().stream()
+                        .map(a -> new AgeBandResponse(a.id(), a.label(), a.minAge(), a.maxAge()))
+                        .toList()
+                : ageBandRepo.findAll().stream()
+                        .map(a -> new AgeBandResponse(a.getId(), a.getLabel(), a.getMinAge(), a.getMaxAge()))
+                        .toList();
         return new SearchFiltersResponse(cities, timeWindowTypes, levels, difficulties, ageBands);
     }
-}
 
+    // typeahead for the search box; served from memory, no database hit
+    @GetMapping("/autocomplete")
+    public List<SuggestionResponse> autocomplete(@RequestParam("q") String q,
+                                                 @RequestParam(defaultValue = "8") int limit) {
+        return autocomplete.suggest(q, limit).stream()
+                .map(s -> new SuggestionResponse(s.text(), s.kind(), s.id()))
+                .toList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.mysillydreams.treasure.api.rest.controller;
+
+import com.mysillydreams.treasure.api.rest.dto.request.QrScanRequest;
+import com.mysillydreams.treasure.api.rest.dto.response.CheckpointCompletionResponse;
+import com.mysillydreams.treasure.qr.QrCheckpointService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/treasure/v1")
+@RequiredArgsConstructor
+@Tag(name = "Treasure Hunt - Checkpoints", description = "Checkpoint completion by QR scan")
+public class CheckpointController {
+
+    private final QrCheckpointService qrCheckpointService;
+
+    @Operation(summary = "Complete a checkpoint by scanning its QR code",
+            description = "400 for an invalid or foreign code, 409 when it has expired or the checkpoint is already completed")
+    @PostMapping("/enrollments/{enrollmentId}/checkpoints/scan")
+    public CheckpointCompletionResponse scan(@PathVariable UUID enrollmentId, @Validated @RequestBody QrScanRequest req) {
+        var checkpoint = qrCheckpointService.redeem(enrollmentId, req.token());
+        return new CheckpointCompletionResponse(checkpoint.id(), checkpoint.name(), "COMPLETED");
+    }
+}
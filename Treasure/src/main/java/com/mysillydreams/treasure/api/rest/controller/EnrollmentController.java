@@ -2,9 +2,14 @@ package com.mysillydreams.treasure.api.rest.controller;
 
 import com.mysillydreams.treasure.api.rest.dto.request.ApprovalDecisionRequest;
 import com.mysillydreams.treasure.api.rest.dto.request.EnrollRequest;
+import com.mysillydreams.treasure.api.rest.dto.response.EnrollmentHistoryItem;
 import com.mysillydreams.treasure.api.rest.dto.response.EnrollmentResponse;
+import com.mysillydreams.treasure.api.rest.dto.response.SliceResponse;
+import com.mysillydreams.treasure.api.rest.dto.response.WaitlistResponse;
+import com.mysillydreams.treasure.datasource.ReadYourWrites;
 import com.mysillydreams.treasure.domain.model.Enrollment;
 import com.mysillydreams.treasure.domain.service.EnrollmentService;
+import com.mysillydreams.treasure.domain.service.WaitlistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,7 +18,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,6 +33,8 @@ import java.util.UUID;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final WaitlistService waitlistService;
+    private final ReadYourWrites readYourWrites;
 
     @Operation(
             summary = "Enroll user in treasure hunt plan",
@@ -35,6 +44,9 @@ public class EnrollmentController {
             @ApiResponse(responseCode = "200", description = "Successfully enrolled",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = EnrollmentResponse.class))),
+            @ApiResponse(responseCode = "202", description = "Plan full; user queued on the waitlist",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = WaitlistResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
             @ApiResponse(responseCode = "404", description = "Plan not found"),
             @ApiResponse(responseCode = "500", description = "No slots available")
@@ -44,8 +56,11 @@ public class EnrollmentController {
             @Parameter(description = "Plan ID to enroll in", required = true)
             @PathVariable UUID planId,
             @Parameter(description = "Enrollment request details", required = true)
-            @Validated @RequestBody EnrollRequest req) {
+            @Validated @RequestBody EnrollRequest req,
+            HttpServletResponse response) {
         Enrollment e = enrollmentService.enroll(planId, req.userId(), req.enrollmentType(), req.teamName(), req.teamSize());
+        // the client will immediately re-read the plan and its enrollment; keep those reads off a lagging replica
+        readYourWrites.stick(response);
         return new EnrollmentResponse(
             e.getId(),
             e.getMode(),
@@ -87,4 +102,35 @@ public class EnrollmentController {
     public void cancel(@PathVariable UUID id) {
         enrollmentService.cancel(id);
     }
+
+    @Operation(summary = "List a user's enrollments",
+            description = "Newest first. Pages are keyset based: pass nextCursor back as cursor; no total count is returned")
+    @GetMapping("/users/{userId}/enrollments")
+    @Transactional(readOnly = true)
+    public SliceResponse<EnrollmentHistoryItem> history(@PathVariable UUID userId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        return SliceResponse.of(enrollmentService.history(userId, cursor, size), e -> new EnrollmentHistoryItem(
+                e.getId(),
+                e.getPlan().getId(),
+                e.getPlan().getTitle(),
+                e.getStatus(),
+                e.getPaymentStatus(),
+                e.getRegistrationId(),
+                e.getEnrollmentType(),
+                e.getTeamName(),
+                e.getEnrolledAt()));
+    }
+
+    @GetMapping("/plans/{planId}/waitlist/{userId}")
+    public WaitlistResponse waitlistPosition(@PathVariable UUID planId, @PathVariable UUID userId) {
+        var p = waitlistService.position(planId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("User is not on the waitlist"));
+        return new WaitlistResponse(p.entryId(), planId, p.status(), p.position(), p.holdExpiresAt());
+    }
+
+    @DeleteMapping("/plans/{planId}/waitlist/{userId}")
+    public void leaveWaitlist(@PathVariable UUID planId, @PathVariable UUID userId) {
+        waitlistService.leave(planId, userId);
+    }
 }
@@ -0,0 +1,74 @@
+package com.mysillydreams.treasure.api.rest.controller;
+
+import com.mysillydreams.treasure.api.rest.dto.response.EvidenceResponse;
+import com.mysillydreams.treasure.evidence.ContentAddressedStore;
+import com.mysillydreams.treasure.evidence.EvidenceService;
+import com.mysillydreams.treasure.evidence.ThumbnailGenerator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/treasure/v1")
+@RequiredArgsConstructor
+@Tag(name = "Treasure Hunt - Evidence", description = "Photo evidence for checkpoints")
+public class EvidenceController {
+
+    private static final String EVIDENCE_PATH = "/api/treasure/v1/evidence/";
+
+    private final EvidenceService evidenceService;
+    private final ContentAddressedStore store;
+    private final ThumbnailGenerator thumbnails;
+
+    @Operation(summary = "Upload checkpoint photo",
+            description = "Send the raw image as the request body (not multipart). Uploads over the size limit are rejected with 413")
+    @PostMapping(value = "/enrollments/{enrollmentId}/checkpoints/{checkpointId}/evidence",
+            consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE})
+    public EvidenceResponse upload(@PathVariable UUID enrollmentId,
+                                   @PathVariable UUID checkpointId,
+                                   HttpServletRequest request) throws IOException {
+        var e = evidenceService.upload(enrollmentId, checkpointId, request.getContentType(),
+                request.getContentLengthLong(), request.getInputStream());
+        return new EvidenceResponse(e.key(), EVIDENCE_PATH + e.key(), EVIDENCE_PATH + e.key() + "/thumbnail",
+                e.contentType(), e.sizeBytes());
+    }
+
+    @GetMapping("/evidence/{key}")
+    public ResponseEntity<Resource> get(@PathVariable String key) {
+        return store.find(key)
+                .map(p -> serve(p, MediaType.parseMediaType(ContentAddressedStore.contentType(key))))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/evidence/{key}/thumbnail")
+    public ResponseEntity<Resource> thumbnail(@PathVariable String key) {
+        if (store.find(key).isEmpty()) return ResponseEntity.notFound().build();
+        Path thumbnail = store.thumbnailPath(key);
+        if (!Files.exists(thumbnail)) {
+            thumbnails.generateAsync(key);
+            return ResponseEntity.notFound().build();
+        }
+        return serve(thumbnail, MediaType.IMAGE_JPEG);
+    }
+
+    // content addressed: a key always names the same bytes
+    private static ResponseEntity<Resource> serve(Path path, MediaType type) {
+        return ResponseEntity.ok()
+                .contentType(type)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .body(new FileSystemResource(path));
+    }
+}
@@ -1,9 +1,11 @@
 package com.mysillydreams.treasure.api.rest.controller;
 
 import com.mysillydreams.treasure.api.rest.dto.response.LeaderboardResponse;
+import com.mysillydreams.treasure.api.rest.dto.response.SliceResponse;
 import com.mysillydreams.treasure.api.rest.dto.response.UserStatisticsResponse;
 import com.mysillydreams.treasure.domain.model.*;
 import com.mysillydreams.treasure.domain.service.LeaderboardService;
+import com.mysillydreams.treasure.domain.service.TeamStatisticsService;
 import com.mysillydreams.treasure.domain.service.UserLevelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +32,7 @@ public class LeaderboardController {
     
     private final LeaderboardService leaderboardService;
     private final UserLevelService userLevelService;
+    private final TeamStatisticsService teamStatisticsService;
     
     /**
      * Get overall leaderboard for a difficulty
@@ -85,6 +88,20 @@ public class LeaderboardController {
                 .build();
     }
     
+    /**
+     * Walk a leaderboard by keyset cursor; deep pages cost the same as the first
+     */
+    @GetMapping("/{leaderboardType}/{difficulty}/page")
+    public SliceResponse<LeaderboardResponse.LeaderboardEntry> getLeaderboardPage(
+            @PathVariable LeaderboardType leaderboardType,
+            @PathVariable Difficulty difficulty,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        return SliceResponse.of(leaderboardService.getLeaderboardPage(leaderboardType, difficulty, cursor, size),
+                this::mapToLeaderboardEntry);
+    }
+    
     /**
      * Get team leaderboard
      */
@@ -94,7 +111,7 @@ public class LeaderboardController {
             @RequestParam(defaultValue = "50") int limit) {
         
         List<Leaderboard> entries = leaderboardService.getTeamLeaderboard(LeaderboardType.OVERALL, difficulty, limit);
-        Long totalParticipants = leaderboardService.getTotalParticipants(LeaderboardType.OVERALL, difficulty);
+        Long totalParticipants = leaderboardService.getTotalTeams(difficulty);
         
         return LeaderboardResponse.builder()
                 .leaderboardType(LeaderboardType.OVERALL)
@@ -173,6 +190,16 @@ public class LeaderboardController {
     public void regenerateLeaderboards() {
         leaderboardService.regenerateOverallLeaderboards();
     }
+
+    /**
+     * Recompute team aggregates from member statistics (admin endpoint)
+     *
+     * @return number of team rows corrected
+     */
+    @PostMapping("/teams/rebuild")
+    public int rebuildTeamStatistics() {
+        return teamStatisticsService.rebuild();
+    }
     
     private LeaderboardResponse.LeaderboardEntry mapToLeaderboardEntry(Leaderboard leaderboard) {
         return LeaderboardResponse.LeaderboardEntry.builder()
@@ -1,19 +1,30 @@
 package com.mysillydreams.treasure.api.rest.controller;
 
+import com.mysillydreams.treasure.api.rest.dto.request.BatchAvailabilityRequest;
 import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.api.rest.dto.response.PlanAvailabilityResponse;
 import com.mysillydreams.treasure.api.rest.dto.response.PlanDetailResponse;
 import com.mysillydreams.treasure.api.rest.dto.response.PlanSummaryResponse;
 import com.mysillydreams.treasure.api.rest.mapper.PlanMapper;
 import com.mysillydreams.treasure.domain.model.Plan;
 import com.mysillydreams.treasure.domain.repository.PlanPriceRepository;
+import com.mysillydreams.treasure.domain.service.PlanAvailabilityService;
 import com.mysillydreams.treasure.domain.service.SearchService;
 import com.mysillydreams.treasure.domain.service.PlanService;
+import com.mysillydreams.treasure.domain.service.PricingService;
+import com.mysillydreams.treasure.pricing.PricingPlan;
+import com.mysillydreams.treasure.recommend.SimilarPlanService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -25,32 +36,70 @@ public class PlanQueryController {
     private final PlanService planService;
     private final PlanPriceRepository priceRepo;
     private final PlanMapper planMapper;
+    private final PlanAvailabilityService availabilityService;
+    private final SimilarPlanService similarPlanService;
+    private final PricingService pricingService;
 
+    // read-only transactions around the mapping too, so lazy collections and prices load from the same replica snapshot
     @GetMapping("/plans")
+    @Transactional(readOnly = true)
     public Page<PlanSummaryResponse> search(@Validated SearchRequest req,
                                             @RequestParam(defaultValue = "0") int page,
-                                            @RequestParam(defaultValue = "12") int size) {
+                                            @RequestParam(defaultValue = "12") int size,
+                                            @RequestParam(required = false) String currency) {
         Page<Plan> result = searchService.search(req, PageRequest.of(page, size, Sort.by("startAt").ascending()), /*userAge*/req.age()==null?java.util.Optional.empty():java.util.Optional.of(req.age()));
+        // min prices for the whole page in one query rather than one per plan
+        Map<UUID, BigDecimal> minPrices = new HashMap<>();
+        if (result.hasContent()) {
+            List<UUID> ids = result.getContent().stream().map(Plan::getId).toList();
+            if (currency != null) minPrices.putAll(pricingService.pricesFrom(ids, currency));
+            else priceRepo.findMinBaseAmounts(ids).forEach(mp -> minPrices.put(mp.getPlanId(), mp.getMinAmount()));
+        }
         return result.map(p -> {
-            BigDecimal priceFrom = priceRepo.findMinBaseAmount(p.getId());
+            BigDecimal priceFrom = minPrices.get(p.getId());
             String difficultyRange = p.getDifficulties().isEmpty() ? "N/A" :
                     p.getDifficulties().stream().map(d -> d.getDifficulty().name() + " L" + d.getLevelNumber())
                             .sorted().findFirst().orElse("N/A");
             boolean hasFinite = p.getMaxParticipants()!=null;
             int availableView = p.getSlots().isEmpty() ? 0 : p.getSlots().get(0).getAvailableView();
-            return planMapper.toSummary(p, difficultyRange, priceFrom, hasFinite, availableView);
+            return planMapper.toSummary(p, difficultyRange, priceFrom, hasFinite, availableView,
+                    currency == null ? null : currency.toUpperCase(Locale.ROOT));
         });
     }
 
     @GetMapping("/plans/{planId}")
-    public PlanDetailResponse get(@PathVariable UUID planId) {
+    @Transactional(readOnly = true)
+    public PlanDetailResponse get(@PathVariable UUID planId, @RequestParam(required = false) String currency) {
         Plan p = planService.getPlanDetail(planId);
-        BigDecimal priceFrom = priceRepo.findMinBaseAmount(planId);
         var slot = p.getSlots().isEmpty() ? null : p.getSlots().get(0);
-        var pricingPreview = new PlanDetailResponse.PricingPreview(
-                priceFrom, java.util.Collections.emptyList(), priceFrom);
+        BigDecimal priceFrom;
+        PlanDetailResponse.PricingPreview pricingPreview;
+        if (currency != null) {
+            PricingPlan converted = pricingService.previewIn(planId, currency);
+            priceFrom = converted.base();
+            pricingPreview = new PlanDetailResponse.PricingPreview(converted.base(),
+                    converted.components().stream()
+                            .map(c -> new PlanDetailResponse.PricingComponent(c.type(), c.calc(), c.value(), c.enforced()))
+                            .toList(),
+                    converted.total(), converted.currency());
+        } else {
+            priceFrom = priceRepo.findMinBaseAmount(planId);
+            pricingPreview = new PlanDetailResponse.PricingPreview(
+                    priceFrom, java.util.Collections.emptyList(), priceFrom, null);
+        }
+        var similarPlans = similarPlanService.similarTo(planId).stream()
+                .map(s -> new PlanDetailResponse.SimilarPlanResponse(s.planId(), s.title(), s.city(), s.score()))
+                .toList();
         return planMapper.toDetail(
-                p, priceFrom, pricingPreview
+                p, priceFrom, pricingPreview, similarPlans
         );
     }
+
+    // one round trip for a whole list page instead of a detail call per card
+    @PostMapping("/plans/availability:batch")
+    public List<PlanAvailabilityResponse> availability(@Validated @RequestBody BatchAvailabilityRequest req) {
+        return availabilityService.getAll(req.planIds()).stream()
+                .map(a -> new PlanAvailabilityResponse(a.planId(), a.status(), a.seatsAvailable(), a.availableView(), a.priceFrom()))
+                .toList();
+    }
 }
@@ -0,0 +1,57 @@
+package com.mysillydreams.treasure.api.rest.controller;
+
+import com.mysillydreams.treasure.api.rest.dto.request.PingBatchRequest;
+import com.mysillydreams.treasure.api.rest.dto.response.LivePositionResponse;
+import com.mysillydreams.treasure.api.rest.dto.response.PingBatchResponse;
+import com.mysillydreams.treasure.tracking.HuntPositions;
+import com.mysillydreams.treasure.tracking.LiveTrackingService;
+import com.mysillydreams.treasure.tracking.LocationPing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/treasure/v1")
+@RequiredArgsConstructor
+@Tag(name = "Treasure Hunt - Live tracking", description = "Participant location ingest and live hunt maps")
+public class TrackingController {
+
+    private final LiveTrackingService trackingService;
+
+    @Operation(summary = "Report participant locations",
+            description = "Batch of pings for one hunt, e.g. flushed by a device after a connectivity gap. Invalid pings are counted, not failed")
+    @PostMapping("/plans/{planId}/pings")
+    public PingBatchResponse ingest(@PathVariable UUID planId, @Validated @RequestBody PingBatchRequest req) {
+        var result = trackingService.ingest(planId, req.pings().stream()
+                .map(p -> new LocationPing(p.enrollmentId(), p.latitude(), p.longitude(), p.accuracyMeters(), p.recordedAt()))
+                .toList());
+        return new PingBatchResponse(result.accepted(), result.rejected());
+    }
+
+    @Operation(summary = "Latest participant positions",
+            description = "Optionally limited to a bounding box; pass all four corners or none")
+    @GetMapping("/plans/{planId}/live-positions")
+    public List<LivePositionResponse> positions(@PathVariable UUID planId,
+                                                @RequestParam(required = false) Double minLat,
+                                                @RequestParam(required = false) Double minLon,
+                                                @RequestParam(required = false) Double maxLat,
+                                                @RequestParam(required = false) Double maxLon) {
+        List<HuntPositions.Position> positions;
+        if (minLat == null && minLon == null && maxLat == null && maxLon == null) {
+            positions = trackingService.positions(planId);
+        } else if (minLat == null || minLon == null || maxLat == null || maxLon == null) {
+            throw new IllegalArgumentException("Bounding box needs minLat, minLon, maxLat and maxLon");
+        } else {
+            positions = trackingService.positions(planId, minLat, minLon, maxLat, maxLon);
+        }
+        return positions.stream()
+                .map(p -> new LivePositionResponse(p.enrollmentId(), p.latitude(), p.longitude(), p.accuracyMeters(),
+                        p.recordedAt(), p.atCheckpointId()))
+                .toList();
+    }
+}
@@ -0,0 +1,12 @@
+package com.mysillydreams.treasure.api.rest.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchAvailabilityRequest(
+    @NotEmpty @Size(max = 500, message = "At most 500 plan ids per batch")
+    List<UUID> planIds
+) {}
@@ -0,0 +1,23 @@
+package com.mysillydreams.treasure.api.rest.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record PingBatchRequest(
+    @NotEmpty @Size(max = 1000, message = "At most 1000 pings per batch")
+    List<@Valid Ping> pings
+) {
+    public record Ping(
+        @NotNull UUID enrollmentId,
+        double latitude,
+        double longitude,
+        Float accuracyMeters,
+        @NotNull Instant recordedAt
+    ) {}
+}
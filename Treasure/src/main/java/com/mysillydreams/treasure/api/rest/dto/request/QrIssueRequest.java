@@ -0,0 +1,10 @@
+package com.mysillydreams.treasure.api.rest.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+public record QrIssueRequest(
+    @NotNull Instant validFrom,
+    @NotNull Instant validUntil
+) {}
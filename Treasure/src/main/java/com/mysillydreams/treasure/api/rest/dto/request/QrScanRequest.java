@@ -0,0 +1,8 @@
+package com.mysillydreams.treasure.api.rest.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record QrScanRequest(
+    @NotBlank @Size(max = 512) String token
+) {}
@@ -0,0 +1,9 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import java.util.UUID;
+
+public record CheckpointCompletionResponse(
+        UUID checkpointId,
+        String checkpointName,
+        String status
+) {}
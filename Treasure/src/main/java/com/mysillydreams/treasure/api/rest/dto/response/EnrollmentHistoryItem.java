@@ -0,0 +1,20 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import com.mysillydreams.treasure.domain.model.EnrollmentStatus;
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import com.mysillydreams.treasure.domain.model.PaymentStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record EnrollmentHistoryItem(
+        UUID id,
+        UUID planId,
+        String planTitle,
+        EnrollmentStatus status,
+        PaymentStatus paymentStatus,
+        String registrationId,
+        EnrollmentType enrollmentType,
+        String teamName,
+        OffsetDateTime enrolledAt
+) {}
@@ -0,0 +1,9 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+public record EvidenceResponse(
+        String key,           // sha256 of the content plus extension; identical uploads share a key
+        String url,
+        String thumbnailUrl,  // may 404 briefly while the thumbnail is generated
+        String contentType,
+        long sizeBytes
+) {}
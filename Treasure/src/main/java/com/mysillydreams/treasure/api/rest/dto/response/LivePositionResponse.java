@@ -0,0 +1,13 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record LivePositionResponse(
+        UUID enrollmentId,
+        double latitude,
+        double longitude,
+        Float accuracyMeters,
+        Instant recordedAt,
+        UUID atCheckpointId   // checkpoint whose radius contains the position, if any
+) {}
@@ -0,0 +1,6 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+public record PingBatchResponse(
+        int accepted,
+        int rejected   // unknown enrollment, invalid coordinates, future or out-of-order pings
+) {}
@@ -0,0 +1,14 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import com.mysillydreams.treasure.domain.model.AvailabilityStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record PlanAvailabilityResponse(
+        UUID planId,
+        AvailabilityStatus status,
+        Integer seatsAvailable, // null for open plans
+        int availableView,
+        BigDecimal priceFrom
+) {}
@@ -12,11 +12,14 @@ public record PlanDetailResponse(
         String city, String country, boolean isVirtual,
         TimeWindowType timeWindowType, OffsetDateTime startAt, OffsetDateTime endAt,
         List<RuleResponse> rules, List<TaskResponse> tasks,
-        SlotResponse slot, PricingPreview pricingPreview
+        SlotResponse slot, PricingPreview pricingPreview,
+        List<SimilarPlanResponse> similarPlans
 ) {
     public record RuleResponse(String text, int order) {}
     public record TaskResponse(UUID id, String title, String details, boolean crucial) {}
     public record SlotResponse(Integer capacity, int reserved, int availableView) {}
-    public record PricingPreview(BigDecimal base, List<PricingComponent> components, BigDecimal total) {}
+    public record PricingPreview(BigDecimal base, List<PricingComponent> components, BigDecimal total,
+                                 String currency /* null when not requested: the plan's own lowest price */) {}
     public record PricingComponent(String type, String calc, BigDecimal value, boolean enforced) {}
+    public record SimilarPlanResponse(UUID id, String title, String city, double score) {}
 }
@@ -0,0 +1,9 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PlanImportResponse(
+        int imported,
+        List<UUID> planIds   // in input order
+) {}
@@ -11,5 +11,6 @@ public record PlanSummaryResponse(
         String city, boolean isVirtual, TimeWindowType timeWindowType,
         OffsetDateTime startAt, OffsetDateTime endAt,
         String difficultyRange, BigDecimal priceFrom,
-        boolean hasFiniteSlots, int availableView
+        boolean hasFiniteSlots, int availableView,
+        String currency   // of priceFrom when requested; null means the plan's own lowest price
 ) {}
@@ -0,0 +1,11 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record QrCodeResponse(
+        UUID checkpointId,
+        String token,   // encode as-is in the QR image
+        Instant validFrom,
+        Instant validUntil
+) {}
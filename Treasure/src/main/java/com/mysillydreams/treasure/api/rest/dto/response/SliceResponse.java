@@ -0,0 +1,16 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import com.mysillydreams.treasure.pagination.KeysetSlice;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record SliceResponse<T>(
+        List<T> items,
+        String nextCursor, // pass back as ?cursor= for the next page; null on the last page
+        boolean hasNext
+) {
+    public static <S, T> SliceResponse<T> of(KeysetSlice<S> slice, Function<S, T> mapper) {
+        return new SliceResponse<>(slice.content().stream().map(mapper).toList(), slice.nextCursor(), slice.hasNext());
+    }
+}
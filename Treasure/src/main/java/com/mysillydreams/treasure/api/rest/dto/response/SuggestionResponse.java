@@ -0,0 +1,11 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import com.mysillydreams.treasure.search.AutocompleteIndex;
+
+import java.util.UUID;
+
+public record SuggestionResponse(
+        String text,
+        AutocompleteIndex.Kind type,
+        UUID id // plan or subcategory id; null for cities
+) {}
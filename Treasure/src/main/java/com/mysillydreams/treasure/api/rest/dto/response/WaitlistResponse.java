@@ -0,0 +1,14 @@
+package com.mysillydreams.treasure.api.rest.dto.response;
+
+import com.mysillydreams.treasure.domain.model.WaitlistStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record WaitlistResponse(
+        UUID waitlistId,
+        UUID planId,
+        WaitlistStatus status,
+        long position,              // 1-based while WAITING, 0 once offered
+        OffsetDateTime holdExpiresAt // set while OFFERED: enroll again before this to claim
+) {}
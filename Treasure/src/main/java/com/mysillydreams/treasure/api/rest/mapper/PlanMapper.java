@@ -6,9 +6,12 @@ import com.mysillydreams.treasure.domain.model.Plan;
 import org.mapstruct.Mapper;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Mapper(componentModel = "spring", uses = { /* sub-mappers */ })
 public interface PlanMapper {
-    PlanDetailResponse toDetail(Plan e, BigDecimal priceFrom, PlanDetailResponse.PricingPreview pricing);
-    PlanSummaryResponse toSummary(Plan e, String difficultyRange, BigDecimal priceFrom, boolean hasFiniteSlots, int availableView);
+    PlanDetailResponse toDetail(Plan e, BigDecimal priceFrom, PlanDetailResponse.PricingPreview pricing,
+                                List<PlanDetailResponse.SimilarPlanResponse> similarPlans);
+    PlanSummaryResponse toSummary(Plan e, String difficultyRange, BigDecimal priceFrom, boolean hasFiniteSlots, int availableView,
+                                  String currency);
 }
@@ -6,6 +6,8 @@ public final class CacheNames {
     public static final String PLAN_DETAIL  = "plans:detail";
     public static final String PLAN_SEARCH  = "plans:search";
     public static final String FILTERS_DICT = "filters:dictionary";
+    public static final String PLAN_SIMILAR = "plans:similar";
+    public static final String PLAN_PRICE   = "plans:price";
     private CacheNames() {}
 }
 
@@ -0,0 +1,53 @@
+package com.mysillydreams.treasure.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs each task on its own virtual thread, with at most {@code maxConcurrent}
+ * tasks in flight. Excess submissions are rejected immediately rather than
+ * queued, so callers can shed load (e.g. gRPC RESOURCE_EXHAUSTED).
+ */
+public class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private final Semaphore permits;
+    private final ExecutorService delegate;
+    private final int maxConcurrent;
+
+    public BoundedVirtualThreadExecutor(String namePrefix, int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("All " + maxConcurrent + " slots busy");
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -41,6 +41,9 @@ public class CacheConfig {
         configs.put(CacheNames.PLAN_DETAIL,  defaultConfig.entryTtl(Duration.ofHours(6)));
         configs.put(CacheNames.PLAN_SEARCH,  defaultConfig.entryTtl(Duration.ofHours(1)));
         configs.put(CacheNames.FILTERS_DICT, defaultConfig.entryTtl(Duration.ofHours(24)));
+        configs.put(CacheNames.PLAN_SIMILAR, defaultConfig.entryTtl(Duration.ofHours(24)));
+        // converted previews; also cleared whenever FX rates change
+        configs.put(CacheNames.PLAN_PRICE,   defaultConfig.entryTtl(Duration.ofMinutes(30)));
 
         return RedisCacheManager.builder(cf)
                 .cacheDefaults(defaultConfig)
@@ -0,0 +1,32 @@
+package com.mysillydreams.treasure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutorConfig {
+
+    public static final String CATALOG_STREAM_EXECUTOR = "catalogStreamExecutor";
+    public static final String EVIDENCE_THUMBNAIL_EXECUTOR = "evidenceThumbnailExecutor";
+
+    /**
+     * Producers for server-streaming catalog RPCs. Each stream holds a DB connection
+     * for its lifetime, so the bound also caps pool usage by slow consumers.
+     */
+    @Bean(name = CATALOG_STREAM_EXECUTOR, destroyMethod = "close")
+    public BoundedVirtualThreadExecutor catalogStreamExecutor(
+            @Value("${treasure.grpc.catalog-stream.max-concurrent:8}") int maxConcurrent) {
+        return new BoundedVirtualThreadExecutor("catalog-stream-", maxConcurrent);
+    }
+
+    /**
+     * Thumbnail generation for uploaded evidence. Decoding a photo takes tens of MB of
+     * heap, so only a few run at once; the rest are generated when first requested.
+     */
+    @Bean(name = EVIDENCE_THUMBNAIL_EXECUTOR, destroyMethod = "close")
+    public BoundedVirtualThreadExecutor evidenceThumbnailExecutor(
+            @Value("${treasure.evidence.thumbnail.max-concurrent:2}") int maxConcurrent) {
+        return new BoundedVirtualThreadExecutor("evidence-thumbnail-", maxConcurrent);
+    }
+}
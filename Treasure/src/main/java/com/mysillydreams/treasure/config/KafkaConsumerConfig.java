@@ -0,0 +1,54 @@
+package com.mysillydreams.treasure.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String BATCH_FACTORY = "batchKafkaListenerContainerFactory";
+
+    /** Suffix of the dead-letter topic that undecodable or poison records are moved to */
+    public static final String DLT_SUFFIX = ".DLT";
+
+    /**
+     * Delegate setting for listeners that wrap {@code TreasureEventDeserializer} in an
+     * {@code ErrorHandlingDeserializer}, so decode failures reach the error handler
+     */
+    public static final String TREASURE_EVENT_DESERIALIZER =
+            "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer";
+    public static final String TREASURE_EVENT_DELEGATE =
+            "spring.deserializer.value.delegate.class=com.mysillydreams.treasure.messaging.codec.TreasureEventDeserializer";
+
+    /**
+     * Same settings as the Boot default factory, but delivers each poll as one List.
+     * A record the listener reports as failed (or the whole batch, for other errors) is
+     * retried with backoff for about half a minute, then published to {@code <topic>.DLT}
+     * with its original bytes. Undecodable records skip the retries.
+     */
+    @Bean(BATCH_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaTemplate<Object, Object> kafkaTemplate) {
+        var factory = new ConcurrentKafkaListenerContainerFactory<Object, Object>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        // partition -1 lets the producer choose, so the DLT may have fewer partitions than the source
+        var recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+        var backOff = new ExponentialBackOffWithMaxRetries(5);
+        backOff.setInitialInterval(1000L);
+        backOff.setMaxInterval(10_000L);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+        return factory;
+    }
+}
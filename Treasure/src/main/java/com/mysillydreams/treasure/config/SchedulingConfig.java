@@ -0,0 +1,15 @@
+package com.mysillydreams.treasure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Executors for {@code @Scheduled} and {@code @Async} come from Boot auto-configuration,
+ * so both switch to virtual threads with {@code spring.threads.virtual.enabled}.
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class SchedulingConfig {
+}
@@ -0,0 +1,32 @@
+package com.mysillydreams.treasure.config;
+
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tomcat, Kafka listeners, {@code @Async} and {@code @Scheduled} pick up virtual threads
+ * from Boot itself; the gRPC server is not covered by Boot and is wired here.
+ * Concurrency into the database is then bounded by the Hikari pool, not by thread count.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    public static final String GRPC_SERVER_EXECUTOR = "grpcServerExecutor";
+
+    @Bean(name = GRPC_SERVER_EXECUTOR, destroyMethod = "close")
+    public ExecutorService grpcServerExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-vt-", 0).factory());
+    }
+
+    @Bean
+    public GrpcServerConfigurer virtualThreadGrpcServerConfigurer(ExecutorService grpcServerExecutor) {
+        return serverBuilder -> serverBuilder.executor(grpcServerExecutor);
+    }
+}
@@ -0,0 +1,28 @@
+package com.mysillydreams.treasure.datasource;
+
+/**
+ * Per-thread override that keeps read-only transactions on the primary, e.g. for a
+ * client that has just written and must see its own write.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    /** Pin the current thread to the primary; returns the previous state for {@link #restore} */
+    public static boolean pinPrimary() {
+        boolean previous = isPrimaryPinned();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        if (previous) PRIMARY_PINNED.set(Boolean.TRUE);
+        else PRIMARY_PINNED.remove();
+    }
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    private ReadRouting() {}
+}
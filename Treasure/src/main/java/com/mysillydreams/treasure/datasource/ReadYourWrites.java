@@ -0,0 +1,57 @@
+package com.mysillydreams.treasure.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Read-your-writes window carried by the client: after a write the response gets a
+ * short-lived cookie, and requests presenting it read from the primary until it expires.
+ * Stateless on the server, so it works across instances behind the gateway.
+ */
+@Component
+public class ReadYourWrites {
+
+    static final String COOKIE = "treasure_rw_until";
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWrites(@Value("${treasure.datasource.replica.sticky-window:PT10S}") Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWrites(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /** Mark the response so this client's next reads within the window hit the primary */
+    public void stick(HttpServletResponse response) {
+        long until = clock.millis() + window.toMillis();
+        Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+        response.addCookie(cookie);
+    }
+
+    public boolean isSticky(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return false;
+        for (Cookie c : cookies) {
+            if (!COOKIE.equals(c.getName())) continue;
+            try {
+                return Long.parseLong(c.getValue()) > clock.millis();
+            } catch (NumberFormatException ex) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mysillydreams.treasure.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Pins reads to the primary for write requests (so a read after the write in the same
+ * request sees it) and for clients inside their {@link ReadYourWrites} window.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean safe = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (safe && !readYourWrites.isSticky(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReadRouting.pinPrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mysillydreams.treasure.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls the replica for replay lag. The replica is considered usable only while the
+ * last probe succeeded and lag is within {@code maxLag}; until the first probe it is not.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Seconds behind the primary. A replica that has replayed everything it received
+     * reports 0, so an idle primary (old last-replay timestamp) is not mistaken for lag.
+     */
+    static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final JdbcTemplate replica;
+    private final double maxLagSeconds;
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry registry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(1);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Gauge.builder("treasure.datasource.replica.lag", this, m -> m.lagSeconds)
+                .baseUnit("seconds").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${treasure.datasource.replica.lag-check-interval:PT2S}")
+    public void probe() {
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            update(lag == null ? Double.NaN : lag);
+        } catch (DataAccessException ex) {
+            if (usable) log.warn("Replica probe failed, routing reads to primary: {}", ex.getMessage());
+            lagSeconds = Double.NaN;
+            usable = false;
+        }
+    }
+
+    void update(double lag) {
+        boolean ok = !Double.isNaN(lag) && lag <= maxLagSeconds;
+        if (ok != usable) {
+            log.info("Replica {} (lag {}s, max {}s)", ok ? "back in rotation" : "lagging, routing reads to primary",
+                    String.format("%.1f", lag), maxLagSeconds);
+        }
+        lagSeconds = lag;
+        usable = ok;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+}
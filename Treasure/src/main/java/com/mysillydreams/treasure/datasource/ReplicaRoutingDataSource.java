@@ -0,0 +1,61 @@
+package com.mysillydreams.treasure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to
+ * the primary. Reads fall back to the primary while the replica lags or is down, and
+ * while the current thread is pinned by {@link ReadRouting}.
+ *
+ * The routing decision needs the transaction's read-only flag, which is only set after
+ * the transaction manager asks for a connection, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter toReplica;
+    private final Counter stickyToPrimary;
+    private final Counter lagToPrimary;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry registry) {
+        this.lagMonitor = lagMonitor;
+        this.toReplica = readCounter(registry, "replica", "read_only");
+        this.stickyToPrimary = readCounter(registry, "primary", "read_your_writes");
+        this.lagToPrimary = readCounter(registry, "primary", "replica_unavailable");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return Route.PRIMARY;
+        if (ReadRouting.isPrimaryPinned()) {
+            stickyToPrimary.increment();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            lagToPrimary.increment();
+            return Route.PRIMARY;
+        }
+        toReplica.increment();
+        return Route.REPLICA;
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("treasure.datasource.reads")
+                .tag("target", target).tag("reason", reason)
+                .register(registry);
+    }
+}
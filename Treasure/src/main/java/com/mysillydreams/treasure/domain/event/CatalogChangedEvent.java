@@ -0,0 +1,7 @@
+package com.mysillydreams.treasure.domain.event;
+
+/**
+ * Published (in-process) when categories, subcategories or their allowed age bands
+ * change, so read models derived from them can rebuild after the transaction commits.
+ */
+public record CatalogChangedEvent(String change) {}
@@ -0,0 +1,9 @@
+package com.mysillydreams.treasure.domain.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published (in-process) when a live position first enters a checkpoint's validation radius.
+ */
+public record CheckpointReachedEvent(UUID planId, UUID enrollmentId, UUID checkpointId, Instant reachedAt) {}
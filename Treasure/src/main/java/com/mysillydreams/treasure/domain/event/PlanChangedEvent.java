@@ -0,0 +1,9 @@
+package com.mysillydreams.treasure.domain.event;
+
+import java.util.UUID;
+
+/**
+ * Published (in-process) whenever a plan is created or updated, so in-memory
+ * read models can refresh the affected plan after the transaction commits.
+ */
+public record PlanChangedEvent(UUID planId, String change) {}
@@ -0,0 +1,10 @@
+package com.mysillydreams.treasure.domain.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published (in-process) once per bulk import instead of one {@link PlanChangedEvent}
+ * per plan, so read models rebuild once after the import commits.
+ */
+public record PlansImportedEvent(List<UUID> planIds) {}
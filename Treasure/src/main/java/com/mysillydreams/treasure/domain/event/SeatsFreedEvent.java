@@ -0,0 +1,9 @@
+package com.mysillydreams.treasure.domain.event;
+
+import java.util.UUID;
+
+/**
+ * Published (in-process) when finite seats of a plan may have become available:
+ * a cancellation, a refunded payment, an expired waitlist hold or a capacity increase.
+ */
+public record SeatsFreedEvent(UUID planId, String reason) {}
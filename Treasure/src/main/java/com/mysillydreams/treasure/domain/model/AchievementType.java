@@ -0,0 +1,22 @@
+package com.mysillydreams.treasure.domain.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import jakarta.persistence.*;
+import lombok.*;
+
+// AchievementType.java
+@Entity @Table(name="achievement_type")
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class AchievementType {
+    @Id @GeneratedValue private UUID id;
+    @Column(nullable=false, unique=true) private String name;
+    @Column(nullable=false, columnDefinition="text") private String description;
+    @Column(nullable=false) private String category; // COMPLETION, SPEED, STREAK, SOCIAL, SPECIAL
+    @Column(columnDefinition="text") private String iconUrl;
+    private String badgeColor;
+    @Column(nullable=false) private int pointsAwarded;
+    @Column(nullable=false) private boolean isActive;
+    @Column(nullable=false) @Builder.Default private OffsetDateTime createdAt = OffsetDateTime.now();
+    @Column(nullable=false) @Builder.Default private OffsetDateTime updatedAt = OffsetDateTime.now();
+}
@@ -0,0 +1,12 @@
+package com.mysillydreams.treasure.domain.model;
+
+/**
+ * Enrollability of a plan as shown on list pages
+ */
+public enum AvailabilityStatus {
+    OPEN,       // uncapped; scarcity is cosmetic
+    AVAILABLE,  // finite with seats left
+    FULL,       // finite, no seats; new enrollments join the waitlist
+    ENDED,      // end time has passed
+    NOT_FOUND
+}
@@ -0,0 +1,43 @@
+package com.mysillydreams.treasure.domain.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import jakarta.persistence.*;
+import lombok.*;
+
+// Checkpoint.java
+@Entity @Table(name="checkpoints")
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class Checkpoint {
+    @Id @GeneratedValue private UUID id;
+
+    @ManyToOne(optional=false, fetch=FetchType.LAZY) @JoinColumn(name="plan_id")
+    private Plan plan;
+
+    @ManyToOne(fetch=FetchType.LAZY) @JoinColumn(name="task_id")
+    private Task task; // optional: checkpoint gating a specific task
+
+    @Column(nullable=false) private String name;
+    @Column(columnDefinition="text") private String description;
+    @Column(nullable=false) private int checkpointOrder;
+
+    // PostGIS point kept raw like Plan.geoPoint; coordinates are read via CheckpointRepository projections
+    @Column(name="geo_point", columnDefinition="geography(Point,4326)", nullable=false)
+    private byte[] geoPoint;
+    @Column(columnDefinition="text") private String addressText;
+    @Column(columnDefinition="text") private String landmarkDescription;
+
+    @Column(nullable=false) private boolean requiresPhoto;
+    @Column(nullable=false) private boolean requiresQrScan;
+    @Column(columnDefinition="text") private String qrCodeData;
+    @Column(nullable=false) private int validationRadiusMeters;
+
+    private Integer estimatedDurationMinutes;
+    @Column(nullable=false) private boolean isMandatory;
+    @Column(nullable=false) private boolean isActive;
+
+    @Column(nullable=false) @Builder.Default private OffsetDateTime createdAt = OffsetDateTime.now();
+    @Column(nullable=false) @Builder.Default private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    @PreUpdate void touch() { this.updatedAt = OffsetDateTime.now(); }
+}
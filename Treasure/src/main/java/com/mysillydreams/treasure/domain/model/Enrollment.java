@@ -28,7 +28,7 @@ public class Enrollment {
     @Column(name = "team_size")
     private Integer teamSize; // Number of team members
     private UUID approvalBy;
-    @Column(nullable=false)
+    @Column(nullable=false, updatable=false) // partition key
     @Builder.Default
     private OffsetDateTime enrolledAt = OffsetDateTime.now();
 }
@@ -33,6 +33,9 @@ public class Plan {
 
     @Column(name="max_participants") private Integer maxParticipants; // null => open
 
+    // the currency enrollments are charged in; other currencies are display conversions
+    @Column(name="native_currency", nullable=false) private String nativeCurrency;
+
     // PostGIS point is mapped via column + converter or custom type; keep raw here:
     @Column(name="geo_point", columnDefinition="geography(Point,4326)")
     private byte[] geoPoint; // or use a helper type like org.locationtech.jts.geom.Point
@@ -7,7 +7,7 @@ import lombok.*;
 
 // TaskProgress.java
 @Entity @Table(name="task_progress",
-        uniqueConstraints = @UniqueConstraint(columnNames={"enrollment_id","task_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames={"enrollment_id","task_id","enrolled_at"}))
 @Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
 public class TaskProgress {
     @Id @GeneratedValue private UUID id;
@@ -18,7 +18,10 @@ public class TaskProgress {
     @Enumerated(EnumType.STRING) @Column(nullable=false)
     private TaskStatus status;
     @Column(nullable=false) private OffsetDateTime updatedAt = OffsetDateTime.now();
+    // partition key, copied from the enrollment so progress lives in its enrollment's month
+    @Column(nullable=false, updatable=false) private OffsetDateTime enrolledAt;
 
+    @PrePersist void partitionKey(){ if (enrolledAt == null) enrolledAt = enrollment.getEnrolledAt(); }
     @PreUpdate void touch(){ this.updatedAt = OffsetDateTime.now(); }
 }
 
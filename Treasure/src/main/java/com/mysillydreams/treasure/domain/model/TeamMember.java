@@ -0,0 +1,17 @@
+package com.mysillydreams.treasure.domain.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import jakarta.persistence.*;
+import lombok.*;
+
+// TeamMember.java
+@Entity @Table(name="team_member")
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class TeamMember {
+    @Id private UUID userId;
+    @Column(nullable=false) private String teamName;
+    @Column(nullable=false)
+    @Builder.Default
+    private OffsetDateTime joinedAt = OffsetDateTime.now();
+}
@@ -0,0 +1,44 @@
+package com.mysillydreams.treasure.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Per-team aggregate of member statistics, maintained by deltas
+ */
+@Entity
+@Table(name = "team_statistics",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"team_name", "difficulty"}))
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class TeamStatistics {
+
+    @Id @GeneratedValue
+    private UUID id;
+
+    @Column(name = "team_name", nullable = false)
+    private String teamName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Difficulty difficulty;
+
+    @Column(name = "total_score", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal totalScore = BigDecimal.ZERO;
+
+    @Column(name = "plans_completed", nullable = false)
+    @Builder.Default
+    private Integer plansCompleted = 0;
+
+    @Column(name = "tasks_completed", nullable = false)
+    @Builder.Default
+    private Integer tasksCompleted = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+}
@@ -0,0 +1,33 @@
+package com.mysillydreams.treasure.domain.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import jakarta.persistence.*;
+import lombok.*;
+
+// WaitlistEntry.java
+@Entity @Table(name="plan_waitlist")
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class WaitlistEntry {
+    @Id @GeneratedValue private UUID id;
+    @Column(name="plan_id", nullable=false) private UUID planId;
+    @Column(nullable=false) private UUID userId;
+    @Enumerated(EnumType.STRING) @Column(nullable=false, length=20)
+    private EnrollmentType enrollmentType;
+    private String teamName;
+    private Integer teamSize;
+    @Column(nullable=false) private int seats;
+    @Enumerated(EnumType.STRING) @Column(nullable=false, length=20)
+    @Builder.Default
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+    @Column(nullable=false)
+    @Builder.Default
+    private OffsetDateTime queuedAt = OffsetDateTime.now();
+    private OffsetDateTime offeredAt;
+    private OffsetDateTime holdExpiresAt;
+    private UUID enrollmentId;
+
+    public boolean isHoldValid(OffsetDateTime now) {
+        return status == WaitlistStatus.OFFERED && holdExpiresAt != null && holdExpiresAt.isAfter(now);
+    }
+}
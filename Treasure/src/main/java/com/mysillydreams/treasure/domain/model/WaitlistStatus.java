@@ -0,0 +1,12 @@
+package com.mysillydreams.treasure.domain.model;
+
+/**
+ * Lifecycle of a plan waitlist entry
+ */
+public enum WaitlistStatus {
+    WAITING,    // queued for a seat
+    OFFERED,    // seat reserved for this user until the hold expires
+    CLAIMED,    // offer turned into an enrollment
+    EXPIRED,    // hold lapsed; seat passed on
+    CANCELLED   // user left the waitlist
+}
@@ -0,0 +1,11 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.AchievementType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AchievementTypeRepository extends JpaRepository<AchievementType, UUID> {
+    List<AchievementType> findByIsActiveTrue();
+}
@@ -0,0 +1,63 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.Checkpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CheckpointRepository extends JpaRepository<Checkpoint, UUID> {
+
+    /**
+     * Flat coordinate view of a checkpoint; lat/lon are extracted from the geography column in SQL
+     */
+    interface CheckpointGeo {
+        UUID getId();
+        UUID getPlanId();
+        UUID getTaskId();
+        String getName();
+        Integer getCheckpointOrder();
+        Double getLatitude();
+        Double getLongitude();
+        Integer getValidationRadiusMeters();
+        Boolean getRequiresPhoto();
+        Boolean getRequiresQrScan();
+        Boolean getMandatory();
+    }
+
+    /**
+     * Active checkpoints of every plan that has not ended yet
+     */
+    @Query(value = """
+     select c.id as "id", c.plan_id as "planId", c.task_id as "taskId", c.name as "name",
+            c.checkpoint_order as "checkpointOrder",
+            ST_Y(c.geo_point::geometry) as "latitude", ST_X(c.geo_point::geometry) as "longitude",
+            c.validation_radius_meters as "validationRadiusMeters",
+            c.requires_photo as "requiresPhoto", c.requires_qr_scan as "requiresQrScan",
+            c.is_mandatory as "mandatory"
+       from checkpoints c
+       join plan p on p.id = c.plan_id
+      where c.is_active = true
+        and (p.end_at is null or p.end_at > now())
+      order by c.plan_id, c.checkpoint_order
+  """, nativeQuery = true)
+    List<CheckpointGeo> findActiveGeoForOpenPlans();
+
+    /**
+     * Active checkpoints of a single plan
+     */
+    @Query(value = """
+     select c.id as "id", c.plan_id as "planId", c.task_id as "taskId", c.name as "name",
+            c.checkpoint_order as "checkpointOrder",
+            ST_Y(c.geo_point::geometry) as "latitude", ST_X(c.geo_point::geometry) as "longitude",
+            c.validation_radius_meters as "validationRadiusMeters",
+            c.requires_photo as "requiresPhoto", c.requires_qr_scan as "requiresQrScan",
+            c.is_mandatory as "mandatory"
+       from checkpoints c
+      where c.plan_id = :planId and c.is_active = true
+      order by c.checkpoint_order
+  """, nativeQuery = true)
+    List<CheckpointGeo> findActiveGeoByPlanId(@Param("planId") UUID planId);
+}
@@ -0,0 +1,21 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.PaymentStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based enrollment updates that bypass per-entity load/save
+ */
+public interface EnrollmentBulkRepository {
+
+    record ChangedEnrollment(UUID enrollmentId, UUID planId) {}
+
+    /**
+     * Apply payment statuses in bulk; rows already holding the target status are skipped.
+     * Returns only the enrollments that actually changed.
+     */
+    List<ChangedEnrollment> updatePaymentStatuses(Map<UUID, PaymentStatus> statuses);
+}
@@ -0,0 +1,47 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+// Spring Data fragment implementation for EnrollmentBulkRepository
+@RequiredArgsConstructor
+public class EnrollmentBulkRepositoryImpl implements EnrollmentBulkRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    @Transactional
+    public List<ChangedEnrollment> updatePaymentStatuses(Map<UUID, PaymentStatus> statuses) {
+        if (statuses.isEmpty()) return List.of();
+        List<Map.Entry<UUID, PaymentStatus>> rows = new ArrayList<>(statuses.entrySet());
+        List<ChangedEnrollment> changed = new ArrayList<>();
+
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<UUID, PaymentStatus>> chunk = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+            StringJoiner values = new StringJoiner(", ");
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                values.add("(?::uuid, ?)");
+                args[i * 2] = chunk.get(i).getKey();
+                args[i * 2 + 1] = chunk.get(i).getValue().name();
+            }
+            String sql = """
+                UPDATE enrollment e
+                   SET payment_status = v.status::payment_status
+                  FROM (VALUES %s) AS v(id, status)
+                 WHERE e.id = v.id
+                   AND e.payment_status IS DISTINCT FROM v.status::payment_status
+                RETURNING e.id, e.plan_id
+                """.formatted(values);
+            changed.addAll(jdbc.query(sql,
+                    (rs, n) -> new ChangedEnrollment(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)), args));
+        }
+        return changed;
+    }
+}
@@ -3,13 +3,36 @@ package com.mysillydreams.treasure.domain.repository;
 import com.mysillydreams.treasure.domain.model.Enrollment;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID>, EnrollmentBulkRepository {
     @EntityGraph(attributePaths = {"plan"})
     Optional<Enrollment> findWithPlanById(UUID id);
     List<Enrollment> findByPlanId(UUID planId);
+    @EntityGraph(attributePaths = {"plan"})
+    List<Enrollment> findAllWithPlanByIdIn(Collection<UUID> ids);
+
+    // User history, newest first; keyset pages walk idx_enrollment_user_keyset
+    @EntityGraph(attributePaths = {"plan"})
+    @Query("select e from Enrollment e where e.userId = :userId order by e.enrolledAt desc, e.id desc limit :limit")
+    List<Enrollment> findHistory(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    // the redundant upper bound lets the planner prune partitions newer than the cursor
+    @EntityGraph(attributePaths = {"plan"})
+    @Query("""
+     select e from Enrollment e
+      where e.userId = :userId
+        and e.enrolledAt <= :enrolledAt
+        and (e.enrolledAt < :enrolledAt or (e.enrolledAt = :enrolledAt and e.id < :id))
+      order by e.enrolledAt desc, e.id desc limit :limit
+  """)
+    List<Enrollment> findHistoryAfter(@Param("userId") UUID userId, @Param("enrolledAt") OffsetDateTime enrolledAt,
+                                      @Param("id") UUID id, @Param("limit") int limit);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -60,6 +61,36 @@ public interface LeaderboardRepository extends JpaRepository<Leaderboard, UUID>
                               @Param("periodStart") OffsetDateTime periodStart,
                               @Param("periodEnd") OffsetDateTime periodEnd);
     
+    /**
+     * Delete the all-time entries of one difficulty; NULL periods live in the default partition
+     */
+    @Modifying
+    @Query("DELETE FROM Leaderboard l WHERE l.leaderboardType = :type AND l.difficulty = :difficulty " +
+           "AND l.periodStart IS NULL")
+    void deleteAllTime(@Param("type") LeaderboardType type, @Param("difficulty") Difficulty difficulty);
+    
+    /**
+     * First keyset page, ordered by (totalScore, id) descending. A user has one row per
+     * period and enrollment type, so only the row id makes the order total.
+     */
+    @Query("SELECT l FROM Leaderboard l WHERE l.leaderboardType = :type AND l.difficulty = :difficulty " +
+           "ORDER BY l.totalScore DESC, l.id DESC LIMIT :limit")
+    List<Leaderboard> findPage(@Param("type") LeaderboardType type,
+                               @Param("difficulty") Difficulty difficulty,
+                               @Param("limit") int limit);
+
+    /**
+     * Keyset page strictly after the (score, id) of the previous page's last row
+     */
+    @Query("SELECT l FROM Leaderboard l WHERE l.leaderboardType = :type AND l.difficulty = :difficulty " +
+           "AND (l.totalScore < :score OR (l.totalScore = :score AND l.id < :id)) " +
+           "ORDER BY l.totalScore DESC, l.id DESC LIMIT :limit")
+    List<Leaderboard> findPageAfter(@Param("type") LeaderboardType type,
+                                    @Param("difficulty") Difficulty difficulty,
+                                    @Param("score") BigDecimal score,
+                                    @Param("id") UUID id,
+                                    @Param("limit") int limit);
+    
     /**
      * Find users around a specific rank
      */
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,6 +19,37 @@ public interface PlanPriceRepository extends JpaRepository<PlanPrice, UUID> {
   """, nativeQuery = true)
     List<PlanPrice> findActiveByPlanAndCurrency(@Param("planId") UUID planId, @Param("currency") String currency);
 
+    // active prices in the plan's native currency, the source of every conversion
+    @Query(value = """
+     select p.* from plan_price p join plan pl on pl.id = p.plan_id
+     where p.plan_id=:planId and p.currency=pl.native_currency
+       and (p.validity is null or p.validity @> CURRENT_TIMESTAMP::timestamp)
+     order by p.base_amount asc
+  """, nativeQuery = true)
+    List<PlanPrice> findActiveNativeByPlan(@Param("planId") UUID planId);
+
     @Query("select min(p.baseAmount) from PlanPrice p where p.plan.id=:planId")
     BigDecimal findMinBaseAmount(@Param("planId") UUID planId);
+
+    // Min price of each plan in one query, for list pages
+    @Query("select p.plan.id as planId, min(p.baseAmount) as minAmount from PlanPrice p where p.plan.id in :planIds group by p.plan.id")
+    List<MinPrice> findMinBaseAmounts(@Param("planIds") Collection<UUID> planIds);
+
+    // Same, per currency and with the plan's native currency, for converting a list page
+    @Query("select p.plan.id as planId, p.currency as currency, p.plan.nativeCurrency as nativeCurrency, " +
+           "min(p.baseAmount) as minAmount from PlanPrice p " +
+           "where p.plan.id in :planIds group by p.plan.id, p.currency, p.plan.nativeCurrency")
+    List<CurrencyMinPrice> findMinBaseAmountsByCurrency(@Param("planIds") Collection<UUID> planIds);
+
+    interface CurrencyMinPrice {
+        UUID getPlanId();
+        String getCurrency();
+        String getNativeCurrency();
+        BigDecimal getMinAmount();
+    }
+
+    interface MinPrice {
+        UUID getPlanId();
+        BigDecimal getMinAmount();
+    }
 }
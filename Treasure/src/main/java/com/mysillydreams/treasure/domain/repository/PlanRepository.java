@@ -4,11 +4,42 @@ import com.mysillydreams.treasure.domain.model.Plan;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PlanRepository extends JpaRepository<Plan, UUID>, JpaSpecificationExecutor<Plan> {
     @EntityGraph(attributePaths = {"prices","rules","tasks","slots","difficulties"})
     Optional<Plan> findWithDetailById(UUID id);
+
+    // Slot state and min price of many plans in one pass; unknown ids are simply absent
+    @Query(value = """
+     select p.id as planId,
+            (p.end_at is not null and p.end_at <= now()) as ended,
+            sl.capacity_null_means_open as capacity,
+            coalesce(sl.reserved, 0) as reserved,
+            coalesce(sl.available_view, 0) as availableView,
+            pr.min_price as priceFrom
+       from plan p
+       left join lateral (select ps.capacity_null_means_open, ps.reserved, ps.available_view
+                            from plan_slot ps where ps.plan_id = p.id limit 1) sl on true
+       left join lateral (select min(pp.base_amount) as min_price
+                            from plan_price pp where pp.plan_id = p.id) pr on true
+      where p.id in (:ids)
+  """, nativeQuery = true)
+    List<AvailabilityRow> findAvailability(@Param("ids") Collection<UUID> ids);
+
+    interface AvailabilityRow {
+        UUID getPlanId();
+        boolean isEnded();
+        Integer getCapacity();
+        Integer getReserved();
+        Integer getAvailableView();
+        BigDecimal getPriceFrom();
+    }
 }
@@ -6,12 +6,22 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PlanSlotRepository extends JpaRepository<PlanSlot, UUID> {
     Optional<PlanSlot> findByPlanId(UUID planId);
 
+    // Open (uncapped) slots of plans that have not ended; plan fetched in the same query
+    @Query("""
+    select s from PlanSlot s join fetch s.plan p
+     where s.capacityNullMeansOpen is null
+       and (p.endAt is null or p.endAt > :now)
+  """)
+    List<PlanSlot> findOpenSlotsOfActivePlans(@Param("now") OffsetDateTime now);
+
     // Finite slots: optimistic-atomic reservation
     @Modifying
     @Query("""
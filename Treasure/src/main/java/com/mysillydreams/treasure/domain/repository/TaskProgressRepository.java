@@ -3,9 +3,12 @@ package com.mysillydreams.treasure.domain.repository;
 import com.mysillydreams.treasure.domain.model.TaskProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TaskProgressRepository extends JpaRepository<TaskProgress, UUID> {
     Optional<TaskProgress> findByEnrollmentIdAndTaskId(UUID enrollmentId, UUID taskId);
+    // enrolledAt is the partition key; passing it confines the lookup to one monthly partition
+    Optional<TaskProgress> findByEnrollmentIdAndTaskIdAndEnrolledAt(UUID enrollmentId, UUID taskId, OffsetDateTime enrolledAt);
 }
@@ -8,4 +8,6 @@ import java.util.UUID;
 
 public interface TaskRepository extends JpaRepository<Task, UUID> {
     List<Task> findByPlanId(UUID planId);
+
+    long countByPlanId(UUID planId);
 }
@@ -0,0 +1,30 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.TeamMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
+
+    /**
+     * Pin the user to a team unless they already belong to one (returns 0 then)
+     */
+    @Modifying
+    @Query(value = """
+     insert into team_member (user_id, team_name) values (:userId, :teamName)
+     on conflict (user_id) do nothing
+  """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("teamName") String teamName);
+
+    // Membership locked against a concurrent team switch while a delta is applied
+    @Query(value = "select team_name from team_member where user_id = :userId for share", nativeQuery = true)
+    Optional<String> findTeamNameForShare(@Param("userId") UUID userId);
+
+    @Query(value = "select * from team_member where user_id = :userId for update", nativeQuery = true)
+    Optional<TeamMember> lockByUserId(@Param("userId") UUID userId);
+}
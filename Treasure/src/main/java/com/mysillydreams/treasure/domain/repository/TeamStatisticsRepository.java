@@ -0,0 +1,67 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import com.mysillydreams.treasure.domain.model.TeamStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface TeamStatisticsRepository extends JpaRepository<TeamStatistics, UUID> {
+
+    /**
+     * Add a member delta to the team row, creating it on first contribution
+     */
+    @Modifying
+    @Query(value = """
+     insert into team_statistics (team_name, difficulty, total_score, plans_completed, tasks_completed)
+     values (:teamName, :difficulty, :score, :plans, :tasks)
+     on conflict (team_name, difficulty) do update
+        set total_score = team_statistics.total_score + excluded.total_score,
+            plans_completed = team_statistics.plans_completed + excluded.plans_completed,
+            tasks_completed = team_statistics.tasks_completed + excluded.tasks_completed,
+            updated_at = now()
+  """, nativeQuery = true)
+    int applyDelta(@Param("teamName") String teamName, @Param("difficulty") String difficulty,
+                   @Param("score") BigDecimal score, @Param("plans") int plans, @Param("tasks") int tasks);
+
+    /**
+     * Top teams, served straight from idx_team_statistics_rank
+     */
+    @Query("SELECT t FROM TeamStatistics t WHERE t.difficulty = :difficulty " +
+           "ORDER BY t.totalScore DESC, t.plansCompleted DESC, t.teamName ASC LIMIT :limit")
+    List<TeamStatistics> findTopTeams(@Param("difficulty") Difficulty difficulty, @Param("limit") int limit);
+
+    long countByDifficulty(Difficulty difficulty);
+
+    /**
+     * Team totals recomputed from member statistics, for the consistency rebuild
+     */
+    @Query(value = """
+     select tm.team_name as teamName, us.difficulty as difficulty,
+            sum(us.total_score) as totalScore,
+            sum(us.total_plans_completed) as plansCompleted,
+            sum(us.total_tasks_completed) as tasksCompleted
+       from user_statistics us
+       join team_member tm on tm.user_id = us.user_id
+      group by tm.team_name, us.difficulty
+  """, nativeQuery = true)
+    List<TeamTotals> aggregateFromMembers();
+
+    // Blocks concurrent deltas (row exclusive) until the rebuild commits; reads stay open
+    @Modifying
+    @Query(value = "lock table team_statistics in share row exclusive mode", nativeQuery = true)
+    void lockForRebuild();
+
+    interface TeamTotals {
+        String getTeamName();
+        String getDifficulty();
+        BigDecimal getTotalScore();
+        Number getPlansCompleted();
+        Number getTasksCompleted();
+    }
+}
@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserStatisticsRepository extends JpaRepository<UserStatistics, UUID> {
@@ -24,6 +25,12 @@ public interface UserStatisticsRepository extends JpaRepository<UserStatistics,
      * Find all statistics for a user across all difficulties
      */
     List<UserStatistics> findByUserIdOrderByDifficulty(UUID userId);
+
+    /**
+     * Subset of the given users that already have statistics
+     */
+    @Query("SELECT DISTINCT us.userId FROM UserStatistics us WHERE us.userId IN :userIds")
+    Set<UUID> findExistingUserIds(@Param("userIds") Set<UUID> userIds);
     
     /**
      * Find top performers by difficulty and total score
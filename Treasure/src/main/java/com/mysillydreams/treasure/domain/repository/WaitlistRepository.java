@@ -0,0 +1,82 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.WaitlistEntry;
+import com.mysillydreams.treasure.domain.model.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, UUID> {
+
+    /**
+     * Queue the user unless they already hold a live entry for the plan
+     * (returns 0 in that case, so concurrent retries collapse onto one row)
+     */
+    @Modifying
+    @Query(value = """
+     insert into plan_waitlist (plan_id, user_id, enrollment_type, team_name, team_size, seats)
+     values (:planId, :userId, :enrollmentType, :teamName, :teamSize, :seats)
+     on conflict (plan_id, user_id) where status in ('WAITING','OFFERED') do nothing
+  """, nativeQuery = true)
+    int enqueue(@Param("planId") UUID planId, @Param("userId") UUID userId,
+                @Param("enrollmentType") String enrollmentType, @Param("teamName") String teamName,
+                @Param("teamSize") Integer teamSize, @Param("seats") int seats);
+
+    @Query("""
+     select w from WaitlistEntry w
+      where w.planId = :planId and w.userId = :userId
+        and w.status in (com.mysillydreams.treasure.domain.model.WaitlistStatus.WAITING,
+                         com.mysillydreams.treasure.domain.model.WaitlistStatus.OFFERED)
+  """)
+    Optional<WaitlistEntry> findLive(@Param("planId") UUID planId, @Param("userId") UUID userId);
+
+    // Live entry locked for claim/leave; waits for a concurrent promotion of the same row
+    @Query(value = """
+     select * from plan_waitlist
+      where plan_id = :planId and user_id = :userId and status in ('WAITING','OFFERED')
+      for update
+  """, nativeQuery = true)
+    Optional<WaitlistEntry> lockLive(@Param("planId") UUID planId, @Param("userId") UUID userId);
+
+    @Query(value = """
+     select * from plan_waitlist
+      where plan_id = :planId and user_id = :userId and status = 'OFFERED'
+      for update
+  """, nativeQuery = true)
+    Optional<WaitlistEntry> lockOffer(@Param("planId") UUID planId, @Param("userId") UUID userId);
+
+    boolean existsByPlanIdAndStatus(UUID planId, WaitlistStatus status);
+
+    // 1-based position among waiters, FIFO by queue time
+    @Query(value = """
+     select count(*) from plan_waitlist w
+      where w.plan_id = :planId and w.status = 'WAITING'
+        and (w.queued_at, w.id) <= (:queuedAt, :id)
+  """, nativeQuery = true)
+    long positionOf(@Param("planId") UUID planId, @Param("queuedAt") OffsetDateTime queuedAt, @Param("id") UUID id);
+
+    // Head of the queue; concurrent promoters skip each other's row instead of blocking
+    @Query(value = """
+     select * from plan_waitlist
+      where plan_id = :planId and status = 'WAITING'
+      order by queued_at, id
+      limit 1
+      for update skip locked
+  """, nativeQuery = true)
+    Optional<WaitlistEntry> lockHead(@Param("planId") UUID planId);
+
+    @Query(value = """
+     select * from plan_waitlist
+      where status = 'OFFERED' and hold_expires_at <= :now
+      order by hold_expires_at
+      limit :limit
+      for update skip locked
+  """, nativeQuery = true)
+    List<WaitlistEntry> lockExpiredHolds(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,113 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.mysillydreams.treasure.domain.event.PlanChangedEvent;
+import com.mysillydreams.treasure.domain.repository.CheckpointRepository;
+import com.mysillydreams.treasure.domain.repository.CheckpointRepository.CheckpointGeo;
+import com.mysillydreams.treasure.geo.CheckpointSnapshot;
+import com.mysillydreams.treasure.geo.GeoMath;
+import com.mysillydreams.treasure.geo.PlanCheckpointIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Validates participant positions against plan checkpoints without touching PostGIS.
+ * Checkpoints of open plans are held in per-plan {@link PlanCheckpointIndex} instances,
+ * loaded at startup, refreshed on plan changes and on a fixed interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CheckpointValidationService {
+
+    private final CheckpointRepository checkpointRepo;
+    private final Map<UUID, PlanCheckpointIndex> indexes = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reloadAll();
+    }
+
+    /**
+     * Rebuild every plan index from the database
+     */
+    @Scheduled(fixedDelayString = "${treasure.checkpoints.refresh-interval:PT5M}",
+               initialDelayString = "${treasure.checkpoints.refresh-interval:PT5M}")
+    public void reloadAll() {
+        try {
+            Map<UUID, List<CheckpointSnapshot>> byPlan = checkpointRepo.findActiveGeoForOpenPlans().stream()
+                    .map(CheckpointValidationService::toSnapshot)
+                    .collect(Collectors.groupingBy(CheckpointSnapshot::planId, LinkedHashMap::new, Collectors.toList()));
+
+            Map<UUID, PlanCheckpointIndex> fresh = new HashMap<>(byPlan.size() * 2);
+            byPlan.forEach((planId, list) -> fresh.put(planId, PlanCheckpointIndex.of(planId, list)));
+
+            indexes.keySet().retainAll(fresh.keySet());
+            indexes.putAll(fresh);
+            log.info("Loaded checkpoint indexes for {} plans", fresh.size());
+        } catch (Exception ex) {
+            log.warn("Checkpoint index reload failed, keeping previous indexes: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Refresh a single plan once its change is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlanChanged(PlanChangedEvent event) {
+        indexes.put(event.planId(), load(event.planId()));
+    }
+
+    public PlanCheckpointIndex indexFor(UUID planId) {
+        // load outside computeIfAbsent so the query never runs under the map's bin monitor
+        PlanCheckpointIndex index = indexes.get(planId);
+        if (index != null) return index;
+        PlanCheckpointIndex loaded = load(planId);
+        PlanCheckpointIndex raced = indexes.putIfAbsent(planId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /**
+     * Ensure the reported position satisfies the checkpoint gating a task, if any.
+     * Tasks without an active checkpoint pass through unchanged.
+     */
+    public void requireAtTaskCheckpoint(UUID planId, UUID taskId, Double latitude, Double longitude) {
+        PlanCheckpointIndex index = indexFor(planId);
+        if (index.forTask(taskId).isEmpty()) return;
+
+        if (latitude == null || longitude == null || !GeoMath.isValidCoordinate(latitude, longitude)) {
+            throw new IllegalArgumentException("A valid location is required to complete this task");
+        }
+        PlanCheckpointIndex.Check check = index.checkTask(taskId, latitude, longitude).orElseThrow();
+        if (!check.withinRadius()) {
+            throw new IllegalStateException(String.format("Not at checkpoint '%s': %.0fm away, must be within %dm",
+                    check.checkpoint().name(), check.distanceMeters(), check.checkpoint().radiusMeters()));
+        }
+    }
+
+    private PlanCheckpointIndex load(UUID planId) {
+        List<CheckpointSnapshot> list = checkpointRepo.findActiveGeoByPlanId(planId).stream()
+                .map(CheckpointValidationService::toSnapshot)
+                .toList();
+        return list.isEmpty() ? PlanCheckpointIndex.empty(planId) : PlanCheckpointIndex.of(planId, list);
+    }
+
+    private static CheckpointSnapshot toSnapshot(CheckpointGeo g) {
+        return new CheckpointSnapshot(
+                g.getId(), g.getPlanId(), g.getTaskId(), g.getName(),
+                g.getCheckpointOrder() != null ? g.getCheckpointOrder() : 0,
+                g.getLatitude(), g.getLongitude(),
+                g.getValidationRadiusMeters() != null ? g.getValidationRadiusMeters() : 50,
+                Boolean.TRUE.equals(g.getRequiresPhoto()),
+                Boolean.TRUE.equals(g.getRequiresQrScan()),
+                !Boolean.FALSE.equals(g.getMandatory()));
+    }
+}
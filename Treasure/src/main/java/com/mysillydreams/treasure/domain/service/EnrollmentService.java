@@ -1,22 +1,33 @@
 package com.mysillydreams.treasure.domain.service;
 
+import com.mysillydreams.treasure.domain.event.SeatsFreedEvent;
 import com.mysillydreams.treasure.domain.model.*;
+import com.mysillydreams.treasure.domain.repository.EnrollmentBulkRepository.ChangedEnrollment;
 import com.mysillydreams.treasure.domain.repository.EnrollmentRepository;
 import com.mysillydreams.treasure.domain.repository.PlanRepository;
 import com.mysillydreams.treasure.domain.repository.PlanSlotRepository;
 import com.mysillydreams.treasure.integrations.port.NotificationPort;
 import com.mysillydreams.treasure.integrations.port.PaymentsPort;
 import com.mysillydreams.treasure.messaging.producer.EnrollmentEventProducer;
+import com.mysillydreams.treasure.pagination.KeysetCursor;
+import com.mysillydreams.treasure.pagination.KeysetSlice;
+import com.mysillydreams.treasure.payment.PaymentLinkRequests;
+import com.mysillydreams.treasure.velocity.EnrollmentVelocityTracker;
 import com.mysillydreams.treasure.cache.CacheNames;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class EnrollmentService {
@@ -27,6 +38,11 @@ public class EnrollmentService {
     private final PricingService pricingService;
     private final EnrollmentEventProducer eventProducer;
     private final RegistrationIdService registrationIdService;
+    private final EnrollmentVelocityTracker velocityTracker;
+    private final WaitlistService waitlistService;
+    private final TeamStatisticsService teamStatisticsService;
+    private final ApplicationEventPublisher events;
+    private final PaymentLinkRequests paymentLinks;
 
     // Ports (could be NOOP or real gRPC adapters depending on feature flags)
     private final Optional<PaymentsPort> paymentsPort;
@@ -56,11 +72,21 @@ public class EnrollmentService {
 
         EnrollmentMode mode = deduceMode(plan);
 
+        Optional<WaitlistEntry> offer = Optional.empty();
         if (plan.getMaxParticipants() != null) {
-            // Finite: try transactional reservation
-            int slotsNeeded = enrollmentType == EnrollmentType.TEAM ? teamSize : 1;
-            int updated = slotRepo.tryReserve(planId, slotsNeeded);
-            if (updated == 0) throw new IllegalStateException("No slots available");
+            // Finite: claim a waitlist offer (seats already held) or reserve transactionally.
+            // While others are queued, newcomers join the queue rather than take freed seats.
+            offer = waitlistService.lockValidOffer(planId, userId);
+            if (offer.isPresent()) {
+                enrollmentType = offer.get().getEnrollmentType();
+                teamName = offer.get().getTeamName();
+                teamSize = offer.get().getTeamSize();
+            } else {
+                int slotsNeeded = enrollmentType == EnrollmentType.TEAM ? teamSize : 1;
+                if (waitlistService.hasWaiters(planId) || slotRepo.tryReserve(planId, slotsNeeded) == 0) {
+                    throw new WaitlistedException(planId, waitlistService.join(planId, userId, enrollmentType, teamName, teamSize));
+                }
+            }
         } // Open: no reservation; scarcity is cosmetic
 
         // Generate registration ID
@@ -79,6 +105,11 @@ public class EnrollmentService {
                 .build();
 
         Enrollment saved = enrollRepo.save(e);
+        offer.ifPresent(o -> waitlistService.markClaimed(o, saved.getId()));
+        if (enrollmentType == EnrollmentType.TEAM) {
+            teamStatisticsService.assignMember(userId, teamName);
+        }
+        velocityTracker.recordAfterCommit(planId, 1);
 
         // Emit base event
         eventProducer.enrollmentCreated(saved);
@@ -86,27 +117,13 @@ public class EnrollmentService {
         // Route by mode
         if (mode == EnrollmentMode.PAY_TO_ENROLL) {
             // Create payment link if Payments integration is enabled; otherwise just emit event.
-            var price = pricingService.previewForPlan(planId, preferCurrency(plan));
-            paymentsPort.ifPresentOrElse(pp -> {
-                var link = pp.createPaymentLink(
-                        saved.getId().toString(),
-                        saved.getUserId().toString(),
-                        preferCurrency(plan),
-                        price.total().toPlainString(),
-                        plan.getId().toString()
-                );
-                // Notify user if Notifications enabled
-                link.ifPresent(l ->
-                        notificationPort.ifPresent(np -> np.send(
-                                saved.getUserId().toString(),
-                                "EMAIL",
-                                "enrollment_confirmation",
-                                Map.of("planTitle", plan.getTitle(), "paymentLink", l.link())
-                        ))
-                );
-            }, () -> {
+            String currency = preferCurrency(plan);
+            var price = pricingService.previewForPlan(planId, currency);
+            paymentsPort.ifPresentOrElse(pp -> paymentLinks.request(
+                    saved, plan, price.total(), currency, "enrollment_confirmation"
+            ), () -> {
                 // No payments service yet—still tell downstream that payment is requested
-                eventProducer.paymentRequested(saved, price.total(), preferCurrency(plan));
+                eventProducer.paymentRequested(saved, price.total(), currency);
 
             });
         } else {
@@ -116,6 +133,7 @@ public class EnrollmentService {
                     saved.getUserId().toString(),
                     "EMAIL",
                     "application_received",
+                    saved.getId().toString(),
                     Map.of("planTitle", plan.getTitle())
             ));
         }
@@ -123,6 +141,18 @@ public class EnrollmentService {
         return saved;
     }
 
+    /**
+     * A user's enrollments, newest first, one keyset page at a time
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<Enrollment> history(UUID userId, String cursor, int size) {
+        int pageSize = KeysetSlice.clamp(size);
+        List<Enrollment> rows = KeysetCursor.decode(cursor)
+                .map(c -> enrollRepo.findHistoryAfter(userId, c.timestamp(), c.id(), pageSize + 1))
+                .orElseGet(() -> enrollRepo.findHistory(userId, pageSize + 1));
+        return KeysetSlice.of(rows, pageSize, e -> KeysetCursor.of(e.getEnrolledAt(), e.getId()));
+    }
+
     @Transactional
     @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH}, allEntries = true)
     public Enrollment approve(UUID enrollmentId, UUID approver) {
@@ -135,27 +165,16 @@ public class EnrollmentService {
 
         Enrollment saved = enrollRepo.save(e);
 
-        var price = pricingService.previewForPlan(e.getPlan().getId(), preferCurrency(e.getPlan()));
+        String currency = preferCurrency(e.getPlan());
+        var price = pricingService.previewForPlan(e.getPlan().getId(), currency);
         paymentsPort.ifPresentOrElse(pp -> {
-            var link = pp.createPaymentLink(
-                    saved.getId().toString(),
-                    saved.getUserId().toString(),
-                    preferCurrency(e.getPlan()),
-                    price.total().toPlainString(),
-                    e.getPlan().getId().toString()
-            );
-            link.ifPresent(l -> notificationPort.ifPresent(np -> np.send(
-                    saved.getUserId().toString(),
-                    "EMAIL",
-                    "approval_confirmed",
-                    Map.of("planTitle", e.getPlan().getTitle(), "paymentLink", l.link())
-            )));
-            eventProducer.enrollmentApproved(saved, price.total(), preferCurrency(e.getPlan()));
+            paymentLinks.request(saved, e.getPlan(), price.total(), currency, "approval_confirmed");
+            eventProducer.enrollmentApproved(saved, price.total(), currency);
 
         }, () -> {
             // No payments yet—emit event so Payments can pick it up later
-            eventProducer.enrollmentApproved(saved, price.total(), preferCurrency(e.getPlan()));
-            eventProducer.paymentRequested(saved, price.total(), preferCurrency(e.getPlan()));
+            eventProducer.enrollmentApproved(saved, price.total(), currency);
+            eventProducer.paymentRequested(saved, price.total(), currency);
 
         });
 
@@ -166,21 +185,65 @@ public class EnrollmentService {
     @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH}, allEntries = true)
     public void cancel(UUID enrollmentId) {
         Enrollment e = enrollRepo.findWithPlanById(enrollmentId).orElseThrow();
-        if (e.getPlan().getMaxParticipants() != null && e.getStatus() == EnrollmentStatus.CONFIRMED) {
-            slotRepo.release(e.getPlan().getId(), 1);
-        }
+        releaseSeats(e, "cancelled");
         e.setStatus(EnrollmentStatus.CANCELLED);
         enrollRepo.save(e);
         // Optionally notify and/or emit cancellation events later
     }
 
+    /**
+     * Apply one batch of payment statuses and cancel the enrollments it refunded, in a
+     * single transaction. If a cancellation fails the status update is rolled back too,
+     * so the redelivered batch still finds those rows changed and releases their seats.
+     *
+     * @return the enrollments whose payment status actually changed
+     */
+    @Transactional
+    public List<ChangedEnrollment> applyPaymentStatuses(Map<UUID, PaymentStatus> statuses) {
+        List<ChangedEnrollment> changed = enrollRepo.updatePaymentStatuses(statuses);
+        List<UUID> refunded = changed.stream()
+                .map(ChangedEnrollment::enrollmentId)
+                .filter(id -> statuses.get(id) == PaymentStatus.REFUNDED)
+                .toList();
+        if (!refunded.isEmpty()) {
+            // self-invocation: runs in this transaction, callers evict the changed plans
+            int cancelled = cancelRefunded(refunded);
+            log.info("Released seats of {} refunded enrollments", cancelled);
+        }
+        return changed;
+    }
+
+    /**
+     * Cancel enrollments whose payment was refunded, returning their seats to the plan
+     * (and so to its waitlist)
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH}, allEntries = true)
+    public int cancelRefunded(Collection<UUID> enrollmentIds) {
+        int cancelled = 0;
+        for (Enrollment e : enrollRepo.findAllWithPlanByIdIn(enrollmentIds)) {
+            if (e.getStatus() == EnrollmentStatus.CANCELLED || e.getPaymentStatus() != PaymentStatus.REFUNDED) continue;
+            releaseSeats(e, "payment-refunded");
+            e.setStatus(EnrollmentStatus.CANCELLED);
+            cancelled++;
+        }
+        return cancelled;
+    }
+
+    private void releaseSeats(Enrollment e, String reason) {
+        if (e.getPlan().getMaxParticipants() == null || e.getStatus() != EnrollmentStatus.CONFIRMED) return;
+        int seats = e.getEnrollmentType() == EnrollmentType.TEAM && e.getTeamSize() != null ? e.getTeamSize() : 1;
+        slotRepo.release(e.getPlan().getId(), seats);
+        events.publishEvent(new SeatsFreedEvent(e.getPlan().getId(), reason));
+    }
+
     private EnrollmentMode deduceMode(Plan plan) {
         // TODO: read from plan config; default PAY_TO_ENROLL to keep flow simple in v1
         return EnrollmentMode.PAY_TO_ENROLL;
     }
 
+    // charge in the plan's native currency; converted prices are for display only
     private String preferCurrency(Plan plan) {
-        // TODO: choose by user region later; INR as default now
-        return "INR";
+        return plan.getNativeCurrency();
     }
 }
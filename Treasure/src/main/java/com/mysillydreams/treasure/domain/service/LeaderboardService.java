@@ -3,6 +3,8 @@ package com.mysillydreams.treasure.domain.service;
 import com.mysillydreams.treasure.domain.model.*;
 import com.mysillydreams.treasure.domain.repository.LeaderboardRepository;
 import com.mysillydreams.treasure.domain.repository.UserStatisticsRepository;
+import com.mysillydreams.treasure.pagination.KeysetCursor;
+import com.mysillydreams.treasure.pagination.KeysetSlice;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -27,6 +29,7 @@ public class LeaderboardService {
     
     private final LeaderboardRepository leaderboardRepository;
     private final UserStatisticsRepository userStatisticsRepository;
+    private final TeamStatisticsService teamStatisticsService;
     
     /**
      * Get leaderboard for a specific type and difficulty
@@ -48,6 +51,19 @@ public class LeaderboardService {
         return entries.stream().limit(limit).toList();
     }
     
+    /**
+     * Keyset page of a leaderboard by (score, row id); no count query, cost is
+     * independent of how deep the page is
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<Leaderboard> getLeaderboardPage(LeaderboardType type, Difficulty difficulty, String cursor, int size) {
+        int pageSize = KeysetSlice.clamp(size);
+        List<Leaderboard> rows = KeysetCursor.decode(cursor)
+                .map(c -> leaderboardRepository.findPageAfter(type, difficulty, c.score(), c.id(), pageSize + 1))
+                .orElseGet(() -> leaderboardRepository.findPage(type, difficulty, pageSize + 1));
+        return KeysetSlice.of(rows, pageSize, l -> KeysetCursor.of(l.getTotalScore(), l.getId()));
+    }
+    
     /**
      * Get user's position in leaderboard
      */
@@ -93,7 +109,7 @@ public class LeaderboardService {
         List<UserStatistics> topPerformers = userStatisticsRepository.findTopPerformersByDifficulty(difficulty);
         
         // Clear existing overall leaderboard for this difficulty
-        leaderboardRepository.deleteByTypeAndPeriod(LeaderboardType.OVERALL, null, null);
+        leaderboardRepository.deleteAllTime(LeaderboardType.OVERALL, difficulty);
         
         // Create new leaderboard entries
         AtomicInteger rank = new AtomicInteger(1);
@@ -137,10 +153,13 @@ public class LeaderboardService {
     }
     
     /**
-     * Get team leaderboard
+     * Get team leaderboard; all-time standings come from the incremental team aggregates
      */
     @Transactional(readOnly = true)
     public List<Leaderboard> getTeamLeaderboard(LeaderboardType type, Difficulty difficulty, int limit) {
+        if (type == LeaderboardType.OVERALL) {
+            return teamStatisticsService.getTopTeams(difficulty, limit);
+        }
         List<Leaderboard> teamEntries = leaderboardRepository.findTeamLeaderboard(type, difficulty);
         return teamEntries.stream().limit(limit).toList();
     }
@@ -152,6 +171,14 @@ public class LeaderboardService {
     public Long getTotalParticipants(LeaderboardType type, Difficulty difficulty) {
         return leaderboardRepository.getTotalParticipants(type, difficulty);
     }
+
+    /**
+     * Get number of ranked teams
+     */
+    @Transactional(readOnly = true)
+    public Long getTotalTeams(Difficulty difficulty) {
+        return teamStatisticsService.countTeams(difficulty);
+    }
     
     /**
      * Update user statistics and potentially trigger leaderboard updates
@@ -176,6 +203,7 @@ public class LeaderboardService {
         stats.updateActivityStreak();
         
         userStatisticsRepository.save(stats);
+        teamStatisticsService.applyMemberDelta(userId, difficulty, completedIncrement, tasksIncrement, scoreIncrement);
         
         // Update user's rank in overall leaderboard
         updateUserRankInLeaderboard(userId, difficulty, stats);
@@ -0,0 +1,127 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.domain.model.AvailabilityStatus;
+import com.mysillydreams.treasure.domain.repository.PlanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Availability and starting price for a page of plans in one round trip: a single
+ * MGET against a short-lived Redis cache, then one IN query for the misses.
+ * Values are advisory; enrollment still reserves seats transactionally.
+ */
+@Slf4j
+@Service
+public class PlanAvailabilityService {
+
+    private static final String KEY_PREFIX = "plans:availability:";
+
+    public record Availability(
+            UUID planId,
+            AvailabilityStatus status,
+            Integer seatsAvailable, // null for open plans
+            int availableView,
+            BigDecimal priceFrom
+    ) {}
+
+    private final PlanRepository planRepository;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final int maxBatch;
+    private final long ttlSeconds;
+
+    public PlanAvailabilityService(PlanRepository planRepository, StringRedisTemplate redis, ObjectMapper objectMapper,
+                                   @Value("${treasure.availability.max-batch:500}") int maxBatch,
+                                   @Value("${treasure.availability.cache-ttl:PT10S}") Duration ttl) {
+        this.planRepository = planRepository;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.maxBatch = maxBatch;
+        this.ttlSeconds = Math.max(1, ttl.toSeconds());
+    }
+
+    /**
+     * @return one entry per distinct id, in request order; unknown plans are NOT_FOUND
+     */
+    @Transactional(readOnly = true)
+    public List<Availability> getAll(Collection<UUID> planIds) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(planIds));
+        if (ids.size() > maxBatch) {
+            throw new IllegalArgumentException("At most " + maxBatch + " plan ids per batch");
+        }
+        if (ids.isEmpty()) return List.of();
+
+        Map<UUID, Availability> found = readCached(ids);
+        List<UUID> misses = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            Map<UUID, Availability> loaded = new HashMap<>();
+            for (PlanRepository.AvailabilityRow row : planRepository.findAvailability(misses)) {
+                loaded.put(row.getPlanId(), toAvailability(row));
+            }
+            writeCached(loaded.values());
+            found.putAll(loaded);
+        }
+
+        return ids.stream()
+                .map(id -> found.getOrDefault(id, new Availability(id, AvailabilityStatus.NOT_FOUND, null, 0, null)))
+                .toList();
+    }
+
+    static Availability toAvailability(PlanRepository.AvailabilityRow row) {
+        Integer capacity = row.getCapacity();
+        int reserved = row.getReserved() == null ? 0 : row.getReserved();
+        int view = row.getAvailableView() == null ? 0 : row.getAvailableView();
+        Integer seats = capacity == null ? null : Math.max(0, capacity - reserved);
+        AvailabilityStatus status;
+        if (row.isEnded()) status = AvailabilityStatus.ENDED;
+        else if (capacity == null) status = AvailabilityStatus.OPEN;
+        else status = seats > 0 ? AvailabilityStatus.AVAILABLE : AvailabilityStatus.FULL;
+        return new Availability(row.getPlanId(), status, seats, view, row.getPriceFrom());
+    }
+
+    private Map<UUID, Availability> readCached(List<UUID> ids) {
+        Map<UUID, Availability> out = new HashMap<>(ids.size() * 2);
+        try {
+            List<String> values = redis.opsForValue().multiGet(ids.stream().map(id -> KEY_PREFIX + id).toList());
+            if (values == null) return out;
+            for (int i = 0; i < ids.size(); i++) {
+                String json = values.get(i);
+                if (json != null) out.put(ids.get(i), objectMapper.readValue(json, Availability.class));
+            }
+        } catch (JsonProcessingException ex) {
+            log.warn("Discarding unreadable availability cache entries: {}", ex.getMessage());
+            out.clear();
+        } catch (Exception ex) {
+            log.warn("Availability cache read failed, loading from database: {}", ex.getMessage());
+            out.clear();
+        }
+        return out;
+    }
+
+    private void writeCached(Collection<Availability> values) {
+        if (values.isEmpty()) return;
+        try {
+            Map<String, String> json = new HashMap<>(values.size() * 2);
+            for (Availability a : values) json.put(KEY_PREFIX + a.planId(), objectMapper.writeValueAsString(a));
+            redis.executePipelined((RedisCallback<Object>) (RedisConnection connection) -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                json.forEach((key, value) -> conn.setEx(key, ttlSeconds, value));
+                return null;
+            });
+        } catch (Exception ex) {
+            log.warn("Availability cache write failed for {} plans: {}", values.size(), ex.getMessage());
+        }
+    }
+}
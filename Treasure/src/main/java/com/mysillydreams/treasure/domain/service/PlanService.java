@@ -1,6 +1,7 @@
 package com.mysillydreams.treasure.domain.service;
 
 import com.mysillydreams.treasure.cache.CacheNames;
+import com.mysillydreams.treasure.domain.event.PlanChangedEvent;
 import com.mysillydreams.treasure.domain.model.*;
 import com.mysillydreams.treasure.domain.repository.PlanPriceRepository;
 import com.mysillydreams.treasure.domain.repository.PlanRepository;
@@ -22,10 +23,10 @@ public class PlanService {
     private final PlanRepository planRepo;
     private final PlanPriceRepository priceRepo;
     private final PlanSlotRepository slotRepo;
-    private final ApplicationEventPublisher publisher; // if you want Spring events too
+    private final ApplicationEventPublisher publisher;
 
     @Transactional
-    @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH}, allEntries = true)
+    @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH, CacheNames.PLAN_PRICE}, allEntries = true)
     public Plan createPlan(Plan plan, List<PlanRule> rules, List<Task> tasks,
                            List<PlanDifficulty> diffs, PlanPrice price, PriceProfileSnapshot snap) {
         // attach children
@@ -35,6 +36,7 @@ public class PlanService {
         plan.setRules(rules);
         plan.setTasks(tasks);
         plan.setDifficulties(diffs);
+        plan.setNativeCurrency(price.getCurrency());
 
         Plan saved = planRepo.save(plan);
 
@@ -54,11 +56,12 @@ public class PlanService {
 
         // emit plan.updated
         // planEventProducer.planUpdated(saved.getId(), "created");
+        publisher.publishEvent(new PlanChangedEvent(saved.getId(), "created"));
         return saved;
     }
 
     @Transactional
-    @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH}, allEntries = true)
+    @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH, CacheNames.PLAN_PRICE}, allEntries = true)
     public Plan updatePlan(Plan updated) {
         Plan existing = planRepo.findById(updated.getId()).orElseThrow();
         // copy mutable fields…
@@ -80,6 +83,7 @@ public class PlanService {
 
         Plan saved = planRepo.save(existing);
         // planEventProducer.planUpdated(saved.getId(), "updated");
+        publisher.publishEvent(new PlanChangedEvent(saved.getId(), "updated"));
         return saved;
     }
 
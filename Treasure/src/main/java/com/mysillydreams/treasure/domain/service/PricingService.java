@@ -1,29 +1,88 @@
 package com.mysillydreams.treasure.domain.service;
 
+import com.mysillydreams.treasure.cache.CacheNames;
 import com.mysillydreams.treasure.domain.model.PlanPrice;
 import com.mysillydreams.treasure.domain.repository.PlanPriceRepository;
+import com.mysillydreams.treasure.pricing.FxRates;
 import com.mysillydreams.treasure.pricing.PricingPlan;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class PricingService {
     private final PlanPriceRepository priceRepo;
+    private final FxRates fxRates;
 
     @Transactional(readOnly = true)
     public PricingPlan previewForPlan(UUID planId, String currency) {
         List<PlanPrice> prices = priceRepo.findActiveByPlanAndCurrency(planId, currency);
         if (prices.isEmpty()) throw new IllegalStateException("No price configured for currency " + currency);
-        PlanPrice p = prices.get(0);
+        return preview(prices.get(0));
+    }
+
+    /**
+     * Preview in any currency for display: the plan's own price in that currency if it
+     * has one, otherwise its native price converted at the current FX rates, each amount
+     * rounded to the currency's minor unit. Payments use {@link #previewForPlan} instead.
+     */
+    @Cacheable(cacheNames = CacheNames.PLAN_PRICE, key = "#planId + ':' + #currency.toUpperCase()")
+    @Transactional(readOnly = true)
+    public PricingPlan previewIn(UUID planId, String currency) {
+        String target = currency.toUpperCase(Locale.ROOT);
+        List<PlanPrice> exact = priceRepo.findActiveByPlanAndCurrency(planId, target);
+        if (!exact.isEmpty()) return preview(exact.get(0));
+
+        PricingPlan own = preview(nativePrice(planId));
+        FxRates.Snapshot rates = fxRates.current();
+        List<PricingPlan.PricingComponent> comps = own.components().stream()
+                .map(c -> "PCT".equalsIgnoreCase(c.calc()) ? c : new PricingPlan.PricingComponent(
+                        c.type(), c.calc(), rates.convert(c.value(), own.currency(), target), c.enforced()))
+                .toList();
+        // total converted from the native total, not summed from rounded parts
+        return new PricingPlan(target, rates.convert(own.base(), own.currency(), target), comps,
+                rates.convert(own.total(), own.currency(), target));
+    }
+
+    /**
+     * "From" prices of a list page in one currency with one query and one rate snapshot.
+     * Plans priced in that currency keep their own price; others are converted from their
+     * native price. Plans with no rate to the currency are left out, so the page shows
+     * them without a price instead of failing.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, BigDecimal> pricesFrom(Collection<UUID> planIds, String currency) {
+        if (planIds.isEmpty()) return Map.of();
+        String target = currency.toUpperCase(Locale.ROOT);
+        Currency.getInstance(target); // an unknown code is a bad request, not a missing rate
+        Map<UUID, PlanPriceRepository.CurrencyMinPrice> exact = new HashMap<>(), own = new HashMap<>();
+        for (var mp : priceRepo.findMinBaseAmountsByCurrency(planIds)) {
+            if (target.equals(mp.getCurrency())) exact.put(mp.getPlanId(), mp);
+            else if (mp.getCurrency().equals(mp.getNativeCurrency())) own.put(mp.getPlanId(), mp);
+        }
+        FxRates.Snapshot rates = fxRates.current();
+        Map<UUID, BigDecimal> out = new HashMap<>();
+        exact.forEach((planId, mp) -> out.put(planId, mp.getMinAmount()));
+        own.forEach((planId, mp) -> {
+            if (!exact.containsKey(planId) && rates.rate(mp.getCurrency(), target).isPresent()) {
+                out.put(planId, rates.convert(mp.getMinAmount(), mp.getCurrency(), target));
+            }
+        });
+        return out;
+    }
+
+    private PlanPrice nativePrice(UUID planId) {
+        List<PlanPrice> prices = priceRepo.findActiveNativeByPlan(planId);
+        if (prices.isEmpty()) throw new IllegalStateException("No price configured for plan " + planId);
+        return prices.get(0);
+    }
 
+    private static PricingPlan preview(PlanPrice p) {
         BigDecimal total = p.getBaseAmount();
         List<PricingPlan.PricingComponent> comps = new ArrayList<>();
         for (Map<String,Object> c : p.getPriceProfileSnapshot().getComponents()) {
@@ -36,6 +95,6 @@ public class PricingService {
             total = total.add(add);
             comps.add(new PricingPlan.PricingComponent(type, calc, val, Boolean.TRUE.equals(c.get("isEnforced"))));
         }
-        return new PricingPlan(p.getBaseAmount(), comps, total);
+        return new PricingPlan(p.getCurrency(), p.getBaseAmount(), comps, total);
     }
 }
@@ -1,34 +1,71 @@
 package com.mysillydreams.treasure.domain.service;
 
+import com.mysillydreams.treasure.cache.CacheNames;
 import com.mysillydreams.treasure.domain.model.PlanSlot;
 import com.mysillydreams.treasure.domain.repository.PlanSlotRepository;
+import com.mysillydreams.treasure.velocity.EnrollmentVelocityTracker;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ScarcityService {
 
     private final PlanSlotRepository slotRepo;
-    private final StringRedisTemplate redis;
+    private final EnrollmentVelocityTracker velocityTracker;
+    private final CacheManager cacheManager;
 
-    // Called by consumer on enrollment.created and by a scheduler
     @Transactional
     public void recomputeAvailableView(UUID planId) {
         PlanSlot slot = slotRepo.findByPlanId(planId).orElseThrow();
         if (slot.getCapacityNullMeansOpen() != null) return; // finite → ignore cosmetic
 
-        // Example heuristic: base 20 ± velocity(last hour)
-        int velocity = Optional.ofNullable(redis.opsForValue().get("metrics:enroll/hour:"+planId))
-                .map(Integer::valueOf).orElse(0);
-        int display = Math.max(5, 20 + (velocity / 3));
-        slot.setAvailableView(display);
+        int velocity = velocityTracker.hourlyVelocity(List.of(planId)).getOrDefault(planId, 0);
+        slot.setAvailableView(displayFor(velocity));
         slotRepo.save(slot);
     }
-}
 
+    /**
+     * Recompute availableView for all open plans in one pass. Velocities are read in
+     * bulk and only slots whose view changed become dirty, so the flush issues one
+     * batched UPDATE for just those rows.
+     */
+    @Scheduled(fixedDelayString = "${treasure.scarcity.recompute-interval:PT1M}")
+    @Transactional
+    public void recomputeOpenPlans() {
+        List<PlanSlot> slots = slotRepo.findOpenSlotsOfActivePlans(OffsetDateTime.now());
+        if (slots.isEmpty()) return;
+
+        Map<UUID, Integer> velocities = velocityTracker.hourlyVelocity(
+                slots.stream().map(s -> s.getPlan().getId()).toList());
+        Cache detailCache = cacheManager.getCache(CacheNames.PLAN_DETAIL);
+
+        int changed = 0;
+        for (PlanSlot slot : slots) {
+            UUID planId = slot.getPlan().getId();
+            int display = displayFor(velocities.getOrDefault(planId, 0));
+            if (slot.getAvailableView() != display) {
+                slot.setAvailableView(display);
+                if (detailCache != null) detailCache.evict(planId);
+                changed++;
+            }
+        }
+        log.debug("Scarcity recompute: {} open plans, {} changed", slots.size(), changed);
+    }
+
+    // Example heuristic: base 20 ± velocity(last hour)
+    static int displayFor(int velocity) {
+        return Math.max(5, 20 + (velocity / 3));
+    }
+}
@@ -17,11 +17,21 @@ public class TaskProgressService {
     private final EnrollmentRepository enrollRepo;
     private final UserLevelService userLevelService;
     private final EnrollmentEventProducer eventProducer;
+    private final CheckpointValidationService checkpointValidator;
 
     @Transactional
     public TaskProgress completeTask(UUID enrollmentId, UUID taskId) {
+        return completeTask(enrollmentId, taskId, null, null);
+    }
+
+    /**
+     * Complete a task, validating the reported position when the task is gated by a checkpoint
+     */
+    @Transactional
+    public TaskProgress completeTask(UUID enrollmentId, UUID taskId, Double latitude, Double longitude) {
         Enrollment e = enrollRepo.findById(enrollmentId).orElseThrow();
-        TaskProgress p = progressRepo.findByEnrollmentIdAndTaskId(enrollmentId, taskId)
+        checkpointValidator.requireAtTaskCheckpoint(e.getPlan().getId(), taskId, latitude, longitude);
+        TaskProgress p = progressRepo.findByEnrollmentIdAndTaskIdAndEnrolledAt(enrollmentId, taskId, e.getEnrolledAt())
                 .orElse(TaskProgress.builder().enrollment(e).task(Task.builder().id(taskId).build()).status(TaskStatus.STARTED).build());
         p.setStatus(TaskStatus.DONE);
         TaskProgress saved = progressRepo.save(p);
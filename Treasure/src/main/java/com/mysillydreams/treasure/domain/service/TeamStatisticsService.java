@@ -0,0 +1,157 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.mysillydreams.treasure.domain.model.*;
+import com.mysillydreams.treasure.domain.repository.TeamMemberRepository;
+import com.mysillydreams.treasure.domain.repository.TeamStatisticsRepository;
+import com.mysillydreams.treasure.domain.repository.UserStatisticsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Maintains team_statistics incrementally: each member score change is applied as a
+ * delta to the member's team, and a team switch moves the member's totals across.
+ * A periodic rebuild recomputes every team from user_statistics and repairs drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TeamStatisticsService {
+
+    private final TeamMemberRepository teamMemberRepository;
+    private final TeamStatisticsRepository teamStatisticsRepository;
+    private final UserStatisticsRepository userStatisticsRepository;
+
+    /**
+     * Pin the user to {@code teamName}; on a switch their totals leave the old team
+     */
+    @Transactional
+    public void assignMember(UUID userId, String teamName) {
+        if (teamMemberRepository.insertIfAbsent(userId, teamName) == 1) {
+            moveMemberTotals(userId, null, teamName);
+            return;
+        }
+        TeamMember member = teamMemberRepository.lockByUserId(userId).orElseThrow();
+        if (member.getTeamName().equals(teamName)) return;
+
+        String previous = member.getTeamName();
+        member.setTeamName(teamName);
+        member.setJoinedAt(OffsetDateTime.now());
+        teamMemberRepository.save(member);
+        moveMemberTotals(userId, previous, teamName);
+        log.info("User {} moved from team '{}' to '{}'", userId, previous, teamName);
+    }
+
+    /**
+     * Apply a member's statistics change to their team, if they have one
+     */
+    @Transactional
+    public void applyMemberDelta(UUID userId, Difficulty difficulty, int plansCompleted, int tasksCompleted, BigDecimal score) {
+        if (plansCompleted == 0 && tasksCompleted == 0 && score.signum() == 0) return;
+        teamMemberRepository.findTeamNameForShare(userId).ifPresent(team ->
+                teamStatisticsRepository.applyDelta(team, difficulty.name(), score, plansCompleted, tasksCompleted));
+    }
+
+    /**
+     * Ranked team standings, read from the team index without aggregating members
+     */
+    @Transactional(readOnly = true)
+    public List<Leaderboard> getTopTeams(Difficulty difficulty, int limit) {
+        List<TeamStatistics> teams = teamStatisticsRepository.findTopTeams(difficulty, limit);
+        return IntStream.range(0, teams.size())
+                .mapToObj(i -> toLeaderboardEntry(teams.get(i), i + 1))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long countTeams(Difficulty difficulty) {
+        return teamStatisticsRepository.countByDifficulty(difficulty);
+    }
+
+    /**
+     * Recompute all team totals from member statistics and overwrite rows that drifted.
+     *
+     * @return number of team rows that had to be corrected
+     */
+    @Scheduled(cron = "${treasure.leaderboard.team-rebuild-cron:0 30 3 * * *}")
+    @Transactional
+    public int rebuild() {
+        teamStatisticsRepository.lockForRebuild();
+
+        Map<String, TeamStatistics> current = new HashMap<>();
+        for (TeamStatistics t : teamStatisticsRepository.findAll()) {
+            current.put(key(t.getTeamName(), t.getDifficulty()), t);
+        }
+
+        int drift = 0;
+        for (TeamStatisticsRepository.TeamTotals expected : teamStatisticsRepository.aggregateFromMembers()) {
+            Difficulty difficulty = Difficulty.valueOf(expected.getDifficulty());
+            int plans = expected.getPlansCompleted().intValue();
+            int tasks = expected.getTasksCompleted().intValue();
+            TeamStatistics row = current.remove(key(expected.getTeamName(), difficulty));
+            if (row == null) {
+                row = TeamStatistics.builder().teamName(expected.getTeamName()).difficulty(difficulty).build();
+            } else if (row.getTotalScore().compareTo(expected.getTotalScore()) == 0
+                    && row.getPlansCompleted() == plans && row.getTasksCompleted() == tasks) {
+                continue;
+            }
+            drift++;
+            row.setTotalScore(expected.getTotalScore());
+            row.setPlansCompleted(plans);
+            row.setTasksCompleted(tasks);
+            row.setUpdatedAt(OffsetDateTime.now());
+            teamStatisticsRepository.save(row);
+        }
+
+        // rows left over have no members any more
+        drift += current.size();
+        teamStatisticsRepository.deleteAll(current.values());
+
+        if (drift > 0) {
+            log.warn("Team statistics rebuild corrected {} drifted rows", drift);
+        } else {
+            log.info("Team statistics rebuild found no drift");
+        }
+        return drift;
+    }
+
+    private void moveMemberTotals(UUID userId, String fromTeam, String toTeam) {
+        for (UserStatistics stats : userStatisticsRepository.findByUserIdOrderByDifficulty(userId)) {
+            String difficulty = stats.getDifficulty().name();
+            if (fromTeam != null) {
+                teamStatisticsRepository.applyDelta(fromTeam, difficulty, stats.getTotalScore().negate(),
+                        -stats.getTotalPlansCompleted(), -stats.getTotalTasksCompleted());
+            }
+            teamStatisticsRepository.applyDelta(toTeam, difficulty, stats.getTotalScore(),
+                    stats.getTotalPlansCompleted(), stats.getTotalTasksCompleted());
+        }
+    }
+
+    private Leaderboard toLeaderboardEntry(TeamStatistics team, int rank) {
+        return Leaderboard.builder()
+                .difficulty(team.getDifficulty())
+                .leaderboardType(LeaderboardType.OVERALL)
+                .rankPosition(rank)
+                .totalScore(team.getTotalScore())
+                .plansCompleted(team.getPlansCompleted())
+                .tasksCompleted(team.getTasksCompleted())
+                .enrollmentType(EnrollmentType.TEAM)
+                .teamName(team.getTeamName())
+                .build();
+    }
+
+    private static String key(String teamName, Difficulty difficulty) {
+        return Objects.requireNonNull(teamName) + '|' + difficulty.name();
+    }
+}
@@ -0,0 +1,176 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.mysillydreams.treasure.domain.event.SeatsFreedEvent;
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import com.mysillydreams.treasure.domain.model.WaitlistEntry;
+import com.mysillydreams.treasure.domain.model.WaitlistStatus;
+import com.mysillydreams.treasure.domain.repository.PlanSlotRepository;
+import com.mysillydreams.treasure.domain.repository.WaitlistRepository;
+import com.mysillydreams.treasure.integrations.port.NotificationPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Per-plan FIFO waitlist for finite plans.
+ *
+ * When seats free up the head waiter's seats are reserved right away (same
+ * {@code tryReserve} as a normal enrollment) and offered for {@code treasure.waitlist.hold};
+ * the user claims the offer by enrolling again. Promotion is strictly FIFO: if the head
+ * needs more seats than are free, nobody behind it jumps ahead.
+ */
+@Slf4j
+@Service
+public class WaitlistService {
+
+    private static final int EXPIRY_BATCH = 100;
+
+    private final WaitlistRepository waitlistRepo;
+    private final PlanSlotRepository slotRepo;
+    private final ApplicationEventPublisher events;
+    private final Optional<NotificationPort> notificationPort;
+    private final Duration hold;
+
+    public WaitlistService(WaitlistRepository waitlistRepo, PlanSlotRepository slotRepo,
+                           ApplicationEventPublisher events, Optional<NotificationPort> notificationPort,
+                           @Value("${treasure.waitlist.hold:PT15M}") Duration hold) {
+        this.waitlistRepo = waitlistRepo;
+        this.slotRepo = slotRepo;
+        this.events = events;
+        this.notificationPort = notificationPort;
+        this.hold = hold;
+    }
+
+    public record Position(UUID entryId, WaitlistStatus status, long position, OffsetDateTime holdExpiresAt) {}
+
+    /**
+     * Queue the user (idempotent per user and plan). Runs in its own transaction so the
+     * entry survives the rollback of the enrollment attempt that triggered it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Position join(UUID planId, UUID userId, EnrollmentType type, String teamName, Integer teamSize) {
+        int seats = type == EnrollmentType.TEAM ? teamSize : 1;
+        if (waitlistRepo.enqueue(planId, userId, type.name(), teamName, teamSize, seats) == 1) {
+            log.info("User {} joined waitlist for plan {} ({} seats)", userId, planId, seats);
+        }
+        return position(planId, userId).orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Position> position(UUID planId, UUID userId) {
+        return waitlistRepo.findLive(planId, userId).map(w -> new Position(w.getId(), w.getStatus(),
+                w.getStatus() == WaitlistStatus.WAITING ? waitlistRepo.positionOf(planId, w.getQueuedAt(), w.getId()) : 0,
+                w.getHoldExpiresAt()));
+    }
+
+    /** True if new enrollments must queue behind existing waiters */
+    @Transactional(readOnly = true)
+    public boolean hasWaiters(UUID planId) {
+        return waitlistRepo.existsByPlanIdAndStatus(planId, WaitlistStatus.WAITING);
+    }
+
+    /**
+     * Lock the user's pending offer, to be claimed by the caller's transaction.
+     * Returns empty if there is none or its hold has lapsed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<WaitlistEntry> lockValidOffer(UUID planId, UUID userId) {
+        return waitlistRepo.lockOffer(planId, userId).filter(w -> w.isHoldValid(OffsetDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markClaimed(WaitlistEntry offer, UUID enrollmentId) {
+        offer.setStatus(WaitlistStatus.CLAIMED);
+        offer.setEnrollmentId(enrollmentId);
+        waitlistRepo.save(offer);
+    }
+
+    /**
+     * Leave the waitlist; a pending offer's seats go to the next waiter
+     */
+    @Transactional
+    public void leave(UUID planId, UUID userId) {
+        waitlistRepo.lockLive(planId, userId).ifPresent(w -> {
+            boolean held = w.getStatus() == WaitlistStatus.OFFERED;
+            w.setStatus(WaitlistStatus.CANCELLED);
+            waitlistRepo.save(w);
+            if (held) {
+                slotRepo.release(planId, w.getSeats());
+                events.publishEvent(new SeatsFreedEvent(planId, "waitlist-left"));
+            }
+        });
+    }
+
+    /**
+     * Promote waiters once the change that freed the seats is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSeatsFreed(SeatsFreedEvent event) {
+        int promoted = promote(event.planId());
+        if (promoted > 0) log.info("Promoted {} waiters for plan {} after {}", promoted, event.planId(), event.reason());
+    }
+
+    /**
+     * Offer freed seats to waiters in queue order; each offer reserves its seats
+     * atomically with the status change. Requires a surrounding transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int promote(UUID planId) {
+        int promoted = 0;
+        List<WaitlistEntry> offered = new ArrayList<>();
+        OffsetDateTime now = OffsetDateTime.now();
+        while (true) {
+            Optional<WaitlistEntry> head = waitlistRepo.lockHead(planId);
+            if (head.isEmpty()) break;
+            WaitlistEntry w = head.get();
+            if (slotRepo.tryReserve(planId, w.getSeats()) == 0) break;
+            w.setStatus(WaitlistStatus.OFFERED);
+            w.setOfferedAt(now);
+            w.setHoldExpiresAt(now.plus(hold));
+            waitlistRepo.saveAndFlush(w); // must leave WAITING before the next head lookup
+            offered.add(w);
+            promoted++;
+        }
+        if (!offered.isEmpty()) notifyOffered(offered);
+        return promoted;
+    }
+
+    /**
+     * Lapse offers whose hold ran out, return their seats and offer them onwards
+     */
+    @Scheduled(fixedDelayString = "${treasure.waitlist.expiry-interval:PT30S}")
+    @Transactional
+    public void expireHolds() {
+        List<WaitlistEntry> expired = waitlistRepo.lockExpiredHolds(OffsetDateTime.now(), EXPIRY_BATCH);
+        if (expired.isEmpty()) return;
+
+        Map<UUID, Integer> seatsByPlan = new HashMap<>();
+        for (WaitlistEntry w : expired) {
+            w.setStatus(WaitlistStatus.EXPIRED);
+            seatsByPlan.merge(w.getPlanId(), w.getSeats(), Integer::sum);
+        }
+        waitlistRepo.saveAll(expired);
+        seatsByPlan.forEach((planId, seats) -> {
+            slotRepo.release(planId, seats);
+            events.publishEvent(new SeatsFreedEvent(planId, "waitlist-hold-expired"));
+        });
+        log.info("Expired {} waitlist holds across {} plans", expired.size(), seatsByPlan.size());
+    }
+
+    // the outbox insert joins this transaction, so an offer and its notification commit together
+    private void notifyOffered(List<WaitlistEntry> offered) {
+        notificationPort.ifPresent(np -> offered.forEach(w -> np.send(
+                w.getUserId().toString(), "EMAIL", "waitlist_offer", w.getPlanId().toString(),
+                Map.of("planId", w.getPlanId().toString(), "holdExpiresAt", w.getHoldExpiresAt().toString()))));
+    }
+}
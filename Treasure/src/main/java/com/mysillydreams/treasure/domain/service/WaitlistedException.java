@@ -0,0 +1,27 @@
+package com.mysillydreams.treasure.domain.service;
+
+import java.util.UUID;
+
+/**
+ * Thrown instead of "No slots available" once the user has been queued; carries the
+ * queue position so callers can answer with it rather than invite a retry.
+ */
+public class WaitlistedException extends IllegalStateException {
+
+    private final UUID planId;
+    private final WaitlistService.Position position;
+
+    public WaitlistedException(UUID planId, WaitlistService.Position position) {
+        super("Plan is full; you are #" + position.position() + " on the waitlist");
+        this.planId = planId;
+        this.position = position;
+    }
+
+    public UUID getPlanId() {
+        return planId;
+    }
+
+    public WaitlistService.Position getPosition() {
+        return position;
+    }
+}
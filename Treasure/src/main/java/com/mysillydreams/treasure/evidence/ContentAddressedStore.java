@@ -0,0 +1,169 @@
+package com.mysillydreams.treasure.evidence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Local object store keyed by the SHA-256 of the content. Uploads are streamed to a
+ * temp file through {@link FileChannel#transferFrom}, hashed and size-checked on the
+ * way, then moved to {@code <dir>/<first two hex digits>/<sha256>.<ext>}. Storing the
+ * same bytes twice keeps the existing object.
+ */
+@Component
+public class ContentAddressedStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}\\.(jpg|png)");
+    private static final long CHUNK = 1 << 20;
+
+    public record StoredObject(String key, String contentType, long sizeBytes) {}
+
+    private final Path root;
+    private final Path tmp;
+
+    public ContentAddressedStore(@Value("${treasure.evidence.dir:./evidence}") Path root) {
+        this.root = root;
+        this.tmp = root.resolve("tmp");
+    }
+
+    /**
+     * Stream {@code source} into the store. Only JPEG and PNG content is accepted,
+     * recognised from its first bytes.
+     *
+     * @throws EvidenceTooLargeException once more than {@code maxBytes} have been read
+     * @throws IllegalArgumentException  if the content is empty or not a supported image
+     */
+    public StoredObject put(ReadableByteChannel source, long maxBytes) throws IOException {
+        Files.createDirectories(tmp);
+        Path partial = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            HashingChannel in = new HashingChannel(source, maxBytes);
+            try (FileChannel out = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                long position = 0, n;
+                // a blocking source only transfers 0 bytes at end of stream
+                while ((n = out.transferFrom(in, position, CHUNK)) > 0) position += n;
+            }
+            if (in.size == 0) throw new IllegalArgumentException("Empty upload");
+            ImageType type = ImageType.sniff(in.header)
+                    .orElseThrow(() -> new IllegalArgumentException("Only JPEG and PNG images are accepted"));
+
+            String key = HexFormat.of().formatHex(in.digest.digest()) + "." + type.extension;
+            Path target = path(key);
+            if (Files.exists(target)) {
+                Files.delete(partial);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredObject(key, type.contentType, in.size);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    public Optional<Path> find(String key) {
+        if (!isKey(key)) return Optional.empty();
+        Path p = path(key);
+        return Files.exists(p) ? Optional.of(p) : Optional.empty();
+    }
+
+    /** Where the thumbnail of {@code key} lives, whether or not it has been generated yet */
+    public Path thumbnailPath(String key) {
+        return path(key).resolveSibling(key.substring(0, key.indexOf('.')) + ".thumb.jpg");
+    }
+
+    Path tmpDir() {
+        return tmp;
+    }
+
+    public static boolean isKey(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+
+    public static String contentType(String key) {
+        return key.endsWith(".png") ? ImageType.PNG.contentType : ImageType.JPEG.contentType;
+    }
+
+    private Path path(String key) {
+        if (!isKey(key)) throw new IllegalArgumentException("Invalid evidence key");
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private enum ImageType {
+        JPEG("jpg", "image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+        PNG("png", "image/png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+        final String extension;
+        final String contentType;
+        final byte[] magic;
+
+        ImageType(String extension, String contentType, byte[] magic) {
+            this.extension = extension;
+            this.contentType = contentType;
+            this.magic = magic;
+        }
+
+        static Optional<ImageType> sniff(byte[] header) {
+            for (ImageType t : values()) {
+                if (Arrays.equals(header, 0, t.magic.length, t.magic, 0, t.magic.length)) return Optional.of(t);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /** Pass-through channel that hashes, counts and keeps the first bytes of what it reads */
+    private static final class HashingChannel implements ReadableByteChannel {
+        final ReadableByteChannel delegate;
+        final long maxBytes;
+        final MessageDigest digest;
+        final byte[] header = new byte[8];
+        long size;
+
+        HashingChannel(ReadableByteChannel delegate, long maxBytes) {
+            this.delegate = delegate;
+            this.maxBytes = maxBytes;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int start = dst.position();
+            int n = delegate.read(dst);
+            if (n <= 0) return n;
+            if (size + n > maxBytes) throw new EvidenceTooLargeException(maxBytes);
+
+            ByteBuffer read = dst.duplicate().flip().position(start);
+            if (size < header.length) {
+                read.duplicate().get(header, (int) size, (int) Math.min(header.length - size, n));
+            }
+            digest.update(read);
+            size += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mysillydreams.treasure.evidence;
+
+import com.mysillydreams.treasure.domain.service.CheckpointValidationService;
+import com.mysillydreams.treasure.geo.CheckpointSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Accepts photo evidence for checkpoints that require one. The body is streamed
+ * straight into the {@link ContentAddressedStore}; nothing is buffered in memory
+ * and no DB connection is held while the upload is in flight.
+ */
+@Slf4j
+@Service
+public class EvidenceService {
+
+    private static final Set<String> ACCEPTED_TYPES = Set.of("image/jpeg", "image/png");
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO checkpoint_progress (enrollment_id, checkpoint_id, validation_photo_url)
+        VALUES (?, ?, ?)
+        ON CONFLICT (enrollment_id, checkpoint_id)
+        DO UPDATE SET validation_photo_url = EXCLUDED.validation_photo_url, updated_at = now()
+        """;
+
+    public record Evidence(String key, String contentType, long sizeBytes) {}
+
+    private final JdbcTemplate jdbc;
+    private final CheckpointValidationService checkpoints;
+    private final ContentAddressedStore store;
+    private final ThumbnailGenerator thumbnails;
+    private final long maxBytes;
+
+    public EvidenceService(JdbcTemplate jdbc,
+                           CheckpointValidationService checkpoints,
+                           ContentAddressedStore store,
+                           ThumbnailGenerator thumbnails,
+                           @Value("${treasure.evidence.max-bytes:15728640}") long maxBytes) {
+        this.jdbc = jdbc;
+        this.checkpoints = checkpoints;
+        this.store = store;
+        this.thumbnails = thumbnails;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Store a checkpoint photo and record it on the participant's checkpoint progress.
+     * Everything that can be rejected without reading the body is checked first.
+     *
+     * @param contentLength declared length, or -1 for a chunked upload
+     */
+    public Evidence upload(UUID enrollmentId, UUID checkpointId, String contentType,
+                           long contentLength, InputStream body) {
+        if (contentType == null || !ACCEPTED_TYPES.contains(contentType.toLowerCase().split(";")[0].trim())) {
+            throw new IllegalArgumentException("Only image/jpeg and image/png uploads are accepted");
+        }
+        if (contentLength > maxBytes) throw new EvidenceTooLargeException(maxBytes);
+
+        List<UUID> planIds = jdbc.queryForList("SELECT plan_id FROM enrollment WHERE id = ?", UUID.class, enrollmentId);
+        if (planIds.isEmpty()) throw new IllegalArgumentException("Enrollment not found");
+        CheckpointSnapshot checkpoint = checkpoints.indexFor(planIds.get(0)).checkpoint(checkpointId)
+                .orElseThrow(() -> new IllegalArgumentException("Checkpoint not found for this enrollment's plan"));
+        if (!checkpoint.requiresPhoto()) {
+            throw new IllegalArgumentException("Checkpoint '" + checkpoint.name() + "' does not take photo evidence");
+        }
+
+        ContentAddressedStore.StoredObject stored;
+        try {
+            stored = store.put(Channels.newChannel(body), maxBytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Storing evidence failed", ex);
+        }
+
+        jdbc.update(UPSERT_SQL, enrollmentId, checkpointId, "/api/treasure/v1/evidence/" + stored.key());
+        thumbnails.generateAsync(stored.key());
+        log.debug("Stored evidence {} ({} bytes) for enrollment {} at checkpoint {}",
+                stored.key(), stored.sizeBytes(), enrollmentId, checkpointId);
+        return new Evidence(stored.key(), stored.contentType(), stored.sizeBytes());
+    }
+}
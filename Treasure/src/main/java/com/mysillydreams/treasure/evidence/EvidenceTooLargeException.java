@@ -0,0 +1,19 @@
+package com.mysillydreams.treasure.evidence;
+
+/**
+ * Thrown as soon as an upload is known to exceed the evidence size limit, either from
+ * its declared length or while streaming; answered with 413.
+ */
+public class EvidenceTooLargeException extends RuntimeException {
+
+    private final long maxBytes;
+
+    public EvidenceTooLargeException(long maxBytes) {
+        super("Evidence exceeds the limit of " + maxBytes + " bytes");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,120 @@
+package com.mysillydreams.treasure.evidence;
+
+import com.mysillydreams.treasure.config.ExecutorConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Writes a JPEG thumbnail next to each stored image, off the upload request.
+ * Large photos are decoded with source subsampling, so only about twice the
+ * thumbnail resolution is ever held in memory.
+ */
+@Slf4j
+@Component
+public class ThumbnailGenerator {
+
+    private final ContentAddressedStore store;
+    private final Executor executor;
+    private final int size;
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailGenerator(ContentAddressedStore store,
+                              @Qualifier(ExecutorConfig.EVIDENCE_THUMBNAIL_EXECUTOR) Executor executor,
+                              @Value("${treasure.evidence.thumbnail.size:320}") int size) {
+        this.store = store;
+        this.executor = executor;
+        this.size = size;
+    }
+
+    /** Queue generation; when every slot is busy it is left for the first request of the thumbnail */
+    public void generateAsync(String key) {
+        if (Files.exists(store.thumbnailPath(key)) || !inProgress.add(key)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key);
+                } finally {
+                    inProgress.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inProgress.remove(key);
+            log.debug("Thumbnail for {} deferred: {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * Generate the thumbnail unless it already exists.
+     *
+     * @return its path, or empty if the original is missing or cannot be decoded
+     */
+    Optional<Path> generate(String key) {
+        Path thumbnail = store.thumbnailPath(key);
+        if (Files.exists(thumbnail)) return Optional.of(thumbnail);
+        Optional<Path> original = store.find(key);
+        if (original.isEmpty()) return Optional.empty();
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.get().toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                log.warn("No image reader for evidence {}", key);
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            BufferedImage decoded;
+            try {
+                reader.setInput(in, true, true);
+                int step = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            double scale = Math.min(1.0, (double) size / Math.max(decoded.getWidth(), decoded.getHeight()));
+            int w = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+            int h = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+            BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(decoded, 0, 0, w, h, Color.WHITE, null);
+            } finally {
+                g.dispose();
+            }
+
+            Files.createDirectories(store.tmpDir());
+            Path partial = Files.createTempFile(store.tmpDir(), "thumb-", ".part");
+            try {
+                ImageIO.write(scaled, "jpg", partial.toFile());
+                Files.move(partial, thumbnail, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+            return Optional.of(thumbnail);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Thumbnail for evidence {} failed: {}", key, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+}
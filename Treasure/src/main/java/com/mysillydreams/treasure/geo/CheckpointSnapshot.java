@@ -0,0 +1,20 @@
+package com.mysillydreams.treasure.geo;
+
+import java.util.UUID;
+
+/**
+ * Immutable in-memory copy of an active checkpoint
+ */
+public record CheckpointSnapshot(
+        UUID id,
+        UUID planId,
+        UUID taskId,
+        String name,
+        int order,
+        double latitude,
+        double longitude,
+        int radiusMeters,
+        boolean requiresPhoto,
+        boolean requiresQrScan,
+        boolean mandatory
+) {}
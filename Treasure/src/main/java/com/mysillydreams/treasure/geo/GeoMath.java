@@ -0,0 +1,48 @@
+package com.mysillydreams.treasure.geo;
+
+/**
+ * Spherical-earth helpers. Points are handled as unit ECEF vectors so that a
+ * "within radius" test is a single dot product against a precomputed cosine.
+ */
+public final class GeoMath {
+
+    /** Mean earth radius (IUGG) in meters */
+    public static final double EARTH_RADIUS_M = 6_371_008.8;
+
+    private GeoMath() {}
+
+    /** Unit ECEF vector for lat/lon in degrees, written into {@code out[0..2]} */
+    public static void toUnitVector(double latDeg, double lonDeg, double[] out) {
+        double lat = Math.toRadians(latDeg);
+        double lon = Math.toRadians(lonDeg);
+        double cosLat = Math.cos(lat);
+        out[0] = cosLat * Math.cos(lon);
+        out[1] = cosLat * Math.sin(lon);
+        out[2] = Math.sin(lat);
+    }
+
+    /** Cosine of the central angle spanned by an arc of {@code meters} */
+    public static double cosOfArc(double meters) {
+        return Math.cos(meters / EARTH_RADIUS_M);
+    }
+
+    /** Great-circle distance in meters for the dot product of two unit vectors */
+    public static double arcMeters(double dot) {
+        return EARTH_RADIUS_M * Math.acos(Math.max(-1.0, Math.min(1.0, dot)));
+    }
+
+    /** Haversine distance in meters; used where vectors are not precomputed */
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static boolean isValidCoordinate(double lat, double lon) {
+        return !Double.isNaN(lat) && !Double.isNaN(lon)
+                && lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180;
+    }
+}
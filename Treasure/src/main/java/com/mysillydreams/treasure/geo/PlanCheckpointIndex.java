@@ -0,0 +1,187 @@
+package com.mysillydreams.treasure.geo;
+
+import java.util.*;
+
+/**
+ * Read-only spatial index over the checkpoints of one plan.
+ *
+ * Checkpoints are bucketed into a coarse lat/lon grid (~1.1 km cells) for
+ * nearest lookups; each checkpoint also keeps its unit ECEF vector and the
+ * cosine of its validation radius, so a radius check never calls trig on the
+ * checkpoint side. Instances are immutable and safe to share across threads.
+ */
+public final class PlanCheckpointIndex {
+
+    /** Grid cell edge in degrees; 0.01° of latitude is ~1.1 km */
+    static final double CELL_DEG = 0.01;
+    private static final double CELL_METERS_LAT = Math.toRadians(CELL_DEG) * GeoMath.EARTH_RADIUS_M;
+
+    public record Check(CheckpointSnapshot checkpoint, boolean withinRadius, double distanceMeters) {}
+
+    private final UUID planId;
+    private final CheckpointSnapshot[] checkpoints;
+    private final double[] x, y, z, minDot;
+    private final Map<UUID, Integer> byId;
+    private final Map<UUID, int[]> byTask;
+    private final Map<Long, int[]> grid;
+    private final int maxRadiusMeters;
+
+    private PlanCheckpointIndex(UUID planId, List<CheckpointSnapshot> source) {
+        this.planId = planId;
+        this.checkpoints = source.toArray(CheckpointSnapshot[]::new);
+        int n = checkpoints.length;
+        this.x = new double[n];
+        this.y = new double[n];
+        this.z = new double[n];
+        this.minDot = new double[n];
+
+        Map<UUID, Integer> ids = new HashMap<>(n * 2);
+        Map<UUID, List<Integer>> tasks = new HashMap<>();
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        double[] v = new double[3];
+        int maxRadius = 0;
+        for (int i = 0; i < n; i++) {
+            CheckpointSnapshot c = checkpoints[i];
+            GeoMath.toUnitVector(c.latitude(), c.longitude(), v);
+            x[i] = v[0];
+            y[i] = v[1];
+            z[i] = v[2];
+            minDot[i] = GeoMath.cosOfArc(c.radiusMeters());
+            maxRadius = Math.max(maxRadius, c.radiusMeters());
+            ids.put(c.id(), i);
+            if (c.taskId() != null) {
+                tasks.computeIfAbsent(c.taskId(), k -> new ArrayList<>()).add(i);
+            }
+            cells.computeIfAbsent(cellKey(latCell(c.latitude()), lonCell(c.longitude())), k -> new ArrayList<>()).add(i);
+        }
+        this.maxRadiusMeters = maxRadius;
+        this.byId = Map.copyOf(ids);
+        this.byTask = toArrays(tasks);
+        this.grid = toArrays(cells);
+    }
+
+    public static PlanCheckpointIndex of(UUID planId, List<CheckpointSnapshot> checkpoints) {
+        return new PlanCheckpointIndex(planId, checkpoints);
+    }
+
+    public static PlanCheckpointIndex empty(UUID planId) {
+        return new PlanCheckpointIndex(planId, List.of());
+    }
+
+    public UUID planId() {
+        return planId;
+    }
+
+    public int size() {
+        return checkpoints.length;
+    }
+
+    public boolean isEmpty() {
+        return checkpoints.length == 0;
+    }
+
+    public Optional<CheckpointSnapshot> checkpoint(UUID checkpointId) {
+        Integer i = byId.get(checkpointId);
+        return i == null ? Optional.empty() : Optional.of(checkpoints[i]);
+    }
+
+    public List<CheckpointSnapshot> forTask(UUID taskId) {
+        int[] idx = byTask.get(taskId);
+        if (idx == null) return List.of();
+        List<CheckpointSnapshot> out = new ArrayList<>(idx.length);
+        for (int i : idx) out.add(checkpoints[i]);
+        return out;
+    }
+
+    /**
+     * Validate a reported position against one checkpoint
+     */
+    public Optional<Check> check(UUID checkpointId, double lat, double lon) {
+        Integer i = byId.get(checkpointId);
+        if (i == null) return Optional.empty();
+        double[] v = new double[3];
+        GeoMath.toUnitVector(lat, lon, v);
+        return Optional.of(checkAt(i, v));
+    }
+
+    /**
+     * Validate a reported position against the checkpoints gating a task.
+     * Returns the closest one, flagged as within radius if any matched.
+     */
+    public Optional<Check> checkTask(UUID taskId, double lat, double lon) {
+        int[] idx = byTask.get(taskId);
+        if (idx == null) return Optional.empty();
+        double[] v = new double[3];
+        GeoMath.toUnitVector(lat, lon, v);
+        int best = -1;
+        double bestDot = -2;
+        for (int i : idx) {
+            double dot = dot(i, v);
+            if (dot >= minDot[i]) return Optional.of(new Check(checkpoints[i], true, GeoMath.arcMeters(dot)));
+            if (dot > bestDot) {
+                bestDot = dot;
+                best = i;
+            }
+        }
+        return Optional.of(new Check(checkpoints[best], false, GeoMath.arcMeters(bestDot)));
+    }
+
+    /**
+     * Closest checkpoint whose validation radius contains the position, if any
+     */
+    public Optional<Check> nearestWithinRadius(double lat, double lon) {
+        if (checkpoints.length == 0) return Optional.empty();
+        double[] v = new double[3];
+        GeoMath.toUnitVector(lat, lon, v);
+
+        int latC = latCell(lat);
+        int lonC = lonCell(lon);
+        int latSpan = (int) Math.ceil(maxRadiusMeters / CELL_METERS_LAT);
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(lat)));
+        int lonSpan = (int) Math.ceil(maxRadiusMeters / (CELL_METERS_LAT * cosLat));
+
+        int best = -1;
+        double bestDot = -2;
+        for (int dl = -latSpan; dl <= latSpan; dl++) {
+            for (int dn = -lonSpan; dn <= lonSpan; dn++) {
+                int[] cell = grid.get(cellKey(latC + dl, lonC + dn));
+                if (cell == null) continue;
+                for (int i : cell) {
+                    double dot = dot(i, v);
+                    if (dot >= minDot[i] && dot > bestDot) {
+                        bestDot = dot;
+                        best = i;
+                    }
+                }
+            }
+        }
+        return best < 0 ? Optional.empty() : Optional.of(new Check(checkpoints[best], true, GeoMath.arcMeters(bestDot)));
+    }
+
+    private Check checkAt(int i, double[] v) {
+        double dot = dot(i, v);
+        return new Check(checkpoints[i], dot >= minDot[i], GeoMath.arcMeters(dot));
+    }
+
+    private double dot(int i, double[] v) {
+        return x[i] * v[0] + y[i] * v[1] + z[i] * v[2];
+    }
+
+    static int latCell(double lat) {
+        return (int) Math.floor(lat / CELL_DEG);
+    }
+
+    static int lonCell(double lon) {
+        return (int) Math.floor(lon / CELL_DEG);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> source) {
+        Map<K, int[]> out = new HashMap<>(source.size() * 2);
+        source.forEach((k, list) -> out.put(k, list.stream().mapToInt(Integer::intValue).toArray()));
+        return Map.copyOf(out);
+    }
+}
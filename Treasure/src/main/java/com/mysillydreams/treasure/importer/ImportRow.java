@@ -0,0 +1,8 @@
+package com.mysillydreams.treasure.importer;
+
+import com.mysillydreams.treasure.api.rest.dto.request.CreatePlanRequest;
+
+/**
+ * One parsed input line; {@code plan} is null when the line could not be parsed
+ */
+record ImportRow(int line, CreatePlanRequest plan, String error) {}
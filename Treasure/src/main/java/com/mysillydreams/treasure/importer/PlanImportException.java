@@ -0,0 +1,22 @@
+package com.mysillydreams.treasure.importer;
+
+import java.util.List;
+
+/**
+ * The import was rejected as a whole; nothing was written.
+ */
+public class PlanImportException extends IllegalArgumentException {
+
+    public record RowError(int line, String message) {}
+
+    private final List<RowError> errors;
+
+    public PlanImportException(List<RowError> errors) {
+        super(errors.size() + " invalid row(s); nothing was imported");
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+}
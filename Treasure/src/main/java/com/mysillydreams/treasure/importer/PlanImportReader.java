@@ -0,0 +1,153 @@
+package com.mysillydreams.treasure.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.api.rest.dto.request.CreatePlanRequest;
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import com.mysillydreams.treasure.domain.model.TimeWindowType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Reads plan import files line by line.
+ *
+ * JSONL: one {@link CreatePlanRequest} object per line, the same shape as POST /admin/plans.
+ *
+ * CSV: a header row naming the columns below, then one plan per row. List columns are
+ * {@code |}-separated: {@code difficulties} as {@code LEVEL:number[:crucial]},
+ * {@code rules} and {@code tasks} as plain text (tasks imported as non-crucial).
+ * Price components are only supported in JSONL.
+ * <pre>subcategoryId,title,summary,venueText,city,country,isVirtual,timeWindowType,
+ * startAt,endAt,maxParticipants,currency,baseAmount,difficulties,rules,tasks</pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanImportReader {
+
+    public enum Format { CSV, JSONL }
+
+    private static final Set<String> CSV_COLUMNS = Set.of(
+            "subcategoryId", "title", "summary", "venueText", "city", "country", "isVirtual", "timeWindowType",
+            "startAt", "endAt", "maxParticipants", "currency", "baseAmount", "difficulties", "rules", "tasks");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @throws IllegalArgumentException if the input has more than {@code maxRows} rows or an unusable CSV header
+     */
+    List<ImportRow> read(BufferedReader in, Format format, int maxRows) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        Map<String, Integer> header = null;
+        String line;
+        int n = 0;
+        while ((line = in.readLine()) != null) {
+            n++;
+            if (line.isBlank()) continue;
+            if (format == Format.CSV && header == null) {
+                header = header(parseCsv(line));
+                continue;
+            }
+            if (rows.size() == maxRows) throw new IllegalArgumentException("Import is limited to " + maxRows + " plans");
+            rows.add(format == Format.JSONL ? jsonRow(n, line) : csvRow(n, parseCsv(line), header));
+        }
+        return rows;
+    }
+
+    private ImportRow jsonRow(int line, String json) {
+        try {
+            return new ImportRow(line, objectMapper.readValue(json, CreatePlanRequest.class), null);
+        } catch (JsonProcessingException ex) {
+            return new ImportRow(line, null, "Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private ImportRow csvRow(int line, List<String> cells, Map<String, Integer> header) {
+        try {
+            Map<String, String> v = new HashMap<>();
+            header.forEach((name, i) -> {
+                String cell = i < cells.size() ? cells.get(i).trim() : "";
+                if (!cell.isEmpty()) v.put(name, cell);
+            });
+            String currency = v.get("currency");
+            String amount = v.get("baseAmount");
+            return new ImportRow(line, new CreatePlanRequest(
+                    v.containsKey("subcategoryId") ? UUID.fromString(v.get("subcategoryId")) : null,
+                    v.get("title"),
+                    v.get("summary"),
+                    v.get("venueText"),
+                    v.get("city"),
+                    v.get("country"),
+                    Boolean.parseBoolean(v.get("isVirtual")),
+                    v.containsKey("timeWindowType") ? TimeWindowType.valueOf(v.get("timeWindowType").toUpperCase()) : null,
+                    v.containsKey("startAt") ? OffsetDateTime.parse(v.get("startAt")) : null,
+                    v.containsKey("endAt") ? OffsetDateTime.parse(v.get("endAt")) : null,
+                    v.containsKey("maxParticipants") ? Integer.valueOf(v.get("maxParticipants")) : null,
+                    split(v.get("difficulties")).stream().map(PlanImportReader::difficulty).toList(),
+                    split(v.get("rules")),
+                    split(v.get("tasks")).stream().map(t -> new CreatePlanRequest.TaskBlock(t, null, false)).toList(),
+                    currency != null || amount != null
+                            ? new CreatePlanRequest.PriceBlock(currency, amount != null ? new BigDecimal(amount) : null)
+                            : null,
+                    List.of()), null);
+        } catch (RuntimeException ex) {
+            return new ImportRow(line, null, "Invalid value: " + ex.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> header(List<String> names) {
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            if (!CSV_COLUMNS.contains(name)) throw new IllegalArgumentException("Unknown CSV column '" + name + "'");
+            header.put(name, i);
+        }
+        return header;
+    }
+
+    private static CreatePlanRequest.DifficultyBlock difficulty(String spec) {
+        String[] parts = spec.split(":");
+        return new CreatePlanRequest.DifficultyBlock(Difficulty.valueOf(parts[0].trim().toUpperCase()),
+                parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1,
+                parts.length > 2 && Boolean.parseBoolean(parts[2].trim()));
+    }
+
+    private static List<String> split(String cell) {
+        if (cell == null) return List.of();
+        return Arrays.stream(cell.split("\\|")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    /** RFC 4180 fields of a single line; quoted fields may contain commas and doubled quotes */
+    static List<String> parseCsv(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        out.add(cell.toString());
+        return out;
+    }
+}
@@ -0,0 +1,201 @@
+package com.mysillydreams.treasure.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.api.rest.dto.request.CreatePlanRequest;
+import com.mysillydreams.treasure.cache.CacheNames;
+import com.mysillydreams.treasure.domain.event.PlansImportedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk plan creation for seasonal onboarding. The whole file is validated before
+ * anything is written; then every table is filled with one JDBC batch per table in a
+ * single transaction. Ids are generated here, time-ordered, so no batch needs the
+ * database to hand keys back. Caches are evicted and read models rebuilt once.
+ */
+@Slf4j
+@Service
+public class PlanImportService {
+
+    private static final String SNAPSHOT_SQL =
+            "INSERT INTO price_profile_snapshot (id, currency, components, is_enforced) VALUES (?, ?, ?::jsonb, true)";
+    private static final String PLAN_SQL = """
+        INSERT INTO plan (id, subcategory_id, title, summary, venue_text, city, country, is_virtual,
+                          time_window, start_at, end_at, max_participants, native_currency)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::time_window_type, ?, ?, ?, ?)
+        """;
+    private static final String DIFFICULTY_SQL =
+            "INSERT INTO plan_difficulty (id, plan_id, difficulty, level_number, is_crucial) VALUES (?, ?, ?::difficulty, ?, ?)";
+    private static final String RULE_SQL =
+            "INSERT INTO plan_rule (id, plan_id, rule_text, display_order) VALUES (?, ?, ?, ?)";
+    private static final String TASK_SQL =
+            "INSERT INTO task (id, plan_id, title, details, crucial) VALUES (?, ?, ?, ?, ?)";
+    private static final String PRICE_SQL =
+            "INSERT INTO plan_price (id, plan_id, currency, base_amount, price_profile_snapshot_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String SLOT_SQL =
+            "INSERT INTO plan_slot (id, plan_id, capacity_null_means_open, reserved, available_view) VALUES (?, ?, ?, 0, 0)";
+
+    private final JdbcTemplate jdbc;
+    private final PlanImportReader reader;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+    private final int maxRows;
+    private final SecureRandom random = new SecureRandom();
+
+    public PlanImportService(JdbcTemplate jdbc,
+                             PlanImportReader reader,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher events,
+                             @Value("${treasure.admin.import.max-rows:5000}") int maxRows) {
+        this.jdbc = jdbc;
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Import every plan in the input, or none.
+     *
+     * @return ids of the created plans, in input order
+     * @throws PlanImportException listing every invalid row
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH, CacheNames.PLAN_PRICE}, allEntries = true)
+    public List<UUID> importPlans(BufferedReader in, PlanImportReader.Format format) throws IOException {
+        List<ImportRow> rows = reader.read(in, format, maxRows);
+        if (rows.isEmpty()) throw new IllegalArgumentException("No plans in the import");
+        validate(rows);
+
+        List<Object[]> snapshots = new ArrayList<>(), plans = new ArrayList<>(), difficulties = new ArrayList<>(),
+                rules = new ArrayList<>(), tasks = new ArrayList<>(), prices = new ArrayList<>(), slots = new ArrayList<>();
+        List<UUID> ids = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            CreatePlanRequest p = row.plan();
+            UUID planId = nextId(), snapshotId = nextId();
+            ids.add(planId);
+
+            snapshots.add(new Object[]{snapshotId, p.basePrice().currency(), components(p)});
+            plans.add(new Object[]{planId, p.subcategoryId(), p.title(), p.summary(), p.venueText(), p.city(), p.country(),
+                    p.isVirtual(), p.timeWindowType().name(), timestamp(p.startAt()), timestamp(p.endAt()), p.maxParticipants(),
+                    p.basePrice().currency()});
+            for (var d : nullToEmpty(p.difficulties())) {
+                difficulties.add(new Object[]{nextId(), planId, d.difficulty().name(), d.levelNumber(), d.isCrucial()});
+            }
+            int order = 0;
+            for (String r : nullToEmpty(p.rules())) rules.add(new Object[]{nextId(), planId, r, order++});
+            for (var t : nullToEmpty(p.tasks())) tasks.add(new Object[]{nextId(), planId, t.title(), t.details(), t.crucial()});
+            prices.add(new Object[]{nextId(), planId, p.basePrice().currency(), p.basePrice().amount(), snapshotId});
+            slots.add(new Object[]{nextId(), planId, p.maxParticipants()});
+        }
+
+        // parents first; each call is one round trip per JDBC batch
+        batch(SNAPSHOT_SQL, snapshots);
+        batch(PLAN_SQL, plans);
+        batch(DIFFICULTY_SQL, difficulties);
+        batch(RULE_SQL, rules);
+        batch(TASK_SQL, tasks);
+        batch(PRICE_SQL, prices);
+        batch(SLOT_SQL, slots);
+
+        events.publishEvent(new PlansImportedEvent(List.copyOf(ids)));
+        log.info("Imported {} plans ({} tasks, {} rules)", ids.size(), tasks.size(), rules.size());
+        return ids;
+    }
+
+    private void validate(List<ImportRow> rows) {
+        List<PlanImportException.RowError> errors = new ArrayList<>();
+        Set<UUID> subcategoryIds = rows.stream()
+                .map(ImportRow::plan)
+                .filter(Objects::nonNull)
+                .map(CreatePlanRequest::subcategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<UUID> known = subcategoryIds.isEmpty() ? Set.of() : new HashSet<>(jdbc.queryForList(
+                "SELECT id FROM subcategory WHERE id = ANY(?::uuid[])", UUID.class,
+                subcategoryIds.stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}"))));
+
+        for (ImportRow row : rows) {
+            if (row.error() != null) {
+                errors.add(new PlanImportException.RowError(row.line(), row.error()));
+                continue;
+            }
+            for (String problem : problems(row.plan(), known)) {
+                errors.add(new PlanImportException.RowError(row.line(), problem));
+            }
+        }
+        if (!errors.isEmpty()) throw new PlanImportException(errors);
+    }
+
+    static List<String> problems(CreatePlanRequest p, Set<UUID> knownSubcategories) {
+        List<String> out = new ArrayList<>();
+        if (p.subcategoryId() == null) out.add("subcategoryId is required");
+        else if (!knownSubcategories.contains(p.subcategoryId())) out.add("Unknown subcategory " + p.subcategoryId());
+        if (p.title() == null || p.title().isBlank()) out.add("title is required");
+        if (p.timeWindowType() == null) out.add("timeWindowType is required");
+        if (p.startAt() != null && p.endAt() != null && !p.endAt().isAfter(p.startAt())) out.add("endAt must be after startAt");
+        if (p.maxParticipants() != null && p.maxParticipants() < 1) out.add("maxParticipants must be positive or empty for open plans");
+        if (p.basePrice() == null || p.basePrice().currency() == null || p.basePrice().currency().isBlank()) {
+            out.add("currency is required");
+        }
+        if (p.basePrice() == null || p.basePrice().amount() == null || p.basePrice().amount().signum() < 0) {
+            out.add("baseAmount must be zero or more");
+        }
+        for (var d : nullToEmpty(p.difficulties())) {
+            if (d.difficulty() == null || d.levelNumber() < 1) out.add("difficulties need a level and a positive number");
+        }
+        for (var t : nullToEmpty(p.tasks())) {
+            if (t.title() == null || t.title().isBlank()) out.add("every task needs a title");
+        }
+        for (var pc : nullToEmpty(p.priceComponents())) {
+            if (pc.type() == null || pc.calc() == null || pc.value() == null) out.add("price components need type, calc and value");
+        }
+        return out;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) jdbc.batchUpdate(sql, rows);
+    }
+
+    private String components(CreatePlanRequest p) {
+        List<Map<String, Object>> list = nullToEmpty(p.priceComponents()).stream()
+                .map(pc -> Map.<String, Object>of("type", pc.type(), "calc", pc.calc(), "value", pc.value(), "isEnforced", pc.enforced()))
+                .toList();
+        try {
+            return objectMapper.writeValueAsString(list);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid price components", ex);
+        }
+    }
+
+    /**
+     * Version 7 layout: 48-bit millisecond timestamp, then random bits. Consecutive
+     * ids land next to each other in the primary key index instead of all over it.
+     */
+    UUID nextId() {
+        long msb = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static Timestamp timestamp(java.time.OffsetDateTime t) {
+        return t == null ? null : Timestamp.from(t.toInstant());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
@@ -13,8 +13,8 @@ import java.util.Optional;
 @ConditionalOnProperty(prefix="feature.integrations.notifications", name="enabled", havingValue="false", matchIfMissing = true)
 public class NotificationNoopAdapter implements NotificationPort {
     @Override
-    public Optional<String> send(String userId, String channel, String template, Map<String, String> data) {
-        log.info("[NOOP] Notification send userId={} channel={} template={} data={}", userId, channel, template, data);
+    public Optional<String> send(String userId, String channel, String template, String dedupeKey, Map<String, String> data) {
+        log.info("[NOOP] Notification send userId={} channel={} template={} key={} data={}", userId, channel, template, dedupeKey, data);
         return Optional.empty();
     }
 }
@@ -0,0 +1,34 @@
+package com.mysillydreams.treasure.integrations.adapter;
+
+import com.mysillydreams.treasure.integrations.port.NotificationPort;
+import com.mysillydreams.treasure.notification.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Request-path side of notifications: only writes to the outbox (inside the caller's
+ * transaction when there is one) and returns the outbox id; NotificationDispatcher delivers.
+ */
+@Component
+@ConditionalOnProperty(prefix="feature.integrations.notifications", name="enabled", havingValue="true")
+public class NotificationOutboxAdapter implements NotificationPort {
+
+    private final NotificationOutbox outbox;
+    private final Duration coalesceWindow;
+
+    public NotificationOutboxAdapter(NotificationOutbox outbox,
+                                     @Value("${treasure.notifications.coalesce-window:PT30S}") Duration coalesceWindow) {
+        this.outbox = outbox;
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    @Override
+    public Optional<String> send(String userId, String channel, String template, String dedupeKey, Map<String, String> data) {
+        return Optional.of(outbox.enqueue(userId, channel, template, dedupeKey, data, coalesceWindow).toString());
+    }
+}
@@ -0,0 +1,35 @@
+package com.mysillydreams.treasure.integrations.adapter;
+
+import com.mysillydreams.treasure.api.grpc.client.PaymentsGrpcClient;
+import com.mysillydreams.treasure.integrations.port.PaymentsPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix="feature.integrations.payments", name="enabled", havingValue="true")
+public class PaymentsGrpcAdapter implements PaymentsPort {
+
+    private final PaymentsGrpcClient client;
+
+    @Override
+    public Optional<PaymentLink> createPaymentLink(String enrollmentId, String userId, String currency, String amount, String planId) {
+        return createPaymentLinkAsync(enrollmentId, userId, currency, amount, planId).join();
+    }
+
+    @Override
+    public CompletableFuture<Optional<PaymentLink>> createPaymentLinkAsync(String enrollmentId, String userId, String currency,
+                                                                           String amount, String planId) {
+        return client.createLink(enrollmentId, userId, currency, amount, planId)
+                .thenApply(r -> r.getPaymentLink().isEmpty()
+                        ? Optional.<PaymentLink>empty()
+                        : Optional.of(new PaymentLink(r.getPaymentLink(), r.getPaymentId())));
+        // failures propagate: PaymentLinkRequests records them for retry
+    }
+}
@@ -4,5 +4,10 @@ import java.util.Map;
 import java.util.Optional;
 
 public interface NotificationPort {
-    Optional<String> send(String userId, String channel, String template, Map<String,String> data);
+    /**
+     * @param dedupeKey what the notification is about (a plan, an enrollment); only notifications
+     *                  with the same user, channel, template and key may be coalesced, and none
+     *                  are when it is null
+     */
+    Optional<String> send(String userId, String channel, String template, String dedupeKey, Map<String,String> data);
 }
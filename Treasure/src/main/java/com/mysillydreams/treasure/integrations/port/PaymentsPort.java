@@ -1,8 +1,15 @@
 package com.mysillydreams.treasure.integrations.port;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface PaymentsPort {
     record PaymentLink(String link, String paymentId) {}
     Optional<PaymentLink> createPaymentLink(String enrollmentId, String userId, String currency, String amount, String planId);
+
+    /** Non-blocking variant; adapters backed by a remote call override it */
+    default CompletableFuture<Optional<PaymentLink>> createPaymentLinkAsync(String enrollmentId, String userId, String currency,
+                                                                            String amount, String planId) {
+        return CompletableFuture.completedFuture(createPaymentLink(enrollmentId, userId, currency, amount, planId));
+    }
 }
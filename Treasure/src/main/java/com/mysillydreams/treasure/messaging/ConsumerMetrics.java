@@ -0,0 +1,41 @@
+package com.mysillydreams.treasure.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Throughput and lag meters for batch listeners, tagged by listener name.
+ * Broker-side offset lag is exported separately by the Kafka client metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsumerMetrics {
+
+    private final MeterRegistry registry;
+
+    public void recordBatch(String listener, List<? extends ConsumerRecord<?, ?>> records, long startNanos, int applied) {
+        long now = System.currentTimeMillis();
+        Timer.builder("treasure.consumer.batch.duration").tag("listener", listener)
+                .register(registry).record(Duration.ofNanos(System.nanoTime() - startNanos));
+        DistributionSummary.builder("treasure.consumer.batch.size").tag("listener", listener)
+                .register(registry).record(records.size());
+        Counter.builder("treasure.consumer.records").tag("listener", listener)
+                .register(registry).increment(records.size());
+        Counter.builder("treasure.consumer.records.applied").tag("listener", listener)
+                .register(registry).increment(applied);
+
+        // time from produce to processing, i.e. how far behind the stream we are
+        Timer lag = Timer.builder("treasure.consumer.event.lag").tag("listener", listener).register(registry);
+        for (ConsumerRecord<?, ?> r : records) {
+            if (r.timestamp() > 0) lag.record(Duration.ofMillis(Math.max(0, now - r.timestamp())));
+        }
+    }
+}
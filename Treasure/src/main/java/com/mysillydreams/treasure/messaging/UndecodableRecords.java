@@ -0,0 +1,45 @@
+package com.mysillydreams.treasure.messaging;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.List;
+
+/**
+ * Finds records that an {@code ErrorHandlingDeserializer} could not decode in a batch.
+ * Listeners process the records before the first failure and then throw
+ * {@link #failed}, so the batch error handler commits those, sends the failed
+ * record to the dead-letter topic and redelivers the rest.
+ */
+public final class UndecodableRecords {
+
+    private UndecodableRecords() {}
+
+    /**
+     * @return index of the first record whose value failed to deserialize, or -1
+     */
+    public static int firstIndex(List<? extends ConsumerRecord<?, ?>> records) {
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<?, ?> r = records.get(i);
+            if (r.value() == null
+                    && r.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the records that decoded, i.e. everything before {@code failedIndex}
+     */
+    public static <T extends ConsumerRecord<?, ?>> List<T> decoded(List<T> records, int failedIndex) {
+        return failedIndex < 0 ? records : records.subList(0, failedIndex);
+    }
+
+    public static BatchListenerFailedException failed(List<? extends ConsumerRecord<?, ?>> records, int failedIndex) {
+        ConsumerRecord<?, ?> r = records.get(failedIndex);
+        return new BatchListenerFailedException(
+                "Undecodable record on " + r.topic() + "-" + r.partition() + "@" + r.offset(), failedIndex);
+    }
+}
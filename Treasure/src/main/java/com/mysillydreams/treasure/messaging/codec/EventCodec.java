@@ -0,0 +1,207 @@
+package com.mysillydreams.treasure.messaging.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentMode;
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentStatus;
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentType;
+import com.mysillydreams.treasure.grpc.common.v1.PaymentStatus;
+import com.mysillydreams.treasure.grpc.events.v1.*;
+import com.mysillydreams.treasure.messaging.TopicNames;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary and legacy-JSON forms of {@link EventEnvelope}.
+ *
+ * Binary records are a {@link #MAGIC} byte followed by the protobuf envelope.
+ * JSON records always start with '{', so {@link #decode} can tell the two apart
+ * and consumers read both while producers are migrated.
+ */
+public final class EventCodec {
+
+    public static final byte MAGIC = 0x00;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private EventCodec() {}
+
+    public static byte[] encodeBinary(EventEnvelope envelope) {
+        byte[] out = new byte[envelope.getSerializedSize() + 1];
+        out[0] = MAGIC;
+        try {
+            CodedOutputStream cos = CodedOutputStream.newInstance(out, 1, out.length - 1);
+            envelope.writeTo(cos);
+            cos.checkNoSpaceLeft();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot encode event " + envelope.getEvent(), ex);
+        }
+        return out;
+    }
+
+    public static byte[] encodeJson(EventEnvelope envelope) {
+        try {
+            return MAPPER.writeValueAsBytes(toLegacyMap(envelope));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot encode event " + envelope.getEvent(), ex);
+        }
+    }
+
+    /**
+     * Decode either wire format; {@code topic} disambiguates JSON payloads without an "event" field
+     */
+    public static EventEnvelope decode(String topic, byte[] data) {
+        if (data == null || data.length == 0) throw new IllegalArgumentException("Empty event payload");
+        if (data[0] == MAGIC) {
+            try {
+                return EventEnvelope.parseFrom(ByteBuffer.wrap(data, 1, data.length - 1));
+            } catch (InvalidProtocolBufferException ex) {
+                throw new IllegalArgumentException("Malformed binary event on " + topic, ex);
+            }
+        }
+        try {
+            return fromLegacyJson(topic, MAPPER.readTree(data));
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Malformed JSON event on " + topic, ex);
+        }
+    }
+
+    /**
+     * The JSON map shape produced before binary encoding existed
+     */
+    public static Map<String, Object> toLegacyMap(EventEnvelope env) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("event", env.getEvent());
+        m.put("v", env.getVersion());
+        switch (env.getPayloadCase()) {
+            case ENROLLMENT_CREATED -> {
+                EnrollmentCreated p = env.getEnrollmentCreated();
+                m.put("enrollmentId", uuid(p.getEnrollmentId()));
+                m.put("userId", uuid(p.getUserId()));
+                m.put("planId", uuid(p.getPlanId()));
+                m.put("mode", p.getMode().name());
+                m.put("status", p.getStatus().name());
+            }
+            case APPROVAL_REQUESTED -> {
+                ApprovalRequested p = env.getApprovalRequested();
+                m.put("enrollmentId", uuid(p.getEnrollmentId()));
+                m.put("planId", uuid(p.getPlanId()));
+            }
+            case ENROLLMENT_APPROVED -> {
+                EnrollmentApproved p = env.getEnrollmentApproved();
+                m.put("enrollmentId", uuid(p.getEnrollmentId()));
+                m.put("planId", uuid(p.getPlanId()));
+                m.put("amount", new BigDecimal(p.getAmount()));
+                m.put("currency", p.getCurrency());
+            }
+            case PAYMENT_REQUESTED -> {
+                PaymentRequested p = env.getPaymentRequested();
+                m.put("enrollmentId", uuid(p.getEnrollmentId()));
+                m.put("userId", uuid(p.getUserId()));
+                m.put("planId", uuid(p.getPlanId()));
+                m.put("amount", new BigDecimal(p.getAmount()));
+                m.put("currency", p.getCurrency());
+            }
+            case TASK_COMPLETED -> {
+                TaskCompleted p = env.getTaskCompleted();
+                m.put("enrollmentId", uuid(p.getEnrollmentId()));
+                m.put("userId", uuid(p.getUserId()));
+                m.put("planId", uuid(p.getPlanId()));
+                m.put("taskId", uuid(p.getTaskId()));
+                m.put("enrollmentType", p.getEnrollmentType().name());
+                m.put("city", p.getCity());
+            }
+            case PAYMENT_STATUS_UPDATED -> {
+                PaymentStatusUpdated p = env.getPaymentStatusUpdated();
+                m.put("enrollmentId", uuid(p.getEnrollmentId()));
+                m.put("status", p.getStatus().name());
+            }
+            case PAYLOAD_NOT_SET -> { }
+        }
+        m.put("ts", Instant.ofEpochMilli(env.getTsEpochMillis()).toString());
+        return m;
+    }
+
+    static EventEnvelope fromLegacyJson(String topic, JsonNode n) {
+        String event = n.path("event").asText("");
+        EventEnvelope.Builder b = EventEnvelope.newBuilder()
+                .setEvent(event)
+                .setVersion(n.path("v").asInt(1))
+                .setTsEpochMillis(n.hasNonNull("ts") ? Instant.parse(n.path("ts").asText()).toEpochMilli() : System.currentTimeMillis());
+
+        switch (event) {
+            case "enrollment.created" -> b.setEnrollmentCreated(EnrollmentCreated.newBuilder()
+                    .setEnrollmentId(uuid(n, "enrollmentId"))
+                    .setUserId(uuid(n, "userId"))
+                    .setPlanId(uuid(n, "planId"))
+                    .setMode(enumOr(EnrollmentMode.class, n.path("mode").asText(), EnrollmentMode.MODE_UNSPECIFIED))
+                    .setStatus(enumOr(EnrollmentStatus.class, n.path("status").asText(), EnrollmentStatus.ENR_STATUS_UNSPECIFIED)));
+            case "enrollment.approval_requested" -> b.setApprovalRequested(ApprovalRequested.newBuilder()
+                    .setEnrollmentId(uuid(n, "enrollmentId"))
+                    .setPlanId(uuid(n, "planId")));
+            case "enrollment.approved" -> b.setEnrollmentApproved(EnrollmentApproved.newBuilder()
+                    .setEnrollmentId(uuid(n, "enrollmentId"))
+                    .setPlanId(uuid(n, "planId"))
+                    .setAmount(n.path("amount").decimalValue().toPlainString())
+                    .setCurrency(n.path("currency").asText("")));
+            case "treasure.payment.requested" -> b.setPaymentRequested(PaymentRequested.newBuilder()
+                    .setEnrollmentId(uuid(n, "enrollmentId"))
+                    .setUserId(uuid(n, "userId"))
+                    .setPlanId(uuid(n, "planId"))
+                    .setAmount(n.path("amount").decimalValue().toPlainString())
+                    .setCurrency(n.path("currency").asText("")));
+            case "treasure.task.completed" -> b.setTaskCompleted(TaskCompleted.newBuilder()
+                    .setEnrollmentId(uuid(n, "enrollmentId"))
+                    .setUserId(uuid(n, "userId"))
+                    .setPlanId(uuid(n, "planId"))
+                    .setTaskId(uuid(n, "taskId"))
+                    .setEnrollmentType(enumOr(EnrollmentType.class, n.path("enrollmentType").asText(), EnrollmentType.TYPE_UNSPECIFIED))
+                    .setCity(n.path("city").asText("")));
+            default -> {
+                // Payments publishes {enrollmentId, status} without an event name
+                if (TopicNames.PAYMENT_STATUS_UPDATED.equals(topic)) {
+                    b.setPaymentStatusUpdated(PaymentStatusUpdated.newBuilder()
+                            .setEnrollmentId(uuid(n, "enrollmentId"))
+                            .setStatus(enumOr(PaymentStatus.class, n.path("status").asText(), PaymentStatus.NONE)));
+                }
+            }
+        }
+        return b.build();
+    }
+
+    public static ByteString uuid(UUID id) {
+        if (id == null) return ByteString.EMPTY;
+        ByteBuffer buf = ByteBuffer.allocate(16);
+        buf.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        return ByteString.copyFrom(buf.array());
+    }
+
+    /** Null when the field was not set */
+    public static UUID uuid(ByteString bytes) {
+        if (bytes.size() != 16) return null;
+        ByteBuffer buf = bytes.asReadOnlyByteBuffer();
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+
+    private static ByteString uuid(JsonNode n, String field) {
+        String v = n.path(field).asText("");
+        return v.isEmpty() ? ByteString.EMPTY : uuid(UUID.fromString(v));
+    }
+
+    private static <E extends Enum<E>> E enumOr(Class<E> type, String name, E fallback) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException ex) {
+            return fallback;
+        }
+    }
+}
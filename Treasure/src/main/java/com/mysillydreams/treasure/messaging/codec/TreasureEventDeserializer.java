@@ -0,0 +1,24 @@
+package com.mysillydreams.treasure.messaging.codec;
+
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Dual-read Kafka value deserializer: binary envelopes and legacy JSON both
+ * decode to {@link EventEnvelope}. Undecodable records throw; listeners wrap this
+ * in an {@code ErrorHandlingDeserializer} so they reach the dead-letter topic
+ * instead of failing the poll forever.
+ */
+public class TreasureEventDeserializer implements Deserializer<EventEnvelope> {
+
+    @Override
+    public EventEnvelope deserialize(String topic, byte[] data) {
+        if (data == null) return null;
+        try {
+            return EventCodec.decode(topic, data);
+        } catch (RuntimeException ex) {
+            throw new SerializationException("Undecodable record on " + topic, ex);
+        }
+    }
+}
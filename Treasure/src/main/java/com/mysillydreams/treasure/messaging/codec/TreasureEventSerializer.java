@@ -0,0 +1,45 @@
+package com.mysillydreams.treasure.messaging.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Kafka value serializer for treasure events.
+ * {@code treasure.events.encoding} (producer property) selects {@code protobuf} or
+ * {@code json}; json keeps the legacy map shape so producers can be switched
+ * only after every consumer reads both formats.
+ */
+public class TreasureEventSerializer implements Serializer<Object> {
+
+    public static final String ENCODING_CONFIG = "treasure.events.encoding";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private boolean binary;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object encoding = configs.get(ENCODING_CONFIG);
+        this.binary = encoding != null && "protobuf".equalsIgnoreCase(encoding.toString());
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) return null;
+        // raw bytes and strings are records republished as-is, e.g. to a dead-letter topic
+        if (data instanceof byte[] raw) return raw;
+        if (data instanceof String text) return text.getBytes(StandardCharsets.UTF_8);
+        if (data instanceof EventEnvelope envelope) {
+            return binary ? EventCodec.encodeBinary(envelope) : EventCodec.encodeJson(envelope);
+        }
+        try {
+            return mapper.writeValueAsBytes(data);
+        } catch (Exception ex) {
+            throw new SerializationException("Cannot serialize value for " + topic, ex);
+        }
+    }
+}
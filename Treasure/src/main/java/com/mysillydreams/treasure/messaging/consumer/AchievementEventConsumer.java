@@ -0,0 +1,74 @@
+package com.mysillydreams.treasure.messaging.consumer;
+
+import com.mysillydreams.treasure.achievement.AchievementEngine;
+import com.mysillydreams.treasure.achievement.TaskCompletedEvent;
+import com.mysillydreams.treasure.config.KafkaConsumerConfig;
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import com.mysillydreams.treasure.grpc.events.v1.TaskCompleted;
+import com.mysillydreams.treasure.messaging.TopicNames;
+import com.mysillydreams.treasure.messaging.UndecodableRecords;
+import com.mysillydreams.treasure.messaging.codec.EventCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Feeds task completion events to the achievement engine, one poll at a time
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AchievementEventConsumer implements ConsumerSeekAware {
+
+    private final AchievementEngine engine;
+
+    @KafkaListener(topics = TopicNames.TASK_COMPLETED, groupId = "treasure-achievements",
+                   containerFactory = KafkaConsumerConfig.BATCH_FACTORY,
+                   properties = {KafkaConsumerConfig.TREASURE_EVENT_DESERIALIZER, KafkaConsumerConfig.TREASURE_EVENT_DELEGATE})
+    public void onTaskCompleted(List<ConsumerRecord<String, EventEnvelope>> records) {
+        int undecodable = UndecodableRecords.firstIndex(records);
+        List<TaskCompletedEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, EventEnvelope> r : UndecodableRecords.decoded(records, undecodable)) {
+            if (r.value() != null && r.value().hasTaskCompleted()) {
+                toEvent(r.value()).ifPresent(events::add);
+            }
+        }
+        engine.process(events);
+        if (undecodable >= 0) throw UndecodableRecords.failed(records, undecodable);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // another instance may have advanced these users' state while we did not own them
+        engine.resetLocalState();
+    }
+
+    private Optional<TaskCompletedEvent> toEvent(EventEnvelope envelope) {
+        TaskCompleted t = envelope.getTaskCompleted();
+        UUID enrollmentId = EventCodec.uuid(t.getEnrollmentId());
+        UUID userId = EventCodec.uuid(t.getUserId());
+        UUID planId = EventCodec.uuid(t.getPlanId());
+        UUID taskId = EventCodec.uuid(t.getTaskId());
+        if (enrollmentId == null || userId == null || planId == null || taskId == null) {
+            log.debug("Skipping v{} task event without plan context", envelope.getVersion());
+            return Optional.empty();
+        }
+        return Optional.of(new TaskCompletedEvent(enrollmentId, userId, planId, taskId,
+                t.getEnrollmentType() == com.mysillydreams.treasure.grpc.common.v1.EnrollmentType.TEAM
+                        ? EnrollmentType.TEAM : EnrollmentType.INDIVIDUAL,
+                t.getCity(),
+                Instant.ofEpochMilli(envelope.getTsEpochMillis())));
+    }
+}
@@ -1,54 +1,88 @@
 package com.mysillydreams.treasure.messaging.consumer;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mysillydreams.treasure.domain.model.Enrollment;
+import com.mysillydreams.treasure.cache.CacheNames;
+import com.mysillydreams.treasure.config.KafkaConsumerConfig;
 import com.mysillydreams.treasure.domain.model.PaymentStatus;
-import com.mysillydreams.treasure.domain.repository.EnrollmentRepository;
+import com.mysillydreams.treasure.domain.repository.EnrollmentBulkRepository.ChangedEnrollment;
+import com.mysillydreams.treasure.domain.service.EnrollmentService;
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import com.mysillydreams.treasure.grpc.events.v1.PaymentStatusUpdated;
+import com.mysillydreams.treasure.messaging.ConsumerMetrics;
 import com.mysillydreams.treasure.messaging.TopicNames;
+import com.mysillydreams.treasure.messaging.UndecodableRecords;
+import com.mysillydreams.treasure.messaging.codec.EventCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.util.*;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PaymentStatusConsumer {
 
-    private final EnrollmentRepository enrollmentRepo;
-    private final ObjectMapper om = new ObjectMapper();
-
-    @KafkaListener(topics = TopicNames.PAYMENT_STATUS_UPDATED, groupId = "treasure-service")
-    @Transactional
-    @CacheEvict(cacheNames = {"plans:detail","plans:search"}, allEntries = true)
-    public void onPaymentStatus(String message) {
-        try {
-            JsonNode root = om.readTree(message);
-            String enrollmentId = root.path("enrollmentId").asText();
-            String status = root.path("status").asText();  // "PAID"|"REFUNDED"|...
-
-            Enrollment e = enrollmentRepo.findById(UUID.fromString(enrollmentId)).orElse(null);
-            if (e == null) return;
-
-            PaymentStatus newStatus = switch (status) {
-                case "PAID"     -> PaymentStatus.PAID;
-                case "REFUNDED" -> PaymentStatus.REFUNDED;
-                case "AWAITING" -> PaymentStatus.AWAITING;
-                default         -> PaymentStatus.NONE;
-            };
-            if (e.getPaymentStatus() != newStatus) {
-                e.setPaymentStatus(newStatus);
-                enrollmentRepo.save(e);
-                log.info("Enrollment {} payment status -> {}", enrollmentId, newStatus);
+    private static final String LISTENER = "payment-status";
+
+    private final EnrollmentService enrollmentService;
+    private final CacheManager cacheManager;
+    private final ConsumerMetrics metrics;
+
+    /**
+     * Applies one poll of payment status updates with a single bulk UPDATE.
+     * Records are in partition order, so the last status per enrollment wins;
+     * unchanged rows are skipped and cache eviction happens once per batch.
+     */
+    @KafkaListener(topics = TopicNames.PAYMENT_STATUS_UPDATED, groupId = "treasure-service",
+                   containerFactory = KafkaConsumerConfig.BATCH_FACTORY,
+                   properties = {KafkaConsumerConfig.TREASURE_EVENT_DESERIALIZER, KafkaConsumerConfig.TREASURE_EVENT_DELEGATE})
+    public void onPaymentStatuses(List<ConsumerRecord<String, EventEnvelope>> records) {
+        long start = System.nanoTime();
+        int undecodable = UndecodableRecords.firstIndex(records);
+        List<ConsumerRecord<String, EventEnvelope>> decoded = UndecodableRecords.decoded(records, undecodable);
+        Map<UUID, PaymentStatus> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, EventEnvelope> r : decoded) {
+            if (r.value() == null || !r.value().hasPaymentStatusUpdated()) continue;
+            PaymentStatusUpdated update = r.value().getPaymentStatusUpdated();
+            UUID enrollmentId = EventCodec.uuid(update.getEnrollmentId());
+            if (enrollmentId == null) {
+                log.warn("Payment status event without enrollment id at offset {}", r.offset());
+                continue;
             }
-        } catch (Exception ex) {
-            log.error("Failed to process payment status message: {}", message, ex);
-            // Let default error handler route to DLQ if configured
+            latest.put(enrollmentId, map(update.getStatus()));
         }
+
+        // status update and refund cancellations commit together; failures propagate so
+        // the error handler redelivers the batch, which then still sees the rows as changed
+        List<ChangedEnrollment> changed = latest.isEmpty() ? List.of() : enrollmentService.applyPaymentStatuses(latest);
+        evict(changed);
+        metrics.recordBatch(LISTENER, decoded, start, changed.size());
+        if (!changed.isEmpty()) {
+            log.info("Payment status batch: {} records, {} enrollments changed", decoded.size(), changed.size());
+        }
+        if (undecodable >= 0) throw UndecodableRecords.failed(records, undecodable);
+    }
+
+    private void evict(List<ChangedEnrollment> changed) {
+        if (changed.isEmpty()) return;
+        Cache detail = cacheManager.getCache(CacheNames.PLAN_DETAIL);
+        if (detail != null) {
+            changed.stream().map(ChangedEnrollment::planId).distinct().forEach(detail::evict);
+        }
+        Cache search = cacheManager.getCache(CacheNames.PLAN_SEARCH);
+        if (search != null) search.clear();
+    }
+
+    private static PaymentStatus map(com.mysillydreams.treasure.grpc.common.v1.PaymentStatus status) {
+        return switch (status) {
+            case PAID     -> PaymentStatus.PAID;
+            case REFUNDED -> PaymentStatus.REFUNDED;
+            case AWAITING -> PaymentStatus.AWAITING;
+            default       -> PaymentStatus.NONE;
+        };
     }
 }
@@ -2,16 +2,21 @@ package com.mysillydreams.treasure.messaging.consumer;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.config.KafkaConsumerConfig;
 import com.mysillydreams.treasure.domain.model.UserStatistics;
 import com.mysillydreams.treasure.domain.repository.UserStatisticsRepository;
 import com.mysillydreams.treasure.domain.service.LeaderboardService;
-import com.mysillydreams.treasure.messaging.TopicNames;
+import com.mysillydreams.treasure.messaging.ConsumerMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -23,78 +28,85 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserLifecycleConsumer {
 
+    private static final String LISTENER = "user-events";
+
     private final UserStatisticsRepository userStatsRepo;
     private final LeaderboardService leaderboardService;
+    private final ConsumerMetrics metrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
-     * Handle user creation events
-     * Initialize user statistics when a new user is created
+     * Handle a poll of user lifecycle events.
+     * Statistics for all USER_CREATED events in the batch are initialised with a
+     * single existence query and one batched insert; other events are handled in order.
      */
-    @KafkaListener(topics = "user-events", groupId = "treasure-service")
+    @KafkaListener(topics = "user-events", groupId = "treasure-service",
+                   containerFactory = KafkaConsumerConfig.BATCH_FACTORY)
     @Transactional
-    public void handleUserEvent(String message) {
-        try {
-            JsonNode root = objectMapper.readTree(message);
-            String eventType = root.path("eventType").asText();
-            String userRef = root.path("userReferenceId").asText();
-            
-            if (userRef == null || userRef.isEmpty()) {
-                log.warn("Received user event without userReferenceId: {}", message);
-                return;
-            }
-            
-            UUID userId = UUID.fromString(userRef);
-            
-            switch (eventType) {
-                case "USER_CREATED":
-                    handleUserCreated(userId, root);
-                    break;
-                case "USER_UPDATED":
-                    handleUserUpdated(userId, root);
-                    break;
-                case "USER_DELETED":
-                    handleUserDeleted(userId, root);
-                    break;
-                case "USER_SUSPENDED":
-                    handleUserSuspended(userId, root);
-                    break;
-                case "USER_REACTIVATED":
-                    handleUserReactivated(userId, root);
-                    break;
-                default:
-                    log.debug("Unhandled user event type: {}", eventType);
+    public void handleUserEvents(List<ConsumerRecord<String, String>> records) {
+        long start = System.nanoTime();
+        Set<UUID> created = new LinkedHashSet<>();
+        for (ConsumerRecord<String, String> r : records) {
+            String message = r.value();
+            try {
+                JsonNode root = objectMapper.readTree(message);
+                String eventType = root.path("eventType").asText();
+                String userRef = root.path("userReferenceId").asText();
+
+                if (userRef == null || userRef.isEmpty()) {
+                    log.warn("Received user event without userReferenceId: {}", message);
+                    continue;
+                }
+
+                UUID userId = UUID.fromString(userRef);
+
+                switch (eventType) {
+                    case "USER_CREATED":
+                        created.add(userId);
+                        break;
+                    case "USER_UPDATED":
+                        handleUserUpdated(userId, root);
+                        break;
+                    case "USER_DELETED":
+                        handleUserDeleted(userId, root);
+                        break;
+                    case "USER_SUSPENDED":
+                        handleUserSuspended(userId, root);
+                        break;
+                    case "USER_REACTIVATED":
+                        handleUserReactivated(userId, root);
+                        break;
+                    default:
+                        log.debug("Unhandled user event type: {}", eventType);
+                }
+
+            } catch (Exception e) {
+                log.error("Failed to process user lifecycle event: {}", message, e);
             }
-            
-        } catch (Exception e) {
-            log.error("Failed to process user lifecycle event: {}", message, e);
         }
+
+        int initialised = handleUsersCreated(created);
+        metrics.recordBatch(LISTENER, records, start, initialised);
     }
 
     /**
-     * Handle user creation - initialize user statistics
+     * Handle user creation - initialize user statistics for users that have none yet
      */
-    private void handleUserCreated(UUID userId, JsonNode eventData) {
-        log.info("Initializing user statistics for new user: {}", userId);
-        
-        try {
-            // Check if user statistics already exist
-            if (!userStatsRepo.findByUserIdOrderByDifficulty(userId).isEmpty()) {
-                log.debug("User statistics already exist for user: {}", userId);
-                return;
-            }
-            
-            // Create initial user statistics record
-            UserStatistics userStats = UserStatistics.builder()
-                    .userId(userId)
-                    .build();
-            
-            userStatsRepo.save(userStats);
-            log.info("Created initial user statistics for user: {}", userId);
-            
-        } catch (Exception e) {
-            log.error("Failed to initialize user statistics for user: {}", userId, e);
+    private int handleUsersCreated(Set<UUID> userIds) {
+        if (userIds.isEmpty()) return 0;
+
+        Set<UUID> existing = userStatsRepo.findExistingUserIds(userIds);
+        List<UserStatistics> fresh = userIds.stream()
+                .filter(id -> !existing.contains(id))
+                .map(id -> UserStatistics.builder().userId(id).build())
+                .toList();
+        if (!existing.isEmpty()) {
+            log.debug("User statistics already exist for {} users", existing.size());
         }
+
+        userStatsRepo.saveAll(fresh);
+        log.info("Created initial user statistics for {} users", fresh.size());
+        return fresh.size();
     }
 
     /**
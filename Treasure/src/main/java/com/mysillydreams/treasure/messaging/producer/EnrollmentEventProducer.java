@@ -1,14 +1,20 @@
 package com.mysillydreams.treasure.messaging.producer;
 
 import com.mysillydreams.treasure.domain.model.Enrollment;
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentMode;
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentStatus;
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentType;
+import com.mysillydreams.treasure.grpc.events.v1.*;
 import com.mysillydreams.treasure.messaging.TopicNames;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.Instant;
-import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.mysillydreams.treasure.messaging.codec.EventCodec.uuid;
 
 @Component
 @RequiredArgsConstructor
@@ -16,77 +22,63 @@ public class EnrollmentEventProducer {
 
     private final KafkaTemplate<String, Object> kafka;
 
-    // unchanged
     public void enrollmentCreated(Enrollment e) {
-        kafka.send(TopicNames.ENROLLMENT_CREATED,
-                e.getId().toString(),
-                Map.of(
-                        "event", "enrollment.created",
-                        "v", 1,
-                        "enrollmentId", e.getId(),
-                        "userId", e.getUserId(),
-                        "planId", e.getPlan().getId(),
-                        "mode", e.getMode().name(),
-                        "status", e.getStatus().name(),
-                        "ts", Instant.now().toString()
-                ));
+        send(TopicNames.ENROLLMENT_CREATED, e.getId().toString(), "enrollment.created", 1,
+                b -> b.setEnrollmentCreated(EnrollmentCreated.newBuilder()
+                        .setEnrollmentId(uuid(e.getId()))
+                        .setUserId(uuid(e.getUserId()))
+                        .setPlanId(uuid(e.getPlan().getId()))
+                        .setMode(EnrollmentMode.valueOf(e.getMode().name()))
+                        .setStatus(EnrollmentStatus.valueOf(e.getStatus().name()))));
     }
 
-    // unchanged
     public void approvalRequested(Enrollment e) {
-        kafka.send(TopicNames.APPROVAL_REQUESTED,
-                e.getId().toString(),
-                Map.of(
-                        "event", "enrollment.approval_requested",
-                        "v", 1,
-                        "enrollmentId", e.getId(),
-                        "planId", e.getPlan().getId(),
-                        "ts", Instant.now().toString()
-                ));
+        send(TopicNames.APPROVAL_REQUESTED, e.getId().toString(), "enrollment.approval_requested", 1,
+                b -> b.setApprovalRequested(ApprovalRequested.newBuilder()
+                        .setEnrollmentId(uuid(e.getId()))
+                        .setPlanId(uuid(e.getPlan().getId()))));
     }
 
-    // UPDATED: pass total + currency instead of a Pricing* object
+    // pass total + currency instead of a Pricing* object
     public void enrollmentApproved(Enrollment e, BigDecimal total, String currency) {
-        kafka.send(TopicNames.ENROLLMENT_APPROVED,
-                e.getId().toString(),
-                Map.of(
-                        "event", "enrollment.approved",
-                        "v", 1,
-                        "enrollmentId", e.getId(),
-                        "planId", e.getPlan().getId(),
-                        "amount", total,
-                        "currency", currency,
-                        "ts", Instant.now().toString()
-                ));
+        send(TopicNames.ENROLLMENT_APPROVED, e.getId().toString(), "enrollment.approved", 1,
+                b -> b.setEnrollmentApproved(EnrollmentApproved.newBuilder()
+                        .setEnrollmentId(uuid(e.getId()))
+                        .setPlanId(uuid(e.getPlan().getId()))
+                        .setAmount(total.toPlainString())
+                        .setCurrency(currency)));
     }
 
-    // UPDATED: pass total + currency
+    // pass total + currency
     public void paymentRequested(Enrollment e, BigDecimal total, String currency) {
-        kafka.send(TopicNames.PAYMENT_REQUESTED,
-                e.getId().toString(),
-                Map.of(
-                        "event", "treasure.payment.requested",
-                        "v", 1,
-                        "enrollmentId", e.getId(),
-                        "userId", e.getUserId(),
-                        "planId", e.getPlan().getId(),
-                        "amount", total,
-                        "currency", currency,
-                        "ts", Instant.now().toString()
-                ));
+        send(TopicNames.PAYMENT_REQUESTED, e.getId().toString(), "treasure.payment.requested", 1,
+                b -> b.setPaymentRequested(PaymentRequested.newBuilder()
+                        .setEnrollmentId(uuid(e.getId()))
+                        .setUserId(uuid(e.getUserId()))
+                        .setPlanId(uuid(e.getPlan().getId()))
+                        .setAmount(total.toPlainString())
+                        .setCurrency(currency)));
+    }
+
+    // keyed by user so a user's task events stay ordered on one partition (achievement state is per user)
+    public void taskCompleted(Enrollment e, UUID taskId) {
+        send(TopicNames.TASK_COMPLETED, e.getUserId().toString(), "treasure.task.completed", 2,
+                b -> b.setTaskCompleted(TaskCompleted.newBuilder()
+                        .setEnrollmentId(uuid(e.getId()))
+                        .setUserId(uuid(e.getUserId()))
+                        .setPlanId(uuid(e.getPlan().getId()))
+                        .setTaskId(uuid(taskId))
+                        .setEnrollmentType(e.getEnrollmentType() != null
+                                ? EnrollmentType.valueOf(e.getEnrollmentType().name()) : EnrollmentType.INDIVIDUAL)
+                        .setCity(e.getPlan().getCity() != null ? e.getPlan().getCity() : "")));
     }
 
-    // unchanged
-    public void taskCompleted(Enrollment e, java.util.UUID taskId) {
-        kafka.send(TopicNames.TASK_COMPLETED,
-                e.getId().toString(),
-                Map.of(
-                        "event", "treasure.task.completed",
-                        "v", 1,
-                        "enrollmentId", e.getId(),
-                        "userId", e.getUserId(),
-                        "taskId", taskId,
-                        "ts", Instant.now().toString()
-                ));
+    private void send(String topic, String key, String event, int version, Consumer<EventEnvelope.Builder> payload) {
+        EventEnvelope.Builder b = EventEnvelope.newBuilder()
+                .setEvent(event)
+                .setVersion(version)
+                .setTsEpochMillis(System.currentTimeMillis());
+        payload.accept(b);
+        kafka.send(topic, key, b.build());
     }
 }
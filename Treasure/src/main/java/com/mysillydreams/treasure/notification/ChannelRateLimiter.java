@@ -0,0 +1,53 @@
+package com.mysillydreams.treasure.notification;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per channel, refilled continuously at the channel's rate with one
+ * second of burst. Limits apply per instance; only the dispatcher thread uses it.
+ */
+final class ChannelRateLimiter {
+
+    private static final class Bucket {
+        final double ratePerSecond;
+        double tokens;
+        long refilledAt;
+
+        Bucket(double ratePerSecond, long now) {
+            this.ratePerSecond = ratePerSecond;
+            this.tokens = ratePerSecond;
+            this.refilledAt = now;
+        }
+    }
+
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private final LongSupplier nanoClock;
+
+    ChannelRateLimiter(Map<String, Integer> ratesPerSecond, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        ratesPerSecond.forEach((channel, rate) -> buckets.put(channel, new Bucket(rate, now)));
+    }
+
+    Set<String> channels() {
+        return buckets.keySet();
+    }
+
+    /** Whole permits currently available for {@code channel}, at most {@code max} */
+    int available(String channel, int max) {
+        Bucket b = buckets.get(channel);
+        if (b == null) return 0;
+        long now = nanoClock.getAsLong();
+        b.tokens = Math.min(b.ratePerSecond, b.tokens + (now - b.refilledAt) / 1e9 * b.ratePerSecond);
+        b.refilledAt = now;
+        return (int) Math.min(max, Math.floor(b.tokens));
+    }
+
+    void consume(String channel, int permits) {
+        Bucket b = buckets.get(channel);
+        if (b != null) b.tokens -= permits;
+    }
+}
@@ -0,0 +1,122 @@
+package com.mysillydreams.treasure.notification;
+
+import com.mysillydreams.notifications.v1.SendRequest;
+import com.mysillydreams.notifications.v1.SendResult;
+import com.mysillydreams.treasure.api.grpc.client.NotificationGrpcClient;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Drains notification_outbox: per channel, leases as many due messages as the
+ * channel's rate allows, sends them in one batch call and records each outcome.
+ * Failed items back off exponentially until they run out of attempts.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "feature.integrations.notifications", name = "enabled", havingValue = "true")
+public class NotificationDispatcher {
+
+    private final NotificationOutbox outbox;
+    private final NotificationGrpcClient client;
+    private final ChannelRateLimiter rateLimiter;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public NotificationDispatcher(NotificationOutbox outbox,
+                                  NotificationGrpcClient client,
+                                  @Value("#{${treasure.notifications.rate-per-second:{EMAIL: 50, SMS: 10, PUSH: 200, INAPP: 200}}}")
+                                  Map<String, Integer> ratesPerSecond,
+                                  @Value("${treasure.notifications.batch-size:100}") int batchSize,
+                                  @Value("${treasure.notifications.max-attempts:5}") int maxAttempts,
+                                  @Value("${treasure.notifications.initial-backoff:PT5S}") Duration initialBackoff,
+                                  @Value("${treasure.notifications.max-backoff:PT10M}") Duration maxBackoff,
+                                  @Value("${treasure.notifications.lease:PT1M}") Duration lease) {
+        this.outbox = outbox;
+        this.client = client;
+        this.rateLimiter = new ChannelRateLimiter(ratesPerSecond, System::nanoTime);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    /**
+     * One dispatch round over every channel.
+     *
+     * @return number of messages delivered
+     */
+    @Scheduled(fixedDelayString = "${treasure.notifications.dispatch-interval:PT1S}")
+    public int dispatch() {
+        int delivered = 0;
+        for (String channel : rateLimiter.channels()) {
+            int permits = rateLimiter.available(channel, batchSize);
+            if (permits == 0) continue;
+            try {
+                List<NotificationOutbox.OutboxMessage> batch = outbox.claim(channel, permits, lease);
+                if (batch.isEmpty()) continue;
+                rateLimiter.consume(channel, batch.size());
+                delivered += send(channel, batch);
+            } catch (Exception ex) {
+                log.warn("Notification dispatch for {} failed: {}", channel, ex.getMessage());
+            }
+        }
+        return delivered;
+    }
+
+    @Scheduled(cron = "${treasure.notifications.purge-cron:0 15 * * * *}")
+    public void purge() {
+        int purged = outbox.purgeSent(Duration.ofDays(7));
+        if (purged > 0) log.info("Purged {} sent notifications", purged);
+    }
+
+    private int send(String channel, List<NotificationOutbox.OutboxMessage> batch) {
+        List<SendRequest> requests = batch.stream()
+                .map(m -> SendRequest.newBuilder()
+                        .setUserId(m.userId()).setChannel(m.channel()).setTemplate(m.template())
+                        .putAllData(m.data()).build())
+                .toList();
+
+        List<SendResult> results;
+        try {
+            results = client.sendBatch(requests);
+        } catch (Exception ex) {
+            Status status = Status.fromThrowable(ex);
+            boolean retryable = status.getCode() != Status.Code.INVALID_ARGUMENT
+                    && status.getCode() != Status.Code.PERMISSION_DENIED;
+            outbox.markFailed(batch.stream()
+                    .map(m -> new NotificationOutbox.Failure(m.id(), status.toString(), retryable))
+                    .toList(), maxAttempts, initialBackoff, maxBackoff);
+            log.warn("Notification batch of {} on {} failed: {}", batch.size(), channel, status);
+            return 0;
+        }
+
+        Map<UUID, String> sent = new HashMap<>();
+        List<NotificationOutbox.Failure> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            UUID id = batch.get(i).id();
+            SendResult r = i < results.size() ? results.get(i) : null;
+            if (r == null) {
+                failed.add(new NotificationOutbox.Failure(id, "missing result", true));
+            } else if (!r.getMessageId().isEmpty()) {
+                sent.put(id, r.getMessageId());
+            } else {
+                failed.add(new NotificationOutbox.Failure(id, r.getError(), r.getRetryable()));
+            }
+        }
+        outbox.markSent(sent);
+        outbox.markFailed(failed, maxAttempts, initialBackoff, maxBackoff);
+        if (!failed.isEmpty()) log.warn("{} of {} notifications on {} failed", failed.size(), batch.size(), channel);
+        return sent.size();
+    }
+}
@@ -0,0 +1,140 @@
+package com.mysillydreams.treasure.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC access to notification_outbox (V11, V17). Enqueue is a single upsert so that
+ * repeated notifications about the same thing (same dedupe key) inside the coalescing
+ * window collapse onto one row; their data is merged key by key, later values winning.
+ * Notifications without a dedupe key are never coalesced.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    public record OutboxMessage(UUID id, String userId, String channel, String template,
+                                Map<String, String> data, int attempts) {}
+
+    public record Failure(UUID id, String error, boolean retryable) {}
+
+    private static final TypeReference<Map<String, String>> DATA_TYPE = new TypeReference<>() {};
+
+    private static final String ENQUEUE_SQL = """
+        INSERT INTO notification_outbox (user_id, channel, template, dedupe_key, data, send_after)
+        VALUES (?::uuid, ?, ?, ?, ?::jsonb, now() + make_interval(secs => ?))
+        ON CONFLICT (user_id, channel, template, dedupe_key) WHERE status = 'PENDING'
+        DO UPDATE SET data = notification_outbox.data || EXCLUDED.data, coalesced = notification_outbox.coalesced + 1
+        RETURNING id
+        """;
+
+    private static final String CLAIM_SQL = """
+        UPDATE notification_outbox o
+           SET status = 'SENDING', locked_until = now() + make_interval(secs => ?)
+         WHERE o.id IN (
+               SELECT id FROM notification_outbox
+                WHERE channel = ?
+                  AND ((status IN ('PENDING', 'RETRY') AND send_after <= now())
+                       OR (status = 'SENDING' AND locked_until < now()))
+                ORDER BY send_after
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+        RETURNING o.id, o.user_id, o.channel, o.template, o.data::text AS data, o.attempts
+        """;
+
+    private static final String SENT_SQL = """
+        UPDATE notification_outbox
+           SET status = 'SENT', message_id = ?, sent_at = now(), locked_until = NULL, attempts = attempts + 1
+         WHERE id = ?
+        """;
+
+    // retries leave PENDING so a fresh notification is not merged into one already attempted
+    private static final String FAILED_SQL = """
+        UPDATE notification_outbox
+           SET attempts = attempts + 1,
+               status = CASE WHEN ? OR attempts + 1 >= ? THEN 'FAILED' ELSE 'RETRY' END,
+               send_after = now() + make_interval(secs => least(? * power(2, attempts), ?)),
+               last_error = ?, locked_until = NULL
+         WHERE id = ?
+        """;
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    public UUID enqueue(String userId, String channel, String template, String dedupeKey,
+                        Map<String, String> data, Duration window) {
+        return jdbc.queryForObject(ENQUEUE_SQL, UUID.class,
+                userId, channel, template, dedupeKey, json(data), seconds(window));
+    }
+
+    /**
+     * Lease up to {@code limit} due messages of one channel; leases that ran out are reclaimed
+     */
+    public List<OutboxMessage> claim(String channel, int limit, Duration lease) {
+        return jdbc.query(CLAIM_SQL, (rs, i) -> new OutboxMessage(
+                rs.getObject("id", UUID.class), rs.getString("user_id"), rs.getString("channel"),
+                rs.getString("template"), data(rs.getString("data")), rs.getInt("attempts")),
+                seconds(lease), channel, limit);
+    }
+
+    public void markSent(Map<UUID, String> messageIds) {
+        if (messageIds.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(messageIds.size());
+        messageIds.forEach((id, messageId) -> rows.add(new Object[]{messageId, id}));
+        jdbc.batchUpdate(SENT_SQL, rows);
+    }
+
+    /**
+     * Schedule failed messages for another attempt with exponential backoff, or give up
+     * once they are not retryable or have used {@code maxAttempts}
+     */
+    public void markFailed(List<Failure> failures, int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        if (failures.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(failures.size());
+        for (Failure f : failures) {
+            rows.add(new Object[]{!f.retryable(), maxAttempts, seconds(initialBackoff), seconds(maxBackoff),
+                    truncate(f.error()), f.id()});
+        }
+        jdbc.batchUpdate(FAILED_SQL, rows);
+    }
+
+    public int purgeSent(Duration retention) {
+        return jdbc.update("DELETE FROM notification_outbox WHERE status = 'SENT' AND sent_at < now() - make_interval(secs => ?)",
+                seconds(retention));
+    }
+
+    private String json(Map<String, String> data) {
+        try {
+            return objectMapper.writeValueAsString(data == null ? Map.of() : data);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Notification data is not serialisable", ex);
+        }
+    }
+
+    private Map<String, String> data(String json) {
+        try {
+            return objectMapper.readValue(json, DATA_TYPE);
+        } catch (JsonProcessingException ex) {
+            return Map.of();
+        }
+    }
+
+    private static double seconds(Duration d) {
+        return d.toMillis() / 1000.0;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) return null;
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+}
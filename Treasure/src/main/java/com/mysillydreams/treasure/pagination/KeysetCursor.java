@@ -0,0 +1,67 @@
+package com.mysillydreams.treasure.pagination;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Position after the last row served: its sort key plus id as tie-breaker.
+ * Clients get it as an opaque base64url token and hand it back verbatim; the
+ * leading version lets the layout change without breaking tokens in flight.
+ */
+public record KeysetCursor(String sortKey, UUID id) {
+
+    private static final String VERSION = "k1";
+
+    public static KeysetCursor of(BigDecimal score, UUID id) {
+        return new KeysetCursor(score.toPlainString(), id);
+    }
+
+    public static KeysetCursor of(OffsetDateTime at, UUID id) {
+        return new KeysetCursor(at.toInstant().toString(), id);
+    }
+
+    public String encode() {
+        String raw = VERSION + '|' + sortKey + '|' + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return empty for a missing token (first page)
+     * @throws IllegalArgumentException if the token was not issued by {@link #encode()}
+     */
+    public static Optional<KeysetCursor> decode(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return Optional.of(new KeysetCursor(parts[1], UUID.fromString(parts[2])));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid page cursor", ex);
+        }
+    }
+
+    public BigDecimal score() {
+        try {
+            return new BigDecimal(sortKey);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid page cursor", ex);
+        }
+    }
+
+    public OffsetDateTime timestamp() {
+        try {
+            return OffsetDateTime.ofInstant(Instant.parse(sortKey), ZoneOffset.UTC);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid page cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mysillydreams.treasure.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. There is no total count: {@code hasNext}
+ * comes from fetching one row beyond the page.
+ */
+public record KeysetSlice<T>(List<T> content, String nextCursor, boolean hasNext) {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * Build a slice from {@code size + 1} fetched rows
+     *
+     * @param cursorOf cursor of a row, used for the last row of the page
+     */
+    public static <T> KeysetSlice<T> of(List<T> fetched, int size, Function<T, KeysetCursor> cursorOf) {
+        if (fetched.size() <= size) return new KeysetSlice<>(fetched, null, false);
+        List<T> page = fetched.subList(0, size);
+        return new KeysetSlice<>(List.copyOf(page), cursorOf.apply(page.get(size - 1)).encode(), true);
+    }
+
+    /** Requested page size clamped to 1..{@link #MAX_SIZE}; non-positive means default */
+    public static int clamp(int size) {
+        if (size <= 0) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+
+    public <R> KeysetSlice<R> map(Function<T, R> mapper) {
+        return new KeysetSlice<>(content.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mysillydreams.treasure.partition;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One monthly partition, named {@code <table>_YYYY_MM} as created by
+ * treasure_create_month_partition (V10).
+ */
+public record MonthPartition(String table, YearMonth month) {
+
+    /** Partitioned parents and their partition key column */
+    public static final Map<String, String> PARTITION_KEYS = Map.of(
+            "enrollment", "enrolled_at",
+            "task_progress", "enrolled_at",
+            "leaderboard", "period_start");
+
+    private static final Pattern NAME = Pattern.compile("^(enrollment|task_progress|leaderboard)_(\\d{4})_(\\d{2})$");
+
+    public MonthPartition {
+        if (!PARTITION_KEYS.containsKey(table)) throw new IllegalArgumentException("Not a partitioned table: " + table);
+    }
+
+    public static Optional<MonthPartition> parse(String relname) {
+        Matcher m = NAME.matcher(relname);
+        if (!m.matches()) return Optional.empty();
+        int month = Integer.parseInt(m.group(3));
+        if (month < 1 || month > 12) return Optional.empty();
+        return Optional.of(new MonthPartition(m.group(1), YearMonth.of(Integer.parseInt(m.group(2)), month)));
+    }
+
+    /** Relation name; safe to splice into DDL since the table must be one of the parents above */
+    public String name() {
+        return "%s_%04d_%02d".formatted(table, month.getYear(), month.getMonthValue());
+    }
+
+    public MonthPartition sibling(String otherTable) {
+        return new MonthPartition(otherTable, month);
+    }
+
+    public boolean isBefore(YearMonth cutoff) {
+        return month.isBefore(cutoff);
+    }
+}
@@ -0,0 +1,189 @@
+package com.mysillydreams.treasure.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archives monthly partitions older than the retention window: each is detached,
+ * exported to {@code <archive-dir>/<partition>.csv.gz} and dropped.
+ *
+ * Detaching happens first, in a short transaction, so the export reads a table no
+ * longer visible to the application and the parent is only locked briefly. Tables
+ * left detached by a failed run are picked up again on the next one. Writes to local
+ * disk, so it is enabled on a single instance only.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "treasure.partitioning.archive", name = "enabled", havingValue = "true")
+public class PartitionArchiveJob {
+
+    private static final String ATTACHED_SQL = """
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = ?::regclass
+        """;
+
+    private static final String DETACHED_SQL = """
+        SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+         WHERE n.nspname = current_schema() AND c.relkind = 'r' AND NOT c.relispartition
+           AND c.relname ~ '^(enrollment|task_progress|leaderboard)_[0-9]{4}_[0-9]{2}$'
+        """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Path archiveDir;
+    private final int retentionMonths;
+
+    public PartitionArchiveJob(JdbcTemplate jdbc,
+                               PlatformTransactionManager txManager,
+                               @Value("${treasure.partitioning.archive.dir:./archive}") Path archiveDir,
+                               @Value("${treasure.partitioning.archive.retention-months:24}") int retentionMonths) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.archiveDir = archiveDir;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Detach, export and drop every partition older than the retention window.
+     *
+     * @return names of the partitions archived by this run
+     */
+    @Scheduled(cron = "${treasure.partitioning.archive.cron:0 30 2 2 * *}")
+    public List<String> archive() {
+        YearMonth cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+
+        // progress partitions go with their enrollment month, so only enrollment drives the cutoff
+        for (MonthPartition p : attached("enrollment")) {
+            if (p.isBefore(cutoff)) detachEnrollmentMonth(p);
+        }
+        for (MonthPartition p : attached("leaderboard")) {
+            if (p.isBefore(cutoff)) detach(p);
+        }
+
+        List<String> archived = new ArrayList<>();
+        List<MonthPartition> detached = jdbc.queryForList(DETACHED_SQL, String.class).stream()
+                .flatMap(name -> MonthPartition.parse(name).stream())
+                .sorted(Comparator.comparingInt(PartitionArchiveJob::order).thenComparing(MonthPartition::month))
+                .toList();
+        for (MonthPartition p : detached) {
+            try {
+                exportAndDrop(p);
+                archived.add(p.name());
+            } catch (Exception ex) {
+                log.warn("Archiving {} failed, it stays detached for the next run: {}", p.name(), ex.getMessage());
+            }
+        }
+        if (!archived.isEmpty()) log.info("Archived partitions {} to {}", archived, archiveDir.toAbsolutePath());
+        return archived;
+    }
+
+    private List<MonthPartition> attached(String parent) {
+        return jdbc.queryForList(ATTACHED_SQL, String.class, parent).stream()
+                .flatMap(name -> MonthPartition.parse(name).stream())
+                .toList();
+    }
+
+    private void detachEnrollmentMonth(MonthPartition enrollment) {
+        MonthPartition progress = enrollment.sibling("task_progress");
+        tx.executeWithoutResult(status -> {
+            if (isPartition(progress)) {
+                jdbc.execute("ALTER TABLE task_progress DETACH PARTITION " + progress.name());
+                // the cloned FK would otherwise block detaching the enrollment month below
+                jdbc.execute("ALTER TABLE " + progress.name() + " DROP CONSTRAINT IF EXISTS fk_task_progress_enrollment");
+            }
+            jdbc.execute("ALTER TABLE enrollment DETACH PARTITION " + enrollment.name());
+        });
+        log.info("Detached {} and {}", enrollment.name(), progress.name());
+    }
+
+    private void detach(MonthPartition p) {
+        jdbc.execute("ALTER TABLE " + p.table() + " DETACH PARTITION " + p.name());
+        log.info("Detached {}", p.name());
+    }
+
+    private void exportAndDrop(MonthPartition p) {
+        String table = p.name();
+        if (p.table().equals("enrollment")) {
+            // rows that referenced these enrollments before the FK had to go (see V10)
+            String month = table.substring("enrollment".length());
+            String checkpoints = "SELECT cp.* FROM checkpoint_progress cp JOIN " + table + " e ON e.id = cp.enrollment_id";
+            export(checkpoints, "checkpoint_progress" + month);
+            String achievements = "SELECT ua.* FROM user_achievements ua JOIN " + table + " e ON e.id = ua.enrollment_id";
+            export(achievements, "user_achievements" + month);
+        }
+        long exported = export("SELECT * FROM " + table, table);
+
+        tx.executeWithoutResult(status -> {
+            Long rows = jdbc.queryForObject("SELECT count(*) FROM " + table, Long.class);
+            if (rows == null || rows != exported) {
+                throw new IllegalStateException("Exported " + exported + " rows of " + table + " but it holds " + rows);
+            }
+            if (p.table().equals("enrollment")) {
+                jdbc.update("DELETE FROM checkpoint_progress cp USING " + table + " e WHERE e.id = cp.enrollment_id");
+                jdbc.update("UPDATE plan_waitlist w SET enrollment_id = NULL FROM " + table + " e WHERE e.id = w.enrollment_id");
+                // achievements are kept; only their link to the archived enrollment is dropped
+                jdbc.update("UPDATE user_achievements ua SET enrollment_id = NULL FROM " + table + " e WHERE e.id = ua.enrollment_id");
+                // DROP TABLE does not fire the delete trigger that maintains this lookup
+                jdbc.update("DELETE FROM enrollment_registration r USING " + table + " e WHERE e.id = r.enrollment_id");
+            }
+            jdbc.execute("DROP TABLE " + table);
+        });
+    }
+
+    /** COPY the query's rows to a gzip'd CSV; the file only appears once complete */
+    private long export(String query, String fileName) {
+        Path target = archiveDir.resolve(fileName + ".csv.gz");
+        Path partial = archiveDir.resolve(fileName + ".csv.gz.part");
+        Long rows = jdbc.execute((ConnectionCallback<Long>) con -> {
+            try {
+                Files.createDirectories(archiveDir);
+                long copied;
+                try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)), 1 << 16)) {
+                    copied = con.unwrap(PGConnection.class).getCopyAPI()
+                            .copyOut("COPY (" + query + ") TO STDOUT WITH (FORMAT csv, HEADER)", out);
+                }
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return copied;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private boolean isPartition(MonthPartition p) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE relname = ? AND relispartition)", Boolean.class, p.name()));
+    }
+
+    // progress tables are dropped before their enrollment month
+    private static int order(MonthPartition p) {
+        return switch (p.table()) {
+            case "task_progress" -> 0;
+            case "enrollment" -> 1;
+            default -> 2;
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.mysillydreams.treasure.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly partitions created a few months ahead of time, so inserts never
+ * hit a month without a partition. Creation is idempotent, so every instance may run it.
+ */
+@Slf4j
+@Component
+public class PartitionMaintenanceJob {
+
+    private static final String ENSURE_SQL =
+            "SELECT treasure_ensure_month_partitions(?, ?, (now() AT TIME ZONE 'UTC')::date, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final int monthsAhead;
+
+    public PartitionMaintenanceJob(JdbcTemplate jdbc,
+                                   @Value("${treasure.partitioning.months-ahead:3}") int monthsAhead) {
+        this.jdbc = jdbc;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${treasure.partitioning.maintenance-cron:0 0 2 * * *}")
+    public void ensureFuturePartitions() {
+        MonthPartition.PARTITION_KEYS.forEach((table, keyColumn) -> {
+            try {
+                Integer created = jdbc.queryForObject(ENSURE_SQL, Integer.class, table, keyColumn, monthsAhead);
+                if (created != null && created > 0) {
+                    log.info("Created {} future monthly partitions for {}", created, table);
+                }
+            } catch (Exception ex) {
+                log.warn("Partition maintenance for {} failed: {}", table, ex.getMessage());
+            }
+        });
+    }
+}
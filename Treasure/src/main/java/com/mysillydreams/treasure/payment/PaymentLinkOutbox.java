@@ -0,0 +1,100 @@
+package com.mysillydreams.treasure.payment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to payment_link_request (V16). A PENDING row is due once
+ * {@code next_attempt_at} has passed; whoever attempts it first pushes that time out
+ * by a lease, so a crashed attempt is picked up again once the lease runs out.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentLinkOutbox {
+
+    public record LinkRequest(UUID enrollmentId, UUID userId, UUID planId, String planTitle,
+                              String currency, BigDecimal amount, String template) {}
+
+    private static final String RECORD_SQL = """
+        INSERT INTO payment_link_request (enrollment_id, user_id, plan_id, plan_title, currency, amount, template,
+                                          next_attempt_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, now() + make_interval(secs => ?))
+        ON CONFLICT (enrollment_id) DO UPDATE
+           SET currency = EXCLUDED.currency, amount = EXCLUDED.amount, template = EXCLUDED.template,
+               status = 'PENDING', attempts = 0, next_attempt_at = EXCLUDED.next_attempt_at,
+               last_error = NULL, completed_at = NULL
+        """;
+
+    private static final String CLAIM_SQL = """
+        UPDATE payment_link_request r
+           SET next_attempt_at = now() + make_interval(secs => ?)
+         WHERE r.enrollment_id IN (
+               SELECT enrollment_id FROM payment_link_request
+                WHERE status = 'PENDING' AND next_attempt_at <= now()
+                ORDER BY next_attempt_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+        RETURNING r.enrollment_id, r.user_id, r.plan_id, r.plan_title, r.currency, r.amount, r.template
+        """;
+
+    private static final String DONE_SQL = """
+        UPDATE payment_link_request
+           SET status = 'DONE', attempts = attempts + 1, completed_at = now(), last_error = NULL
+         WHERE enrollment_id = ? AND status = 'PENDING'
+        """;
+
+    private static final String FAILED_SQL = """
+        UPDATE payment_link_request
+           SET attempts = attempts + 1,
+               status = CASE WHEN attempts + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END,
+               next_attempt_at = now() + make_interval(secs => least(? * power(2, attempts), ?)),
+               last_error = ?
+         WHERE enrollment_id = ? AND status = 'PENDING'
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    /** Record a link to request, leased for {@code lease} to the attempt made right after commit */
+    public void record(LinkRequest request, Duration lease) {
+        jdbc.update(RECORD_SQL, request.enrollmentId(), request.userId(), request.planId(), request.planTitle(),
+                request.currency(), request.amount(), request.template(), seconds(lease));
+    }
+
+    /**
+     * Lease up to {@code limit} due requests, oldest first
+     */
+    public List<LinkRequest> claim(int limit, Duration lease) {
+        return jdbc.query(CLAIM_SQL, (rs, i) -> new LinkRequest(
+                rs.getObject("enrollment_id", UUID.class), rs.getObject("user_id", UUID.class),
+                rs.getObject("plan_id", UUID.class), rs.getString("plan_title"), rs.getString("currency"),
+                rs.getBigDecimal("amount"), rs.getString("template")),
+                seconds(lease), limit);
+    }
+
+    /** @return false if the request was already completed or given up on */
+    public boolean markDone(UUID enrollmentId) {
+        return jdbc.update(DONE_SQL, enrollmentId) == 1;
+    }
+
+    /**
+     * Schedule another attempt with exponential backoff, or give up after {@code maxAttempts}
+     */
+    public void markFailed(UUID enrollmentId, String error, int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        jdbc.update(FAILED_SQL, maxAttempts, seconds(initialBackoff), seconds(maxBackoff), truncate(error), enrollmentId);
+    }
+
+    private static double seconds(Duration d) {
+        return d.toMillis() / 1000.0;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) return null;
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+}
@@ -0,0 +1,145 @@
+package com.mysillydreams.treasure.payment;
+
+import com.mysillydreams.treasure.domain.model.Enrollment;
+import com.mysillydreams.treasure.domain.model.Plan;
+import com.mysillydreams.treasure.integrations.port.NotificationPort;
+import com.mysillydreams.treasure.integrations.port.PaymentsPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Requests payment links for enrollments without losing them to a failed call. The
+ * request is recorded in the enrollment's transaction and attempted once it commits;
+ * failures stay in payment_link_request and are retried on a timer with backoff.
+ * Outcomes are written in their own transaction, since after commit the enrollment's
+ * connection is still bound but nothing written on it would be committed.
+ */
+@Slf4j
+@Component
+public class PaymentLinkRequests {
+
+    private final PaymentLinkOutbox outbox;
+    private final Optional<PaymentsPort> paymentsPort;
+    private final Optional<NotificationPort> notificationPort;
+    private final TransactionTemplate requiresNew;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public PaymentLinkRequests(PaymentLinkOutbox outbox,
+                               Optional<PaymentsPort> paymentsPort,
+                               Optional<NotificationPort> notificationPort,
+                               PlatformTransactionManager txManager,
+                               @Value("${treasure.payments.link.batch-size:50}") int batchSize,
+                               @Value("${treasure.payments.link.max-attempts:8}") int maxAttempts,
+                               @Value("${treasure.payments.link.lease:PT2M}") Duration lease,
+                               @Value("${treasure.payments.link.initial-backoff:PT30S}") Duration initialBackoff,
+                               @Value("${treasure.payments.link.max-backoff:PT30M}") Duration maxBackoff) {
+        this.outbox = outbox;
+        this.paymentsPort = paymentsPort;
+        this.notificationPort = notificationPort;
+        this.requiresNew = new TransactionTemplate(txManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Record the link in the caller's transaction and request it after commit
+     */
+    public void request(Enrollment enrollment, Plan plan, BigDecimal amount, String currency, String template) {
+        var request = new PaymentLinkOutbox.LinkRequest(enrollment.getId(), enrollment.getUserId(), plan.getId(),
+                plan.getTitle(), currency, amount, template);
+        outbox.record(request, lease);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            attempt(request);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                attempt(request);
+            }
+        });
+    }
+
+    /**
+     * Retry due requests whose earlier attempt failed or never finished.
+     *
+     * @return number of requests attempted
+     */
+    @Scheduled(fixedDelayString = "${treasure.payments.link.retry-interval:PT30S}")
+    public int retryDue() {
+        if (paymentsPort.isEmpty()) return 0;
+        try {
+            List<PaymentLinkOutbox.LinkRequest> due = outbox.claim(batchSize, lease);
+            CompletableFuture.allOf(due.stream().map(this::attempt).toArray(CompletableFuture[]::new)).join();
+            return due.size();
+        } catch (Exception ex) {
+            log.warn("Payment link retry round failed: {}", ex.getMessage());
+            return 0;
+        }
+    }
+
+    CompletableFuture<Void> attempt(PaymentLinkOutbox.LinkRequest request) {
+        CompletableFuture<Optional<PaymentsPort.PaymentLink>> call;
+        try {
+            call = paymentsPort.orElseThrow().createPaymentLinkAsync(request.enrollmentId().toString(),
+                    request.userId().toString(), request.currency(), request.amount().toPlainString(),
+                    request.planId().toString());
+        } catch (RuntimeException ex) {
+            call = CompletableFuture.failedFuture(ex);
+        }
+        return call.handle((link, ex) -> {
+            try {
+                if (ex == null) completed(request, link);
+                else failed(request, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            } catch (Exception recordEx) {
+                // the lease runs out and the request is attempted again
+                log.warn("Could not record payment link outcome for enrollment {}: {}",
+                        request.enrollmentId(), recordEx.getMessage());
+            }
+            return null;
+        });
+    }
+
+    private void completed(PaymentLinkOutbox.LinkRequest request, Optional<PaymentsPort.PaymentLink> link) {
+        requiresNew.executeWithoutResult(status -> {
+            // an attempt that lost the race to a retry must not notify twice
+            if (!outbox.markDone(request.enrollmentId())) return;
+            link.ifPresent(l -> notificationPort.ifPresent(np -> np.send(
+                    request.userId().toString(),
+                    "EMAIL",
+                    request.template(),
+                    request.enrollmentId().toString(),
+                    Map.of("planTitle", request.planTitle(), "paymentLink", l.link())
+            )));
+        });
+    }
+
+    private void failed(PaymentLinkOutbox.LinkRequest request, Throwable error) {
+        log.warn("Payment link for enrollment {} failed, will retry: {}", request.enrollmentId(), error.toString());
+        requiresNew.executeWithoutResult(status ->
+                outbox.markFailed(request.enrollmentId(), error.toString(), maxAttempts, initialBackoff, maxBackoff));
+    }
+}
@@ -0,0 +1,138 @@
+package com.mysillydreams.treasure.pricing;
+
+import com.mysillydreams.treasure.cache.CacheNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * The fx_rate table, held in memory as an immutable {@link Snapshot} and swapped on
+ * reload. Rows older than the max age are left out, so a stalled feed shows up as
+ * missing conversions rather than quietly wrong prices. Converted price previews are
+ * evicted whenever the rates change.
+ */
+@Slf4j
+@Component
+public class FxRates {
+
+    private static final String RATES_SQL = "SELECT base_currency, quote_currency, rate, as_of FROM fx_rate";
+
+    private final JdbcTemplate jdbc;
+    private final CacheManager cacheManager;
+    private final Duration maxAge;
+    private final String pivot;
+    private volatile Snapshot snapshot;
+
+    public FxRates(JdbcTemplate jdbc,
+                   CacheManager cacheManager,
+                   @Value("${treasure.fx.max-age:PT36H}") Duration maxAge,
+                   @Value("${treasure.fx.pivot:USD}") String pivot) {
+        this.jdbc = jdbc;
+        this.cacheManager = cacheManager;
+        this.maxAge = maxAge;
+        this.pivot = pivot.toUpperCase(Locale.ROOT);
+        this.snapshot = Snapshot.of(Map.of(), this.pivot);
+    }
+
+    /** Rates as of the last reload; use one snapshot for a whole page so every row converts alike */
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    // loaded before application runners, so the startup warm-up already sees rates
+    @EventListener(ApplicationStartedEvent.class)
+    @Scheduled(fixedDelayString = "${treasure.fx.refresh-interval:PT15M}",
+               initialDelayString = "${treasure.fx.refresh-interval:PT15M}")
+    public void reload() {
+        try {
+            Instant cutoff = Instant.now().minus(maxAge);
+            Map<String, BigDecimal> pairs = new HashMap<>();
+            jdbc.query(RATES_SQL, rs -> {
+                String pair = pair(rs.getString("base_currency"), rs.getString("quote_currency"));
+                if (rs.getTimestamp("as_of").toInstant().isBefore(cutoff)) {
+                    log.warn("Ignoring stale FX rate {}", pair);
+                } else {
+                    pairs.put(pair, rs.getBigDecimal("rate"));
+                }
+            });
+            if (pairs.equals(snapshot.pairs)) return;
+            snapshot = Snapshot.of(pairs, pivot);
+            Cache cache = cacheManager.getCache(CacheNames.PLAN_PRICE);
+            if (cache != null) cache.clear();
+            log.info("Loaded {} FX rates", pairs.size());
+        } catch (Exception ex) {
+            log.warn("FX reload failed, keeping previous rates: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Round to the currency's minor unit (2 for INR/USD, 0 for JPY), half-even, so the
+     * same amount always converts to the same price
+     */
+    public static BigDecimal toMinorUnits(BigDecimal amount, String currency) {
+        int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+        return amount.setScale(Math.max(digits, 0), RoundingMode.HALF_EVEN);
+    }
+
+    private static String pair(String base, String quote) {
+        return base.trim().toUpperCase(Locale.ROOT) + "/" + quote.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public static final class Snapshot {
+        private final Map<String, BigDecimal> pairs;
+        private final String pivot;
+
+        private Snapshot(Map<String, BigDecimal> pairs, String pivot) {
+            this.pairs = pairs;
+            this.pivot = pivot;
+        }
+
+        public static Snapshot of(Map<String, BigDecimal> pairs, String pivot) {
+            return new Snapshot(Map.copyOf(pairs), pivot);
+        }
+
+        /** Direct pair, else the inverse, else through the pivot currency */
+        public Optional<BigDecimal> rate(String from, String to) {
+            String f = from.toUpperCase(Locale.ROOT), t = to.toUpperCase(Locale.ROOT);
+            if (f.equals(t)) return Optional.of(BigDecimal.ONE);
+            BigDecimal direct = direct(f, t);
+            if (direct != null) return Optional.of(direct);
+            if (f.equals(pivot) || t.equals(pivot)) return Optional.empty();
+            BigDecimal toPivot = direct(f, pivot), fromPivot = direct(pivot, t);
+            return toPivot != null && fromPivot != null
+                    ? Optional.of(toPivot.multiply(fromPivot, MathContext.DECIMAL64))
+                    : Optional.empty();
+        }
+
+        /**
+         * @throws IllegalArgumentException for an unknown currency code
+         * @throws IllegalStateException when no rate is loaded for the pair
+         */
+        public BigDecimal convert(BigDecimal amount, String from, String to) {
+            Currency.getInstance(to.toUpperCase(Locale.ROOT));
+            BigDecimal rate = rate(from, to)
+                    .orElseThrow(() -> new IllegalStateException("No exchange rate from " + from + " to " + to));
+            return toMinorUnits(amount.multiply(rate, MathContext.DECIMAL64), to.toUpperCase(Locale.ROOT));
+        }
+
+        private BigDecimal direct(String from, String to) {
+            BigDecimal rate = pairs.get(from + "/" + to);
+            if (rate != null) return rate;
+            BigDecimal inverse = pairs.get(to + "/" + from);
+            return inverse != null ? BigDecimal.ONE.divide(inverse, MathContext.DECIMAL64) : null;
+        }
+    }
+}
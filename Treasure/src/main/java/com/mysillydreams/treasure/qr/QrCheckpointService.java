@@ -0,0 +1,104 @@
+package com.mysillydreams.treasure.qr;
+
+import com.mysillydreams.treasure.domain.service.CheckpointValidationService;
+import com.mysillydreams.treasure.geo.CheckpointSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and redeems checkpoint QR codes. Codes are signed tokens rather than rows,
+ * so forged, expired and foreign codes are rejected in memory; only a successful
+ * completion writes to the DB. A scan the replay filter has probably seen is checked
+ * with a primary-key read instead of going through the write.
+ */
+@Service
+public class QrCheckpointService {
+
+    private static final String COMPLETE_SQL = """
+        INSERT INTO checkpoint_progress (enrollment_id, checkpoint_id, status, reached_at, completed_at, qr_scan_data)
+        SELECT e.id, ?, 'COMPLETED', now(), now(), ? FROM enrollment e WHERE e.id = ? AND e.plan_id = ?
+        ON CONFLICT (enrollment_id, checkpoint_id) DO UPDATE
+           SET status = 'COMPLETED',
+               reached_at = coalesce(checkpoint_progress.reached_at, now()),
+               completed_at = now(),
+               qr_scan_data = EXCLUDED.qr_scan_data,
+               updated_at = now()
+         WHERE checkpoint_progress.status <> 'COMPLETED'
+        """;
+
+    private static final String STATUS_SQL =
+            "SELECT status FROM checkpoint_progress WHERE enrollment_id = ? AND checkpoint_id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final QrTokenCodec codec;
+    private final CheckpointValidationService checkpoints;
+    private final ReplayFilter replays;
+
+    public QrCheckpointService(JdbcTemplate jdbc,
+                               QrTokenCodec codec,
+                               CheckpointValidationService checkpoints,
+                               @Value("${treasure.qr.replay.expected-scans:200000}") int expectedScans,
+                               @Value("${treasure.qr.replay.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.jdbc = jdbc;
+        this.codec = codec;
+        this.checkpoints = checkpoints;
+        this.replays = new ReplayFilter(expectedScans, falsePositiveRate);
+    }
+
+    /**
+     * Signed QR payload for a checkpoint that requires a scan
+     */
+    public String issue(UUID planId, UUID checkpointId, Instant notBefore, Instant expiresAt) {
+        qrCheckpoint(planId, checkpointId);
+        return codec.issue(planId, checkpointId, notBefore, expiresAt);
+    }
+
+    /**
+     * Complete the checkpoint named by a scanned code.
+     *
+     * @throws IllegalArgumentException if the code is invalid or not for this enrollment's plan
+     * @throws IllegalStateException    if the code is expired or the checkpoint is already completed
+     */
+    public CheckpointSnapshot redeem(UUID enrollmentId, String token) {
+        QrToken t = codec.verify(token, Instant.now());
+        CheckpointSnapshot checkpoint = qrCheckpoint(t.planId(), t.checkpointId());
+
+        if (replays.mightContain(enrollmentId, t.nonce()) && completed(enrollmentId, checkpoint.id())) {
+            throw new IllegalStateException("Checkpoint '" + checkpoint.name() + "' is already completed");
+        }
+        int written = jdbc.update(COMPLETE_SQL, checkpoint.id(), Long.toHexString(t.nonce()),
+                enrollmentId, t.planId());
+        if (written == 0) {
+            if (completed(enrollmentId, checkpoint.id())) {
+                replays.put(enrollmentId, t.nonce());
+                throw new IllegalStateException("Checkpoint '" + checkpoint.name() + "' is already completed");
+            }
+            throw new IllegalArgumentException("QR code is not for this enrollment's plan");
+        }
+        replays.put(enrollmentId, t.nonce());
+        return checkpoint;
+    }
+
+    @Scheduled(fixedDelayString = "${treasure.qr.replay.rotate-interval:PT6H}",
+               initialDelayString = "${treasure.qr.replay.rotate-interval:PT6H}")
+    public void rotateReplayFilter() {
+        replays.rotate();
+    }
+
+    private CheckpointSnapshot qrCheckpoint(UUID planId, UUID checkpointId) {
+        return checkpoints.indexFor(planId).checkpoint(checkpointId)
+                .filter(CheckpointSnapshot::requiresQrScan)
+                .orElseThrow(() -> new IllegalArgumentException("QR code is not for an active QR checkpoint"));
+    }
+
+    private boolean completed(UUID enrollmentId, UUID checkpointId) {
+        List<String> status = jdbc.queryForList(STATUS_SQL, String.class, enrollmentId, checkpointId);
+        return !status.isEmpty() && "COMPLETED".equals(status.get(0));
+    }
+}
@@ -0,0 +1,60 @@
+package com.mysillydreams.treasure.qr;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * HMAC keys for QR tokens, configured as {@code treasure.qr.keys=kid:base64secret,...}.
+ * The first key signs new tokens; every key in the ring verifies, so a key can be
+ * rotated by prepending its successor and dropped once codes signed with it expire.
+ */
+@Slf4j
+@Component
+public class QrKeyRing {
+
+    public record Key(String id, SecretKeySpec secret) {}
+
+    private final Key active;
+    private final Map<String, Key> byId;
+
+    public QrKeyRing(@Value("${treasure.qr.keys:}") String keys) {
+        List<Key> ring = new ArrayList<>();
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) continue;
+            int colon = entry.indexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("QR key entries must be kid:base64secret");
+            String id = entry.substring(0, colon).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            if (id.getBytes(StandardCharsets.US_ASCII).length > 16) throw new IllegalArgumentException("QR key id too long: " + id);
+            if (secret.length < 32) throw new IllegalArgumentException("QR key " + id + " must be at least 32 bytes");
+            ring.add(new Key(id, new SecretKeySpec(secret, "HmacSHA256")));
+        }
+        if (ring.isEmpty()) {
+            // codes signed by this key die with the instance and are rejected by its peers
+            log.warn("treasure.qr.keys is not set; using a random key, QR codes will not survive a restart");
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            ring.add(new Key("local", new SecretKeySpec(secret, "HmacSHA256")));
+        }
+        this.active = ring.get(0);
+        Map<String, Key> map = new HashMap<>();
+        for (Key k : ring) {
+            if (map.putIfAbsent(k.id(), k) != null) throw new IllegalArgumentException("Duplicate QR key id " + k.id());
+        }
+        this.byId = Map.copyOf(map);
+    }
+
+    public Key active() {
+        return active;
+    }
+
+    public Optional<Key> find(String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+}
@@ -0,0 +1,16 @@
+package com.mysillydreams.treasure.qr;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Verified contents of a checkpoint QR code
+ */
+public record QrToken(
+        String keyId,
+        UUID planId,
+        UUID checkpointId,
+        Instant notBefore,
+        Instant expiresAt,
+        long nonce
+) {}
@@ -0,0 +1,105 @@
+package com.mysillydreams.treasure.qr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes and verifies QR tokens without any lookup. A token is the URL-safe base64 of
+ * {@code version | key id | plan | checkpoint | not-before | expires | nonce} followed by
+ * a truncated HMAC-SHA256 of those bytes, about 100 characters in all.
+ */
+@Component
+@RequiredArgsConstructor
+public class QrTokenCodec {
+
+    private static final byte VERSION = 1;
+    private static final int MAC_BYTES = 16;
+
+    private final QrKeyRing keys;
+    private final SecureRandom random = new SecureRandom();
+
+    public String issue(UUID planId, UUID checkpointId, Instant notBefore, Instant expiresAt) {
+        if (!expiresAt.isAfter(notBefore)) throw new IllegalArgumentException("QR validity window is empty");
+        QrKeyRing.Key key = keys.active();
+        byte[] kid = key.id().getBytes(StandardCharsets.US_ASCII);
+
+        ByteBuffer buf = ByteBuffer.allocate(2 + kid.length + 16 + 16 + 8 + 8 + 8 + MAC_BYTES);
+        buf.put(VERSION).put((byte) kid.length).put(kid);
+        putUuid(buf, planId);
+        putUuid(buf, checkpointId);
+        buf.putLong(notBefore.getEpochSecond()).putLong(expiresAt.getEpochSecond()).putLong(random.nextLong());
+        int signed = buf.position();
+        buf.put(mac(key, buf.array(), signed));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed, signed by an unknown key or tampered with
+     * @throws IllegalStateException    if it is authentic but outside its validity window
+     */
+    public QrToken verify(String token, Instant now) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw invalid();
+        }
+        QrToken parsed;
+        int signed;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            if (buf.get() != VERSION) throw invalid();
+            byte[] kid = new byte[buf.get()];
+            buf.get(kid);
+            parsed = new QrToken(new String(kid, StandardCharsets.US_ASCII), getUuid(buf), getUuid(buf),
+                    Instant.ofEpochSecond(buf.getLong()), Instant.ofEpochSecond(buf.getLong()), buf.getLong());
+            signed = buf.position();
+            if (buf.remaining() != MAC_BYTES) throw invalid();
+        } catch (BufferUnderflowException | NegativeArraySizeException ex) {
+            throw invalid();
+        }
+
+        QrKeyRing.Key key = keys.find(parsed.keyId()).orElseThrow(QrTokenCodec::invalid);
+        byte[] expected = mac(key, bytes, signed);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, signed, bytes.length))) throw invalid();
+
+        if (now.isBefore(parsed.notBefore())) throw new IllegalStateException("QR code is not valid yet");
+        if (!now.isBefore(parsed.expiresAt())) throw new IllegalStateException("QR code has expired");
+        return parsed;
+    }
+
+    private static byte[] mac(QrKeyRing.Key key, byte[] data, int length) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key.secret());
+            mac.update(data, 0, length);
+            return Arrays.copyOf(mac.doFinal(), MAC_BYTES);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid QR code");
+    }
+
+    private static void putUuid(ByteBuffer buf, UUID id) {
+        buf.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buf) {
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+}
@@ -0,0 +1,78 @@
+package com.mysillydreams.treasure.qr;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over (enrollment, token nonce) pairs that have completed a checkpoint.
+ * Two generations are kept; {@link #rotate()} drops the older one so memory stays
+ * fixed however long the instance runs. A miss is definite, a hit only probable.
+ */
+final class ReplayFilter {
+
+    private final int bits;
+    private final int hashes;
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+
+    ReplayFilter(int expectedInsertions, double falsePositiveRate) {
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.current = new AtomicLongArray((bits + 63) / 64);
+        this.previous = new AtomicLongArray((bits + 63) / 64);
+    }
+
+    boolean mightContain(UUID enrollmentId, long nonce) {
+        long h1 = h1(enrollmentId, nonce), h2 = h2(enrollmentId, nonce);
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    void put(UUID enrollmentId, long nonce) {
+        long h1 = h1(enrollmentId, nonce), h2 = h2(enrollmentId, nonce);
+        AtomicLongArray words = current;
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1, h2, i);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long old;
+            do {
+                old = words.get(word);
+                if ((old & mask) != 0) break;
+            } while (!words.compareAndSet(word, old, old | mask));
+        }
+    }
+
+    void rotate() {
+        previous = current;
+        current = new AtomicLongArray(previous.length());
+    }
+
+    private boolean contains(AtomicLongArray words, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1, h2, i);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // Kirsch-Mitzenmacher: k indexes from two independent hashes
+    private int index(long h1, long h2, int i) {
+        return (int) Long.remainderUnsigned(h1 + i * h2, bits);
+    }
+
+    private static long h1(UUID id, long nonce) {
+        return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits() ^ nonce));
+    }
+
+    private static long h2(UUID id, long nonce) {
+        return mix(nonce + 0x9E3779B97F4A7C15L * mix(id.getLeastSignificantBits() ^ id.getMostSignificantBits())) | 1;
+    }
+
+    // splitmix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
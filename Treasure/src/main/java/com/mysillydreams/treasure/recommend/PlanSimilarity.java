@@ -0,0 +1,113 @@
+package com.mysillydreams.treasure.recommend;
+
+import com.mysillydreams.treasure.geo.GeoMath;
+
+import java.util.*;
+
+/**
+ * Content + co-enrollment similarity between plans. Pure and in-memory so the
+ * nightly job can score every candidate pair without touching the database.
+ *
+ * Each plan is only compared against candidates that share its category, city or
+ * a co-enrolled user (or are virtual, for virtual plans), which keeps the pair count
+ * close to linear in practice.
+ */
+final class PlanSimilarity {
+
+    record Features(UUID planId, UUID subcategoryId, UUID categoryId, String city, boolean virtual,
+                    double lat, double lon, double priceFrom, int difficultyMask) {
+
+        boolean hasLocation() {
+            return !Double.isNaN(lat) && !Double.isNaN(lon);
+        }
+    }
+
+    record Neighbour(UUID planId, double score) {}
+
+    // weights sum to 1 so a score reads as a fraction of a perfect match
+    static final double W_TAXONOMY = 0.35;
+    static final double W_DIFFICULTY = 0.15;
+    static final double W_GEO = 0.20;
+    static final double W_PRICE = 0.10;
+    static final double W_CO_ENROLLMENT = 0.20;
+
+    static final double SAME_CATEGORY = 0.5;           // share of W_TAXONOMY for a sibling subcategory
+    static final double GEO_DECAY_M = 25_000;          // score halves roughly every 17 km
+    static final double PRICE_RATIO_CUTOFF = Math.log(4);
+    static final double MIN_SCORE = 0.15;
+
+    private PlanSimilarity() {}
+
+    static double score(Features a, Features b, int coUsers, int maxCoUsers) {
+        double s = 0;
+
+        if (Objects.equals(a.subcategoryId(), b.subcategoryId())) s += W_TAXONOMY;
+        else if (Objects.equals(a.categoryId(), b.categoryId())) s += W_TAXONOMY * SAME_CATEGORY;
+
+        int union = Integer.bitCount(a.difficultyMask() | b.difficultyMask());
+        if (union > 0) s += W_DIFFICULTY * Integer.bitCount(a.difficultyMask() & b.difficultyMask()) / union;
+
+        if (a.virtual() && b.virtual()) {
+            s += W_GEO;
+        } else if (a.hasLocation() && b.hasLocation()) {
+            double meters = GeoMath.haversineMeters(a.lat(), a.lon(), b.lat(), b.lon());
+            s += W_GEO * Math.exp(-meters / GEO_DECAY_M);
+        } else if (a.city() != null && a.city().equals(b.city())) {
+            s += W_GEO * 0.5;
+        }
+
+        if (a.priceFrom() > 0 && b.priceFrom() > 0) {
+            double ratio = Math.abs(Math.log(a.priceFrom() / b.priceFrom()));
+            s += W_PRICE * Math.max(0, 1 - ratio / PRICE_RATIO_CUTOFF);
+        }
+
+        if (coUsers > 0 && maxCoUsers > 0) {
+            s += W_CO_ENROLLMENT * Math.log1p(coUsers) / Math.log1p(maxCoUsers);
+        }
+        return s;
+    }
+
+    /**
+     * Top {@code k} neighbours per plan, best first.
+     *
+     * @param coEnrollment plan -> (other plan -> distinct users enrolled in both)
+     */
+    static Map<UUID, List<Neighbour>> topK(List<Features> plans, Map<UUID, Map<UUID, Integer>> coEnrollment, int k) {
+        Map<UUID, Features> byId = new HashMap<>(plans.size() * 2);
+        Map<UUID, List<Features>> byCategory = new HashMap<>();
+        Map<String, List<Features>> byCity = new HashMap<>();
+        List<Features> virtual = new ArrayList<>();
+        for (Features f : plans) {
+            byId.put(f.planId(), f);
+            byCategory.computeIfAbsent(f.categoryId(), c -> new ArrayList<>()).add(f);
+            if (f.city() != null) byCity.computeIfAbsent(f.city(), c -> new ArrayList<>()).add(f);
+            if (f.virtual()) virtual.add(f);
+        }
+
+        int maxCoUsers = coEnrollment.values().stream()
+                .flatMap(m -> m.values().stream()).mapToInt(Integer::intValue).max().orElse(0);
+
+        Map<UUID, List<Neighbour>> result = new HashMap<>(plans.size() * 2);
+        Comparator<Neighbour> byScore = Comparator.comparingDouble(Neighbour::score);
+        for (Features a : plans) {
+            Map<UUID, Integer> co = coEnrollment.getOrDefault(a.planId(), Map.of());
+            Set<Features> candidates = new HashSet<>(byCategory.getOrDefault(a.categoryId(), List.of()));
+            if (a.city() != null) candidates.addAll(byCity.getOrDefault(a.city(), List.of()));
+            if (a.virtual()) candidates.addAll(virtual);
+            co.keySet().forEach(id -> { Features f = byId.get(id); if (f != null) candidates.add(f); });
+            candidates.remove(a);
+
+            PriorityQueue<Neighbour> best = new PriorityQueue<>(k + 1, byScore);
+            for (Features b : candidates) {
+                double s = score(a, b, co.getOrDefault(b.planId(), 0), maxCoUsers);
+                if (s < MIN_SCORE) continue;
+                best.offer(new Neighbour(b.planId(), s));
+                if (best.size() > k) best.poll();
+            }
+            List<Neighbour> ranked = new ArrayList<>(best);
+            ranked.sort(byScore.reversed().thenComparing(Neighbour::planId));
+            result.put(a.planId(), ranked);
+        }
+        return result;
+    }
+}
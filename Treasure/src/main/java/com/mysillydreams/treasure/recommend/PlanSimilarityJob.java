@@ -0,0 +1,144 @@
+package com.mysillydreams.treasure.recommend;
+
+import com.mysillydreams.treasure.cache.CacheNames;
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Recomputes plan_similarity offline: loads features for every live plan plus
+ * co-enrollment counts, scores candidate pairs in memory and rewrites the table in
+ * one short transaction. Scoring runs outside the transaction so readers never wait.
+ */
+@Slf4j
+@Component
+public class PlanSimilarityJob {
+
+    private static final String FEATURES_SQL = """
+        SELECT p.id, p.subcategory_id, s.category_id, lower(trim(p.city)) AS city, p.is_virtual,
+               ST_Y(p.geo_point::geometry) AS lat, ST_X(p.geo_point::geometry) AS lon,
+               (SELECT min(pp.base_amount) FROM plan_price pp WHERE pp.plan_id = p.id) AS price_from,
+               (SELECT string_agg(DISTINCT pd.difficulty::text, ',') FROM plan_difficulty pd WHERE pd.plan_id = p.id) AS difficulties
+          FROM plan p
+          JOIN subcategory s ON s.id = p.subcategory_id
+         WHERE (p.end_at IS NULL OR p.end_at > now())
+        """;
+
+    private static final String CO_ENROLLMENT_SQL = """
+        SELECT a.plan_id AS plan_a, b.plan_id AS plan_b, count(DISTINCT a.user_id) AS users
+          FROM enrollment a
+          JOIN enrollment b ON b.user_id = a.user_id AND b.plan_id <> a.plan_id
+         WHERE a.status <> 'CANCELLED' AND b.status <> 'CANCELLED'
+           AND a.enrolled_at > now() - make_interval(days => ?)
+         GROUP BY a.plan_id, b.plan_id
+        """;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO plan_similarity (plan_id, similar_plan_ids, scores, computed_at)
+        VALUES (?, ?::uuid[], ?::real[], ?)
+        ON CONFLICT (plan_id) DO UPDATE
+           SET similar_plan_ids = EXCLUDED.similar_plan_ids, scores = EXCLUDED.scores, computed_at = EXCLUDED.computed_at
+        """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final CacheManager cacheManager;
+    private final int topK;
+    private final int coEnrollmentWindowDays;
+
+    public PlanSimilarityJob(JdbcTemplate jdbc,
+                             PlatformTransactionManager txManager,
+                             CacheManager cacheManager,
+                             @Value("${treasure.recommend.top-k:8}") int topK,
+                             @Value("${treasure.recommend.co-enrollment-window-days:365}") int coEnrollmentWindowDays) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.cacheManager = cacheManager;
+        this.topK = topK;
+        this.coEnrollmentWindowDays = coEnrollmentWindowDays;
+    }
+
+    /** Populate an empty table right after deploy instead of waiting for the nightly run */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        try {
+            Boolean empty = jdbc.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM plan_similarity)", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) refresh();
+        } catch (Exception ex) {
+            log.warn("Plan similarity bootstrap failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Recompute and store the top-K similar plans of every live plan.
+     *
+     * @return number of plans written
+     */
+    @Scheduled(cron = "${treasure.recommend.similarity-cron:0 45 3 * * *}")
+    public int refresh() {
+        long started = System.nanoTime();
+        List<PlanSimilarity.Features> plans = jdbc.query(FEATURES_SQL, (rs, i) -> {
+            double lat = rs.getDouble("lat");
+            if (rs.wasNull()) lat = Double.NaN;
+            double lon = rs.getDouble("lon");
+            if (rs.wasNull()) lon = Double.NaN;
+            BigDecimal price = rs.getBigDecimal("price_from");
+            return new PlanSimilarity.Features(
+                    rs.getObject("id", UUID.class), rs.getObject("subcategory_id", UUID.class),
+                    rs.getObject("category_id", UUID.class), rs.getString("city"), rs.getBoolean("is_virtual"),
+                    lat, lon, price == null ? 0 : price.doubleValue(), difficultyMask(rs.getString("difficulties")));
+        });
+
+        Map<UUID, Map<UUID, Integer>> coEnrollment = new HashMap<>();
+        jdbc.query(CO_ENROLLMENT_SQL, rs -> {
+            coEnrollment.computeIfAbsent(rs.getObject("plan_a", UUID.class), k -> new HashMap<>())
+                    .put(rs.getObject("plan_b", UUID.class), rs.getInt("users"));
+        }, coEnrollmentWindowDays);
+
+        Map<UUID, List<PlanSimilarity.Neighbour>> neighbours = PlanSimilarity.topK(plans, coEnrollment, topK);
+        int written = store(neighbours);
+
+        Cache cache = cacheManager.getCache(CacheNames.PLAN_SIMILAR);
+        if (cache != null) cache.clear();
+        log.info("Plan similarity refreshed for {} plans in {} ms", written, (System.nanoTime() - started) / 1_000_000);
+        return written;
+    }
+
+    private int store(Map<UUID, List<PlanSimilarity.Neighbour>> neighbours) {
+        OffsetDateTime computedAt = OffsetDateTime.now();
+        List<Object[]> rows = new ArrayList<>(neighbours.size());
+        neighbours.forEach((planId, ranked) -> rows.add(new Object[]{
+                planId,
+                ranked.stream().map(n -> n.planId().toString()).collect(Collectors.joining(",", "{", "}")),
+                ranked.stream().map(n -> String.format(Locale.ROOT, "%.4f", n.score())).collect(Collectors.joining(",", "{", "}")),
+                computedAt
+        }));
+        return Objects.requireNonNull(tx.execute(status -> {
+            jdbc.batchUpdate(UPSERT_SQL, rows);
+            // plans that ended or were removed since the last run
+            jdbc.update("DELETE FROM plan_similarity WHERE computed_at < ?", computedAt);
+            return rows.size();
+        }));
+    }
+
+    static int difficultyMask(String csv) {
+        if (csv == null || csv.isBlank()) return 0;
+        int mask = 0;
+        for (String d : csv.split(",")) mask |= 1 << Difficulty.valueOf(d.trim()).ordinal();
+        return mask;
+    }
+}
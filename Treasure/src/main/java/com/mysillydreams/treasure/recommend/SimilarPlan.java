@@ -0,0 +1,6 @@
+package com.mysillydreams.treasure.recommend;
+
+import java.util.UUID;
+
+/** One precomputed recommendation, in the order stored for the source plan */
+public record SimilarPlan(UUID planId, String title, String city, double score) {}
@@ -0,0 +1,37 @@
+package com.mysillydreams.treasure.recommend;
+
+import com.mysillydreams.treasure.cache.CacheNames;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves precomputed recommendations: one keyed read of plan_similarity, unnested
+ * in rank order and joined to the neighbours' titles, cached until the next refresh.
+ */
+@Service
+@RequiredArgsConstructor
+public class SimilarPlanService {
+
+    private static final String SIMILAR_SQL = """
+        SELECT p.id, p.title, p.city, n.score
+          FROM plan_similarity ps
+          CROSS JOIN LATERAL unnest(ps.similar_plan_ids, ps.scores) WITH ORDINALITY AS n(plan_id, score, ord)
+          JOIN plan p ON p.id = n.plan_id
+         WHERE ps.plan_id = ?
+           AND (p.end_at IS NULL OR p.end_at > now())
+         ORDER BY n.ord
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    @Cacheable(cacheNames = CacheNames.PLAN_SIMILAR, key = "#planId")
+    public List<SimilarPlan> similarTo(UUID planId) {
+        return jdbc.query(SIMILAR_SQL, (rs, i) -> new SimilarPlan(
+                rs.getObject("id", UUID.class), rs.getString("title"), rs.getString("city"), rs.getDouble("score")), planId);
+    }
+}
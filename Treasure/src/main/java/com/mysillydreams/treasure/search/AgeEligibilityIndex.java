@@ -0,0 +1,133 @@
+package com.mysillydreams.treasure.search;
+
+import com.mysillydreams.treasure.domain.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Precomputed age -> eligible subcategories, so search filters by
+ * {@code plan.subcategory_id IN (...)} instead of joining subcategory and
+ * age bands per query.
+ *
+ * Each snapshot numbers subcategories 0..n-1, keeps a bitset of them per age band
+ * and materialises the id list for every tabulated age once at build time. Snapshots are immutable
+ * and swapped atomically on rebuild. Until the first snapshot loads the index is empty, so
+ * callers check {@link #isLoaded()} and filter with the band join meanwhile.
+ */
+@Slf4j
+@Component
+public class AgeEligibilityIndex {
+
+    /** Ages up to this are tabulated; older ages are answered from the band ranges */
+    static final int MAX_TABULATED_AGE = 120;
+
+    public record Band(UUID id, String label, int minAge, int maxAge) {}
+
+    public record Allowed(UUID subcategoryId, UUID ageBandId) {}
+
+    private final JdbcTemplate jdbc;
+    private volatile Snapshot snapshot = Snapshot.build(List.of(), List.of());
+    private volatile boolean loaded;
+
+    public AgeEligibilityIndex(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${treasure.age-eligibility.refresh-interval:PT5M}",
+               initialDelayString = "${treasure.age-eligibility.refresh-interval:PT5M}")
+    public void reload() {
+        try {
+            List<Band> bands = jdbc.query("SELECT id, label, min_age, max_age FROM age_band ORDER BY min_age, max_age",
+                    (rs, i) -> new Band(rs.getObject(1, UUID.class), rs.getString(2), rs.getInt(3), rs.getInt(4)));
+            List<Allowed> allowed = jdbc.query("SELECT subcategory_id, age_band_id FROM subcategory_age_band",
+                    (rs, i) -> new Allowed(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)));
+            install(Snapshot.build(bands, allowed));
+            log.info("Age eligibility rebuilt: {} bands, {} subcategories", bands.size(), snapshot.subcategories.length);
+        } catch (Exception ex) {
+            log.warn("Age eligibility rebuild failed, keeping previous snapshot: {}", ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        reload();
+    }
+
+    public void install(Snapshot next) {
+        this.snapshot = next;
+        this.loaded = true;
+    }
+
+    /** False until a snapshot has been built; an empty index then means "unknown", not "no match" */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Subcategories whose allowed age bands include {@code age}; empty if none */
+    public List<UUID> eligibleSubcategories(int age) {
+        return snapshot.eligible(age);
+    }
+
+    public List<Band> ageBands() {
+        return snapshot.bands;
+    }
+
+    public static final class Snapshot {
+        private final UUID[] subcategories;
+        private final List<UUID>[] idsByAge;
+        private final List<Band> bands;
+        private final Map<UUID, BitSet> subcategoriesByBand;
+
+        @SuppressWarnings("unchecked")
+        private Snapshot(UUID[] subcategories, List<Band> bands, Map<UUID, BitSet> subcategoriesByBand) {
+            this.subcategories = subcategories;
+            this.bands = List.copyOf(bands);
+            this.subcategoriesByBand = subcategoriesByBand;
+            this.idsByAge = new List[MAX_TABULATED_AGE + 1];
+            for (int age = 0; age <= MAX_TABULATED_AGE; age++) {
+                idsByAge[age] = toIds(union(age));
+            }
+        }
+
+        public static Snapshot build(List<Band> bands, Collection<Allowed> allowed) {
+            Map<UUID, Integer> index = new LinkedHashMap<>();
+            Map<UUID, BitSet> byBand = new HashMap<>();
+            for (Allowed a : allowed) {
+                int bit = index.computeIfAbsent(a.subcategoryId(), k -> index.size());
+                byBand.computeIfAbsent(a.ageBandId(), k -> new BitSet()).set(bit);
+            }
+            return new Snapshot(index.keySet().toArray(UUID[]::new), bands, byBand);
+        }
+
+        List<UUID> eligible(int age) {
+            if (age < 0) return List.of();
+            if (age <= MAX_TABULATED_AGE) return idsByAge[age];
+            return toIds(union(age));
+        }
+
+        private BitSet union(int age) {
+            BitSet bits = new BitSet(subcategories.length);
+            for (Band b : bands) {
+                if (b.minAge() <= age && age <= b.maxAge()) {
+                    BitSet subs = subcategoriesByBand.get(b.id());
+                    if (subs != null) bits.or(subs);
+                }
+            }
+            return bits;
+        }
+
+        private List<UUID> toIds(BitSet bits) {
+            List<UUID> ids = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) ids.add(subcategories[i]);
+            return List.copyOf(ids);
+        }
+    }
+}
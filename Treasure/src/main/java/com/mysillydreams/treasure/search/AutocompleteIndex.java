@@ -0,0 +1,322 @@
+package com.mysillydreams.treasure.search;
+
+import com.mysillydreams.treasure.domain.event.PlanChangedEvent;
+import com.mysillydreams.treasure.domain.event.PlansImportedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead over live plan titles, cities and subcategory names,
+ * weighted by popularity (enrollments). Queries never touch the database.
+ *
+ * Every word start of a suggestion is a key in one sorted array, so a prefix maps
+ * to a contiguous range; top suggestions for one- and two-letter prefixes, whose
+ * ranges are widest, are precomputed. Longer prefixes pull their best keys out of the
+ * range one at a time through a per-block best-rank table, so the most popular matches
+ * are found however far into the range they sort. Plan changes reload just that plan
+ * and swap in a rebuilt snapshot; a periodic full reload refreshes popularity.
+ */
+@Slf4j
+@Component
+public class AutocompleteIndex {
+
+    public enum Kind { PLAN, CITY, SUBCATEGORY }
+
+    public record Suggestion(String text, Kind kind, UUID id, long weight) {}
+
+    record PlanDoc(UUID planId, String title, String city, UUID subcategoryId, String subcategoryName, long enrollments) {}
+
+    public static final int MAX_SUGGESTIONS = 10;
+    static final int PRECOMPUTED_PREFIX = 2;
+    static final int BLOCK = 32;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String DOC_SQL = """
+        SELECT p.id, p.title, p.city, s.id AS subcategory_id, s.name AS subcategory_name, COALESCE(e.cnt, 0) AS enrollments
+          FROM plan p
+          JOIN subcategory s ON s.id = p.subcategory_id
+          LEFT JOIN (SELECT plan_id, count(*) AS cnt FROM enrollment GROUP BY plan_id) e ON e.plan_id = p.id
+         WHERE (p.end_at IS NULL OR p.end_at > now())
+        """;
+
+    private static final RowMapper<PlanDoc> DOC_MAPPER = (rs, i) -> new PlanDoc(
+            rs.getObject("id", UUID.class), rs.getString("title"), rs.getString("city"),
+            rs.getObject("subcategory_id", UUID.class), rs.getString("subcategory_name"), rs.getLong("enrollments"));
+
+    private final JdbcTemplate jdbc;
+    private final Map<UUID, PlanDoc> docs = new ConcurrentHashMap<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    public AutocompleteIndex(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${treasure.autocomplete.refresh-interval:PT10M}",
+               initialDelayString = "${treasure.autocomplete.refresh-interval:PT10M}")
+    public void reload() {
+        try {
+            List<PlanDoc> all = jdbc.query(DOC_SQL, DOC_MAPPER);
+            rebuildLock.lock();
+            try {
+                docs.clear();
+                all.forEach(d -> docs.put(d.planId(), d));
+                snapshot = Snapshot.build(docs.values());
+            } finally {
+                rebuildLock.unlock();
+            }
+            log.info("Autocomplete rebuilt from {} plans, {} keys", all.size(), snapshot.keys.length);
+        } catch (Exception ex) {
+            log.warn("Autocomplete reload failed, keeping previous snapshot: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * A bulk import rebuilds once after commit instead of once per plan
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlansImported(PlansImportedEvent event) {
+        reload();
+    }
+
+    /**
+     * Re-read one plan once its change is committed and swap in a rebuilt snapshot
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlanChanged(PlanChangedEvent event) {
+        try {
+            List<PlanDoc> found = jdbc.query(DOC_SQL + " AND p.id = ?", DOC_MAPPER, event.planId());
+            rebuildLock.lock();
+            try {
+                if (found.isEmpty()) docs.remove(event.planId());
+                else docs.put(event.planId(), found.get(0));
+                snapshot = Snapshot.build(docs.values());
+            } finally {
+                rebuildLock.unlock();
+            }
+        } catch (Exception ex) {
+            log.warn("Autocomplete refresh of plan {} failed: {}", event.planId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Best suggestions whose text has a word starting with {@code prefix}
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return snapshot.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /** Distinct cities of live plans, most popular first */
+    public List<String> cities() {
+        return snapshot.cities;
+    }
+
+    void install(Collection<PlanDoc> planDocs) {
+        rebuildLock.lock();
+        try {
+            docs.clear();
+            planDocs.forEach(d -> docs.put(d.planId(), d));
+            snapshot = Snapshot.build(docs.values());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String s = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(s.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static final class Snapshot {
+        private static final Comparator<Suggestion> RANK = Comparator.comparingLong(Suggestion::weight).reversed()
+                .thenComparing(Suggestion::text).thenComparing(Suggestion::kind);
+
+        private final Suggestion[] suggestions;
+        private final String[] keys;     // sorted word-start suffixes
+        private final int[] owners;      // keys[i] belongs to suggestions[owners[i]]
+        private final int[] keyRanks;    // RANK position of keys[i]'s suggestion, 0 is best
+        private final int[][] blockBest; // [k][b]: best-ranked key in blocks b .. b + 2^k - 1
+        private final Map<String, List<Suggestion>> shortPrefixTop;
+        private final List<String> cities;
+
+        private Snapshot(Suggestion[] suggestions, String[] keys, int[] owners, int[] keyRanks,
+                         Map<String, List<Suggestion>> shortPrefixTop, List<String> cities) {
+            this.suggestions = suggestions;
+            this.keys = keys;
+            this.owners = owners;
+            this.keyRanks = keyRanks;
+            this.blockBest = blockBest(keyRanks);
+            this.shortPrefixTop = shortPrefixTop;
+            this.cities = cities;
+        }
+
+        static Snapshot build(Collection<PlanDoc> docs) {
+            List<Suggestion> all = new ArrayList<>();
+            Map<String, long[]> cityWeights = new HashMap<>();
+            Map<String, String> cityNames = new HashMap<>();
+            Map<UUID, long[]> subWeights = new HashMap<>();
+            Map<UUID, String> subNames = new HashMap<>();
+            for (PlanDoc d : docs) {
+                long weight = 1 + d.enrollments();
+                if (d.title() != null) all.add(new Suggestion(d.title(), Kind.PLAN, d.planId(), weight));
+                String city = normalize(d.city());
+                if (!city.isEmpty()) {
+                    cityNames.putIfAbsent(city, d.city().trim());
+                    cityWeights.computeIfAbsent(city, k -> new long[1])[0] += weight;
+                }
+                if (d.subcategoryId() != null && d.subcategoryName() != null) {
+                    subNames.putIfAbsent(d.subcategoryId(), d.subcategoryName());
+                    subWeights.computeIfAbsent(d.subcategoryId(), k -> new long[1])[0] += weight;
+                }
+            }
+            List<Suggestion> citySuggestions = new ArrayList<>();
+            cityWeights.forEach((k, w) -> citySuggestions.add(new Suggestion(cityNames.get(k), Kind.CITY, null, w[0])));
+            citySuggestions.sort(RANK);
+            all.addAll(citySuggestions);
+            subWeights.forEach((id, w) -> all.add(new Suggestion(subNames.get(id), Kind.SUBCATEGORY, id, w[0])));
+
+            Suggestion[] suggestions = all.toArray(Suggestion[]::new);
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+            for (int i = 0; i < suggestions.length; i++) {
+                String norm = normalize(suggestions[i].text());
+                for (int pos = 0; pos < norm.length(); pos = norm.indexOf(' ', pos) + 1) {
+                    entries.add(Map.entry(norm.substring(pos), i));
+                    if (norm.indexOf(' ', pos) < 0) break;
+                }
+            }
+            entries.sort(Map.Entry.comparingByKey());
+            String[] keys = new String[entries.size()];
+            int[] owners = new int[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = entries.get(i).getKey();
+                owners[i] = entries.get(i).getValue();
+            }
+
+            Integer[] byRank = new Integer[suggestions.length];
+            for (int i = 0; i < byRank.length; i++) byRank[i] = i;
+            Arrays.sort(byRank, (a, b) -> RANK.compare(suggestions[a], suggestions[b]));
+            int[] ranks = new int[suggestions.length];
+            for (int r = 0; r < byRank.length; r++) ranks[byRank[r]] = r;
+            int[] keyRanks = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) keyRanks[i] = ranks[owners[i]];
+
+            Map<String, Set<Integer>> byShortPrefix = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                for (int len = 1; len <= PRECOMPUTED_PREFIX && len <= keys[i].length(); len++) {
+                    byShortPrefix.computeIfAbsent(keys[i].substring(0, len), k -> new HashSet<>()).add(owners[i]);
+                }
+            }
+            Map<String, List<Suggestion>> shortPrefixTop = new HashMap<>(byShortPrefix.size() * 2);
+            byShortPrefix.forEach((p, idx) -> shortPrefixTop.put(p, top(idx, suggestions, MAX_SUGGESTIONS)));
+
+            return new Snapshot(suggestions, keys, owners, keyRanks, shortPrefixTop,
+                    citySuggestions.stream().map(Suggestion::text).toList());
+        }
+
+        List<Suggestion> suggest(String prefix, int limit) {
+            String q = normalize(prefix);
+            if (q.isEmpty()) return List.of();
+            if (q.length() <= PRECOMPUTED_PREFIX) {
+                List<Suggestion> top = shortPrefixTop.getOrDefault(q, List.of());
+                return top.size() <= limit ? top : top.subList(0, limit);
+            }
+            // no key contains U+FFFF, so this bounds exactly the keys starting with q
+            return topInRange(lowerBound(q), lowerBound(q + Character.MAX_VALUE), limit);
+        }
+
+        /**
+         * Best {@code limit} distinct suggestions owning keys in [lo, hi): take the range's
+         * best key, then split the range around it, always continuing with the sub-range
+         * whose best key ranks highest. Cost grows with {@code limit}, not the range width.
+         */
+        private List<Suggestion> topInRange(int lo, int hi, int limit) {
+            List<Suggestion> result = new ArrayList<>(limit);
+            Set<Integer> seen = new HashSet<>();
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.comparingInt(r -> keyRanks[r[2]]));
+            if (lo < hi) ranges.add(new int[]{lo, hi, best(lo, hi)});
+            while (result.size() < limit && !ranges.isEmpty()) {
+                int[] r = ranges.poll();
+                int m = r[2];
+                // a suggestion with several matching word starts is listed once
+                if (seen.add(owners[m])) result.add(suggestions[owners[m]]);
+                if (r[0] < m) ranges.add(new int[]{r[0], m, best(r[0], m)});
+                if (m + 1 < r[1]) ranges.add(new int[]{m + 1, r[1], best(m + 1, r[1])});
+            }
+            return result;
+        }
+
+        /** Best-ranked key in the non-empty range [lo, hi) */
+        private int best(int lo, int hi) {
+            int first = lo / BLOCK + 1, last = (hi - 1) / BLOCK - 1;   // blocks wholly inside
+            if (first > last) return scan(lo, hi);
+            int k = 31 - Integer.numberOfLeadingZeros(last - first + 1);
+            int inner = better(blockBest[k][first], blockBest[k][last - (1 << k) + 1]);
+            return better(inner, better(scan(lo, first * BLOCK), scan((last + 1) * BLOCK, hi)));
+        }
+
+        private int scan(int lo, int hi) {
+            int best = lo;
+            for (int i = lo + 1; i < hi; i++) {
+                if (keyRanks[i] < keyRanks[best]) best = i;
+            }
+            return best;
+        }
+
+        private int better(int a, int b) {
+            return keyRanks[a] <= keyRanks[b] ? a : b;
+        }
+
+        private static int[][] blockBest(int[] keyRanks) {
+            int blocks = (keyRanks.length + BLOCK - 1) / BLOCK;
+            if (blocks == 0) return new int[0][];
+            int[][] table = new int[32 - Integer.numberOfLeadingZeros(blocks)][];
+            table[0] = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                int best = b * BLOCK;
+                for (int i = best + 1; i < Math.min(keyRanks.length, (b + 1) * BLOCK); i++) {
+                    if (keyRanks[i] < keyRanks[best]) best = i;
+                }
+                table[0][b] = best;
+            }
+            for (int k = 1; k < table.length; k++) {
+                int half = 1 << (k - 1);
+                table[k] = new int[blocks - (1 << k) + 1];
+                for (int b = 0; b < table[k].length; b++) {
+                    int x = table[k - 1][b], y = table[k - 1][b + half];
+                    table[k][b] = keyRanks[x] <= keyRanks[y] ? x : y;
+                }
+            }
+            return table;
+        }
+
+        private int lowerBound(String q) {
+            int lo = 0, hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(q) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private static List<Suggestion> top(Collection<Integer> owners, Suggestion[] suggestions, int limit) {
+            return owners.stream().map(i -> suggestions[i]).sorted(RANK).limit(limit).toList();
+        }
+    }
+}
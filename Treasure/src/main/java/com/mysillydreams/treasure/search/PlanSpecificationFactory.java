@@ -2,20 +2,29 @@ package com.mysillydreams.treasure.search;
 
 import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
 import com.mysillydreams.treasure.domain.model.*;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 public class PlanSpecificationFactory {
 
+    private final AgeEligibilityIndex ageEligibility;
+
     public Specification<Plan> build(SearchRequest req, Optional<GeoFenceRule> fence, Optional<Integer> userAge) {
         return Specification.where(bySubcategory(req.subcategoryId()))
                 .and(byDifficulty(req.difficulty(), req.level()))
@@ -23,6 +32,7 @@ public class PlanSpecificationFactory {
                 .and(byTimeWindow(req.timeWindowType()))
                 .and(byPrice(req.priceMin(), req.priceMax()))
                 .and(byCityOrRadius(req.city(), req.withinKm()))
+                .and(byOpenSlots(req.hasSlots()))
                 .and(applyGeoFence(fence))
                 .and(applyAge(userAge));
     }
@@ -57,15 +67,38 @@ public class PlanSpecificationFactory {
         return (r,q,cb) -> t==null ? null : cb.equal(r.get("timeWindowType"), t);
     }
 
+    // on the plan's lowest base price in any currency, as PlanSummaryCursor filters
     private Specification<Plan> byPrice(BigDecimal min, BigDecimal max) {
-        // Uses correlated subquery on PlanPrice if needed; keep null here for v1 (min/max applied post-read if currency-specific)
-        return (r,q,cb) -> null;
+        return (root, q, cb) -> {
+            if (min == null && max == null) return null;
+            Subquery<BigDecimal> minPrice = q.subquery(BigDecimal.class);
+            Root<PlanPrice> pp = minPrice.from(PlanPrice.class);
+            minPrice.select(cb.min(pp.get("baseAmount"))).where(cb.equal(pp.get("plan"), root));
+            Predicate p = cb.conjunction();
+            if (min != null) p = cb.and(p, cb.greaterThanOrEqualTo(minPrice, min));
+            if (max != null) p = cb.and(p, cb.lessThanOrEqualTo(minPrice, max));
+            return p;
+        };
+    }
+
+    // open-ended plans and plans without a slot row count as having room
+    private Specification<Plan> byOpenSlots(Boolean hasSlots) {
+        return (root, q, cb) -> {
+            if (!Boolean.TRUE.equals(hasSlots)) return null;
+            Subquery<Integer> full = q.subquery(Integer.class);
+            Root<PlanSlot> slot = full.from(PlanSlot.class);
+            full.select(cb.literal(1)).where(
+                    cb.equal(slot.get("plan"), root),
+                    cb.isNotNull(slot.get("capacityNullMeansOpen")),
+                    cb.greaterThanOrEqualTo(slot.get("reserved"), slot.get("capacityNullMeansOpen")));
+            return cb.not(cb.exists(full));
+        };
     }
 
     private Specification<Plan> byCityOrRadius(String city, Integer withinKm) {
         return (root, q, cb) -> {
             if (city != null && !city.isBlank()) return cb.equal(root.get("city"), city);
-            // withinKm over geo_point (PostGIS) is typically done via native query; defer for v1
+            // withinKm needs an origin the request does not carry; PlanSummaryCursor ignores it too
             return null;
         };
     }
@@ -83,14 +116,21 @@ public class PlanSpecificationFactory {
     private Specification<Plan> applyAge(Optional<Integer> age) {
         return (root, q, cb) -> {
             if (age.isEmpty()) return null;
-            // ensure age is permitted by Subcategory allowedAgeBands
-            Join<Plan, Subcategory> sub = root.join("subcategory");
-            Join<Subcategory, AgeBand> band = sub.join("allowedAgeBands", JoinType.LEFT);
-            Predicate minOk = cb.lessThanOrEqualTo(band.get("minAge"), age.get());
-            Predicate maxOk = cb.greaterThanOrEqualTo(band.get("maxAge"), age.get());
-            q.distinct(true);
-            return cb.and(minOk, maxOk);
+            if (!ageEligibility.isLoaded()) return byAgeBandJoin(root, q, cb, age.get());
+            // ensure age is permitted by Subcategory allowedAgeBands (precomputed; plan.subcategory_id only, no join)
+            List<UUID> eligible = ageEligibility.eligibleSubcategories(age.get());
+            if (eligible.isEmpty()) return cb.disjunction();
+            return root.get("subcategory").get("id").in(eligible);
         };
     }
-}
 
+    // until the eligibility index has loaded: ensure age is permitted by Subcategory allowedAgeBands
+    private static Predicate byAgeBandJoin(Root<Plan> root, CriteriaQuery<?> q, CriteriaBuilder cb, int age) {
+        Join<Plan, Subcategory> sub = root.join("subcategory");
+        Join<Subcategory, AgeBand> band = sub.join("allowedAgeBands", JoinType.LEFT);
+        Predicate minOk = cb.lessThanOrEqualTo(band.get("minAge"), age);
+        Predicate maxOk = cb.greaterThanOrEqualTo(band.get("maxAge"), age);
+        q.distinct(true);
+        return cb.and(minOk, maxOk);
+    }
+}
@@ -0,0 +1,181 @@
+package com.mysillydreams.treasure.search;
+
+import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.domain.model.GeoFenceRule;
+import com.mysillydreams.treasure.domain.model.TimeWindowType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Server-side cursor over plan summaries matching a {@link SearchRequest}.
+ * Price, difficulty range and slot view are joined in the same statement, and
+ * rows are fetched in small chunks so memory stays flat regardless of result size.
+ * Applies the same filters as {@link PlanSpecificationFactory}, so StreamPlans and
+ * ListPlans return the same plans for a request.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanSummaryCursor {
+
+    private static final int FETCH_SIZE = 200;
+
+    public record PlanSummaryRow(
+            UUID id,
+            String title,
+            String subcategoryName,
+            String city,
+            boolean isVirtual,
+            TimeWindowType timeWindowType,
+            OffsetDateTime startAt,
+            OffsetDateTime endAt,
+            boolean hasFiniteSlots,
+            BigDecimal priceFrom,
+            String difficultyRange,
+            int availableView
+    ) {}
+
+    private final JdbcTemplate jdbc;
+    private final PlatformTransactionManager txManager;
+    private final AgeEligibilityIndex ageEligibility;
+
+    /**
+     * Stream matching rows to {@code sink} in start time order. The sink may block
+     * (e.g. on transport back-pressure); the cursor simply waits.
+     */
+    public void forEach(SearchRequest req, Optional<GeoFenceRule> fence, Consumer<PlanSummaryRow> sink) {
+        List<Object> args = new ArrayList<>();
+        // null until the index has loaded: buildSql then falls back to the age band subquery
+        List<UUID> ageEligible = req.age() == null || !ageEligibility.isLoaded()
+                ? null : ageEligibility.eligibleSubcategories(req.age());
+        String sql = buildSql(req, fence, ageEligible, args);
+
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(true);  // PostgreSQL only honours fetch size inside a transaction
+        tx.executeWithoutResult(status -> jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            return ps;
+        }, (ResultSet rs) -> sink.accept(map(rs))));
+    }
+
+    static String buildSql(SearchRequest req, Optional<GeoFenceRule> fence, List<UUID> ageEligible, List<Object> args) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT p.id, p.title, s.name AS subcategory_name, p.city, p.is_virtual, p.time_window::text AS time_window,
+                   p.start_at, p.end_at, p.max_participants,
+                   pr.min_price, d.difficulty_range, COALESCE(sl.available_view, 0) AS available_view
+              FROM plan p
+              JOIN subcategory s ON s.id = p.subcategory_id
+              LEFT JOIN LATERAL (SELECT min(pp.base_amount) AS min_price FROM plan_price pp WHERE pp.plan_id = p.id) pr ON true
+              LEFT JOIN LATERAL (SELECT min(pd.difficulty::text || ' L' || pd.level_number) AS difficulty_range
+                                   FROM plan_difficulty pd WHERE pd.plan_id = p.id) d ON true
+              LEFT JOIN LATERAL (SELECT ps.available_view, ps.reserved, ps.capacity_null_means_open
+                                   FROM plan_slot ps WHERE ps.plan_id = p.id LIMIT 1) sl ON true
+             WHERE 1 = 1
+            """);
+
+        if (req.subcategoryId() != null) {
+            sql.append(" AND p.subcategory_id = ?");
+            args.add(req.subcategoryId());
+        }
+        if (req.difficulty() != null || req.level() != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM plan_difficulty pd2 WHERE pd2.plan_id = p.id");
+            if (req.difficulty() != null) {
+                sql.append(" AND pd2.difficulty = ?::difficulty");
+                args.add(req.difficulty().name());
+            }
+            if (req.level() != null) {
+                sql.append(" AND pd2.level_number >= ?");
+                args.add(req.level());
+            }
+            sql.append(")");
+        }
+        if (req.dateFrom() != null) {
+            sql.append(" AND p.start_at >= ?");
+            args.add(req.dateFrom());
+        }
+        if (req.dateTo() != null) {
+            sql.append(" AND p.end_at <= ?");
+            args.add(req.dateTo());
+        }
+        if (req.timeWindowType() != null) {
+            sql.append(" AND p.time_window = ?::time_window_type");
+            args.add(req.timeWindowType().name());
+        }
+        if (req.priceMin() != null) {
+            sql.append(" AND pr.min_price >= ?");
+            args.add(req.priceMin());
+        }
+        if (req.priceMax() != null) {
+            sql.append(" AND pr.min_price <= ?");
+            args.add(req.priceMax());
+        }
+        if (req.city() != null && !req.city().isBlank()) {
+            sql.append(" AND p.city = ?");
+            args.add(req.city());
+        }
+        // withinKm needs an origin the request does not carry; PlanSpecificationFactory ignores it too
+        if (Boolean.TRUE.equals(req.hasSlots())) {
+            sql.append(" AND (sl.capacity_null_means_open IS NULL OR sl.reserved < sl.capacity_null_means_open)");
+        }
+        if (ageEligible != null) {
+            if (ageEligible.isEmpty()) {
+                sql.append(" AND FALSE");
+            } else {
+                sql.append(" AND p.subcategory_id IN (").append(String.join(",", Collections.nCopies(ageEligible.size(), "?"))).append(")");
+                args.addAll(ageEligible);
+            }
+        } else if (req.age() != null) {
+            sql.append("""
+                 AND EXISTS (SELECT 1 FROM subcategory_age_band sab JOIN age_band ab ON ab.id = sab.age_band_id
+                              WHERE sab.subcategory_id = p.subcategory_id AND ab.min_age <= ? AND ab.max_age >= ?)""");
+            args.add(req.age());
+            args.add(req.age());
+        }
+        fence.filter(GeoFenceRule::isEnabled).ifPresent(f -> {
+            String column = switch (f.getScope()) {
+                case "CITY" -> "p.city";
+                case "COUNTRY" -> "p.country";
+                default -> null;
+            };
+            if (column != null && f.getValues() != null && !f.getValues().isEmpty()) {
+                sql.append(" AND ").append(column).append(" = ANY (?)");
+                args.add(f.getValues().toArray(String[]::new));
+            }
+        });
+
+        sql.append(" ORDER BY p.start_at ASC NULLS LAST, p.id");
+        return sql.toString();
+    }
+
+    private static PlanSummaryRow map(ResultSet rs) throws SQLException {
+        return new PlanSummaryRow(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                rs.getString("subcategory_name"),
+                rs.getString("city"),
+                rs.getBoolean("is_virtual"),
+                TimeWindowType.valueOf(rs.getString("time_window")),
+                rs.getObject("start_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class),
+                rs.getObject("max_participants") != null,
+                rs.getBigDecimal("min_price"),
+                rs.getString("difficulty_range"),
+                rs.getInt("available_view"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.mysillydreams.treasure.tracking;
+
+import com.mysillydreams.treasure.geo.CheckpointSnapshot;
+import com.mysillydreams.treasure.geo.GeoMath;
+import com.mysillydreams.treasure.geo.PlanCheckpointIndex;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest position of every participant of one running hunt, bucketed into a lat/lon
+ * grid (~220 m cells) so a map viewport only touches the cells it covers.
+ *
+ * Each update also decides whether the point belongs on the persisted track (a minimum
+ * interval or distance since the last kept point) and whether it just entered a
+ * checkpoint's radius. Updates for different participants run in parallel; updates
+ * for the same participant are serialised.
+ */
+public final class HuntPositions {
+
+    static final double CELL_DEG = 0.002;
+
+    public record Position(UUID enrollmentId, double latitude, double longitude, Float accuracyMeters,
+                           Instant recordedAt, UUID atCheckpointId) {}
+
+    /**
+     * @param persist whether the point should be written to the track
+     * @param reached checkpoint entered by this point, or null
+     */
+    public record Update(boolean accepted, boolean persist, CheckpointSnapshot reached) {
+        static final Update STALE = new Update(false, false, null);
+    }
+
+    private static final class Participant {
+        Position position;
+        long cell = Long.MIN_VALUE;
+        Instant keptAt;
+        double keptLat, keptLon;
+    }
+
+    private final UUID planId;
+    private final Duration minTrackInterval;
+    private final double minTrackMeters;
+    private final Map<UUID, Participant> participants = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> cells = new ConcurrentHashMap<>();
+    private volatile long lastUpdateMillis = System.currentTimeMillis();
+
+    public HuntPositions(UUID planId, Duration minTrackInterval, double minTrackMeters) {
+        this.planId = planId;
+        this.minTrackInterval = minTrackInterval;
+        this.minTrackMeters = minTrackMeters;
+    }
+
+    public UUID planId() {
+        return planId;
+    }
+
+    public int size() {
+        return participants.size();
+    }
+
+    public long lastUpdateMillis() {
+        return lastUpdateMillis;
+    }
+
+    /**
+     * Apply a ping; pings older than the participant's current position are ignored
+     */
+    public Update update(LocationPing ping, PlanCheckpointIndex checkpoints) {
+        UUID id = ping.enrollmentId();
+        Participant p = participants.computeIfAbsent(id, k -> new Participant());
+        synchronized (p) {
+            // evicted between lookup and lock: start over with a fresh entry
+            if (participants.get(id) != p) return update(ping, checkpoints);
+            if (p.position != null && !ping.recordedAt().isAfter(p.position.recordedAt())) return Update.STALE;
+            double lat = ping.latitude(), lon = ping.longitude();
+
+            CheckpointSnapshot at = checkpoints.nearestWithinRadius(lat, lon)
+                    .map(PlanCheckpointIndex.Check::checkpoint)
+                    .orElse(null);
+            UUID atId = at != null ? at.id() : null;
+            UUID previousAt = p.position != null ? p.position.atCheckpointId() : null;
+            CheckpointSnapshot reached = atId != null && !atId.equals(previousAt) ? at : null;
+            p.position = new Position(id, lat, lon, ping.accuracyMeters(), ping.recordedAt(), atId);
+
+            long cell = cellKey(lat, lon);
+            if (cell != p.cell) {
+                if (p.cell != Long.MIN_VALUE) leave(p.cell, id);
+                cells.compute(cell, (k, set) -> {
+                    Set<UUID> s = set != null ? set : ConcurrentHashMap.newKeySet();
+                    s.add(id);
+                    return s;
+                });
+                p.cell = cell;
+            }
+
+            boolean persist = p.keptAt == null
+                    || reached != null
+                    || Duration.between(p.keptAt, ping.recordedAt()).compareTo(minTrackInterval) >= 0
+                    || GeoMath.haversineMeters(p.keptLat, p.keptLon, lat, lon) >= minTrackMeters;
+            if (persist) {
+                p.keptAt = ping.recordedAt();
+                p.keptLat = lat;
+                p.keptLon = lon;
+            }
+            lastUpdateMillis = System.currentTimeMillis();
+            return new Update(true, persist, reached);
+        }
+    }
+
+    /**
+     * Positions inside the bounding box (no antimeridian wrap)
+     */
+    public List<Position> within(double minLat, double minLon, double maxLat, double maxLon) {
+        int lat0 = cell(minLat), lat1 = cell(maxLat), lon0 = cell(minLon), lon1 = cell(maxLon);
+        long span = (long) (lat1 - lat0 + 1) * (lon1 - lon0 + 1);
+        List<Position> out = new ArrayList<>();
+        if (span > cells.size()) {
+            // viewport covers more cells than are occupied; scanning participants is cheaper
+            for (Participant p : participants.values()) {
+                Position pos = p.position;
+                if (pos != null && pos.latitude() >= minLat && pos.latitude() <= maxLat
+                        && pos.longitude() >= minLon && pos.longitude() <= maxLon) out.add(pos);
+            }
+            return out;
+        }
+        for (int la = lat0; la <= lat1; la++) {
+            for (int lo = lon0; lo <= lon1; lo++) {
+                Set<UUID> ids = cells.get(key(la, lo));
+                if (ids == null) continue;
+                for (UUID id : ids) {
+                    Participant p = participants.get(id);
+                    Position pos = p != null ? p.position : null;
+                    if (pos != null && pos.latitude() >= minLat && pos.latitude() <= maxLat
+                            && pos.longitude() >= minLon && pos.longitude() <= maxLon) out.add(pos);
+                }
+            }
+        }
+        return out;
+    }
+
+    public List<Position> all() {
+        List<Position> out = new ArrayList<>(participants.size());
+        for (Participant p : participants.values()) {
+            if (p.position != null) out.add(p.position);
+        }
+        return out;
+    }
+
+    /** Forget participants whose last position is older than {@code cutoff} */
+    public int evictBefore(Instant cutoff) {
+        int evicted = 0;
+        for (var it = participants.entrySet().iterator(); it.hasNext(); ) {
+            var e = it.next();
+            Participant p = e.getValue();
+            synchronized (p) {
+                if (p.position != null && p.position.recordedAt().isBefore(cutoff)) {
+                    leave(p.cell, e.getKey());
+                    it.remove();
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private void leave(long cell, UUID id) {
+        cells.computeIfPresent(cell, (k, set) -> {
+            set.remove(id);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static long cellKey(double lat, double lon) {
+        return key(cell(lat), cell(lon));
+    }
+
+    private static int cell(double deg) {
+        return (int) Math.floor(deg / CELL_DEG);
+    }
+
+    private static long key(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,143 @@
+package com.mysillydreams.treasure.tracking;
+
+import com.mysillydreams.treasure.domain.event.CheckpointReachedEvent;
+import com.mysillydreams.treasure.domain.service.CheckpointValidationService;
+import com.mysillydreams.treasure.geo.GeoMath;
+import com.mysillydreams.treasure.geo.PlanCheckpointIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingests live location pings for running hunts. Every ping updates the hunt's
+ * in-memory {@link HuntPositions}; only downsampled points and checkpoint arrivals
+ * reach the DB, in batches via {@link TrackWriter}. The DB is read once per hunt
+ * for its roster of confirmed enrollments, and again only when an unknown
+ * enrollment shows up and the roster is older than the reload interval.
+ */
+@Slf4j
+@Service
+public class LiveTrackingService {
+
+    private static final String ROSTER_SQL = "SELECT id FROM enrollment WHERE plan_id = ? AND status = 'CONFIRMED'";
+
+    public record IngestResult(int accepted, int rejected) {}
+
+    private record Roster(Set<UUID> enrollmentIds, long loadedAtNanos) {}
+
+    private final JdbcTemplate jdbc;
+    private final CheckpointValidationService checkpoints;
+    private final TrackWriter writer;
+    private final ApplicationEventPublisher events;
+    private final Duration minTrackInterval;
+    private final double minTrackMeters;
+    private final Duration maxClockSkew;
+    private final Duration idleTimeout;
+    private final long rosterReloadNanos;
+    private final Map<UUID, HuntPositions> hunts = new ConcurrentHashMap<>();
+    private final Map<UUID, Roster> rosters = new ConcurrentHashMap<>();
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public LiveTrackingService(JdbcTemplate jdbc,
+                               CheckpointValidationService checkpoints,
+                               TrackWriter writer,
+                               ApplicationEventPublisher events,
+                               MeterRegistry registry,
+                               @Value("${treasure.tracking.min-track-interval:PT15S}") Duration minTrackInterval,
+                               @Value("${treasure.tracking.min-track-meters:25}") double minTrackMeters,
+                               @Value("${treasure.tracking.max-clock-skew:PT1M}") Duration maxClockSkew,
+                               @Value("${treasure.tracking.idle-timeout:PT30M}") Duration idleTimeout,
+                               @Value("${treasure.tracking.roster-reload:PT30S}") Duration rosterReload) {
+        this.jdbc = jdbc;
+        this.checkpoints = checkpoints;
+        this.writer = writer;
+        this.events = events;
+        this.minTrackInterval = minTrackInterval;
+        this.minTrackMeters = minTrackMeters;
+        this.maxClockSkew = maxClockSkew;
+        this.idleTimeout = idleTimeout;
+        this.rosterReloadNanos = rosterReload.toNanos();
+        this.accepted = Counter.builder("treasure.tracking.pings").tag("outcome", "accepted").register(registry);
+        this.rejected = Counter.builder("treasure.tracking.pings").tag("outcome", "rejected").register(registry);
+    }
+
+    /**
+     * Apply a batch of pings for one hunt. Pings from unknown enrollments, with invalid
+     * coordinates, from the future or older than the participant's last position are
+     * rejected individually.
+     */
+    public IngestResult ingest(UUID planId, List<LocationPing> pings) {
+        PlanCheckpointIndex index = checkpoints.indexFor(planId);
+        HuntPositions hunt = hunts.computeIfAbsent(planId, id -> new HuntPositions(id, minTrackInterval, minTrackMeters));
+        Instant latest = Instant.now().plus(maxClockSkew);
+        int ok = 0;
+        for (LocationPing ping : pings) {
+            if (ping.recordedAt() == null || ping.recordedAt().isAfter(latest)
+                    || !GeoMath.isValidCoordinate(ping.latitude(), ping.longitude())
+                    || !isParticipant(planId, ping.enrollmentId())) {
+                continue;
+            }
+            HuntPositions.Update u = hunt.update(ping, index);
+            if (!u.accepted()) continue;
+            ok++;
+            if (u.persist()) writer.append(planId, ping);
+            if (u.reached() != null) {
+                events.publishEvent(new CheckpointReachedEvent(planId, ping.enrollmentId(), u.reached().id(), ping.recordedAt()));
+            }
+        }
+        accepted.increment(ok);
+        rejected.increment(pings.size() - ok);
+        return new IngestResult(ok, pings.size() - ok);
+    }
+
+    public List<HuntPositions.Position> positions(UUID planId) {
+        HuntPositions hunt = hunts.get(planId);
+        return hunt == null ? List.of() : hunt.all();
+    }
+
+    public List<HuntPositions.Position> positions(UUID planId, double minLat, double minLon, double maxLat, double maxLon) {
+        HuntPositions hunt = hunts.get(planId);
+        return hunt == null ? List.of() : hunt.within(minLat, minLon, maxLat, maxLon);
+    }
+
+    /**
+     * Drop participants and whole hunts that have stopped reporting
+     */
+    @Scheduled(fixedDelayString = "${treasure.tracking.sweep-interval:PT1M}")
+    public void evictIdle() {
+        Instant cutoff = Instant.now().minus(idleTimeout);
+        long idleSince = System.currentTimeMillis() - idleTimeout.toMillis();
+        hunts.values().removeIf(h -> {
+            h.evictBefore(cutoff);
+            boolean idle = h.lastUpdateMillis() < idleSince;
+            if (idle) {
+                rosters.remove(h.planId());
+                log.info("Stopped tracking idle hunt {}", h.planId());
+            }
+            return idle;
+        });
+    }
+
+    private boolean isParticipant(UUID planId, UUID enrollmentId) {
+        if (enrollmentId == null) return false;
+        Roster roster = rosters.get(planId);
+        if (roster != null && roster.enrollmentIds().contains(enrollmentId)) return true;
+        if (roster != null && System.nanoTime() - roster.loadedAtNanos() < rosterReloadNanos) return false;
+
+        // first ping of the hunt, or someone enrolled since the last load
+        Roster fresh = new Roster(Set.copyOf(jdbc.queryForList(ROSTER_SQL, UUID.class, planId)), System.nanoTime());
+        rosters.put(planId, fresh);
+        return fresh.enrollmentIds().contains(enrollmentId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mysillydreams.treasure.tracking;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One position report from a participant's device
+ */
+public record LocationPing(
+        UUID enrollmentId,
+        double latitude,
+        double longitude,
+        Float accuracyMeters,   // null when the device does not report it
+        Instant recordedAt
+) {}
@@ -0,0 +1,100 @@
+package com.mysillydreams.treasure.tracking;
+
+import com.mysillydreams.treasure.domain.event.CheckpointReachedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Buffers downsampled track points and checkpoint arrivals from live ingest and
+ * writes them in JDBC batches on a fixed delay. The buffer is bounded: when the DB
+ * falls behind, new track points are dropped (and counted) rather than growing the heap.
+ */
+@Slf4j
+@Component
+public class TrackWriter {
+
+    private static final String TRACK_SQL = """
+        INSERT INTO participant_track (enrollment_id, plan_id, recorded_at, latitude, longitude, accuracy_m)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String REACHED_SQL = """
+        INSERT INTO checkpoint_progress (enrollment_id, checkpoint_id, status, reached_at)
+        VALUES (?, ?, 'REACHED', ?)
+        ON CONFLICT (enrollment_id, checkpoint_id) DO UPDATE
+           SET reached_at = coalesce(checkpoint_progress.reached_at, EXCLUDED.reached_at),
+               status = CASE WHEN checkpoint_progress.status = 'PENDING' THEN 'REACHED' ELSE checkpoint_progress.status END,
+               updated_at = now()
+        """;
+
+    private record TrackPoint(UUID planId, LocationPing ping) {}
+
+    private final JdbcTemplate jdbc;
+    private final BlockingQueue<TrackPoint> points;
+    private final BlockingQueue<CheckpointReachedEvent> arrivals;
+    private final int batchSize;
+    private final Counter dropped;
+
+    public TrackWriter(JdbcTemplate jdbc,
+                       MeterRegistry registry,
+                       @Value("${treasure.tracking.buffer-capacity:200000}") int capacity,
+                       @Value("${treasure.tracking.batch-size:2000}") int batchSize) {
+        this.jdbc = jdbc;
+        this.points = new ArrayBlockingQueue<>(capacity);
+        this.arrivals = new ArrayBlockingQueue<>(Math.max(1000, capacity / 10));
+        this.batchSize = batchSize;
+        this.dropped = Counter.builder("treasure.tracking.points.dropped").register(registry);
+    }
+
+    void append(UUID planId, LocationPing ping) {
+        if (!points.offer(new TrackPoint(planId, ping))) dropped.increment();
+    }
+
+    @EventListener
+    public void onCheckpointReached(CheckpointReachedEvent event) {
+        if (!arrivals.offer(event)) log.warn("Arrival buffer full, dropping {} at {}", event.enrollmentId(), event.checkpointId());
+    }
+
+    @Scheduled(fixedDelayString = "${treasure.tracking.flush-interval:PT2S}")
+    public void flush() {
+        try {
+            List<CheckpointReachedEvent> reached = new ArrayList<>();
+            arrivals.drainTo(reached);
+            if (!reached.isEmpty()) {
+                jdbc.batchUpdate(REACHED_SQL, reached.stream()
+                        .map(e -> new Object[]{e.enrollmentId(), e.checkpointId(), Timestamp.from(e.reachedAt())})
+                        .toList());
+            }
+
+            List<TrackPoint> batch = new ArrayList<>(batchSize);
+            while (points.drainTo(batch, batchSize) > 0) {
+                jdbc.batchUpdate(TRACK_SQL, batch.stream()
+                        .map(t -> new Object[]{t.ping().enrollmentId(), t.planId(), Timestamp.from(t.ping().recordedAt()),
+                                t.ping().latitude(), t.ping().longitude(), t.ping().accuracyMeters()})
+                        .toList());
+                batch.clear();
+            }
+        } catch (Exception ex) {
+            log.warn("Track flush failed: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,134 @@
+package com.mysillydreams.treasure.velocity;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-plan enrollment velocity over a sliding one-hour window.
+ *
+ * Each instance counts locally in {@link SlidingWindowCounter}s and periodically
+ * pushes per-minute deltas to Redis ({@code metrics:enroll:<planId>:<epochMinute>}),
+ * where buckets from all instances merge. Reads sum the Redis buckets plus this
+ * instance's unflushed counts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnrollmentVelocityTracker {
+
+    static final String KEY_PREFIX = "metrics:enroll:";
+    static final int WINDOW_MINUTES = 60;
+    private static final long BUCKET_TTL_SECONDS = (WINDOW_MINUTES + 5) * 60L;
+    private static final int READ_CHUNK_PLANS = 200;
+
+    private record Delta(UUID planId, long minute, int count) {}
+
+    private final StringRedisTemplate redis;
+    private final Map<UUID, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+
+    public void record(UUID planId, int count) {
+        long now = currentMinute();
+        // add outside the map's bin lock: parking on the counter lock there would pin a virtual thread
+        while (true) {
+            SlidingWindowCounter counter = counters.computeIfAbsent(planId, id -> new SlidingWindowCounter(WINDOW_MINUTES));
+            if (counter.add(now, count)) return;
+            counters.remove(planId, counter);
+        }
+    }
+
+    /**
+     * Record once the surrounding transaction commits, so rolled back enrollments are not counted
+     */
+    public void recordAfterCommit(UUID planId, int count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(planId, count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(planId, count);
+            }
+        });
+    }
+
+    /**
+     * Push unflushed per-minute deltas to Redis in one pipeline
+     */
+    @Scheduled(fixedDelayString = "${treasure.velocity.flush-interval:PT10S}")
+    public void flush() {
+        long now = currentMinute();
+        List<Delta> deltas = new ArrayList<>();
+        counters.forEach((planId, c) -> c.drain(now, (minute, delta) -> deltas.add(new Delta(planId, minute, delta))));
+        counters.forEach((planId, c) -> {
+            if (c.retireIfIdle(now)) counters.remove(planId, c);
+        });
+        if (deltas.isEmpty()) return;
+
+        try {
+            redis.executePipelined((RedisCallback<Object>) (RedisConnection connection) -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (Delta d : deltas) {
+                    String key = key(d.planId(), d.minute());
+                    conn.incrBy(key, d.count());
+                    conn.expire(key, BUCKET_TTL_SECONDS);
+                }
+                return null;
+            });
+        } catch (Exception ex) {
+            log.warn("Velocity flush failed for {} buckets, will retry: {}", deltas.size(), ex.getMessage());
+            for (Delta d : deltas) {
+                SlidingWindowCounter c = counters.get(d.planId());
+                if (c != null) c.requeue(d.minute(), d.count());
+            }
+        }
+    }
+
+    /**
+     * Enrollments over the last hour for each plan, merged across instances
+     */
+    public Map<UUID, Integer> hourlyVelocity(Collection<UUID> planIds) {
+        long now = currentMinute();
+        List<UUID> plans = new ArrayList<>(new LinkedHashSet<>(planIds));
+        Map<UUID, Integer> out = new HashMap<>(plans.size() * 2);
+
+        for (int from = 0; from < plans.size(); from += READ_CHUNK_PLANS) {
+            List<UUID> chunk = plans.subList(from, Math.min(plans.size(), from + READ_CHUNK_PLANS));
+            List<String> keys = new ArrayList<>(chunk.size() * WINDOW_MINUTES);
+            for (UUID planId : chunk) {
+                for (long m = now - WINDOW_MINUTES + 1; m <= now; m++) keys.add(key(planId, m));
+            }
+            List<String> values = redis.opsForValue().multiGet(keys);
+            for (int p = 0; p < chunk.size(); p++) {
+                long total = 0;
+                for (int m = 0; m < WINDOW_MINUTES && values != null; m++) {
+                    String v = values.get(p * WINDOW_MINUTES + m);
+                    if (v != null) total += Long.parseLong(v);
+                }
+                SlidingWindowCounter local = counters.get(chunk.get(p));
+                if (local != null) total += local.unflushedSum(now);
+                out.put(chunk.get(p), (int) Math.min(Integer.MAX_VALUE, total));
+            }
+        }
+        return out;
+    }
+
+    private static String key(UUID planId, long minute) {
+        return KEY_PREFIX + planId + ":" + minute;
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000L;
+    }
+}
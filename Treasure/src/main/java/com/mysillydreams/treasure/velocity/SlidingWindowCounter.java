@@ -0,0 +1,145 @@
+package com.mysillydreams.treasure.velocity;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ring buffer of per-minute buckets covering the last {@code size} minutes.
+ * Each bucket also tracks how much of its count has been flushed to the shared
+ * store, so only deltas are pushed and unflushed counts can be added to reads.
+ */
+public final class SlidingWindowCounter {
+
+    /** Receives the unflushed delta of one minute bucket */
+    @FunctionalInterface
+    public interface DeltaSink {
+        void accept(long epochMinute, int delta);
+    }
+
+    private final int size;
+    private final long[] minutes;
+    private final int[] counts;
+    private final int[] flushed;
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean retired;
+
+    public SlidingWindowCounter(int size) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive");
+        this.size = size;
+        this.minutes = new long[size];
+        this.counts = new int[size];
+        this.flushed = new int[size];
+        Arrays.fill(minutes, Long.MIN_VALUE);
+    }
+
+    /**
+     * @return false if the counter was retired and the caller must add to a fresh one
+     */
+    public boolean add(long epochMinute, int n) {
+        lock.lock();
+        try {
+            if (retired) return false;
+            int i = bucket(epochMinute);
+            if (minutes[i] != epochMinute) {
+                if (minutes[i] > epochMinute) return true; // older than the window
+                minutes[i] = epochMinute;
+                counts[i] = 0;
+                flushed[i] = 0;
+            }
+            counts[i] += n;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Total of all buckets inside the window ending at {@code nowMinute} */
+    public long sum(long nowMinute) {
+        lock.lock();
+        try {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                if (inWindow(minutes[i], nowMinute)) total += counts[i];
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Counts inside the window not yet pushed to the shared store */
+    public long unflushedSum(long nowMinute) {
+        lock.lock();
+        try {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                if (inWindow(minutes[i], nowMinute)) total += counts[i] - flushed[i];
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hand unflushed deltas to {@code sink} and mark them as flushed */
+    public void drain(long nowMinute, DeltaSink sink) {
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int delta = counts[i] - flushed[i];
+                if (delta > 0 && inWindow(minutes[i], nowMinute)) {
+                    flushed[i] = counts[i];
+                    sink.accept(minutes[i], delta);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Undo a drained delta whose write to the shared store failed */
+    public void requeue(long epochMinute, int delta) {
+        lock.lock();
+        try {
+            int i = bucket(epochMinute);
+            if (minutes[i] == epochMinute) flushed[i] = Math.max(0, flushed[i] - delta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** True when nothing inside the window remains to be flushed or counted */
+    public boolean isIdle(long nowMinute) {
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (inWindow(minutes[i], nowMinute) && counts[i] > 0) return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retire the counter if idle; later {@link #add} calls are refused so the owner
+     * can drop it without losing counts that race with the removal
+     */
+    public boolean retireIfIdle(long nowMinute) {
+        lock.lock();
+        try {
+            if (!retired && isIdle(nowMinute)) retired = true;
+            return retired;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int bucket(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, (long) size);
+    }
+
+    private boolean inWindow(long minute, long nowMinute) {
+        return minute != Long.MIN_VALUE && minute <= nowMinute && minute > nowMinute - size;
+    }
+}
@@ -0,0 +1,272 @@
+package com.mysillydreams.treasure.warmup;
+
+import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import com.mysillydreams.treasure.domain.service.DiscountService;
+import com.mysillydreams.treasure.domain.service.PlanService;
+import com.mysillydreams.treasure.domain.service.PricingService;
+import com.mysillydreams.treasure.domain.service.SearchService;
+import com.mysillydreams.treasure.recommend.SimilarPlanService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms a fresh instance before it takes traffic. Application runners finish before
+ * Spring Boot reports readiness ACCEPTING_TRAFFIC, so the readiness probe stays down
+ * while this runs; liveness is already up, so a slow warm-up is never restarted.
+ *
+ * Opens the connection pools, then replays the hottest plan details, similar plans,
+ * price previews and discount calculations plus the searches behind them, through the
+ * same cached service methods requests use. That fills Redis, Hibernate's query plan
+ * cache and gives the JIT real call profiles. Everything stops at the time budget;
+ * failures are counted, never fatal.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "treasure.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner {
+
+    // most enrolled over the last month first, then whatever starts soonest
+    private static final String HOT_PLANS_SQL = """
+        SELECT p.id, p.subcategory_id, p.city, pp.currency, pp.base_amount,
+               (SELECT count(*) FROM enrollment e
+                 WHERE e.plan_id = p.id AND e.enrolled_at > now() - interval '30 days') AS recent
+          FROM plan p
+          JOIN LATERAL (SELECT currency, base_amount FROM plan_price
+                         WHERE plan_id = p.id ORDER BY base_amount LIMIT 1) pp ON true
+         WHERE p.end_at IS NULL OR p.end_at > now()
+         ORDER BY recent DESC, p.start_at NULLS LAST
+         LIMIT ?
+        """;
+
+    // same first page the plan listing serves
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 12, Sort.by("startAt").ascending());
+
+    // a user with no promo history; calculateDiscount only reads
+    private static final UUID WARMUP_USER = new UUID(0, 0);
+
+    record HotPlan(UUID id, UUID subcategoryId, String city, String currency, BigDecimal baseAmount) {}
+
+    record Step(String kind, Runnable action) {}
+
+    record Outcome(int completed, int failed, int skipped) {}
+
+    private final PlanService planService;
+    private final SearchService searchService;
+    private final SimilarPlanService similarPlanService;
+    private final PricingService pricingService;
+    private final DiscountService discountService;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnly;
+    private final ObjectProvider<HikariDataSource> pools;
+    private final ObjectProvider<RedisConnectionFactory> redis;
+    private final MeterRegistry registry;
+    private final Duration budget;
+    private final int topPlans;
+    private final int topSearches;
+    private final int rounds;
+    private final int concurrency;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger done = new AtomicInteger();
+
+    public StartupWarmup(PlanService planService,
+                         SearchService searchService,
+                         SimilarPlanService similarPlanService,
+                         PricingService pricingService,
+                         DiscountService discountService,
+                         JdbcTemplate jdbc,
+                         PlatformTransactionManager txManager,
+                         ObjectProvider<HikariDataSource> pools,
+                         ObjectProvider<RedisConnectionFactory> redis,
+                         MeterRegistry registry,
+                         @Value("${treasure.warmup.budget:PT60S}") Duration budget,
+                         @Value("${treasure.warmup.top-plans:200}") int topPlans,
+                         @Value("${treasure.warmup.top-searches:50}") int topSearches,
+                         @Value("${treasure.warmup.rounds:2}") int rounds,
+                         @Value("${treasure.warmup.concurrency:4}") int concurrency) {
+        this.planService = planService;
+        this.searchService = searchService;
+        this.similarPlanService = similarPlanService;
+        this.pricingService = pricingService;
+        this.discountService = discountService;
+        this.jdbc = jdbc;
+        this.readOnly = new TransactionTemplate(txManager);
+        this.readOnly.setReadOnly(true);
+        this.pools = pools;
+        this.redis = redis;
+        this.registry = registry;
+        this.budget = budget;
+        this.topPlans = topPlans;
+        this.topSearches = topSearches;
+        this.rounds = rounds;
+        this.concurrency = concurrency;
+        Gauge.builder("treasure.warmup.progress", this, w -> w.total.get() == 0 ? 0 : (double) w.done.get() / w.total.get())
+                .description("Share of warm-up steps finished, skipped or failed")
+                .register(registry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Timer.Sample sample = Timer.start(registry);
+        long deadline = System.nanoTime() + budget.toNanos();
+        primePools();
+
+        List<HotPlan> hot;
+        try {
+            hot = jdbc.query(HOT_PLANS_SQL, (rs, i) -> new HotPlan(
+                    rs.getObject("id", UUID.class), rs.getObject("subcategory_id", UUID.class), rs.getString("city"),
+                    rs.getString("currency"), rs.getBigDecimal("base_amount")), topPlans);
+        } catch (Exception ex) {
+            log.warn("Warm-up could not load hot plans, skipping cache warm-up: {}", ex.getMessage());
+            hot = List.of();
+        }
+
+        // first round fills the caches; later rounds run the cache-hit paths and uncached pricing again for the JIT
+        List<Step> steps = new ArrayList<>();
+        List<SearchRequest> searches = searches(hot, topSearches);
+        for (int round = 0; round < rounds; round++) {
+            for (SearchRequest req : searches) {
+                steps.add(new Step("search", () -> readOnly.executeWithoutResult(s -> searchService.search(req, FIRST_PAGE, Optional.empty()))));
+            }
+            for (HotPlan p : hot) {
+                steps.add(new Step("plan-detail", () -> readOnly.executeWithoutResult(s -> planService.getPlanDetail(p.id()))));
+                steps.add(new Step("similar", () -> similarPlanService.similarTo(p.id())));
+                steps.add(new Step("pricing", () -> pricingService.previewForPlan(p.id(), p.currency())));
+                steps.add(new Step("discount", () -> discountService.calculateDiscount(new DiscountService.DiscountRequest(
+                        WARMUP_USER, p.id(), p.baseAmount(), EnrollmentType.INDIVIDUAL, null, null))));
+            }
+        }
+
+        Outcome outcome = runSteps(steps, deadline);
+        long nanos = sample.stop(Timer.builder("treasure.warmup.duration").register(registry));
+        log.info("Warm-up finished in {} ms: {} hot plans, {} steps done, {} failed, {} skipped at the {} budget",
+                TimeUnit.NANOSECONDS.toMillis(nanos), hot.size(), outcome.completed(), outcome.failed(), outcome.skipped(), budget);
+    }
+
+    /**
+     * Run steps on a few virtual threads until they are done or the deadline passes.
+     * Steps still queued at the deadline are skipped; a step that is already running
+     * gets until the deadline and is then interrupted.
+     */
+    Outcome runSteps(List<Step> steps, long deadlineNanos) {
+        total.addAndGet(steps.size());
+        Queue<Step> queue = new ConcurrentLinkedQueue<>(steps);
+        AtomicInteger completed = new AtomicInteger(), failed = new AtomicInteger();
+        ExecutorService workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("warmup-", 0).factory());
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                Step step;
+                while (System.nanoTime() < deadlineNanos && (step = queue.poll()) != null) {
+                    try {
+                        step.action().run();
+                        completed.incrementAndGet();
+                        count(step.kind(), "ok");
+                    } catch (Exception ex) {
+                        failed.incrementAndGet();
+                        count(step.kind(), "failed");
+                        log.debug("Warm-up {} failed: {}", step.kind(), ex.getMessage());
+                    } finally {
+                        done.incrementAndGet();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                workers.shutdownNow();
+                workers.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        int skipped = 0;
+        for (Step step; (step = queue.poll()) != null; skipped++) {
+            count(step.kind(), "skipped");
+            done.incrementAndGet();
+        }
+        return new Outcome(completed.get(), failed.get(), skipped);
+    }
+
+    /**
+     * The unfiltered listing, then the subcategories and cities of the hottest plans:
+     * the filters a landing page and its first clicks hit
+     */
+    static List<SearchRequest> searches(List<HotPlan> hot, int limit) {
+        Set<UUID> subcategories = new LinkedHashSet<>();
+        Set<String> cities = new LinkedHashSet<>();
+        for (HotPlan p : hot) {
+            if (p.subcategoryId() != null) subcategories.add(p.subcategoryId());
+            if (p.city() != null) cities.add(p.city());
+        }
+        List<SearchRequest> out = new ArrayList<>();
+        out.add(new SearchRequest(null, null, null, null, null, null, null, null, null, null, null, null));
+        subcategories.forEach(s -> out.add(new SearchRequest(s, null, null, null, null, null, null, null, null, null, null, null)));
+        cities.forEach(c -> out.add(new SearchRequest(null, null, null, null, null, null, null, null, c, null, null, null)));
+        return out.subList(0, Math.min(limit, out.size()));
+    }
+
+    // open each pool's idle connections now rather than on the first requests
+    private void primePools() {
+        for (HikariDataSource pool : pools.orderedStream().toList()) {
+            List<Connection> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < Math.max(1, pool.getMinimumIdle()); i++) {
+                    Connection c = pool.getConnection();
+                    held.add(c);
+                    c.isValid(2);
+                }
+                count("db-pool", "ok");
+            } catch (Exception ex) {
+                count("db-pool", "failed");
+                log.warn("Warm-up could not prime pool {}: {}", pool.getPoolName(), ex.getMessage());
+            } finally {
+                for (Connection c : held) {
+                    try { c.close(); } catch (Exception ignored) { }
+                }
+            }
+        }
+        RedisConnectionFactory factory = redis.getIfAvailable();
+        if (factory == null) return;
+        try (RedisConnection c = factory.getConnection()) {
+            c.ping();
+            count("redis", "ok");
+        } catch (Exception ex) {
+            count("redis", "failed");
+            log.warn("Warm-up could not reach Redis: {}", ex.getMessage());
+        }
+    }
+
+    private void count(String kind, String outcome) {
+        Counter.builder("treasure.warmup.steps").tag("kind", kind).tag("outcome", outcome).register(registry).increment();
+    }
+}
@@ -0,0 +1,155 @@
+-- Monthly range partitioning for the tables that grow with every past hunt.
+--
+--   enrollment     by enrolled_at
+--   task_progress  by its enrollment's enrolled_at (co-partitioned, so a month of
+--                  enrollments and their progress are archived together)
+--   leaderboard    by period_start; all-time rows (NULL period) live in the
+--                  default partition and are never archived
+--
+-- Partitions are named <table>_YYYY_MM and cover UTC calendar months. Future
+-- months are created ahead of time by PartitionMaintenanceJob; old months are
+-- detached, exported and dropped by PartitionArchiveJob.
+
+-- Create one month partition; rows parked in a default partition for that range move into it
+CREATE OR REPLACE FUNCTION treasure_create_month_partition(parent TEXT, key_column TEXT, month_start DATE)
+RETURNS BOOLEAN LANGUAGE plpgsql AS $$
+DECLARE
+  part TEXT := format('%s_%s', parent, to_char(month_start, 'YYYY_MM'));
+  lo   TIMESTAMPTZ := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+  hi   TIMESTAMPTZ := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+  dflt TEXT;
+BEGIN
+  IF to_regclass(part) IS NOT NULL THEN
+    RETURN FALSE;
+  END IF;
+  SELECT c.relname INTO dflt
+    FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partdefid
+   WHERE pt.partrelid = parent::regclass;
+
+  EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+  IF dflt IS NOT NULL THEN
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                   dflt, key_column, lo, key_column, hi, part);
+  END IF;
+  EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', parent, part, lo, hi);
+  RETURN TRUE;
+END $$;
+
+-- Make sure partitions exist from from_month through months_ahead months after the current one
+CREATE OR REPLACE FUNCTION treasure_ensure_month_partitions(parent TEXT, key_column TEXT, from_month DATE, months_ahead INT)
+RETURNS INT LANGUAGE plpgsql AS $$
+DECLARE
+  m       DATE := date_trunc('month', from_month::timestamp)::date;
+  last    DATE := (date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => months_ahead))::date;
+  created INT := 0;
+BEGIN
+  WHILE m <= last LOOP
+    IF treasure_create_month_partition(parent, key_column, m) THEN
+      created := created + 1;
+    END IF;
+    m := (m + INTERVAL '1 month')::date;
+  END LOOP;
+  RETURN created;
+END $$;
+
+-- Referencing keys must include the partition key, so the single-column FKs go.
+-- task_progress gets a composite FK below; checkpoint_progress, plan_waitlist and
+-- user_achievements rows of archived enrollments are exported and cleaned up by
+-- the archive job.
+ALTER TABLE task_progress       DROP CONSTRAINT IF EXISTS task_progress_enrollment_id_fkey;
+ALTER TABLE checkpoint_progress DROP CONSTRAINT IF EXISTS checkpoint_progress_enrollment_id_fkey;
+ALTER TABLE plan_waitlist       DROP CONSTRAINT IF EXISTS plan_waitlist_enrollment_id_fkey;
+ALTER TABLE user_achievements   DROP CONSTRAINT IF EXISTS user_achievements_enrollment_id_fkey;
+
+-- enrollment ------------------------------------------------------------------
+ALTER TABLE enrollment RENAME TO enrollment_legacy;
+
+CREATE TABLE enrollment (LIKE enrollment_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (enrolled_at);
+
+-- A unique index on a partitioned table must include enrolled_at, which would only
+-- make registration ids unique per timestamp. The global uniqueness from V2 is kept
+-- in this unpartitioned table instead, maintained by a trigger on enrollment.
+CREATE TABLE enrollment_registration (
+  registration_id VARCHAR(50) PRIMARY KEY,
+  enrollment_id UUID NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION treasure_sync_enrollment_registration()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP <> 'INSERT' AND OLD.registration_id IS NOT NULL THEN
+    DELETE FROM enrollment_registration
+     WHERE registration_id = OLD.registration_id AND enrollment_id = OLD.id;
+  END IF;
+  -- a duplicate raises unique_violation on enrollment_registration_pkey, as the V2 constraint did
+  IF TG_OP <> 'DELETE' AND NEW.registration_id IS NOT NULL THEN
+    INSERT INTO enrollment_registration (registration_id, enrollment_id) VALUES (NEW.registration_id, NEW.id);
+  END IF;
+  RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_enrollment_registration
+  AFTER INSERT OR DELETE OR UPDATE OF registration_id ON enrollment
+  FOR EACH ROW EXECUTE FUNCTION treasure_sync_enrollment_registration();
+
+SELECT treasure_ensure_month_partitions('enrollment', 'enrolled_at',
+       (COALESCE((SELECT min(enrolled_at) FROM enrollment_legacy), now()) AT TIME ZONE 'UTC')::date, 3);
+
+INSERT INTO enrollment SELECT * FROM enrollment_legacy;
+DROP TABLE enrollment_legacy;
+
+ALTER TABLE enrollment ADD CONSTRAINT enrollment_pkey PRIMARY KEY (id, enrolled_at);
+CREATE INDEX idx_enrollment_registration_id ON enrollment(registration_id);
+CREATE INDEX idx_enrollment_type ON enrollment(enrollment_type);
+CREATE INDEX idx_enrollment_user_keyset ON enrollment(user_id, enrolled_at DESC, id DESC);
+ALTER TABLE enrollment ADD CONSTRAINT enrollment_plan_id_fkey FOREIGN KEY (plan_id) REFERENCES plan(id);
+
+-- task_progress ---------------------------------------------------------------
+ALTER TABLE task_progress RENAME TO task_progress_legacy;
+
+CREATE TABLE task_progress (
+  id UUID NOT NULL DEFAULT uuid_generate_v4(),
+  enrollment_id UUID NOT NULL,
+  task_id UUID NOT NULL,
+  status task_status NOT NULL DEFAULT 'LOCKED',
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  enrolled_at TIMESTAMPTZ NOT NULL
+) PARTITION BY RANGE (enrolled_at);
+
+SELECT treasure_ensure_month_partitions('task_progress', 'enrolled_at',
+       (COALESCE((SELECT min(enrolled_at) FROM enrollment), now()) AT TIME ZONE 'UTC')::date, 3);
+
+INSERT INTO task_progress (id, enrollment_id, task_id, status, updated_at, enrolled_at)
+SELECT tp.id, tp.enrollment_id, tp.task_id, tp.status, tp.updated_at, e.enrolled_at
+  FROM task_progress_legacy tp
+  JOIN enrollment e ON e.id = tp.enrollment_id;
+DROP TABLE task_progress_legacy;
+
+ALTER TABLE task_progress ADD CONSTRAINT task_progress_pkey PRIMARY KEY (id, enrolled_at);
+ALTER TABLE task_progress ADD CONSTRAINT uk_task_progress_enrollment_task UNIQUE (enrollment_id, task_id, enrolled_at);
+ALTER TABLE task_progress ADD CONSTRAINT fk_task_progress_enrollment
+    FOREIGN KEY (enrollment_id, enrolled_at) REFERENCES enrollment(id, enrolled_at) ON DELETE CASCADE;
+ALTER TABLE task_progress ADD CONSTRAINT fk_task_progress_task
+    FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE CASCADE;
+
+-- leaderboard -----------------------------------------------------------------
+ALTER TABLE leaderboard RENAME TO leaderboard_legacy;
+
+CREATE TABLE leaderboard (LIKE leaderboard_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (period_start);
+CREATE TABLE leaderboard_all_time PARTITION OF leaderboard DEFAULT;
+
+SELECT treasure_ensure_month_partitions('leaderboard', 'period_start',
+       (COALESCE((SELECT min(period_start) FROM leaderboard_legacy), now()) AT TIME ZONE 'UTC')::date, 3);
+
+INSERT INTO leaderboard SELECT * FROM leaderboard_legacy;
+DROP TABLE leaderboard_legacy;
+
+-- period_start is NULL for all-time rows, so it cannot be part of a primary key;
+-- NULLS NOT DISTINCT keeps their ids unique as well
+ALTER TABLE leaderboard ADD CONSTRAINT uk_leaderboard_id UNIQUE NULLS NOT DISTINCT (id, period_start);
+CREATE INDEX idx_leaderboard_difficulty_rank ON leaderboard(difficulty, rank_position);
+CREATE INDEX idx_leaderboard_period ON leaderboard(leaderboard_type, period_start, period_end);
+CREATE INDEX idx_leaderboard_user ON leaderboard(user_id);
+CREATE INDEX idx_leaderboard_keyset ON leaderboard(leaderboard_type, difficulty, total_score DESC, user_id DESC);
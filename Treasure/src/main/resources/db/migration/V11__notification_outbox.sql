@@ -0,0 +1,33 @@
+-- Durable queue between the request path and the notification service. Callers
+-- only insert; NotificationDispatcher claims due rows per channel and sends them
+-- in batches. A notification for the same user, channel and template that is
+-- still waiting out its coalescing window is merged into the pending row.
+
+CREATE TABLE notification_outbox (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL,
+    channel VARCHAR(16) NOT NULL,                   -- EMAIL | SMS | PUSH | INAPP
+    template VARCHAR(100) NOT NULL,
+    data JSONB NOT NULL DEFAULT '{}',
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',  -- PENDING | RETRY | SENDING | SENT | FAILED
+    coalesced INTEGER NOT NULL DEFAULT 0,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    send_after TIMESTAMPTZ NOT NULL,
+    locked_until TIMESTAMPTZ,
+    message_id TEXT,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    sent_at TIMESTAMPTZ
+);
+
+-- coalescing target: at most one pending row per user, channel and template
+CREATE UNIQUE INDEX uq_notification_pending ON notification_outbox(user_id, channel, template)
+    WHERE status = 'PENDING';
+
+-- dispatcher claim, per channel in due order
+CREATE INDEX idx_notification_due ON notification_outbox(channel, send_after)
+    WHERE status IN ('PENDING', 'RETRY');
+
+-- leases abandoned by a crashed dispatcher
+CREATE INDEX idx_notification_lease ON notification_outbox(locked_until)
+    WHERE status = 'SENDING';
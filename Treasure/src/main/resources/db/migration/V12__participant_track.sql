@@ -0,0 +1,16 @@
+-- Downsampled GPS tracks of participants in running hunts. Append-only and written
+-- in batches; the latest position of each participant lives in memory only.
+CREATE TABLE participant_track (
+    enrollment_id UUID NOT NULL,
+    plan_id UUID NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    accuracy_m REAL
+);
+
+CREATE INDEX idx_participant_track_enrollment ON participant_track(enrollment_id, recorded_at);
+-- rows arrive roughly in time order, so a BRIN index stays tiny
+CREATE INDEX idx_participant_track_recorded ON participant_track USING BRIN(recorded_at);
+
+COMMENT ON TABLE participant_track IS 'Downsampled participant GPS tracks (no FK: written in bulk from live ingest)';
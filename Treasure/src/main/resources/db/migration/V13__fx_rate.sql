@@ -0,0 +1,10 @@
+-- Exchange rates for showing prices in the viewer's currency: 1 base = rate quote.
+-- Written by a rates feed or by hand; the service holds the whole table in memory
+-- and reloads it periodically. Charges stay in the plan's own currency.
+CREATE TABLE fx_rate (
+    base_currency TEXT NOT NULL,
+    quote_currency TEXT NOT NULL,
+    rate NUMERIC(20, 10) NOT NULL CHECK (rate > 0),
+    as_of TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (base_currency, quote_currency)
+);
@@ -0,0 +1,9 @@
+-- The currency a plan is charged in; prices in other currencies and FX conversions are
+-- for display only. Plans that have an INR price keep INR, others take their first
+-- priced currency.
+ALTER TABLE plan ADD COLUMN native_currency TEXT NOT NULL DEFAULT 'INR';
+
+UPDATE plan pl
+SET native_currency = (SELECT min(pp.currency) FROM plan_price pp WHERE pp.plan_id = pl.id)
+WHERE NOT EXISTS (SELECT 1 FROM plan_price pp WHERE pp.plan_id = pl.id AND pp.currency = 'INR')
+  AND EXISTS (SELECT 1 FROM plan_price pp WHERE pp.plan_id = pl.id);
@@ -0,0 +1,4 @@
+-- Leaderboard pages are ordered by (total_score, id): a user has one row per period
+-- and enrollment type, so (total_score, user_id) ties and pages could skip or repeat rows.
+DROP INDEX IF EXISTS idx_leaderboard_keyset;
+CREATE INDEX idx_leaderboard_keyset ON leaderboard(leaderboard_type, difficulty, total_score DESC, id DESC);
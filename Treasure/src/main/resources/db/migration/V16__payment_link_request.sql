@@ -0,0 +1,23 @@
+-- Payment links owed to enrollments. The row is written in the enrollment's transaction;
+-- the link is requested right after commit and, if that fails, retried by
+-- PaymentLinkRequests with backoff. The payments service deduplicates on the
+-- enrollment id, so a retry never creates a second link.
+CREATE TABLE payment_link_request (
+    enrollment_id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    plan_id UUID NOT NULL,
+    plan_title TEXT NOT NULL,
+    currency TEXT NOT NULL,
+    amount NUMERIC(12, 2) NOT NULL,
+    template VARCHAR(100) NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',  -- PENDING | DONE | FAILED
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL,           -- also the lease of the attempt in progress
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    completed_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_payment_link_due ON payment_link_request(next_attempt_at) WHERE status = 'PENDING';
+
+COMMENT ON TABLE payment_link_request IS 'Payment links to request (no FK: enrollment is partitioned)';
@@ -0,0 +1,10 @@
+-- Coalescing on (user, channel, template) alone merged notifications about different
+-- things, e.g. two waitlist offers for different plans kept only the second. Callers now
+-- say what a notification is about; only rows with the same key are merged, and rows
+-- without one never are (NULLs are distinct in a unique index).
+
+ALTER TABLE notification_outbox ADD COLUMN dedupe_key TEXT;
+
+DROP INDEX uq_notification_pending;
+CREATE UNIQUE INDEX uq_notification_pending ON notification_outbox(user_id, channel, template, dedupe_key)
+    WHERE status = 'PENDING';
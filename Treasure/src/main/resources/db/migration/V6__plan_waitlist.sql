@@ -0,0 +1,31 @@
+-- Per-plan FIFO waitlist for finite plans. A freed seat is reserved for the head
+-- waiter (OFFERED) and held until hold_expires_at, after which it moves on.
+
+CREATE TABLE plan_waitlist (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    plan_id UUID NOT NULL REFERENCES plan(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    enrollment_type VARCHAR(20) NOT NULL,
+    team_name TEXT,
+    team_size INTEGER,
+    seats INTEGER NOT NULL DEFAULT 1,
+    status VARCHAR(20) NOT NULL DEFAULT 'WAITING', -- WAITING | OFFERED | CLAIMED | EXPIRED | CANCELLED
+    queued_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    offered_at TIMESTAMPTZ,
+    hold_expires_at TIMESTAMPTZ,
+    enrollment_id UUID REFERENCES enrollment(id),
+    CONSTRAINT ck_waitlist_seats CHECK (seats > 0),
+    CONSTRAINT ck_waitlist_hold CHECK (status <> 'OFFERED' OR hold_expires_at IS NOT NULL)
+);
+
+-- one live entry per user and plan; repeated enroll attempts collapse onto it
+CREATE UNIQUE INDEX uq_waitlist_live_user ON plan_waitlist(plan_id, user_id)
+    WHERE status IN ('WAITING', 'OFFERED');
+
+-- head-of-queue lookup and position counting
+CREATE INDEX idx_waitlist_queue ON plan_waitlist(plan_id, queued_at, id)
+    WHERE status = 'WAITING';
+
+-- hold expiry sweep
+CREATE INDEX idx_waitlist_hold_expiry ON plan_waitlist(hold_expires_at)
+    WHERE status = 'OFFERED';
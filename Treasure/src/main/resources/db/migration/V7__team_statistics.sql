@@ -0,0 +1,25 @@
+-- Incremental team aggregates. team_member pins each user to one team; every member
+-- score change is applied to team_statistics as a delta, so team boards read a ranked
+-- index instead of grouping user_statistics on each request.
+
+CREATE TABLE team_member (
+    user_id UUID PRIMARY KEY,
+    team_name VARCHAR(255) NOT NULL,
+    joined_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_team_member_team ON team_member(team_name);
+
+CREATE TABLE team_statistics (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    team_name VARCHAR(255) NOT NULL,
+    difficulty VARCHAR(20) NOT NULL,
+    total_score DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    plans_completed INTEGER NOT NULL DEFAULT 0,
+    tasks_completed INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT uk_team_statistics UNIQUE (team_name, difficulty)
+);
+
+-- ranked read path: top-N and rank-of-team per difficulty
+CREATE INDEX idx_team_statistics_rank ON team_statistics(difficulty, total_score DESC, plans_completed DESC, team_name);
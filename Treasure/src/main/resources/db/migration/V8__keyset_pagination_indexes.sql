@@ -0,0 +1,10 @@
+-- Keyset pagination: each listing walks one index in sort order from the cursor,
+-- so deep pages cost the same as the first and no COUNT is needed.
+
+-- leaderboard pages ordered by (total_score, user_id) descending
+CREATE INDEX IF NOT EXISTS idx_leaderboard_keyset
+    ON leaderboard(leaderboard_type, difficulty, total_score DESC, user_id DESC);
+
+-- a user's enrollment history ordered by (enrolled_at, id) descending
+CREATE INDEX IF NOT EXISTS idx_enrollment_user_keyset
+    ON enrollment(user_id, enrolled_at DESC, id DESC);
@@ -0,0 +1,9 @@
+-- Precomputed "similar plans": one compact row per plan holding its top-K
+-- neighbours in rank order, so the detail page needs a single keyed lookup.
+-- Rewritten wholesale by the nightly similarity job.
+CREATE TABLE IF NOT EXISTS plan_similarity (
+  plan_id          UUID PRIMARY KEY REFERENCES plan(id) ON DELETE CASCADE,
+  similar_plan_ids UUID[] NOT NULL,
+  scores           REAL[] NOT NULL,
+  computed_at      TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,148 @@
+package com.mysillydreams.treasure.achievement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import com.mysillydreams.treasure.domain.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AchievementEngineTest {
+
+    @Mock
+    private AchievementWriter writer;
+
+    @Mock
+    private TaskRepository taskRepo;
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private ValueOperations<String, String> values;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashes;
+
+    private AchievementStateStore stateStore;
+    private AchievementEngine engine;
+    private UUID userId;
+    private UUID planId;
+    private UUID enrollmentId;
+
+    @BeforeEach
+    void setUp() {
+        when(redis.opsForValue()).thenReturn(values);
+        stateStore = new AchievementStateStore(redis, new ObjectMapper());
+        AchievementEvaluator evaluator = new AchievementEvaluator(AchievementRule.defaults(),
+                ZoneId.of("Asia/Kolkata"), Duration.ofDays(30), Duration.ofDays(90));
+        engine = new AchievementEngine(evaluator, stateStore, writer, taskRepo, redis);
+        userId = UUID.randomUUID();
+        planId = UUID.randomUUID();
+        enrollmentId = UUID.randomUUID();
+    }
+
+    @Test
+    void process_ShouldReplayFailedBatchFromLastSavedState() {
+        // Given: the first task is processed and the user's state is cached locally
+        when(taskRepo.countByPlanId(planId)).thenReturn(2L);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+        when(redis.opsForHash()).thenReturn(hashes);
+        Instant start = Instant.parse("2025-03-01T06:00:00Z");
+        engine.process(List.of(event(UUID.randomUUID(), start)));
+
+        // the batch completing the hunt fails on the first write
+        List<TaskCompletedEvent> batch = List.of(event(UUID.randomUUID(), start.plusSeconds(1800)));
+        when(writer.write(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(1);
+        assertThatThrownBy(() -> engine.process(batch)).isInstanceOf(DataAccessResourceFailureException.class);
+
+        // When
+        engine.process(batch);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AchievementWriter.Unlock>> unlocks = ArgumentCaptor.forClass(List.class);
+        verify(writer, times(3)).write(unlocks.capture());
+        List<AchievementWriter.Unlock> failed = unlocks.getAllValues().get(1);
+        List<AchievementWriter.Unlock> replayed = unlocks.getAllValues().get(2);
+        assertThat(failed).extracting(AchievementWriter.Unlock::achievementName).contains("First Steps");
+        assertThat(replayed).isEqualTo(failed);
+
+        AchievementState saved = stateStore.getAll(Set.of(userId)).get(userId);
+        assertThat(saved.getCompletedHunts()).isEqualTo(1);
+        assertThat(saved.getOpen()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void process_ShouldStillBeatPlanRecordWhenReplayed() {
+        // Given: the plan's record is two hours and this hunt takes thirty minutes
+        when(taskRepo.countByPlanId(planId)).thenReturn(2L);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+        when(redis.opsForHash()).thenReturn(hashes);
+        when(hashes.get("achv:plan-fastest", planId.toString())).thenReturn("7200000");
+        Instant start = Instant.parse("2025-03-01T06:00:00Z");
+        List<TaskCompletedEvent> batch = List.of(event(UUID.randomUUID(), start),
+                event(UUID.randomUUID(), start.plusSeconds(1800)));
+        when(writer.write(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(2);
+        assertThatThrownBy(() -> engine.process(batch)).isInstanceOf(DataAccessResourceFailureException.class);
+        verify(redis, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+        // When
+        engine.process(batch);
+
+        // Then: both attempts award the record, which is lowered once the unlocks are written
+        ArgumentCaptor<List<AchievementWriter.Unlock>> unlocks = ArgumentCaptor.forClass(List.class);
+        verify(writer, times(2)).write(unlocks.capture());
+        assertThat(unlocks.getAllValues()).allSatisfy(written ->
+                assertThat(written).extracting(AchievementWriter.Unlock::achievementName).contains("Speed Demon"));
+        verify(redis).execute(any(RedisScript.class), eq(List.of("achv:plan-fastest")),
+                eq(planId.toString()), eq("1800000"));
+    }
+
+    @Test
+    void getAll_ShouldNotExposeCachedStateToUnsavedChanges() {
+        // Given
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+        AchievementState state = stateStore.getAll(Set.of(userId)).get(userId);
+        state.setCompletedHunts(3);
+        stateStore.saveAll(Map.of(userId, state));
+
+        // When
+        stateStore.getAll(Set.of(userId)).get(userId).setCompletedHunts(4);
+
+        // Then
+        assertThat(stateStore.getAll(Set.of(userId)).get(userId).getCompletedHunts()).isEqualTo(3);
+    }
+
+    private TaskCompletedEvent event(UUID taskId, Instant at) {
+        return new TaskCompletedEvent(enrollmentId, userId, planId, taskId, EnrollmentType.INDIVIDUAL, "Pune", at);
+    }
+}
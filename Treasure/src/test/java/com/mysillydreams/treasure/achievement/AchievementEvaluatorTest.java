@@ -0,0 +1,120 @@
+package com.mysillydreams.treasure.achievement;
+
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AchievementEvaluatorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private AchievementEvaluator evaluator;
+    private AchievementState state;
+    private UUID userId;
+    private UUID planId;
+
+    @BeforeEach
+    void setUp() {
+        evaluator = new AchievementEvaluator(AchievementRule.defaults(), ZONE, Duration.ofDays(30), Duration.ofDays(90));
+        state = new AchievementState();
+        userId = UUID.randomUUID();
+        planId = UUID.randomUUID();
+    }
+
+    @Test
+    void apply_ShouldCompleteHuntOnlyWhenAllTasksDone() {
+        // Given
+        UUID enrollmentId = UUID.randomUUID();
+        UUID task1 = UUID.randomUUID();
+        UUID task2 = UUID.randomUUID();
+        Instant start = Instant.parse("2025-03-01T06:00:00Z");
+
+        // When
+        Optional<HuntCompletion> first = evaluator.apply(state, event(enrollmentId, task1, start, EnrollmentType.INDIVIDUAL, "Pune"), 2);
+        Optional<HuntCompletion> repeat = evaluator.apply(state, event(enrollmentId, task1, start.plusSeconds(60), EnrollmentType.INDIVIDUAL, "Pune"), 2);
+        Optional<HuntCompletion> last = evaluator.apply(state, event(enrollmentId, task2, start.plusSeconds(1800), EnrollmentType.INDIVIDUAL, "Pune"), 2);
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(repeat).isEmpty();
+        assertThat(last).isPresent();
+        assertThat(last.get().durationMillis()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        assertThat(state.getCompletedHunts()).isEqualTo(1);
+        assertThat(state.getOpen()).isEmpty();
+        assertThat(evaluator.evaluate(state, last.get())).containsExactly("First Steps");
+    }
+
+    @Test
+    void apply_ShouldIgnoreReplayedEventsOfCompletedHunt() {
+        // Given
+        UUID enrollmentId = UUID.randomUUID();
+        UUID taskId = UUID.randomUUID();
+        Instant at = Instant.parse("2025-03-01T06:00:00Z");
+        evaluator.apply(state, event(enrollmentId, taskId, at, EnrollmentType.INDIVIDUAL, "Pune"), 1);
+
+        // When
+        Optional<HuntCompletion> replay = evaluator.apply(state, event(enrollmentId, taskId, at, EnrollmentType.INDIVIDUAL, "Pune"), 1);
+
+        // Then
+        assertThat(replay).isEmpty();
+        assertThat(state.getCompletedHunts()).isEqualTo(1);
+        assertThat(state.getOpen()).isEmpty();
+    }
+
+    @Test
+    void evaluate_ShouldUnlockTeamPlayerOnceAfterFiveTeamHunts() {
+        // Given
+        Instant at = Instant.parse("2025-03-01T06:00:00Z");
+
+        // When
+        int teamPlayerUnlocks = 0;
+        for (int i = 0; i < 7; i++) {
+            HuntCompletion c = evaluator.apply(state,
+                    event(UUID.randomUUID(), UUID.randomUUID(), at.plus(Duration.ofDays(i)), EnrollmentType.TEAM, "Pune"), 1).orElseThrow();
+            if (evaluator.evaluate(state, c).contains("Team Player")) teamPlayerUnlocks++;
+        }
+
+        // Then
+        assertThat(teamPlayerUnlocks).isEqualTo(1);
+        assertThat(state.getTeamCompletions()).isEqualTo(7);
+        assertThat(state.getUnlocked()).contains("First Steps", "Team Player");
+    }
+
+    @Test
+    void apply_ShouldResetStreakAfterGap() {
+        // Given
+        Instant at = Instant.parse("2025-03-01T06:00:00Z");
+        evaluator.apply(state, event(UUID.randomUUID(), UUID.randomUUID(), at, EnrollmentType.INDIVIDUAL, "Pune"), 1);
+        evaluator.apply(state, event(UUID.randomUUID(), UUID.randomUUID(), at.plus(Duration.ofDays(10)), EnrollmentType.INDIVIDUAL, "Pune"), 1);
+
+        // When
+        evaluator.apply(state, event(UUID.randomUUID(), UUID.randomUUID(), at.plus(Duration.ofDays(60)), EnrollmentType.INDIVIDUAL, "Goa"), 1);
+
+        // Then
+        assertThat(state.getCompletionStreak()).isEqualTo(1);
+        assertThat(state.getLongestStreak()).isEqualTo(2);
+        assertThat(state.getCities()).containsExactlyInAnyOrder("pune", "goa");
+    }
+
+    @Test
+    void evaluate_ShouldAwardSpeedDemonForEachPlanRecord() {
+        // Given
+        HuntCompletion record = new HuntCompletion(userId, UUID.randomUUID(), planId, 3, 1000, Instant.now(), true);
+
+        // When / Then
+        assertThat(evaluator.evaluate(state, record)).contains("Speed Demon");
+        assertThat(evaluator.evaluate(state, record)).contains("Speed Demon");
+    }
+
+    private TaskCompletedEvent event(UUID enrollmentId, UUID taskId, Instant at, EnrollmentType type, String city) {
+        return new TaskCompletedEvent(enrollmentId, userId, planId, taskId, type, city, at);
+    }
+}
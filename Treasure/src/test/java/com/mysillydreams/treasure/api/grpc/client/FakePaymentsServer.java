@@ -0,0 +1,81 @@
+package com.mysillydreams.treasure.api.grpc.client;
+
+import com.mysillydreams.payments.v1.CreatePaymentLinkRequest;
+import com.mysillydreams.payments.v1.CreatePaymentLinkResponse;
+import com.mysillydreams.payments.v1.PaymentsServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * In-process stand-in for the payment service. Replies follow a script, one entry
+ * per received attempt (default: immediate success), and every idempotency key is
+ * recorded so tests can check retries and hedges reuse it.
+ */
+class FakePaymentsServer extends PaymentsServiceGrpc.PaymentsServiceImplBase implements AutoCloseable {
+
+    record Reply(long delayMillis, Status failure) {
+        static Reply ok(long delayMillis) { return new Reply(delayMillis, null); }
+        static Reply fail(Status status) { return new Reply(0, status); }
+    }
+
+    final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private final Queue<Reply> script = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final Server server;
+    private final ManagedChannel channel;
+
+    FakePaymentsServer() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(this).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    FakePaymentsServer then(Reply reply) {
+        script.add(reply);
+        return this;
+    }
+
+    PaymentsServiceGrpc.PaymentsServiceFutureStub stub() {
+        return PaymentsServiceGrpc.newFutureStub(channel);
+    }
+
+    @Override
+    public void createPaymentLink(CreatePaymentLinkRequest request, StreamObserver<CreatePaymentLinkResponse> observer) {
+        int attempt = idempotencyKeys.size() + 1;
+        idempotencyKeys.add(request.getIdempotencyKey());
+        Reply reply = script.isEmpty() ? Reply.ok(0) : script.poll();
+        Runnable respond = () -> {
+            try {
+                if (reply.failure() != null) {
+                    observer.onError(reply.failure().asRuntimeException());
+                } else {
+                    observer.onNext(CreatePaymentLinkResponse.newBuilder()
+                            .setPaymentId("pay-" + attempt)
+                            .setPaymentLink("https://pay.example/" + request.getEnrollmentId())
+                            .build());
+                    observer.onCompleted();
+                }
+            } catch (RuntimeException cancelled) {
+                // the client gave up on this attempt
+            }
+        };
+        if (reply.delayMillis() > 0) timer.schedule(respond, reply.delayMillis(), TimeUnit.MILLISECONDS);
+        else respond.run();
+    }
+
+    @Override
+    public void close() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.mysillydreams.treasure.api.grpc.client;
+
+import com.mysillydreams.payments.v1.CreatePaymentLinkResponse;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentsGrpcClientTest {
+
+    private FakePaymentsServer server;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakePaymentsServer();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void createLink_ShouldHedgeSlowAttemptWithSameIdempotencyKey() throws Exception {
+        // Given
+        server.then(FakePaymentsServer.Reply.ok(1_500)).then(FakePaymentsServer.Reply.ok(0));
+        PaymentsGrpcClient client = client(Duration.ofSeconds(3), 8, 3, true);
+
+        // When
+        CreatePaymentLinkResponse response = client.createLink("enr-1", "user-1", "INR", "499.00", "plan-1")
+                .get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(response.getPaymentId()).isEqualTo("pay-2");
+        assertThat(server.idempotencyKeys).containsExactly("enr-1", "enr-1");
+        assertThat(registry.counter("treasure.payments.hedges").count()).isEqualTo(1);
+    }
+
+    @Test
+    void createLink_ShouldRetryTransientFailure() throws Exception {
+        // Given
+        server.then(FakePaymentsServer.Reply.fail(Status.UNAVAILABLE));
+        PaymentsGrpcClient client = client(Duration.ofSeconds(1), 8, 3, false);
+
+        // When
+        CreatePaymentLinkResponse response = client.createLink("enr-2", "user-1", "INR", "499.00", "plan-1")
+                .get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(response.getPaymentLink()).endsWith("/enr-2");
+        assertThat(server.idempotencyKeys).containsExactly("enr-2", "enr-2");
+        assertThat(registry.counter("treasure.payments.retries").count()).isEqualTo(1);
+    }
+
+    @Test
+    void createLink_ShouldFailWithDeadlineWhenServerIsSlow() {
+        // Given
+        server.then(FakePaymentsServer.Reply.ok(1_000));
+        PaymentsGrpcClient client = client(Duration.ofMillis(100), 8, 1, false);
+
+        // When
+        CompletableFuture<CreatePaymentLinkResponse> call = client.createLink("enr-3", "user-1", "INR", "499.00", "plan-1");
+
+        // Then
+        assertThatThrownBy(() -> call.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .satisfies(ex -> assertThat(Status.fromThrowable(ex.getCause()).getCode())
+                        .isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+    }
+
+    @Test
+    void createLink_ShouldRejectWhenInFlightLimitReached() throws Exception {
+        // Given
+        server.then(FakePaymentsServer.Reply.ok(300));
+        PaymentsGrpcClient client = client(Duration.ofSeconds(1), 1, 1, false);
+        CompletableFuture<CreatePaymentLinkResponse> first = client.createLink("enr-4", "user-1", "INR", "1", "plan-1");
+
+        // When
+        CompletableFuture<CreatePaymentLinkResponse> second = client.createLink("enr-5", "user-1", "INR", "1", "plan-1");
+
+        // Then
+        assertThat(second).isCompletedExceptionally();
+        assertThat(Status.fromThrowable(second.handle((r, ex) -> ex).join()).getCode())
+                .isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(first.get(1, TimeUnit.SECONDS).getPaymentId()).isEqualTo("pay-1");
+    }
+
+    private PaymentsGrpcClient client(Duration deadline, int maxInFlight, int maxAttempts, boolean hedging) {
+        PaymentsGrpcClient client = new PaymentsGrpcClient(deadline, maxInFlight, maxAttempts,
+                Duration.ofMillis(20), hedging, Duration.ofMillis(50), registry);
+        client.setStub(server.stub());
+        return client;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mysillydreams.treasure.api.grpc.server;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlowControlledSenderTest {
+
+    @Mock
+    private ServerCallStreamObserver<String> call;
+
+    private final AtomicBoolean ready = new AtomicBoolean();
+    private Runnable onReady;
+    private Runnable onCancel;
+    private FlowControlledSender<String> sender;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(call.isReady()).thenAnswer(inv -> ready.get());
+        sender = new FlowControlledSender<>(call, Duration.ofSeconds(10));
+        ArgumentCaptor<Runnable> readyHandler = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Runnable> cancelHandler = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnReadyHandler(readyHandler.capture());
+        verify(call).setOnCancelHandler(cancelHandler.capture());
+        onReady = readyHandler.getValue();
+        onCancel = cancelHandler.getValue();
+    }
+
+    @Test
+    void send_ShouldWaitUntilTransportIsReady() throws Exception {
+        // Given: the client has not asked for more messages
+        CompletableFuture<Void> sending = CompletableFuture.runAsync(() -> sender.send("plan-1"));
+        verify(call, after(200).never()).onNext(any());
+        assertThat(sending).isNotDone();
+
+        // When
+        ready.set(true);
+        onReady.run();
+
+        // Then
+        sending.get(5, TimeUnit.SECONDS);
+        verify(call).onNext("plan-1");
+    }
+
+    @Test
+    void send_ShouldFailWithCancelledWhenClientCancelsWhileWaiting() {
+        // Given
+        CompletableFuture<Void> sending = CompletableFuture.runAsync(() -> sender.send("plan-1"));
+        verify(call, after(100).never()).onNext(any());
+
+        // When
+        onCancel.run();
+
+        // Then
+        assertThatThrownBy(() -> sending.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(StatusRuntimeException.class)
+                .cause().satisfies(ex -> assertThat(Status.fromThrowable(ex).getCode()).isEqualTo(Status.Code.CANCELLED));
+        assertThat(sender.isCancelled()).isTrue();
+        sender.complete();
+        sender.fail(Status.INTERNAL.asRuntimeException());
+        verify(call, never()).onNext(any());
+        verify(call, never()).onCompleted();
+        verify(call, never()).onError(any());
+    }
+
+    @Test
+    void send_ShouldFailWithDeadlineExceededWhenClientStopsReading() {
+        // Given
+        FlowControlledSender<String> stalled = new FlowControlledSender<>(call, Duration.ofMillis(50));
+
+        // When / Then
+        assertThatThrownBy(() -> stalled.send("plan-1"))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(ex -> assertThat(Status.fromThrowable(ex).getCode()).isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+        verify(call, never()).onNext(any());
+    }
+}
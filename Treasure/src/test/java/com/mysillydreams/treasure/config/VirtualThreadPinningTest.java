@@ -0,0 +1,120 @@
+package com.mysillydreams.treasure.config;
+
+import com.mysillydreams.treasure.velocity.EnrollmentVelocityTracker;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Records {@code jdk.VirtualThreadPinned} while hot shared components are hammered
+ * from virtual threads. A pinned park means a carrier thread was blocked, which is
+ * what caps throughput once request handling runs on virtual threads.
+ */
+class VirtualThreadPinningTest {
+
+    private static final Object MONITOR = new Object();
+
+    @Test
+    void pinningDetector_ShouldReportParkInsideSynchronized() throws Exception {
+        // synchronized no longer pins from JDK 24 (JEP 491)
+        assumeTrue(Runtime.version().feature() < 24);
+
+        // When
+        List<RecordedEvent> pinned = recordPinning(() -> runOnVirtualThreads(4, () -> {
+            synchronized (MONITOR) {
+                sleep(20);
+            }
+        }));
+
+        // Then
+        assertThat(pinned).isNotEmpty();
+    }
+
+    @Test
+    void velocityTracker_ShouldNotPinUnderContention() throws Exception {
+        // Given
+        EnrollmentVelocityTracker tracker = new EnrollmentVelocityTracker(mock(StringRedisTemplate.class));
+        UUID hotPlan = UUID.randomUUID();
+
+        // When
+        List<RecordedEvent> pinned = recordPinning(() -> runOnVirtualThreads(200, () -> {
+            for (int i = 0; i < 500; i++) {
+                tracker.record(hotPlan, 1);
+                if (i % 100 == 0) tracker.flush();
+            }
+        }));
+
+        // Then
+        assertThat(pinned).as(describe(pinned)).isEmpty();
+    }
+
+    @Test
+    void boundedExecutor_ShouldNotPinUnderContention() throws Exception {
+        // Given
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("pin-test-", 1_000)) {
+
+            // When
+            List<RecordedEvent> pinned = recordPinning(() -> {
+                CountDownLatch done = new CountDownLatch(500);
+                for (int i = 0; i < 500; i++) {
+                    executor.execute(() -> {
+                        sleep(5);
+                        done.countDown();
+                    });
+                }
+                done.await(10, TimeUnit.SECONDS);
+            });
+
+            // Then
+            assertThat(pinned).as(describe(pinned)).isEmpty();
+        }
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> recordPinning(Work work) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream rs = new RecordingStream()) {
+            rs.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            rs.onEvent("jdk.VirtualThreadPinned", events::add);
+            rs.startAsync();
+            work.run();
+            rs.stop(); // flushes pending events to the handler
+        }
+        return events;
+    }
+
+    private static void runOnVirtualThreads(int threads, Runnable task) throws InterruptedException {
+        try (ExecutorService vts = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) vts.submit(task);
+        } // close() waits for completion
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        return events.isEmpty() ? "" : "pinned at: " + events.get(0).getStackTrace();
+    }
+}
@@ -0,0 +1,122 @@
+package com.mysillydreams.treasure.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Primary and replica are stand-in DataSources handing out distinguishable
+ * connections; routing is observed through which one a statement reaches.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        lagMonitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        lagMonitor.update(0.2);
+        routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() throws Exception {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When / Then
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() throws Exception {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void laggingReplica_ShouldFallBackToPrimary() throws Exception {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        lagMonitor.update(12.0);
+
+        // When / Then
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        // When replica catches up
+        lagMonitor.update(1.0);
+
+        // Then
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void unprobedReplica_ShouldNotReceiveReads() throws Exception {
+        // Given
+        DataSource replica = mock(DataSource.class);
+        ReplicaLagMonitor fresh = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        DataSource primary = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRoutingDataSource ds = new ReplicaRoutingDataSource(primary, replica, fresh, new SimpleMeterRegistry());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When / Then
+        assertThat(ds.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void pinnedThread_ShouldReadFromPrimaryUntilRestored() throws Exception {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        boolean previous = ReadRouting.pinPrimary();
+
+        try {
+            // When / Then
+            assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        } finally {
+            ReadRouting.restore(previous);
+        }
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void lazyProxy_ShouldDeferRoutingUntilFirstUse() throws Exception {
+        // Given: the connection handle is obtained before the read-only flag is bound,
+        // as JpaTransactionManager does when beginning a transaction
+        DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        Connection handle = lazy.getConnection();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        handle.createStatement();
+
+        // Then
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+}
@@ -0,0 +1,126 @@
+package com.mysillydreams.treasure.domain.repository;
+
+import com.mysillydreams.treasure.domain.model.PaymentStatus;
+import com.mysillydreams.treasure.domain.repository.EnrollmentBulkRepository.ChangedEnrollment;
+import com.mysillydreams.treasure.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class EnrollmentBulkRepositoryImplTest {
+
+    private JdbcTemplate jdbc;
+    private EnrollmentBulkRepositoryImpl repository;
+    private UUID planId;
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(PostgresTestDatabase.available(), "needs Docker or -Dtreasure.test.postgres.url");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(PostgresTestDatabase.dataSource());
+        repository = new EnrollmentBulkRepositoryImpl(jdbc);
+        planId = UUID.randomUUID();
+    }
+
+    @Test
+    void updatePaymentStatuses_ShouldReturnOnlyRowsThatChanged() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given
+            insertPlan();
+            UUID awaiting = insertEnrollment(PaymentStatus.AWAITING);
+            UUID alreadyPaid = insertEnrollment(PaymentStatus.PAID);
+            Map<UUID, PaymentStatus> statuses = new LinkedHashMap<>();
+            statuses.put(awaiting, PaymentStatus.PAID);
+            statuses.put(alreadyPaid, PaymentStatus.PAID);
+            statuses.put(UUID.randomUUID(), PaymentStatus.REFUNDED);
+
+            // When
+            List<ChangedEnrollment> changed = repository.updatePaymentStatuses(statuses);
+
+            // Then
+            assertThat(changed).containsExactly(new ChangedEnrollment(awaiting, planId));
+            assertThat(paymentStatus(awaiting)).isEqualTo("PAID");
+            assertThat(paymentStatus(alreadyPaid)).isEqualTo("PAID");
+        });
+    }
+
+    @Test
+    void updatePaymentStatuses_ShouldSplitLargeBatchesAcrossStatements() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given: more rows than fit in one VALUES list
+            insertPlan();
+            Map<UUID, PaymentStatus> statuses = new LinkedHashMap<>();
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < 2_500; i++) {
+                UUID id = UUID.randomUUID();
+                rows.add(new Object[]{id, planId});
+                statuses.put(id, i % 2 == 0 ? PaymentStatus.PAID : PaymentStatus.NONE);
+            }
+            jdbc.batchUpdate("INSERT INTO enrollment (id, user_id, plan_id, mode) VALUES (?, gen_random_uuid(), ?, 'PAY_TO_ENROLL')", rows);
+
+            // When
+            List<ChangedEnrollment> changed = repository.updatePaymentStatuses(statuses);
+
+            // Then: NONE rows were already NONE
+            assertThat(changed).hasSize(1_250).allMatch(c -> statuses.get(c.enrollmentId()) == PaymentStatus.PAID);
+        });
+    }
+
+    @Test
+    void updatePaymentStatuses_ShouldReportRowsAgainAfterRolledBackAttempt() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given: a batch whose transaction fails after the update, as when cancelling a refund fails
+            insertPlan();
+            UUID enrollmentId = insertEnrollment(PaymentStatus.PAID);
+            Map<UUID, PaymentStatus> statuses = Map.of(enrollmentId, PaymentStatus.REFUNDED);
+            TransactionTemplate attempt = new TransactionTemplate(new DataSourceTransactionManager(PostgresTestDatabase.dataSource()));
+            attempt.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+            assertThatThrownBy(() -> attempt.executeWithoutResult(s -> {
+                assertThat(repository.updatePaymentStatuses(statuses)).hasSize(1);
+                throw new IllegalStateException("cancel failed");
+            })).isInstanceOf(IllegalStateException.class);
+
+            // When
+            List<ChangedEnrollment> redelivered = repository.updatePaymentStatuses(statuses);
+
+            // Then
+            assertThat(redelivered).containsExactly(new ChangedEnrollment(enrollmentId, planId));
+        });
+    }
+
+    private void insertPlan() {
+        UUID categoryId = UUID.randomUUID();
+        UUID subcategoryId = UUID.randomUUID();
+        jdbc.update("INSERT INTO category (id, name, audience) VALUES (?, ?, 'INDIVIDUAL')", categoryId, "c-" + categoryId);
+        jdbc.update("INSERT INTO subcategory (id, name, category_id) VALUES (?, 'Heritage walks', ?)", subcategoryId, categoryId);
+        jdbc.update("INSERT INTO plan (id, title, time_window, subcategory_id) VALUES (?, 'Old Town', 'DAY', ?)", planId, subcategoryId);
+    }
+
+    private UUID insertEnrollment(PaymentStatus status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO enrollment (id, user_id, plan_id, mode, payment_status) VALUES (?, ?, ?, 'PAY_TO_ENROLL', ?::payment_status)",
+                id, UUID.randomUUID(), planId, status.name());
+        return id;
+    }
+
+    private String paymentStatus(UUID enrollmentId) {
+        return jdbc.queryForObject("SELECT payment_status::text FROM enrollment WHERE id = ?", String.class, enrollmentId);
+    }
+}
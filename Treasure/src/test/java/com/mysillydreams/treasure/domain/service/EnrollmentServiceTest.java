@@ -0,0 +1,108 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.mysillydreams.treasure.domain.event.SeatsFreedEvent;
+import com.mysillydreams.treasure.domain.model.*;
+import com.mysillydreams.treasure.domain.repository.EnrollmentBulkRepository.ChangedEnrollment;
+import com.mysillydreams.treasure.domain.repository.EnrollmentRepository;
+import com.mysillydreams.treasure.domain.repository.PlanRepository;
+import com.mysillydreams.treasure.domain.repository.PlanSlotRepository;
+import com.mysillydreams.treasure.messaging.producer.EnrollmentEventProducer;
+import com.mysillydreams.treasure.payment.PaymentLinkRequests;
+import com.mysillydreams.treasure.velocity.EnrollmentVelocityTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentServiceTest {
+
+    @Mock private PlanRepository planRepo;
+    @Mock private PlanSlotRepository slotRepo;
+    @Mock private EnrollmentRepository enrollRepo;
+    @Mock private PricingService pricingService;
+    @Mock private EnrollmentEventProducer eventProducer;
+    @Mock private RegistrationIdService registrationIdService;
+    @Mock private EnrollmentVelocityTracker velocityTracker;
+    @Mock private WaitlistService waitlistService;
+    @Mock private TeamStatisticsService teamStatisticsService;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private PaymentLinkRequests paymentLinks;
+
+    private EnrollmentService enrollmentService;
+    private Plan plan;
+
+    @BeforeEach
+    void setUp() {
+        enrollmentService = new EnrollmentService(planRepo, slotRepo, enrollRepo, pricingService, eventProducer,
+                registrationIdService, velocityTracker, waitlistService, teamStatisticsService, events,
+                paymentLinks, Optional.empty(), Optional.empty());
+        plan = Plan.builder().id(UUID.randomUUID()).maxParticipants(20).build();
+    }
+
+    @Test
+    void applyPaymentStatuses_ShouldCancelRefundsThatChangedInTheBatch() {
+        // Given: one new refund, one payment, and a refund that was already applied
+        Enrollment refunded = confirmed(PaymentStatus.REFUNDED);
+        UUID paid = UUID.randomUUID();
+        UUID alreadyRefunded = UUID.randomUUID();
+        Map<UUID, PaymentStatus> statuses = new LinkedHashMap<>();
+        statuses.put(refunded.getId(), PaymentStatus.REFUNDED);
+        statuses.put(paid, PaymentStatus.PAID);
+        statuses.put(alreadyRefunded, PaymentStatus.REFUNDED);
+        when(enrollRepo.updatePaymentStatuses(statuses)).thenReturn(List.of(
+                new ChangedEnrollment(refunded.getId(), plan.getId()),
+                new ChangedEnrollment(paid, plan.getId())));
+        when(enrollRepo.findAllWithPlanByIdIn(List.of(refunded.getId()))).thenReturn(List.of(refunded));
+
+        // When
+        List<ChangedEnrollment> changed = enrollmentService.applyPaymentStatuses(statuses);
+
+        // Then
+        assertThat(changed).extracting(ChangedEnrollment::enrollmentId).containsExactly(refunded.getId(), paid);
+        assertThat(refunded.getStatus()).isEqualTo(EnrollmentStatus.CANCELLED);
+        verify(slotRepo).release(plan.getId(), 1);
+        verify(events).publishEvent(any(SeatsFreedEvent.class));
+    }
+
+    @Test
+    void applyPaymentStatuses_ShouldFailTheWholeBatchWhenReleasingSeatsFails() {
+        // Given
+        Enrollment refunded = confirmed(PaymentStatus.REFUNDED);
+        Map<UUID, PaymentStatus> statuses = Map.of(refunded.getId(), PaymentStatus.REFUNDED);
+        when(enrollRepo.updatePaymentStatuses(statuses))
+                .thenReturn(List.of(new ChangedEnrollment(refunded.getId(), plan.getId())));
+        when(enrollRepo.findAllWithPlanByIdIn(anyCollection())).thenReturn(List.of(refunded));
+        when(slotRepo.release(plan.getId(), 1)).thenThrow(new QueryTimeoutException("lock timeout"));
+
+        // When / Then: the exception reaches the caller, so the status update rolls back with it
+        assertThatThrownBy(() -> enrollmentService.applyPaymentStatuses(statuses))
+                .isInstanceOf(QueryTimeoutException.class);
+        verify(events, never()).publishEvent(any());
+    }
+
+    private Enrollment confirmed(PaymentStatus paymentStatus) {
+        return Enrollment.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .plan(plan)
+                .status(EnrollmentStatus.CONFIRMED)
+                .paymentStatus(paymentStatus)
+                .enrollmentType(EnrollmentType.INDIVIDUAL)
+                .build();
+    }
+}
@@ -3,6 +3,8 @@ package com.mysillydreams.treasure.domain.service;
 import com.mysillydreams.treasure.domain.model.*;
 import com.mysillydreams.treasure.domain.repository.LeaderboardRepository;
 import com.mysillydreams.treasure.domain.repository.UserStatisticsRepository;
+import com.mysillydreams.treasure.pagination.KeysetCursor;
+import com.mysillydreams.treasure.pagination.KeysetSlice;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +32,9 @@ class LeaderboardServiceTest {
     @Mock
     private UserStatisticsRepository userStatisticsRepository;
 
+    @Mock
+    private TeamStatisticsService teamStatisticsService;
+
     @InjectMocks
     private LeaderboardService leaderboardService;
 
@@ -118,7 +123,7 @@ class LeaderboardServiceTest {
         when(userStatisticsRepository.findTopPerformersByDifficulty(Difficulty.BEGINNER))
                 .thenReturn(topPerformers);
         
-        doNothing().when(leaderboardRepository).deleteByTypeAndPeriod(any(), any(), any());
+        doNothing().when(leaderboardRepository).deleteAllTime(any(), any());
         when(leaderboardRepository.saveAll(anyList())).thenReturn(Arrays.asList());
         when(userStatisticsRepository.saveAll(anyList())).thenReturn(topPerformers);
 
@@ -126,7 +131,7 @@ class LeaderboardServiceTest {
         leaderboardService.regenerateOverallLeaderboard(Difficulty.BEGINNER);
 
         // Then
-        verify(leaderboardRepository).deleteByTypeAndPeriod(LeaderboardType.OVERALL, null, null);
+        verify(leaderboardRepository).deleteAllTime(LeaderboardType.OVERALL, Difficulty.BEGINNER);
         verify(leaderboardRepository).saveAll(argThat(entries -> {
             List<Leaderboard> leaderboardEntries = (List<Leaderboard>) entries;
             return leaderboardEntries.size() == 3 &&
@@ -234,6 +239,35 @@ class LeaderboardServiceTest {
         assertThat(result.get(2).getRankPosition()).isEqualTo(5);
     }
 
+    @Test
+    void getLeaderboardPage_ShouldContinueAfterLastRowIdWhenUserHasTiedRows() {
+        // Given: the same user and score in two periods
+        Leaderboard first = createLeaderboardEntry(userId1, 1, BigDecimal.valueOf(1000));
+        Leaderboard second = createLeaderboardEntry(userId1, 1, BigDecimal.valueOf(1000));
+        Leaderboard third = createLeaderboardEntry(userId2, 2, BigDecimal.valueOf(800));
+        first.setId(UUID.fromString("00000000-0000-0000-0000-000000000003"));
+        second.setId(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+        third.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        when(leaderboardRepository.findPage(LeaderboardType.OVERALL, Difficulty.BEGINNER, 2))
+                .thenReturn(List.of(first, second));
+        when(leaderboardRepository.findPageAfter(LeaderboardType.OVERALL, Difficulty.BEGINNER,
+                new BigDecimal("1000"), first.getId(), 2))
+                .thenReturn(List.of(second, third));
+
+        // When
+        KeysetSlice<Leaderboard> page1 = leaderboardService.getLeaderboardPage(
+                LeaderboardType.OVERALL, Difficulty.BEGINNER, null, 1);
+        KeysetSlice<Leaderboard> page2 = leaderboardService.getLeaderboardPage(
+                LeaderboardType.OVERALL, Difficulty.BEGINNER, page1.nextCursor(), 1);
+
+        // Then
+        assertThat(KeysetCursor.decode(page1.nextCursor())).get()
+                .extracting(KeysetCursor::id).isEqualTo(first.getId());
+        assertThat(page1.content()).containsExactly(first);
+        assertThat(page2.content()).containsExactly(second);
+        assertThat(page2.hasNext()).isTrue();
+    }
+
     @Test
     void getTeamLeaderboard_ShouldReturnTeamEntries() {
         // Given
@@ -242,7 +276,7 @@ class LeaderboardServiceTest {
                 createTeamLeaderboardEntry(userId2, 2, "Team Beta")
         );
 
-        when(leaderboardRepository.findTeamLeaderboard(LeaderboardType.OVERALL, Difficulty.BEGINNER))
+        when(teamStatisticsService.getTopTeams(Difficulty.BEGINNER, 10))
                 .thenReturn(teamEntries);
 
         // When
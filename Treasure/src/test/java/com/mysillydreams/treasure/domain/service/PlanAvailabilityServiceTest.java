@@ -0,0 +1,85 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.domain.model.AvailabilityStatus;
+import com.mysillydreams.treasure.domain.repository.PlanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanAvailabilityServiceTest {
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private ValueOperations<String, String> values;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PlanAvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PlanAvailabilityService(planRepository, redis, objectMapper, 3, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void getAll_ShouldServeCacheHitsAndLoadMissesInOneQuery() throws Exception {
+        // Given
+        UUID cached = UUID.randomUUID();
+        UUID finite = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        String cachedJson = objectMapper.writeValueAsString(
+                new PlanAvailabilityService.Availability(cached, AvailabilityStatus.OPEN, null, 7, BigDecimal.TEN));
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(cachedJson, null, null));
+        when(planRepository.findAvailability(List.of(finite, unknown))).thenReturn(List.of(row(finite, 10, 10)));
+
+        // When
+        List<PlanAvailabilityService.Availability> result = service.getAll(List.of(cached, finite, unknown, cached));
+
+        // Then
+        assertThat(result).extracting(PlanAvailabilityService.Availability::status)
+                .containsExactly(AvailabilityStatus.OPEN, AvailabilityStatus.FULL, AvailabilityStatus.NOT_FOUND);
+        assertThat(result.get(1).seatsAvailable()).isZero();
+        verify(planRepository, times(1)).findAvailability(anyCollection());
+    }
+
+    @Test
+    void getAll_ShouldRejectOversizedBatch() {
+        // When / Then
+        assertThatThrownBy(() -> service.getAll(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(planRepository);
+    }
+
+    private static PlanRepository.AvailabilityRow row(UUID planId, Integer capacity, int reserved) {
+        return new PlanRepository.AvailabilityRow() {
+            public UUID getPlanId() { return planId; }
+            public boolean isEnded() { return false; }
+            public Integer getCapacity() { return capacity; }
+            public Integer getReserved() { return reserved; }
+            public Integer getAvailableView() { return 3; }
+            public BigDecimal getPriceFrom() { return BigDecimal.valueOf(499); }
+        };
+    }
+}
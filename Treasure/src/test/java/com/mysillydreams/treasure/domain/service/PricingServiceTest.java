@@ -0,0 +1,137 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.mysillydreams.treasure.domain.model.PlanPrice;
+import com.mysillydreams.treasure.domain.model.PriceProfileSnapshot;
+import com.mysillydreams.treasure.domain.repository.PlanPriceRepository;
+import com.mysillydreams.treasure.pricing.FxRates;
+import com.mysillydreams.treasure.pricing.PricingPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingServiceTest {
+
+    @Mock
+    private PlanPriceRepository priceRepo;
+
+    @Mock
+    private FxRates fxRates;
+
+    private PricingService pricingService;
+    private UUID planId;
+
+    @BeforeEach
+    void setUp() {
+        pricingService = new PricingService(priceRepo, fxRates);
+        planId = UUID.randomUUID();
+    }
+
+    @Test
+    void previewIn_ShouldKeepOwnPriceInRequestedCurrency() {
+        // Given
+        when(priceRepo.findActiveByPlanAndCurrency(planId, "USD")).thenReturn(List.of(price("USD", "25.00")));
+
+        // When
+        PricingPlan preview = pricingService.previewIn(planId, "usd");
+
+        // Then
+        assertThat(preview.currency()).isEqualTo("USD");
+        assertThat(preview.base()).isEqualByComparingTo("25.00");
+        assertThat(preview.total()).isEqualByComparingTo("29.50");
+        verifyNoInteractions(fxRates);
+        verify(priceRepo, never()).findActiveNativeByPlan(any());
+    }
+
+    @Test
+    void previewIn_ShouldConvertNativePriceAndTotal() {
+        // Given
+        when(priceRepo.findActiveByPlanAndCurrency(planId, "USD")).thenReturn(List.of());
+        when(priceRepo.findActiveNativeByPlan(planId)).thenReturn(List.of(price("INR", "1499.00")));
+        when(fxRates.current()).thenReturn(rates());
+
+        // When
+        PricingPlan preview = pricingService.previewIn(planId, "USD");
+
+        // Then
+        assertThat(preview.currency()).isEqualTo("USD");
+        assertThat(preview.base()).isEqualByComparingTo("18.01");
+        assertThat(preview.components()).extracting(PricingPlan.PricingComponent::value)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("18"), new BigDecimal("0.59"));
+        // 1499.00 + 18% + 49.00 = 1817.82 INR, converted as a whole
+        assertThat(preview.total()).isEqualByComparingTo("21.84");
+    }
+
+    @Test
+    void pricesFrom_ShouldPreferExactPriceAndConvertNativeOtherwise() {
+        // Given
+        UUID dual = UUID.randomUUID(), inrOnly = UUID.randomUUID();
+        when(priceRepo.findMinBaseAmountsByCurrency(anyCollection())).thenReturn(List.of(
+                minPrice(dual, "INR", "INR", "1000.00"),
+                minPrice(dual, "USD", "INR", "15.00"),
+                minPrice(inrOnly, "EUR", "INR", "9.00"),
+                minPrice(inrOnly, "INR", "INR", "832.50")));
+        when(fxRates.current()).thenReturn(rates());
+
+        // When
+        Map<UUID, BigDecimal> prices = pricingService.pricesFrom(List.of(dual, inrOnly), "usd");
+
+        // Then
+        assertThat(prices.get(dual)).isEqualByComparingTo("15.00");
+        assertThat(prices.get(inrOnly)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void pricesFrom_ShouldLeavePlansWithoutRateUnpriced() {
+        // Given
+        UUID priced = UUID.randomUUID(), unpriced = UUID.randomUUID();
+        when(priceRepo.findMinBaseAmountsByCurrency(anyCollection())).thenReturn(List.of(
+                minPrice(priced, "INR", "INR", "832.50"),
+                minPrice(unpriced, "GBP", "GBP", "30.00")));
+        when(fxRates.current()).thenReturn(rates());
+
+        // When
+        Map<UUID, BigDecimal> prices = pricingService.pricesFrom(List.of(priced, unpriced), "USD");
+
+        // Then
+        assertThat(prices).containsOnlyKeys(priced);
+        assertThat(prices.get(priced)).isEqualByComparingTo("10.00");
+    }
+
+    private static FxRates.Snapshot rates() {
+        return FxRates.Snapshot.of(Map.of("USD/INR", new BigDecimal("83.2500000000")), "USD");
+    }
+
+    private static PlanPrice price(String currency, String amount) {
+        List<Map<String, Object>> components = List.of(
+                Map.of("type", "GST", "calc", "PCT", "value", "18", "isEnforced", true),
+                Map.of("type", "FEE", "calc", "FLAT", "value", "INR".equals(currency) ? "49.00" : "0.00"));
+        return PlanPrice.builder()
+                .currency(currency)
+                .baseAmount(new BigDecimal(amount))
+                .priceProfileSnapshot(PriceProfileSnapshot.builder().currency(currency).components(components).build())
+                .build();
+    }
+
+    private static PlanPriceRepository.CurrencyMinPrice minPrice(UUID planId, String currency, String nativeCurrency,
+                                                                 String amount) {
+        return new PlanPriceRepository.CurrencyMinPrice() {
+            public UUID getPlanId() { return planId; }
+            public String getCurrency() { return currency; }
+            public String getNativeCurrency() { return nativeCurrency; }
+            public BigDecimal getMinAmount() { return new BigDecimal(amount); }
+        };
+    }
+}
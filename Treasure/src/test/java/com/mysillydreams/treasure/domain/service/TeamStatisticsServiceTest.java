@@ -0,0 +1,96 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import com.mysillydreams.treasure.domain.model.TeamMember;
+import com.mysillydreams.treasure.domain.model.TeamStatistics;
+import com.mysillydreams.treasure.domain.model.UserStatistics;
+import com.mysillydreams.treasure.domain.repository.TeamMemberRepository;
+import com.mysillydreams.treasure.domain.repository.TeamStatisticsRepository;
+import com.mysillydreams.treasure.domain.repository.UserStatisticsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeamStatisticsServiceTest {
+
+    @Mock
+    private TeamMemberRepository teamMemberRepository;
+
+    @Mock
+    private TeamStatisticsRepository teamStatisticsRepository;
+
+    @Mock
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @InjectMocks
+    private TeamStatisticsService teamStatisticsService;
+
+    @Test
+    void assignMember_ShouldMoveTotalsWhenUserSwitchesTeam() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(teamMemberRepository.insertIfAbsent(userId, "Owls")).thenReturn(0);
+        when(teamMemberRepository.lockByUserId(userId))
+                .thenReturn(Optional.of(TeamMember.builder().userId(userId).teamName("Foxes").build()));
+        when(userStatisticsRepository.findByUserIdOrderByDifficulty(userId)).thenReturn(List.of(
+                UserStatistics.builder().userId(userId).difficulty(Difficulty.BEGINNER)
+                        .totalScore(BigDecimal.valueOf(300)).totalPlansCompleted(2).totalTasksCompleted(9).build()));
+
+        // When
+        teamStatisticsService.assignMember(userId, "Owls");
+
+        // Then
+        verify(teamStatisticsRepository).applyDelta("Foxes", "BEGINNER", BigDecimal.valueOf(-300), -2, -9);
+        verify(teamStatisticsRepository).applyDelta("Owls", "BEGINNER", BigDecimal.valueOf(300), 2, 9);
+    }
+
+    @Test
+    void rebuild_ShouldCorrectDriftedAndOrphanedRows() {
+        // Given
+        TeamStatistics inSync = team("Owls", 500, 4, 20);
+        TeamStatistics drifted = team("Foxes", 90, 1, 3);
+        TeamStatistics orphan = team("Ghosts", 10, 0, 1);
+        when(teamStatisticsRepository.findAll()).thenReturn(List.of(inSync, drifted, orphan));
+        when(teamStatisticsRepository.aggregateFromMembers()).thenReturn(List.of(
+                totals("Owls", 500, 4, 20),
+                totals("Foxes", 100, 1, 3)));
+
+        // When
+        int corrected = teamStatisticsService.rebuild();
+
+        // Then
+        assertThat(corrected).isEqualTo(2);
+        assertThat(drifted.getTotalScore()).isEqualByComparingTo("100");
+        verify(teamStatisticsRepository).lockForRebuild();
+        verify(teamStatisticsRepository).save(drifted);
+        verify(teamStatisticsRepository, never()).save(inSync);
+        verify(teamStatisticsRepository).deleteAll(argThat(rows -> rows.iterator().next() == orphan));
+    }
+
+    private static TeamStatistics team(String name, int score, int plans, int tasks) {
+        return TeamStatistics.builder().teamName(name).difficulty(Difficulty.BEGINNER)
+                .totalScore(BigDecimal.valueOf(score)).plansCompleted(plans).tasksCompleted(tasks).build();
+    }
+
+    private static TeamStatisticsRepository.TeamTotals totals(String name, int score, int plans, int tasks) {
+        return new TeamStatisticsRepository.TeamTotals() {
+            public String getTeamName() { return name; }
+            public String getDifficulty() { return "BEGINNER"; }
+            public BigDecimal getTotalScore() { return BigDecimal.valueOf(score); }
+            public Number getPlansCompleted() { return (long) plans; }
+            public Number getTasksCompleted() { return (long) tasks; }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.mysillydreams.treasure.domain.service;
+
+import com.mysillydreams.treasure.domain.event.SeatsFreedEvent;
+import com.mysillydreams.treasure.domain.model.EnrollmentType;
+import com.mysillydreams.treasure.domain.model.WaitlistEntry;
+import com.mysillydreams.treasure.domain.model.WaitlistStatus;
+import com.mysillydreams.treasure.domain.repository.PlanSlotRepository;
+import com.mysillydreams.treasure.domain.repository.WaitlistRepository;
+import com.mysillydreams.treasure.integrations.port.NotificationPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepo;
+
+    @Mock
+    private PlanSlotRepository slotRepo;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private WaitlistService waitlistService;
+    private final UUID planId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        waitlistService = new WaitlistService(waitlistRepo, slotRepo, events, Optional.empty(), Duration.ofMinutes(15));
+    }
+
+    @Test
+    void promote_ShouldOfferSeatsInQueueOrderUntilHeadDoesNotFit() {
+        // Given: two single waiters, then a team of four; only two seats free
+        WaitlistEntry first = waiting(1);
+        WaitlistEntry second = waiting(1);
+        WaitlistEntry team = waiting(4);
+        when(waitlistRepo.lockHead(planId)).thenReturn(Optional.of(first), Optional.of(second), Optional.of(team));
+        when(slotRepo.tryReserve(planId, 1)).thenReturn(1);
+        when(slotRepo.tryReserve(planId, 4)).thenReturn(0);
+
+        // When
+        int promoted = waitlistService.promote(planId);
+
+        // Then
+        assertThat(promoted).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(WaitlistStatus.OFFERED);
+        assertThat(first.getHoldExpiresAt()).isAfter(OffsetDateTime.now().plusMinutes(14));
+        assertThat(second.getStatus()).isEqualTo(WaitlistStatus.OFFERED);
+        assertThat(team.getStatus()).isEqualTo(WaitlistStatus.WAITING);
+        verify(waitlistRepo, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void promote_ShouldEnqueueOfferNotificationInsideTheTransaction() {
+        // Given: a transaction is active, as in onSeatsFreed
+        NotificationPort notifications = mock(NotificationPort.class);
+        waitlistService = new WaitlistService(waitlistRepo, slotRepo, events, Optional.of(notifications), Duration.ofMinutes(15));
+        WaitlistEntry head = waiting(1);
+        when(waitlistRepo.lockHead(planId)).thenReturn(Optional.of(head), Optional.empty());
+        when(slotRepo.tryReserve(planId, 1)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            waitlistService.promote(planId);
+
+            // Then: written before commit, nothing deferred to afterCommit
+            verify(notifications).send(eq(head.getUserId().toString()), eq("EMAIL"), eq("waitlist_offer"),
+                    eq(planId.toString()), argThat(data -> data.get("planId").equals(planId.toString())));
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void expireHolds_ShouldReleaseSeatsPerPlanAndPassThemOn() {
+        // Given
+        WaitlistEntry a = offered(1);
+        WaitlistEntry b = offered(3);
+        when(waitlistRepo.lockExpiredHolds(any(), anyInt())).thenReturn(List.of(a, b));
+
+        // When
+        waitlistService.expireHolds();
+
+        // Then
+        assertThat(a.getStatus()).isEqualTo(WaitlistStatus.EXPIRED);
+        assertThat(b.getStatus()).isEqualTo(WaitlistStatus.EXPIRED);
+        verify(slotRepo).release(planId, 4);
+        verify(events).publishEvent(new SeatsFreedEvent(planId, "waitlist-hold-expired"));
+    }
+
+    @Test
+    void lockValidOffer_ShouldIgnoreLapsedHold() {
+        // Given
+        WaitlistEntry lapsed = offered(1);
+        when(waitlistRepo.lockOffer(planId, lapsed.getUserId())).thenReturn(Optional.of(lapsed));
+
+        // When / Then
+        assertThat(waitlistService.lockValidOffer(planId, lapsed.getUserId())).isEmpty();
+    }
+
+    private WaitlistEntry waiting(int seats) {
+        return WaitlistEntry.builder()
+                .id(UUID.randomUUID())
+                .planId(planId)
+                .userId(UUID.randomUUID())
+                .enrollmentType(seats > 1 ? EnrollmentType.TEAM : EnrollmentType.INDIVIDUAL)
+                .teamSize(seats > 1 ? seats : null)
+                .seats(seats)
+                .build();
+    }
+
+    private WaitlistEntry offered(int seats) {
+        WaitlistEntry w = waiting(seats);
+        w.setStatus(WaitlistStatus.OFFERED);
+        w.setOfferedAt(OffsetDateTime.now().minusMinutes(20));
+        w.setHoldExpiresAt(OffsetDateTime.now().minusMinutes(5));
+        return w;
+    }
+}
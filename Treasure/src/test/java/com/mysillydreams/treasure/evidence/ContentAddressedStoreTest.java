@@ -0,0 +1,98 @@
+package com.mysillydreams.treasure.evidence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentAddressedStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private ContentAddressedStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ContentAddressedStore(dir);
+    }
+
+    @Test
+    void put_ShouldStoreUnderContentHash() throws Exception {
+        // Given
+        byte[] jpeg = jpeg(3 << 20);
+
+        // When
+        var stored = store.put(channel(jpeg), 10 << 20);
+
+        // Then
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(jpeg));
+        assertThat(stored.key()).isEqualTo(sha256 + ".jpg");
+        assertThat(stored.contentType()).isEqualTo("image/jpeg");
+        assertThat(stored.sizeBytes()).isEqualTo(jpeg.length);
+        assertThat(Files.readAllBytes(store.find(stored.key()).orElseThrow())).isEqualTo(jpeg);
+    }
+
+    @Test
+    void put_ShouldDeduplicateIdenticalContent() throws Exception {
+        // Given
+        byte[] jpeg = jpeg(4096);
+        var first = store.put(channel(jpeg), 10 << 20);
+
+        // When
+        var second = store.put(channel(jpeg), 10 << 20);
+
+        // Then
+        assertThat(second.key()).isEqualTo(first.key());
+        try (var files = Files.list(store.tmpDir())) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void put_ShouldStopReadingOnceLimitIsExceeded() throws Exception {
+        // Given
+        byte[] jpeg = jpeg(2 << 20);
+
+        // When / Then
+        assertThatThrownBy(() -> store.put(channel(jpeg), 1 << 20))
+                .isInstanceOf(EvidenceTooLargeException.class);
+        try (var files = Files.list(store.tmpDir())) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void put_ShouldRejectNonImageContent() {
+        // Given
+        byte[] text = "definitely not a photo".getBytes();
+
+        // When / Then
+        assertThatThrownBy(() -> store.put(channel(text), 1 << 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] jpeg(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xD8;
+        bytes[2] = (byte) 0xFF;
+        return bytes;
+    }
+
+    private static ReadableByteChannel channel(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,96 @@
+package com.mysillydreams.treasure.geo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PlanCheckpointIndexTest {
+
+    private UUID planId;
+    private UUID taskId;
+    private CheckpointSnapshot cubbonPark;
+    private CheckpointSnapshot mgRoad;
+    private PlanCheckpointIndex index;
+
+    @BeforeEach
+    void setUp() {
+        planId = UUID.randomUUID();
+        taskId = UUID.randomUUID();
+        cubbonPark = new CheckpointSnapshot(UUID.randomUUID(), planId, taskId, "Cubbon Park", 1,
+                12.9763, 77.5929, 50, false, false, true);
+        mgRoad = new CheckpointSnapshot(UUID.randomUUID(), planId, null, "MG Road", 2,
+                12.9756, 77.6002, 100, false, false, true);
+        index = PlanCheckpointIndex.of(planId, List.of(cubbonPark, mgRoad));
+    }
+
+    @Test
+    void check_ShouldAcceptPositionInsideRadius() {
+        // When (~33m north of the checkpoint)
+        PlanCheckpointIndex.Check check = index.check(cubbonPark.id(), 12.9766, 77.5929).orElseThrow();
+
+        // Then
+        assertThat(check.withinRadius()).isTrue();
+        assertThat(check.distanceMeters()).isCloseTo(33.4, within(1.0));
+    }
+
+    @Test
+    void check_ShouldRejectPositionOutsideRadius() {
+        // When (~111m north of the checkpoint)
+        PlanCheckpointIndex.Check check = index.check(cubbonPark.id(), 12.9773, 77.5929).orElseThrow();
+
+        // Then
+        assertThat(check.withinRadius()).isFalse();
+        assertThat(check.distanceMeters()).isGreaterThan(50);
+    }
+
+    @Test
+    void check_ShouldMatchHaversineDistance() {
+        // Given
+        double lat = 12.9801, lon = 77.5990;
+
+        // When
+        PlanCheckpointIndex.Check check = index.check(cubbonPark.id(), lat, lon).orElseThrow();
+
+        // Then
+        assertThat(check.distanceMeters())
+                .isCloseTo(GeoMath.haversineMeters(cubbonPark.latitude(), cubbonPark.longitude(), lat, lon), within(0.01));
+    }
+
+    @Test
+    void checkTask_ShouldUseCheckpointsLinkedToTask() {
+        // When
+        var atCheckpoint = index.checkTask(taskId, 12.9763, 77.5929);
+        var unknownTask = index.checkTask(UUID.randomUUID(), 12.9763, 77.5929);
+
+        // Then
+        assertThat(atCheckpoint).isPresent();
+        assertThat(atCheckpoint.get().withinRadius()).isTrue();
+        assertThat(atCheckpoint.get().checkpoint()).isEqualTo(cubbonPark);
+        assertThat(unknownTask).isEmpty();
+    }
+
+    @Test
+    void nearestWithinRadius_ShouldFindCheckpointAcrossGridCells() {
+        // When (checkpoint sits close to a cell boundary; position is just over it)
+        var match = index.nearestWithinRadius(12.9756, 77.5995);
+
+        // Then
+        assertThat(match).isPresent();
+        assertThat(match.get().checkpoint()).isEqualTo(mgRoad);
+    }
+
+    @Test
+    void nearestWithinRadius_ShouldReturnEmptyWhenFarFromAll() {
+        // When
+        var match = index.nearestWithinRadius(13.0500, 77.7000);
+
+        // Then
+        assertThat(match).isEmpty();
+        assertThat(PlanCheckpointIndex.empty(planId).nearestWithinRadius(12.9763, 77.5929)).isEmpty();
+    }
+}
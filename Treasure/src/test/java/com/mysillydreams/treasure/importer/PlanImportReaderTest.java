@@ -0,0 +1,95 @@
+package com.mysillydreams.treasure.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import com.mysillydreams.treasure.domain.model.TimeWindowType;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlanImportReaderTest {
+
+    private final PlanImportReader reader = new PlanImportReader(new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final UUID subcategoryId = UUID.randomUUID();
+
+    @Test
+    void read_ShouldParseQuotedCsvAndListColumns() throws Exception {
+        // Given
+        String csv = """
+                subcategoryId,title,timeWindowType,startAt,endAt,maxParticipants,currency,baseAmount,difficulties,rules,tasks
+                %s,"Old Town, by night",night,2025-07-01T18:00:00Z,2025-07-01T22:00:00Z,40,INR,499.00,BEGINNER:1|ADVANCED:2:true,"No cars|Stay in \"\"zones\"\"",Find the bell
+                """.formatted(subcategoryId);
+
+        // When
+        List<ImportRow> rows = reader.read(new BufferedReader(new StringReader(csv)), PlanImportReader.Format.CSV, 10);
+
+        // Then
+        assertThat(rows).hasSize(1);
+        ImportRow row = rows.get(0);
+        assertThat(row.error()).isNull();
+        assertThat(row.line()).isEqualTo(2);
+        assertThat(row.plan().title()).isEqualTo("Old Town, by night");
+        assertThat(row.plan().timeWindowType()).isEqualTo(TimeWindowType.NIGHT);
+        assertThat(row.plan().basePrice().amount()).isEqualByComparingTo(new BigDecimal("499"));
+        assertThat(row.plan().difficulties()).extracting(d -> d.difficulty()).containsExactly(Difficulty.BEGINNER, Difficulty.ADVANCED);
+        assertThat(row.plan().difficulties().get(1).isCrucial()).isTrue();
+        assertThat(row.plan().rules()).containsExactly("No cars", "Stay in \"zones\"");
+        assertThat(PlanImportService.problems(row.plan(), Set.of(subcategoryId))).isEmpty();
+    }
+
+    @Test
+    void read_ShouldKeepBadJsonLinesAsRowErrors() throws Exception {
+        // Given
+        String jsonl = """
+                {"subcategoryId":"%s","title":"Harbour hunt","timeWindowType":"DAY","basePrice":{"currency":"INR","amount":250}}
+                {"title": oops}
+                """.formatted(subcategoryId);
+
+        // When
+        List<ImportRow> rows = reader.read(new BufferedReader(new StringReader(jsonl)), PlanImportReader.Format.JSONL, 10);
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).plan().title()).isEqualTo("Harbour hunt");
+        assertThat(rows.get(1).plan()).isNull();
+        assertThat(rows.get(1).error()).startsWith("Invalid JSON");
+    }
+
+    @Test
+    void problems_ShouldListEveryViolationOfARow() throws Exception {
+        // Given
+        String csv = """
+                subcategoryId,title,timeWindowType,startAt,endAt,baseAmount
+                %s,,DAY,2025-07-01T18:00:00Z,2025-07-01T10:00:00Z,-5
+                """.formatted(UUID.randomUUID());
+        ImportRow row = reader.read(new BufferedReader(new StringReader(csv)), PlanImportReader.Format.CSV, 10).get(0);
+
+        // When
+        List<String> problems = PlanImportService.problems(row.plan(), Set.of(subcategoryId));
+
+        // Then
+        assertThat(problems).hasSize(5)
+                .anyMatch(p -> p.startsWith("Unknown subcategory"))
+                .contains("title is required", "endAt must be after startAt", "currency is required", "baseAmount must be zero or more");
+    }
+
+    @Test
+    void read_ShouldRejectOversizedImport() {
+        // Given
+        String jsonl = "{\"title\":\"a\"}\n{\"title\":\"b\"}\n{\"title\":\"c\"}\n";
+
+        // When / Then
+        assertThatThrownBy(() -> reader.read(new BufferedReader(new StringReader(jsonl)), PlanImportReader.Format.JSONL, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("limited to 2");
+    }
+}
@@ -0,0 +1,149 @@
+package com.mysillydreams.treasure.messaging.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.grpc.common.v1.EnrollmentType;
+import com.mysillydreams.treasure.grpc.common.v1.PaymentStatus;
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import com.mysillydreams.treasure.grpc.events.v1.TaskCompleted;
+import com.mysillydreams.treasure.messaging.TopicNames;
+import com.mysillydreams.treasure.config.KafkaConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTest {
+
+    private UUID enrollmentId;
+    private UUID userId;
+    private UUID planId;
+    private UUID taskId;
+    private EventEnvelope taskCompleted;
+
+    @BeforeEach
+    void setUp() {
+        enrollmentId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        planId = UUID.randomUUID();
+        taskId = UUID.randomUUID();
+        taskCompleted = EventEnvelope.newBuilder()
+                .setEvent("treasure.task.completed")
+                .setVersion(2)
+                .setTsEpochMillis(Instant.parse("2025-03-01T10:15:30.123Z").toEpochMilli())
+                .setTaskCompleted(TaskCompleted.newBuilder()
+                        .setEnrollmentId(EventCodec.uuid(enrollmentId))
+                        .setUserId(EventCodec.uuid(userId))
+                        .setPlanId(EventCodec.uuid(planId))
+                        .setTaskId(EventCodec.uuid(taskId))
+                        .setEnrollmentType(EnrollmentType.TEAM)
+                        .setCity("Bengaluru"))
+                .build();
+    }
+
+    @Test
+    void decode_ShouldRoundTripBinaryEnvelope() {
+        // When
+        byte[] bytes = EventCodec.encodeBinary(taskCompleted);
+        EventEnvelope decoded = EventCodec.decode(TopicNames.TASK_COMPLETED, bytes);
+
+        // Then
+        assertThat(bytes[0]).isEqualTo(EventCodec.MAGIC);
+        assertThat(decoded).isEqualTo(taskCompleted);
+        assertThat(EventCodec.uuid(decoded.getTaskCompleted().getTaskId())).isEqualTo(taskId);
+    }
+
+    @Test
+    void decode_ShouldReadLegacyJsonIntoSameEnvelope() {
+        // When
+        byte[] json = EventCodec.encodeJson(taskCompleted);
+        EventEnvelope decoded = EventCodec.decode(TopicNames.TASK_COMPLETED, json);
+
+        // Then
+        assertThat(json[0]).isEqualTo((byte) '{');
+        assertThat(decoded).isEqualTo(taskCompleted);
+    }
+
+    @Test
+    void decode_ShouldMapPaymentsJsonWithoutEventName() {
+        // Given
+        String json = "{\"enrollmentId\":\"" + enrollmentId + "\",\"status\":\"PAID\"}";
+
+        // When
+        EventEnvelope decoded = EventCodec.decode(TopicNames.PAYMENT_STATUS_UPDATED, json.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(decoded.hasPaymentStatusUpdated()).isTrue();
+        assertThat(decoded.getPaymentStatusUpdated().getStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(EventCodec.uuid(decoded.getPaymentStatusUpdated().getEnrollmentId())).isEqualTo(enrollmentId);
+    }
+
+    @Test
+    void encodeJson_ShouldKeepLegacyMapShape() throws Exception {
+        // When
+        Map<String, Object> map = new ObjectMapper().readValue(EventCodec.encodeJson(taskCompleted),
+                new TypeReference<Map<String, Object>>() {});
+
+        // Then
+        assertThat(map).containsEntry("event", "treasure.task.completed")
+                .containsEntry("v", 2)
+                .containsEntry("enrollmentId", enrollmentId.toString())
+                .containsEntry("taskId", taskId.toString())
+                .containsEntry("ts", "2025-03-01T10:15:30.123Z");
+    }
+
+    @Test
+    void encodeBinary_ShouldBeSmallerThanJson() {
+        // When
+        int binary = EventCodec.encodeBinary(taskCompleted).length;
+        int json = EventCodec.encodeJson(taskCompleted).length;
+
+        // Then
+        assertThat(binary).isLessThan(json / 2);
+    }
+
+    @Test
+    void deserialize_ShouldThrowOnUndecodableRecord() {
+        // Given
+        byte[] garbage = {EventCodec.MAGIC, 0x7f, 0x7f, 0x7f};
+
+        // When / Then
+        assertThatThrownBy(() -> new TreasureEventDeserializer().deserialize(TopicNames.TASK_COMPLETED, garbage))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining(TopicNames.TASK_COMPLETED);
+    }
+
+    @Test
+    void serialize_ShouldRepublishStringRecordToDeadLetterTopicUnchanged() {
+        // Given: a user-events record the listener failed on
+        String value = "{\"eventType\":\"USER_CREATED\",\"userId\":\"" + userId + "\",\"name\":\"Zoë\"}";
+        MockProducer<String, Object> producer = new MockProducer<>(true, new StringSerializer(), new TreasureEventSerializer());
+        var recoverer = new DeadLetterPublishingRecoverer(new KafkaTemplate<>(() -> producer),
+                (record, ex) -> new TopicPartition(record.topic() + KafkaConsumerConfig.DLT_SUFFIX, -1));
+
+        // When
+        recoverer.accept(new ConsumerRecord<>("user-events", 0, 42L, userId.toString(), value),
+                new IllegalStateException("listener failed"));
+
+        // Then: the DLT holds the original bytes, so it can be replayed onto user-events
+        assertThat(producer.history()).singleElement().satisfies(published -> {
+            assertThat(published.topic()).isEqualTo("user-events.DLT");
+            byte[] bytes = new TreasureEventSerializer().serialize(published.topic(), published.value());
+            assertThat(new StringDeserializer().deserialize("user-events", bytes)).isEqualTo(value);
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.mysillydreams.treasure.messaging.consumer;
+
+import com.mysillydreams.treasure.achievement.AchievementEngine;
+import com.mysillydreams.treasure.achievement.TaskCompletedEvent;
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import com.mysillydreams.treasure.grpc.events.v1.TaskCompleted;
+import com.mysillydreams.treasure.messaging.TopicNames;
+import com.mysillydreams.treasure.messaging.codec.EventCodec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AchievementEventConsumerTest {
+
+    @Mock
+    private AchievementEngine engine;
+
+    private AchievementEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new AchievementEventConsumer(engine);
+    }
+
+    @Test
+    void onTaskCompleted_ShouldProcessRecordsBeforeUndecodableOneThenReportIt() {
+        // Given
+        UUID taskBefore = UUID.randomUUID();
+        ConsumerRecord<String, EventEnvelope> bad = new ConsumerRecord<>(TopicNames.TASK_COMPLETED, 0, 1, "bad", null);
+        bad.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[]{1});
+        List<ConsumerRecord<String, EventEnvelope>> batch = List.of(record(0, taskBefore), bad, record(2, UUID.randomUUID()));
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.onTaskCompleted(batch))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, ex -> assertThat(ex.getIndex()).isEqualTo(1));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskCompletedEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(engine).process(events.capture());
+        assertThat(events.getValue()).extracting(TaskCompletedEvent::taskId).containsExactly(taskBefore);
+    }
+
+    @Test
+    void onTaskCompleted_ShouldSkipEventsWithoutPlanContext() {
+        // Given: a v1 event carries only the task id
+        ConsumerRecord<String, EventEnvelope> legacy = new ConsumerRecord<>(TopicNames.TASK_COMPLETED, 0, 0, "v1",
+                EventEnvelope.newBuilder().setVersion(1)
+                        .setTaskCompleted(TaskCompleted.newBuilder().setTaskId(EventCodec.uuid(UUID.randomUUID())))
+                        .build());
+
+        // When
+        consumer.onTaskCompleted(List.of(legacy));
+
+        // Then
+        verify(engine).process(List.of());
+    }
+
+    @Test
+    void onTaskCompleted_ShouldPropagateEngineFailureSoTheBatchIsRetried() {
+        // Given
+        doThrow(new DataAccessResourceFailureException("redis down")).when(engine).process(anyList());
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.onTaskCompleted(List.of(record(0, UUID.randomUUID()))))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+    }
+
+    private static ConsumerRecord<String, EventEnvelope> record(long offset, UUID taskId) {
+        EventEnvelope envelope = EventEnvelope.newBuilder()
+                .setVersion(2)
+                .setTsEpochMillis(1_740_000_000_000L)
+                .setTaskCompleted(TaskCompleted.newBuilder()
+                        .setEnrollmentId(EventCodec.uuid(UUID.randomUUID()))
+                        .setUserId(EventCodec.uuid(UUID.randomUUID()))
+                        .setPlanId(EventCodec.uuid(UUID.randomUUID()))
+                        .setTaskId(EventCodec.uuid(taskId))
+                        .setCity("Pune"))
+                .build();
+        return new ConsumerRecord<>(TopicNames.TASK_COMPLETED, 0, offset, taskId.toString(), envelope);
+    }
+}
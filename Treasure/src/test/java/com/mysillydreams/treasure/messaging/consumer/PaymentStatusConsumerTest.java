@@ -0,0 +1,135 @@
+package com.mysillydreams.treasure.messaging.consumer;
+
+import com.mysillydreams.treasure.cache.CacheNames;
+import com.mysillydreams.treasure.domain.model.PaymentStatus;
+import com.mysillydreams.treasure.domain.repository.EnrollmentBulkRepository.ChangedEnrollment;
+import com.mysillydreams.treasure.domain.service.EnrollmentService;
+import com.mysillydreams.treasure.grpc.events.v1.EventEnvelope;
+import com.mysillydreams.treasure.grpc.events.v1.PaymentStatusUpdated;
+import com.mysillydreams.treasure.messaging.ConsumerMetrics;
+import com.mysillydreams.treasure.messaging.TopicNames;
+import com.mysillydreams.treasure.messaging.codec.EventCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusConsumerTest {
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private PaymentStatusConsumer consumer;
+    private final UUID planId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheNames.PLAN_DETAIL, CacheNames.PLAN_SEARCH);
+        consumer = new PaymentStatusConsumer(enrollmentService, cacheManager, new ConsumerMetrics(new SimpleMeterRegistry()));
+        cacheManager.getCache(CacheNames.PLAN_DETAIL).put(planId, "cached plan");
+    }
+
+    @Test
+    void onPaymentStatuses_ShouldReapplyRedeliveredBatchAfterFailure() {
+        // Given: the first attempt fails inside the status/cancellation transaction
+        UUID enrollmentId = UUID.randomUUID();
+        List<ConsumerRecord<String, EventEnvelope>> batch = List.of(record(0, enrollmentId,
+                com.mysillydreams.treasure.grpc.common.v1.PaymentStatus.REFUNDED));
+        Map<UUID, PaymentStatus> statuses = Map.of(enrollmentId, PaymentStatus.REFUNDED);
+        when(enrollmentService.applyPaymentStatuses(statuses))
+                .thenThrow(new QueryTimeoutException("lock timeout"))
+                .thenReturn(List.of(new ChangedEnrollment(enrollmentId, planId)));
+
+        // When
+        assertThatThrownBy(() -> consumer.onPaymentStatuses(batch)).isInstanceOf(QueryTimeoutException.class);
+        boolean cachedAfterFailure = cacheManager.getCache(CacheNames.PLAN_DETAIL).get(planId) != null;
+        consumer.onPaymentStatuses(batch);
+
+        // Then: the redelivery applies the same statuses again and only then evicts
+        verify(enrollmentService, times(2)).applyPaymentStatuses(statuses);
+        assertThat(cachedAfterFailure).isTrue();
+        assertThat(cacheManager.getCache(CacheNames.PLAN_DETAIL).get(planId)).isNull();
+    }
+
+    @Test
+    void onPaymentStatuses_ShouldKeepLastStatusPerEnrollmentAndSkipIncompleteEvents() {
+        // Given
+        UUID enrollmentId = UUID.randomUUID();
+        List<ConsumerRecord<String, EventEnvelope>> batch = List.of(
+                record(0, enrollmentId, com.mysillydreams.treasure.grpc.common.v1.PaymentStatus.PAID),
+                new ConsumerRecord<>(TopicNames.PAYMENT_STATUS_UPDATED, 0, 1, "tombstone", null),
+                new ConsumerRecord<>(TopicNames.PAYMENT_STATUS_UPDATED, 0, 2, "no-id", EventEnvelope.newBuilder()
+                        .setPaymentStatusUpdated(PaymentStatusUpdated.getDefaultInstance()).build()),
+                record(3, enrollmentId, com.mysillydreams.treasure.grpc.common.v1.PaymentStatus.REFUNDED));
+        when(enrollmentService.applyPaymentStatuses(anyMap())).thenReturn(List.of());
+
+        // When
+        consumer.onPaymentStatuses(batch);
+
+        // Then
+        verify(enrollmentService).applyPaymentStatuses(Map.of(enrollmentId, PaymentStatus.REFUNDED));
+        assertThat(cacheManager.getCache(CacheNames.PLAN_DETAIL).get(planId)).isNotNull();
+    }
+
+    @Test
+    void onPaymentStatuses_ShouldApplyRecordsBeforeUndecodableOneThenReportIt() {
+        // Given
+        UUID before = UUID.randomUUID();
+        UUID after = UUID.randomUUID();
+        List<ConsumerRecord<String, EventEnvelope>> batch = List.of(
+                record(10, before, com.mysillydreams.treasure.grpc.common.v1.PaymentStatus.PAID),
+                undecodable(11),
+                record(12, after, com.mysillydreams.treasure.grpc.common.v1.PaymentStatus.PAID));
+        when(enrollmentService.applyPaymentStatuses(Map.of(before, PaymentStatus.PAID)))
+                .thenReturn(List.of(new ChangedEnrollment(before, planId)));
+
+        // When / Then: records after the failed one are left for redelivery
+        assertThatThrownBy(() -> consumer.onPaymentStatuses(batch))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, ex -> assertThat(ex.getIndex()).isEqualTo(1));
+        verify(enrollmentService).applyPaymentStatuses(Map.of(before, PaymentStatus.PAID));
+        verifyNoMoreInteractions(enrollmentService);
+        assertThat(cacheManager.getCache(CacheNames.PLAN_DETAIL).get(planId)).isNull();
+    }
+
+    @Test
+    void onPaymentStatuses_ShouldNotTouchDatabaseWhenFirstRecordIsUndecodable() {
+        // When / Then
+        assertThatThrownBy(() -> consumer.onPaymentStatuses(List.of(undecodable(0))))
+                .isInstanceOf(BatchListenerFailedException.class);
+        verifyNoInteractions(enrollmentService);
+    }
+
+    static ConsumerRecord<String, EventEnvelope> undecodable(long offset) {
+        ConsumerRecord<String, EventEnvelope> r = new ConsumerRecord<>(TopicNames.PAYMENT_STATUS_UPDATED, 0, offset, "bad", null);
+        r.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[]{1});
+        return r;
+    }
+
+    static ConsumerRecord<String, EventEnvelope> record(long offset, UUID enrollmentId,
+                                                        com.mysillydreams.treasure.grpc.common.v1.PaymentStatus status) {
+        EventEnvelope envelope = EventEnvelope.newBuilder()
+                .setPaymentStatusUpdated(PaymentStatusUpdated.newBuilder()
+                        .setEnrollmentId(EventCodec.uuid(enrollmentId))
+                        .setStatus(status))
+                .build();
+        return new ConsumerRecord<>(TopicNames.PAYMENT_STATUS_UPDATED, 0, offset, enrollmentId.toString(), envelope);
+    }
+}
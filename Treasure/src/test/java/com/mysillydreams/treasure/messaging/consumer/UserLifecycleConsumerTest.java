@@ -0,0 +1,83 @@
+package com.mysillydreams.treasure.messaging.consumer;
+
+import com.mysillydreams.treasure.domain.model.UserStatistics;
+import com.mysillydreams.treasure.domain.repository.UserStatisticsRepository;
+import com.mysillydreams.treasure.domain.service.LeaderboardService;
+import com.mysillydreams.treasure.messaging.ConsumerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLifecycleConsumerTest {
+
+    @Mock
+    private UserStatisticsRepository userStatsRepo;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    private UserLifecycleConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new UserLifecycleConsumer(userStatsRepo, leaderboardService, new ConsumerMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void handleUserEvents_ShouldInitialiseNewUsersOnceAndSkipBadRecords() {
+        // Given: a duplicate, an unparseable record and a user that already has statistics
+        UUID fresh = UUID.randomUUID();
+        UUID existing = UUID.randomUUID();
+        List<ConsumerRecord<String, String>> batch = List.of(
+                record(0, created(fresh)),
+                record(1, "{not json"),
+                record(2, created(fresh)),
+                record(3, created(existing)));
+        when(userStatsRepo.findExistingUserIds(Set.of(fresh, existing))).thenReturn(Set.of(existing));
+
+        // When
+        consumer.handleUserEvents(batch);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserStatistics>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userStatsRepo).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(UserStatistics::getUserId).containsExactly(fresh);
+    }
+
+    @Test
+    void handleUserEvents_ShouldPropagateDatabaseFailureSoTheBatchIsRetried() {
+        // Given
+        when(userStatsRepo.findExistingUserIds(anySet())).thenThrow(new QueryTimeoutException("timeout"));
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.handleUserEvents(List.of(record(0, created(UUID.randomUUID())))))
+                .isInstanceOf(QueryTimeoutException.class);
+        verify(userStatsRepo, never()).saveAll(anyCollection());
+    }
+
+    private static String created(UUID userId) {
+        return "{\"eventType\":\"USER_CREATED\",\"userReferenceId\":\"" + userId + "\"}";
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>("user-events", 0, offset, null, value);
+    }
+}
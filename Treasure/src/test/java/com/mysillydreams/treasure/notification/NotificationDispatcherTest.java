@@ -0,0 +1,98 @@
+package com.mysillydreams.treasure.notification;
+
+import com.mysillydreams.notifications.v1.SendResult;
+import com.mysillydreams.treasure.api.grpc.client.NotificationGrpcClient;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationOutbox outbox;
+
+    @Mock
+    private NotificationGrpcClient client;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher(outbox, client, Map.of("EMAIL", 3), 100, 5,
+                Duration.ofSeconds(5), Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void dispatch_ShouldRecordPerItemOutcomes() {
+        // Given
+        var ok = message();
+        var bounced = message();
+        when(outbox.claim("EMAIL", 3, Duration.ofMinutes(1))).thenReturn(List.of(ok, bounced));
+        when(client.sendBatch(anyList())).thenReturn(List.of(
+                SendResult.newBuilder().setMessageId("m-1").build(),
+                SendResult.newBuilder().setError("mailbox full").setRetryable(true).build()));
+
+        // When
+        int delivered = dispatcher.dispatch();
+
+        // Then
+        assertThat(delivered).isEqualTo(1);
+        verify(outbox).markSent(Map.of(ok.id(), "m-1"));
+        verify(outbox).markFailed(eq(List.of(new NotificationOutbox.Failure(bounced.id(), "mailbox full", true))),
+                eq(5), any(), any());
+    }
+
+    @Test
+    void dispatch_ShouldBackOffWholeBatchWhenCallFails() {
+        // Given
+        var first = message();
+        var second = message();
+        when(outbox.claim(eq("EMAIL"), anyInt(), any())).thenReturn(List.of(first, second));
+        when(client.sendBatch(anyList())).thenThrow(Status.UNAVAILABLE.asRuntimeException());
+
+        // When
+        int delivered = dispatcher.dispatch();
+
+        // Then
+        assertThat(delivered).isZero();
+        verify(outbox).markFailed(argThat(failures -> failures.size() == 2 && failures.stream()
+                .allMatch(NotificationOutbox.Failure::retryable)), eq(5), any(), any());
+        verify(outbox, never()).markSent(any());
+    }
+
+    @Test
+    void dispatch_ShouldNotClaimBeyondChannelRate() {
+        // Given
+        when(outbox.claim("EMAIL", 3, Duration.ofMinutes(1))).thenReturn(List.of(message(), message(), message()));
+        when(client.sendBatch(anyList())).thenReturn(List.of(
+                SendResult.newBuilder().setMessageId("a").build(),
+                SendResult.newBuilder().setMessageId("b").build(),
+                SendResult.newBuilder().setMessageId("c").build()));
+        dispatcher.dispatch();
+
+        // When
+        int delivered = dispatcher.dispatch();
+
+        // Then
+        assertThat(delivered).isZero();
+        verify(outbox, times(1)).claim(anyString(), anyInt(), any());
+    }
+
+    private static NotificationOutbox.OutboxMessage message() {
+        return new NotificationOutbox.OutboxMessage(UUID.randomUUID(), UUID.randomUUID().toString(), "EMAIL",
+                "enrollment_confirmation", Map.of("planTitle", "Fort Hunt"), 0);
+    }
+}
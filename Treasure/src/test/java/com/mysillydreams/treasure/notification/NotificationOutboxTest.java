@@ -0,0 +1,152 @@
+package com.mysillydreams.treasure.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysillydreams.treasure.notification.NotificationOutbox.OutboxMessage;
+import com.mysillydreams.treasure.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class NotificationOutboxTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    private JdbcTemplate jdbc;
+    private NotificationOutbox outbox;
+    private String userId;
+    private String channel;
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(PostgresTestDatabase.available(), "needs Docker or -Dtreasure.test.postgres.url");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(PostgresTestDatabase.dataSource());
+        outbox = new NotificationOutbox(jdbc, new ObjectMapper());
+        userId = UUID.randomUUID().toString();
+        // a channel of its own, so rows left by other tests are never claimed here
+        channel = "T" + Long.toHexString(System.nanoTime()).substring(0, 8);
+    }
+
+    @Test
+    void enqueue_ShouldMergeDataIntoPendingRowWithinWindow() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // When
+            UUID first = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of("planId", "p1", "seats", "1"), Duration.ofSeconds(30));
+            UUID second = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of("seats", "2"), Duration.ofSeconds(30));
+            UUID other = outbox.enqueue(userId, channel, "payment_link", "p1", Map.of(), Duration.ofSeconds(30));
+
+            // Then
+            assertThat(second).isEqualTo(first);
+            assertThat(other).isNotEqualTo(first);
+            Map<String, Object> row = jdbc.queryForMap("SELECT data::text AS data, coalesced FROM notification_outbox WHERE id = ?", first);
+            assertThat(row.get("coalesced")).isEqualTo(1);
+            assertThat(row.get("data").toString()).contains("\"planId\": \"p1\"").contains("\"seats\": \"2\"");
+        });
+    }
+
+    @Test
+    void enqueue_ShouldKeepNotificationsAboutDifferentThingsApart() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // When: two plans offered within the window, and two notifications without a key
+            UUID first = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of("planId", "p1"), Duration.ofSeconds(30));
+            UUID second = outbox.enqueue(userId, channel, "waitlist_offer", "p2", Map.of("planId", "p2"), Duration.ofSeconds(30));
+            UUID unkeyed = outbox.enqueue(userId, channel, "enrollment_confirmation", null, Map.of("paymentLink", "l1"), Duration.ofSeconds(30));
+            UUID unkeyedAgain = outbox.enqueue(userId, channel, "enrollment_confirmation", null, Map.of("paymentLink", "l2"), Duration.ofSeconds(30));
+
+            // Then
+            assertThat(List.of(first, second, unkeyed, unkeyedAgain)).doesNotHaveDuplicates();
+            List<String> data = jdbc.queryForList("SELECT data::text FROM notification_outbox WHERE channel = ? AND coalesced = 0",
+                    String.class, channel);
+            assertThat(data).hasSize(4).anyMatch(d -> d.contains("p1")).anyMatch(d -> d.contains("p2"))
+                    .anyMatch(d -> d.contains("l1")).anyMatch(d -> d.contains("l2"));
+        });
+    }
+
+    @Test
+    void claim_ShouldLeaseOnlyDueMessagesOfTheChannelOnce() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given
+            UUID due = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of("planId", "p1"), Duration.ZERO);
+            outbox.enqueue(userId, channel, "payment_link", "p1", Map.of(), Duration.ofMinutes(5));
+            outbox.enqueue(userId, channel + "X", "waitlist_offer", "p1", Map.of(), Duration.ZERO);
+
+            // When
+            List<OutboxMessage> claimed = outbox.claim(channel, 10, LEASE);
+            List<OutboxMessage> again = outbox.claim(channel, 10, LEASE);
+
+            // Then
+            assertThat(claimed).singleElement().satisfies(m -> {
+                assertThat(m.id()).isEqualTo(due);
+                assertThat(m.data()).containsEntry("planId", "p1");
+                assertThat(m.attempts()).isZero();
+            });
+            assertThat(again).isEmpty();
+            assertThat(status(due)).isEqualTo("SENDING");
+        });
+    }
+
+    @Test
+    void claim_ShouldReclaimExpiredLeases() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given: a dispatcher claimed the message and died
+            UUID id = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of(), Duration.ZERO);
+            outbox.claim(channel, 10, LEASE);
+            jdbc.update("UPDATE notification_outbox SET locked_until = now() - interval '1 second' WHERE id = ?", id);
+
+            // When / Then
+            assertThat(outbox.claim(channel, 10, LEASE)).extracting(OutboxMessage::id).containsExactly(id);
+        });
+    }
+
+    @Test
+    void markFailed_ShouldBackOffAndKeepFreshNotificationsSeparate() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given
+            UUID id = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of(), Duration.ZERO);
+            outbox.claim(channel, 10, LEASE);
+
+            // When
+            outbox.markFailed(List.of(new NotificationOutbox.Failure(id, "UNAVAILABLE", true)), 5,
+                    Duration.ofSeconds(10), Duration.ofMinutes(10));
+            UUID fresh = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of(), Duration.ZERO);
+
+            // Then
+            assertThat(status(id)).isEqualTo("RETRY");
+            assertThat(jdbc.queryForObject("SELECT send_after > now() FROM notification_outbox WHERE id = ?", Boolean.class, id)).isTrue();
+            assertThat(fresh).isNotEqualTo(id);
+            assertThat(outbox.claim(channel, 10, LEASE)).extracting(OutboxMessage::id).containsExactly(fresh);
+        });
+    }
+
+    @Test
+    void markFailed_ShouldGiveUpOnPermanentErrors() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given
+            UUID id = outbox.enqueue(userId, channel, "waitlist_offer", "p1", Map.of(), Duration.ZERO);
+            outbox.claim(channel, 10, LEASE);
+
+            // When
+            outbox.markFailed(List.of(new NotificationOutbox.Failure(id, "INVALID_ARGUMENT", false)), 5,
+                    Duration.ofSeconds(10), Duration.ofMinutes(10));
+
+            // Then
+            assertThat(status(id)).isEqualTo("FAILED");
+        });
+    }
+
+    private String status(UUID id) {
+        return jdbc.queryForObject("SELECT status FROM notification_outbox WHERE id = ?", String.class, id);
+    }
+}
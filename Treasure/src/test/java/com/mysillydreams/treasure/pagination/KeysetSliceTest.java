@@ -0,0 +1,57 @@
+package com.mysillydreams.treasure.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetSliceTest {
+
+    @Test
+    void of_ShouldTrimLookaheadRowAndPointCursorAtLastServedRow() {
+        // Given (size + 1 rows fetched)
+        List<Integer> fetched = List.of(50, 40, 30, 20);
+
+        // When
+        KeysetSlice<Integer> slice = KeysetSlice.of(fetched, 3, i -> KeysetCursor.of(BigDecimal.valueOf(i), new UUID(0, i)));
+
+        // Then
+        assertThat(slice.content()).containsExactly(50, 40, 30);
+        assertThat(slice.hasNext()).isTrue();
+        KeysetCursor next = KeysetCursor.decode(slice.nextCursor()).orElseThrow();
+        assertThat(next.score()).isEqualByComparingTo("30");
+        assertThat(next.id()).isEqualTo(new UUID(0, 30));
+    }
+
+    @Test
+    void of_ShouldReportLastPageWithoutCursor() {
+        // When
+        KeysetSlice<Integer> slice = KeysetSlice.of(List.of(1, 2), 3, i -> KeysetCursor.of(BigDecimal.ONE, UUID.randomUUID()));
+
+        // Then
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(slice.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursor_ShouldRoundTripTimestampsAndRejectForeignTokens() {
+        // Given
+        OffsetDateTime at = OffsetDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000, ZoneOffset.ofHours(5));
+        UUID id = UUID.randomUUID();
+
+        // When
+        KeysetCursor decoded = KeysetCursor.decode(KeysetCursor.of(at, id).encode()).orElseThrow();
+
+        // Then
+        assertThat(decoded.timestamp()).isEqualTo(at.withOffsetSameInstant(ZoneOffset.UTC));
+        assertThat(decoded.id()).isEqualTo(id);
+        assertThat(KeysetCursor.decode("")).isEmpty();
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mysillydreams.treasure.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MonthPartitionTest {
+
+    @Test
+    void parse_ShouldRoundTripPartitionNames() {
+        // When
+        var parsed = MonthPartition.parse("task_progress_2024_03");
+
+        // Then
+        assertThat(parsed).contains(new MonthPartition("task_progress", YearMonth.of(2024, 3)));
+        assertThat(parsed.get().name()).isEqualTo("task_progress_2024_03");
+        assertThat(parsed.get().sibling("enrollment").name()).isEqualTo("enrollment_2024_03");
+    }
+
+    @Test
+    void parse_ShouldIgnoreDefaultAndForeignTables() {
+        // When / Then
+        assertThat(MonthPartition.parse("leaderboard_all_time")).isEmpty();
+        assertThat(MonthPartition.parse("enrollment_2024_13")).isEmpty();
+        assertThat(MonthPartition.parse("payments_2024_01")).isEmpty();
+        assertThatThrownBy(() -> new MonthPartition("plan; DROP TABLE plan", YearMonth.of(2024, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isBefore_ShouldCompareWholeMonths() {
+        // Given
+        var partition = new MonthPartition("enrollment", YearMonth.of(2023, 12));
+
+        // Then
+        assertThat(partition.isBefore(YearMonth.of(2024, 1))).isTrue();
+        assertThat(partition.isBefore(YearMonth.of(2023, 12))).isFalse();
+    }
+}
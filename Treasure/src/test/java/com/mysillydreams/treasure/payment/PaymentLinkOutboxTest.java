@@ -0,0 +1,108 @@
+package com.mysillydreams.treasure.payment;
+
+import com.mysillydreams.treasure.payment.PaymentLinkOutbox.LinkRequest;
+import com.mysillydreams.treasure.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PaymentLinkOutboxTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(2);
+
+    private JdbcTemplate jdbc;
+    private PaymentLinkOutbox outbox;
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(PostgresTestDatabase.available(), "needs Docker or -Dtreasure.test.postgres.url");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(PostgresTestDatabase.dataSource());
+        outbox = new PaymentLinkOutbox(jdbc);
+    }
+
+    @Test
+    void claim_ShouldSkipRequestsLeasedToTheAttemptAfterCommit() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given
+            LinkRequest leased = request();
+            LinkRequest due = request();
+            outbox.record(leased, LEASE);
+            outbox.record(due, Duration.ZERO);
+
+            // When
+            List<UUID> claimed = claimedIds();
+            List<UUID> again = claimedIds();
+
+            // Then
+            assertThat(claimed).contains(due.enrollmentId()).doesNotContain(leased.enrollmentId());
+            assertThat(again).doesNotContain(due.enrollmentId());
+        });
+    }
+
+    @Test
+    void markFailed_ShouldBackOffAndGiveUpAfterMaxAttempts() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given
+            LinkRequest request = request();
+            outbox.record(request, Duration.ZERO);
+
+            // When
+            outbox.markFailed(request.enrollmentId(), "UNAVAILABLE", 2, Duration.ofSeconds(30), Duration.ofMinutes(30));
+
+            // Then
+            Map<String, Object> row = row(request);
+            assertThat(row).containsEntry("status", "PENDING").containsEntry("attempts", 1)
+                    .containsEntry("last_error", "UNAVAILABLE").containsEntry("delay", 30);
+            assertThat(claimedIds()).doesNotContain(request.enrollmentId());
+
+            outbox.markFailed(request.enrollmentId(), "UNAVAILABLE", 2, Duration.ofSeconds(30), Duration.ofMinutes(30));
+            assertThat(row(request)).containsEntry("status", "FAILED").containsEntry("attempts", 2);
+            assertThat(outbox.markDone(request.enrollmentId())).isFalse();
+        });
+    }
+
+    @Test
+    void markDone_ShouldCompleteARequestOnce() {
+        PostgresTestDatabase.inRolledBackTransaction(tx -> {
+            // Given
+            LinkRequest request = request();
+            outbox.record(request, Duration.ZERO);
+
+            // When / Then
+            assertThat(outbox.markDone(request.enrollmentId())).isTrue();
+            assertThat(outbox.markDone(request.enrollmentId())).isFalse();
+            assertThat(row(request)).containsEntry("status", "DONE").containsEntry("attempts", 1);
+            assertThat(claimedIds()).doesNotContain(request.enrollmentId());
+        });
+    }
+
+    private List<UUID> claimedIds() {
+        return outbox.claim(100, LEASE).stream().map(LinkRequest::enrollmentId).toList();
+    }
+
+    private Map<String, Object> row(LinkRequest request) {
+        return jdbc.queryForMap("""
+                SELECT status, attempts, last_error, extract(epoch FROM next_attempt_at - now())::int AS delay
+                  FROM payment_link_request WHERE enrollment_id = ?
+                """, request.enrollmentId());
+    }
+
+    private static LinkRequest request() {
+        return new LinkRequest(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "Old Town by night",
+                "INR", new BigDecimal("499.00"), "enrollment_confirmation");
+    }
+}
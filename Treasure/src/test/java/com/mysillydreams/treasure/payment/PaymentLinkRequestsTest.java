@@ -0,0 +1,152 @@
+package com.mysillydreams.treasure.payment;
+
+import com.mysillydreams.treasure.domain.model.Enrollment;
+import com.mysillydreams.treasure.domain.model.Plan;
+import com.mysillydreams.treasure.integrations.port.NotificationPort;
+import com.mysillydreams.treasure.integrations.port.PaymentsPort;
+import com.mysillydreams.treasure.payment.PaymentLinkOutbox.LinkRequest;
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentLinkRequestsTest {
+
+    @Mock
+    private PaymentLinkOutbox outbox;
+
+    @Mock
+    private PaymentsPort paymentsPort;
+
+    @Mock
+    private NotificationPort notificationPort;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    private PaymentLinkRequests requests;
+    private Enrollment enrollment;
+    private Plan plan;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        requests = new PaymentLinkRequests(outbox, Optional.of(paymentsPort), Optional.of(notificationPort), txManager,
+                50, 3, Duration.ofMinutes(2), Duration.ofSeconds(30), Duration.ofMinutes(30));
+        enrollment = Enrollment.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).build();
+        plan = Plan.builder().id(UUID.randomUUID()).title("Old Town by night").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void request_ShouldRecordInTransactionAndNotifyInANewOneAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        when(paymentsPort.createPaymentLinkAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(new PaymentsPort.PaymentLink("https://pay/1", "pay-1"))));
+        when(outbox.markDone(enrollment.getId())).thenReturn(true);
+
+        // When
+        requests.request(enrollment, plan, new BigDecimal("499.00"), "INR", "enrollment_confirmation");
+
+        // Then: nothing is called before commit
+        ArgumentCaptor<LinkRequest> recorded = ArgumentCaptor.forClass(LinkRequest.class);
+        verify(outbox).record(recorded.capture(), eq(Duration.ofMinutes(2)));
+        assertThat(recorded.getValue().enrollmentId()).isEqualTo(enrollment.getId());
+        verifyNoInteractions(paymentsPort, notificationPort);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(paymentsPort).createPaymentLinkAsync(enrollment.getId().toString(), enrollment.getUserId().toString(),
+                "INR", "499.00", plan.getId().toString());
+        verify(notificationPort).send(enrollment.getUserId().toString(), "EMAIL", "enrollment_confirmation",
+                enrollment.getId().toString(), Map.of("planTitle", "Old Town by night", "paymentLink", "https://pay/1"));
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(txManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getPropagationBehavior()).isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        verify(txManager).commit(any());
+    }
+
+    @Test
+    void attempt_ShouldRecordFailureForRetryWithoutNotifying() {
+        // Given
+        LinkRequest request = linkRequest();
+        when(paymentsPort.createPaymentLinkAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(Status.UNAVAILABLE.asRuntimeException()));
+
+        // When
+        requests.attempt(request).join();
+
+        // Then
+        verify(outbox).markFailed(eq(request.enrollmentId()), contains("UNAVAILABLE"), eq(3),
+                eq(Duration.ofSeconds(30)), eq(Duration.ofMinutes(30)));
+        verify(outbox, never()).markDone(any());
+        verifyNoInteractions(notificationPort);
+    }
+
+    @Test
+    void attempt_ShouldNotNotifyForARequestAlreadyCompleted() {
+        // Given
+        LinkRequest request = linkRequest();
+        when(paymentsPort.createPaymentLinkAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(new PaymentsPort.PaymentLink("https://pay/1", "pay-1"))));
+        when(outbox.markDone(request.enrollmentId())).thenReturn(false);
+
+        // When
+        requests.attempt(request).join();
+
+        // Then
+        verifyNoInteractions(notificationPort);
+    }
+
+    @Test
+    void retryDue_ShouldAttemptEveryClaimedRequest() {
+        // Given
+        LinkRequest first = linkRequest(), second = linkRequest();
+        when(outbox.claim(50, Duration.ofMinutes(2))).thenReturn(List.of(first, second));
+        when(paymentsPort.createPaymentLinkAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(outbox.markDone(any())).thenReturn(true);
+
+        // When
+        int attempted = requests.retryDue();
+
+        // Then
+        assertThat(attempted).isEqualTo(2);
+        verify(outbox).markDone(first.enrollmentId());
+        verify(outbox).markDone(second.enrollmentId());
+        verifyNoInteractions(notificationPort);
+    }
+
+    private LinkRequest linkRequest() {
+        return new LinkRequest(UUID.randomUUID(), enrollment.getUserId(), plan.getId(), plan.getTitle(),
+                "INR", new BigDecimal("499.00"), "enrollment_confirmation");
+    }
+}
@@ -0,0 +1,59 @@
+package com.mysillydreams.treasure.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxRatesTest {
+
+    private final FxRates.Snapshot rates = FxRates.Snapshot.of(Map.of(
+            "USD/INR", new BigDecimal("83.2500000000"),
+            "USD/JPY", new BigDecimal("151.4000000000"),
+            "EUR/USD", new BigDecimal("1.0800000000")), "USD");
+
+    @Test
+    void convert_ShouldUseDirectPairAndRoundToMinorUnits() {
+        // When
+        BigDecimal inr = rates.convert(new BigDecimal("12.345"), "USD", "INR");
+        BigDecimal jpy = rates.convert(new BigDecimal("10.00"), "USD", "JPY");
+
+        // Then
+        assertThat(inr).isEqualByComparingTo("1027.72");
+        assertThat(inr.scale()).isEqualTo(2);
+        assertThat(jpy).isEqualByComparingTo("1514");
+        assertThat(jpy.scale()).isZero();
+    }
+
+    @Test
+    void convert_ShouldFallBackToInverseAndPivot() {
+        // When
+        BigDecimal usd = rates.convert(new BigDecimal("8325.00"), "INR", "USD");
+        BigDecimal eurToInr = rates.convert(new BigDecimal("100.00"), "eur", "inr");
+
+        // Then
+        assertThat(usd).isEqualByComparingTo("100.00");
+        assertThat(eurToInr).isEqualByComparingTo("8991.00");
+    }
+
+    @Test
+    void toMinorUnits_ShouldRoundHalfEven() {
+        // When / Then
+        assertThat(FxRates.toMinorUnits(new BigDecimal("2.345"), "USD")).isEqualByComparingTo("2.34");
+        assertThat(FxRates.toMinorUnits(new BigDecimal("2.355"), "USD")).isEqualByComparingTo("2.36");
+        assertThat(FxRates.toMinorUnits(new BigDecimal("150.5"), "JPY")).isEqualByComparingTo("150");
+    }
+
+    @Test
+    void convert_ShouldRejectMissingRateAndUnknownCurrency() {
+        // When / Then
+        assertThatThrownBy(() -> rates.convert(BigDecimal.TEN, "INR", "GBP"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No exchange rate");
+        assertThatThrownBy(() -> rates.convert(BigDecimal.TEN, "USD", "XYZ"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.mysillydreams.treasure.qr;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QrTokenCodecTest {
+
+    private static final String OLD_KEY = "2024:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String NEW_KEY = "2025:" + Base64.getEncoder().encodeToString("a-fresh-32-byte-secret-for-tests".getBytes());
+
+    private final UUID planId = UUID.randomUUID();
+    private final UUID checkpointId = UUID.randomUUID();
+    private final Instant now = Instant.parse("2025-06-01T10:00:00Z");
+
+    @Test
+    void verify_ShouldReturnSignedClaims() {
+        // Given
+        QrTokenCodec codec = new QrTokenCodec(new QrKeyRing(NEW_KEY));
+        String token = codec.issue(planId, checkpointId, now.minusSeconds(60), now.plus(Duration.ofHours(2)));
+
+        // When
+        QrToken verified = codec.verify(token, now);
+
+        // Then
+        assertThat(verified.planId()).isEqualTo(planId);
+        assertThat(verified.checkpointId()).isEqualTo(checkpointId);
+        assertThat(verified.keyId()).isEqualTo("2025");
+        assertThat(token.length()).isLessThan(120);
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedToken() {
+        // Given
+        QrTokenCodec codec = new QrTokenCodec(new QrKeyRing(NEW_KEY));
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.issue(planId, checkpointId, now, now.plusSeconds(60)));
+        bytes[10] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // When / Then
+        assertThatThrownBy(() -> codec.verify(tampered, now)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.verify("not-a-token", now)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void verify_ShouldRejectOutsideValidityWindow() {
+        // Given
+        QrTokenCodec codec = new QrTokenCodec(new QrKeyRing(NEW_KEY));
+        String token = codec.issue(planId, checkpointId, now, now.plusSeconds(60));
+
+        // When / Then
+        assertThatThrownBy(() -> codec.verify(token, now.minusSeconds(1))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> codec.verify(token, now.plusSeconds(60))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void verify_ShouldAcceptTokensFromRotatedOutSigningKey() {
+        // Given
+        String token = new QrTokenCodec(new QrKeyRing(OLD_KEY)).issue(planId, checkpointId, now, now.plusSeconds(60));
+        QrTokenCodec rotated = new QrTokenCodec(new QrKeyRing(NEW_KEY + "," + OLD_KEY));
+
+        // When / Then
+        assertThat(rotated.verify(token, now).keyId()).isEqualTo("2024");
+        assertThatThrownBy(() -> new QrTokenCodec(new QrKeyRing(NEW_KEY)).verify(token, now))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void replayFilter_ShouldRememberScansForTwoGenerations() {
+        // Given
+        ReplayFilter filter = new ReplayFilter(1_000, 0.001);
+        UUID enrollmentId = UUID.randomUUID();
+        filter.put(enrollmentId, 42L);
+
+        // When
+        filter.rotate();
+
+        // Then
+        assertThat(filter.mightContain(enrollmentId, 42L)).isTrue();
+        assertThat(filter.mightContain(enrollmentId, 43L)).isFalse();
+        filter.rotate();
+        assertThat(filter.mightContain(enrollmentId, 42L)).isFalse();
+    }
+}
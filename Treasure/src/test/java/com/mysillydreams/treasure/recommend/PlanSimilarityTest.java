@@ -0,0 +1,68 @@
+package com.mysillydreams.treasure.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanSimilarityTest {
+
+    private static final UUID CATEGORY = UUID.randomUUID();
+    private static final UUID HUNTS = UUID.randomUUID();
+    private static final UUID ESCAPES = UUID.randomUUID();
+
+    @Test
+    void topK_ShouldRankCloseSameSubcategoryPlansFirst() {
+        // Given
+        var source = plan(HUNTS, CATEGORY, "pune", 18.52, 73.85, 500, 0b001);
+        var sibling = plan(HUNTS, CATEGORY, "pune", 18.53, 73.86, 600, 0b001);
+        var cousin = plan(ESCAPES, CATEGORY, "pune", 18.60, 73.90, 1500, 0b010);
+        var elsewhere = plan(UUID.randomUUID(), UUID.randomUUID(), "delhi", 28.61, 77.20, 500, 0b001);
+
+        // When
+        var result = PlanSimilarity.topK(List.of(source, sibling, cousin, elsewhere), Map.of(), 5);
+
+        // Then
+        assertThat(result.get(source.planId())).extracting(PlanSimilarity.Neighbour::planId)
+                .containsExactly(sibling.planId(), cousin.planId());
+    }
+
+    @Test
+    void topK_ShouldSurfaceCoEnrolledPlanOutsideCategoryAndCity() {
+        // Given
+        var source = plan(HUNTS, CATEGORY, "pune", 18.52, 73.85, 500, 0b001);
+        var coEnrolled = plan(UUID.randomUUID(), UUID.randomUUID(), "goa", 15.49, 73.82, 550, 0b001);
+        var coEnrollment = Map.of(source.planId(), Map.of(coEnrolled.planId(), 12));
+
+        // When
+        var result = PlanSimilarity.topK(List.of(source, coEnrolled), coEnrollment, 5);
+
+        // Then
+        assertThat(result.get(source.planId())).singleElement()
+                .satisfies(n -> assertThat(n.planId()).isEqualTo(coEnrolled.planId()));
+    }
+
+    @Test
+    void topK_ShouldKeepOnlyKBestNeighbours() {
+        // Given
+        var source = plan(HUNTS, CATEGORY, "pune", 18.52, 73.85, 500, 0b001);
+        var near = plan(HUNTS, CATEGORY, "pune", 18.52, 73.85, 500, 0b001);
+        var far = plan(HUNTS, CATEGORY, "pune", 18.70, 74.10, 900, 0b100);
+
+        // When
+        var result = PlanSimilarity.topK(List.of(source, near, far), Map.of(), 1);
+
+        // Then
+        assertThat(result.get(source.planId())).extracting(PlanSimilarity.Neighbour::planId)
+                .containsExactly(near.planId());
+    }
+
+    private static PlanSimilarity.Features plan(UUID subcategory, UUID category, String city,
+                                                double lat, double lon, double price, int difficulties) {
+        return new PlanSimilarity.Features(UUID.randomUUID(), subcategory, category, city, false,
+                lat, lon, price, difficulties);
+    }
+}
@@ -0,0 +1,73 @@
+package com.mysillydreams.treasure.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgeEligibilityIndexTest {
+
+    private final UUID kids = UUID.randomUUID();
+    private final UUID adults = UUID.randomUUID();
+    private final List<AgeEligibilityIndex.Band> bands = List.of(
+            new AgeEligibilityIndex.Band(kids, "Kids", 6, 12),
+            new AgeEligibilityIndex.Band(adults, "Adults", 18, 200));
+
+    @Test
+    void eligibleSubcategories_ShouldUnionBandsCoveringAge() {
+        // Given
+        UUID puzzles = UUID.randomUUID();
+        UUID hiking = UUID.randomUUID();
+        AgeEligibilityIndex index = new AgeEligibilityIndex(null);
+        index.install(AgeEligibilityIndex.Snapshot.build(bands, List.of(
+                new AgeEligibilityIndex.Allowed(puzzles, kids),
+                new AgeEligibilityIndex.Allowed(puzzles, adults),
+                new AgeEligibilityIndex.Allowed(hiking, adults))));
+
+        // When / Then
+        assertThat(index.eligibleSubcategories(8)).containsExactly(puzzles);
+        assertThat(index.eligibleSubcategories(30)).containsExactlyInAnyOrder(puzzles, hiking);
+        assertThat(index.eligibleSubcategories(15)).isEmpty();
+        assertThat(index.eligibleSubcategories(150)).containsExactlyInAnyOrder(puzzles, hiking); // beyond the table
+    }
+
+    @Test
+    void install_ShouldReplaceSnapshotAtomically() {
+        // Given
+        UUID puzzles = UUID.randomUUID();
+        AgeEligibilityIndex index = new AgeEligibilityIndex(null);
+        assertThat(index.eligibleSubcategories(8)).isEmpty();
+
+        // When
+        index.install(AgeEligibilityIndex.Snapshot.build(bands, List.of(new AgeEligibilityIndex.Allowed(puzzles, kids))));
+
+        // Then
+        assertThat(index.eligibleSubcategories(8)).containsExactly(puzzles);
+        assertThat(index.ageBands()).extracting(AgeEligibilityIndex.Band::label).containsExactly("Kids", "Adults");
+    }
+
+    @Test
+    void reload_ShouldStayNotLoadedWhenFirstBuildFails() {
+        // Given
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.query(anyString(), any(RowMapper.class))).thenThrow(new DataAccessResourceFailureException("down"));
+        AgeEligibilityIndex index = new AgeEligibilityIndex(jdbc);
+
+        // When
+        index.reload();
+
+        // Then
+        assertThat(index.isLoaded()).isFalse();
+        index.install(AgeEligibilityIndex.Snapshot.build(bands, List.of()));
+        assertThat(index.isLoaded()).isTrue();
+    }
+}
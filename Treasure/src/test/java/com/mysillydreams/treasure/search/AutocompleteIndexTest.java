@@ -0,0 +1,69 @@
+package com.mysillydreams.treasure.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteIndexTest {
+
+    private final UUID puzzles = UUID.randomUUID();
+
+    private AutocompleteIndex index() {
+        AutocompleteIndex index = new AutocompleteIndex(null);
+        index.install(List.of(
+                new AutocompleteIndex.PlanDoc(UUID.randomUUID(), "Old City Treasure Hunt", "Hyderabad", puzzles, "Puzzles", 40),
+                new AutocompleteIndex.PlanDoc(UUID.randomUUID(), "Heritage Walk", "Hyderabad", puzzles, "Puzzles", 5),
+                new AutocompleteIndex.PlanDoc(UUID.randomUUID(), "Café Trail", "Bengaluru", puzzles, "Puzzles", 90)));
+        return index;
+    }
+
+    @Test
+    void suggest_ShouldMatchAnyWordStartRankedByPopularity() {
+        // When
+        List<AutocompleteIndex.Suggestion> result = index().suggest("tr", 10);
+
+        // Then
+        assertThat(result).extracting(AutocompleteIndex.Suggestion::text)
+                .containsExactly("Café Trail", "Old City Treasure Hunt");
+    }
+
+    @Test
+    void suggest_ShouldIgnoreCaseAndAccentsAndCoverCitiesAndSubcategories() {
+        // Given
+        AutocompleteIndex index = index();
+
+        // When / Then
+        assertThat(index.suggest("CAFE", 10)).extracting(AutocompleteIndex.Suggestion::text).containsExactly("Café Trail");
+        assertThat(index.suggest("hyder", 10)).singleElement()
+                .satisfies(s -> {
+                    assertThat(s.kind()).isEqualTo(AutocompleteIndex.Kind.CITY);
+                    assertThat(s.weight()).isEqualTo(47);
+                });
+        assertThat(index.suggest("puz", 10)).extracting(AutocompleteIndex.Suggestion::id).containsExactly(puzzles);
+        assertThat(index.cities()).containsExactly("Bengaluru", "Hyderabad");
+    }
+
+    @Test
+    void suggest_ShouldFindHeaviestMatchesAnywhereInWideRange() {
+        // Given: 5000 "Treasure ..." keys sort before the most popular "tre" match
+        AutocompleteIndex index = new AutocompleteIndex(null);
+        List<AutocompleteIndex.PlanDoc> docs = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            docs.add(new AutocompleteIndex.PlanDoc(UUID.randomUUID(), "Treasure %04d".formatted(i), null, puzzles, "Puzzles",
+                    i == 2_500 ? 200 : i % 7));
+        }
+        docs.add(new AutocompleteIndex.PlanDoc(UUID.randomUUID(), "Trek to Golconda", null, puzzles, "Puzzles", 900));
+        index.install(docs);
+
+        // When
+        List<AutocompleteIndex.Suggestion> result = index.suggest("tre", 4);
+
+        // Then
+        assertThat(result).extracting(AutocompleteIndex.Suggestion::text)
+                .containsExactly("Trek to Golconda", "Treasure 2500", "Treasure 0006", "Treasure 0013");
+    }
+}
@@ -0,0 +1,92 @@
+package com.mysillydreams.treasure.search;
+
+import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.domain.model.Plan;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanSpecificationFactoryTest {
+
+    @Mock
+    private Root<Plan> root;
+
+    @Mock
+    private CriteriaQuery<Object> query;
+
+    @Mock
+    private CriteriaBuilder cb;
+
+    private AgeEligibilityIndex index;
+    private PlanSpecificationFactory factory;
+    private final SearchRequest request =
+            new SearchRequest(null, null, null, null, null, null, null, null, null, null, null, 10);
+
+    @BeforeEach
+    void setUp() {
+        index = new AgeEligibilityIndex(null);
+        factory = new PlanSpecificationFactory(index);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void build_ShouldJoinAgeBandsUntilIndexHasLoaded() {
+        // Given
+        Join<Object, Object> subcategory = mock(Join.class), band = mock(Join.class);
+        Predicate ageOk = mock(Predicate.class);
+        when(root.join("subcategory")).thenReturn(subcategory);
+        when(subcategory.join("allowedAgeBands", JoinType.LEFT)).thenReturn(band);
+        when(band.get(anyString())).thenReturn(mock(Path.class));
+        when(cb.and(any(), any())).thenReturn(ageOk);
+
+        // When
+        Predicate predicate = factory.build(request, Optional.empty(), Optional.of(10)).toPredicate(root, query, cb);
+
+        // Then
+        assertThat(index.isLoaded()).isFalse();
+        assertThat(predicate).isSameAs(ageOk);
+        verify(cb).lessThanOrEqualTo(any(Path.class), eq(10));
+        verify(cb).greaterThanOrEqualTo(any(Path.class), eq(10));
+        verify(query).distinct(true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void build_ShouldFilterByEligibleSubcategoriesOnceIndexHasLoaded() {
+        // Given
+        UUID kidsBand = UUID.randomUUID(), puzzles = UUID.randomUUID();
+        index.install(AgeEligibilityIndex.Snapshot.build(
+                List.of(new AgeEligibilityIndex.Band(kidsBand, "Kids", 6, 12)),
+                List.of(new AgeEligibilityIndex.Allowed(puzzles, kidsBand))));
+        Path<Object> subcategory = mock(Path.class), subcategoryId = mock(Path.class);
+        Predicate inEligible = mock(Predicate.class);
+        when(root.get("subcategory")).thenReturn(subcategory);
+        when(subcategory.get("id")).thenReturn(subcategoryId);
+        when(subcategoryId.in(List.of(puzzles))).thenReturn(inEligible);
+
+        // When
+        Predicate predicate = factory.build(request, Optional.empty(), Optional.of(10)).toPredicate(root, query, cb);
+
+        // Then
+        assertThat(predicate).isSameAs(inEligible);
+        verify(root, never()).join(anyString());
+    }
+}
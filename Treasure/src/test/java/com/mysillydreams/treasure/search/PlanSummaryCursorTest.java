@@ -0,0 +1,111 @@
+package com.mysillydreams.treasure.search;
+
+import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.domain.model.Difficulty;
+import com.mysillydreams.treasure.domain.model.GeoFenceRule;
+import com.mysillydreams.treasure.domain.model.Plan;
+import com.mysillydreams.treasure.domain.model.TimeWindowType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+class PlanSummaryCursorTest {
+
+    private final SearchRequest byAge =
+            new SearchRequest(null, null, null, null, null, null, null, null, null, null, null, 10);
+
+    @Test
+    void buildSql_ShouldUseAgeBandSubqueryWithoutEligibleList() {
+        // Given
+        List<Object> args = new ArrayList<>();
+
+        // When
+        String sql = PlanSummaryCursor.buildSql(byAge, Optional.empty(), null, args);
+
+        // Then
+        assertThat(sql).contains("subcategory_age_band").doesNotContain("p.subcategory_id IN");
+        assertThat(args).containsExactly(10, 10);
+    }
+
+    @Test
+    void buildSql_ShouldFilterByEligibleSubcategories() {
+        // Given
+        UUID puzzles = UUID.randomUUID(), hiking = UUID.randomUUID();
+        List<Object> args = new ArrayList<>();
+
+        // When
+        String sql = PlanSummaryCursor.buildSql(byAge, Optional.empty(), List.of(puzzles, hiking), args);
+
+        // Then
+        assertThat(sql).contains("p.subcategory_id IN (?,?)").doesNotContain("subcategory_age_band");
+        assertThat(args).containsExactly(puzzles, hiking);
+    }
+
+    @Test
+    void buildSql_ShouldApplyExactlyTheFiltersOfPlanSpecificationFactory() {
+        // Given: every search field set on its own, plus a geo fence
+        OffsetDateTime at = OffsetDateTime.parse("2025-07-01T10:00:00Z");
+        Map<String, SearchRequest> requests = new LinkedHashMap<>();
+        requests.put("subcategoryId", request(UUID.randomUUID(), null, null, null, null, null, null, null, null, null, null, null));
+        requests.put("difficulty", request(null, Difficulty.BEGINNER, null, null, null, null, null, null, null, null, null, null));
+        requests.put("level", request(null, null, 2, null, null, null, null, null, null, null, null, null));
+        requests.put("dateFrom", request(null, null, null, at, null, null, null, null, null, null, null, null));
+        requests.put("dateTo", request(null, null, null, null, at, null, null, null, null, null, null, null));
+        requests.put("timeWindowType", request(null, null, null, null, null, TimeWindowType.NIGHT, null, null, null, null, null, null));
+        requests.put("priceMin", request(null, null, null, null, null, null, BigDecimal.TEN, null, null, null, null, null));
+        requests.put("priceMax", request(null, null, null, null, null, null, null, BigDecimal.TEN, null, null, null, null));
+        requests.put("city", request(null, null, null, null, null, null, null, null, "Pune", null, null, null));
+        requests.put("withinKm", request(null, null, null, null, null, null, null, null, null, 5, null, null));
+        requests.put("hasSlots", request(null, null, null, null, null, null, null, null, null, null, true, null));
+        requests.put("age", byAge);
+        assertThat(requests).hasSize(SearchRequest.class.getRecordComponents().length);
+        SearchRequest none = request(null, null, null, null, null, null, null, null, null, null, null, null);
+        GeoFenceRule fence = GeoFenceRule.builder().enabled(true).scope("CITY").values(List.of("Pune")).build();
+
+        AgeEligibilityIndex index = new AgeEligibilityIndex(null);
+        UUID band = UUID.randomUUID();
+        index.install(AgeEligibilityIndex.Snapshot.build(List.of(new AgeEligibilityIndex.Band(band, "Kids", 6, 12)),
+                List.of(new AgeEligibilityIndex.Allowed(UUID.randomUUID(), band))));
+        PlanSpecificationFactory factory = new PlanSpecificationFactory(index);
+        String unfiltered = PlanSummaryCursor.buildSql(none, Optional.empty(), null, new ArrayList<>());
+
+        // When / Then
+        requests.forEach((field, req) -> {
+            List<UUID> eligible = req.age() == null ? null : index.eligibleSubcategories(req.age());
+            boolean cursorFilters = !PlanSummaryCursor.buildSql(req, Optional.empty(), eligible, new ArrayList<>()).equals(unfiltered);
+            assertThat(cursorFilters).as(field).isEqualTo(specFilters(factory, req, Optional.empty()));
+        });
+        assertThat(PlanSummaryCursor.buildSql(none, Optional.of(fence), null, new ArrayList<>())).isNotEqualTo(unfiltered);
+        assertThat(specFilters(factory, none, Optional.of(fence))).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean specFilters(PlanSpecificationFactory factory, SearchRequest req, Optional<GeoFenceRule> fence) {
+        Root<Plan> root = mock(Root.class, RETURNS_DEEP_STUBS);
+        CriteriaQuery<Object> query = mock(CriteriaQuery.class, RETURNS_DEEP_STUBS);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class, RETURNS_DEEP_STUBS);
+        Optional<Integer> age = Optional.ofNullable(req.age());
+        return factory.build(req, fence, age).toPredicate(root, query, cb) != null;
+    }
+
+    private static SearchRequest request(UUID subcategoryId, Difficulty difficulty, Integer level, OffsetDateTime dateFrom,
+                                         OffsetDateTime dateTo, TimeWindowType timeWindowType, BigDecimal priceMin,
+                                         BigDecimal priceMax, String city, Integer withinKm, Boolean hasSlots, Integer age) {
+        return new SearchRequest(subcategoryId, difficulty, level, dateFrom, dateTo, timeWindowType, priceMin, priceMax,
+                city, withinKm, hasSlots, age);
+    }
+}
@@ -0,0 +1,65 @@
+package com.mysillydreams.treasure.support;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * Flyway-migrated Postgres shared by repository tests. Starts a PostGIS Testcontainer,
+ * or uses an already migrated database given with {@code -Dtreasure.test.postgres.url}
+ * (plus {@code .user} / {@code .password}) where Docker is not available.
+ * Tests call {@link #available()} in an assumption so they skip without either.
+ */
+public final class PostgresTestDatabase {
+
+    private static final String URL_PROPERTY = "treasure.test.postgres.url";
+
+    private static DataSource dataSource;
+    private static PostgreSQLContainer<?> container;
+
+    private PostgresTestDatabase() {}
+
+    public static boolean available() {
+        if (System.getProperty(URL_PROPERTY) != null) return true;
+        try {
+            return DockerClientFactory.instance().isDockerAvailable();
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    public static synchronized DataSource dataSource() {
+        if (dataSource != null) return dataSource;
+        String url = System.getProperty(URL_PROPERTY);
+        if (url != null) {
+            dataSource = new DriverManagerDataSource(url,
+                    System.getProperty(URL_PROPERTY.replace(".url", ".user"), "treasure"),
+                    System.getProperty(URL_PROPERTY.replace(".url", ".password"), "treasure"));
+            return dataSource;
+        }
+        container = new PostgreSQLContainer<>(DockerImageName.parse("postgis/postgis:15-3.4")
+                .asCompatibleSubstituteFor("postgres"));
+        container.start();
+        dataSource = new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        return dataSource;
+    }
+
+    /**
+     * Runs {@code work} in a transaction that is always rolled back, keeping tests independent
+     */
+    public static void inRolledBackTransaction(Consumer<TransactionStatus> work) {
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource())).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            work.accept(status);
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.mysillydreams.treasure.tracking;
+
+import com.mysillydreams.treasure.geo.CheckpointSnapshot;
+import com.mysillydreams.treasure.geo.PlanCheckpointIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HuntPositionsTest {
+
+    private final UUID planId = UUID.randomUUID();
+    private final UUID runner = UUID.randomUUID();
+    private final Instant t0 = Instant.parse("2025-06-01T10:00:00Z");
+
+    private CheckpointSnapshot fountain;
+    private PlanCheckpointIndex checkpoints;
+    private HuntPositions hunt;
+
+    @BeforeEach
+    void setUp() {
+        fountain = new CheckpointSnapshot(UUID.randomUUID(), planId, null, "Fountain", 1,
+                17.3850, 78.4867, 30, false, false, true);
+        checkpoints = PlanCheckpointIndex.of(planId, List.of(fountain));
+        hunt = new HuntPositions(planId, Duration.ofSeconds(15), 25);
+    }
+
+    @Test
+    void update_ShouldDownsampleTrackByTimeAndDistance() {
+        // Given
+        hunt.update(ping(17.3900, 78.4867, 0), checkpoints);
+
+        // When
+        var nearbySoon = hunt.update(ping(17.39001, 78.4867, 5), checkpoints);
+        var nearbyLater = hunt.update(ping(17.39002, 78.4867, 20), checkpoints);
+        var farSoon = hunt.update(ping(17.3910, 78.4867, 21), checkpoints);
+
+        // Then
+        assertThat(nearbySoon.persist()).isFalse();
+        assertThat(nearbyLater.persist()).isTrue();
+        assertThat(farSoon.persist()).isTrue();
+    }
+
+    @Test
+    void update_ShouldReportCheckpointOnlyWhenEntering() {
+        // Given
+        hunt.update(ping(17.3900, 78.4867, 0), checkpoints);
+
+        // When
+        var entering = hunt.update(ping(17.38501, 78.4867, 60), checkpoints);
+        var staying = hunt.update(ping(17.38502, 78.4867, 61), checkpoints);
+
+        // Then
+        assertThat(entering.reached()).isEqualTo(fountain);
+        assertThat(staying.reached()).isNull();
+        assertThat(hunt.all()).singleElement().satisfies(p -> assertThat(p.atCheckpointId()).isEqualTo(fountain.id()));
+    }
+
+    @Test
+    void update_ShouldIgnoreOutOfOrderPings() {
+        // Given
+        hunt.update(ping(17.3900, 78.4867, 10), checkpoints);
+
+        // When
+        var late = hunt.update(ping(17.3000, 78.4000, 5), checkpoints);
+
+        // Then
+        assertThat(late.accepted()).isFalse();
+        assertThat(hunt.all()).singleElement().satisfies(p -> assertThat(p.latitude()).isEqualTo(17.3900));
+    }
+
+    @Test
+    void within_ShouldFollowParticipantAcrossCells() {
+        // Given
+        hunt.update(ping(17.3900, 78.4867, 0), checkpoints);
+
+        // When
+        hunt.update(ping(17.4100, 78.4867, 60), checkpoints);
+
+        // Then
+        assertThat(hunt.within(17.389, 78.48, 17.391, 78.49)).isEmpty();
+        assertThat(hunt.within(17.409, 78.48, 17.411, 78.49)).hasSize(1);
+        assertThat(hunt.evictBefore(t0.plusSeconds(61))).isEqualTo(1);
+        assertThat(hunt.within(17.409, 78.48, 17.411, 78.49)).isEmpty();
+    }
+
+    private LocationPing ping(double lat, double lon, int secondsAfterStart) {
+        return new LocationPing(runner, lat, lon, 5f, t0.plusSeconds(secondsAfterStart));
+    }
+}
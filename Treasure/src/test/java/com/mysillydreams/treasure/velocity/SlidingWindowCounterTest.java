@@ -0,0 +1,74 @@
+package com.mysillydreams.treasure.velocity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void sum_ShouldOnlyCountBucketsInsideWindow() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        counter.add(1_000, 3);
+        counter.add(1_030, 2);
+        counter.add(1_059, 1);
+
+        // When / Then
+        assertThat(counter.sum(1_059)).isEqualTo(6);
+        assertThat(counter.sum(1_060)).isEqualTo(3);  // minute 1000 slid out
+        assertThat(counter.sum(1_119)).isZero();
+        assertThat(counter.isIdle(1_119)).isTrue();
+    }
+
+    @Test
+    void add_ShouldResetReusedBucket() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        counter.add(1_000, 5);
+
+        // When (same ring slot, one window later)
+        counter.add(1_060, 1);
+
+        // Then
+        assertThat(counter.sum(1_060)).isEqualTo(1);
+    }
+
+    @Test
+    void drain_ShouldEmitOnlyDeltasSinceLastDrain() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        counter.add(1_000, 2);
+        Map<Long, Integer> first = new HashMap<>();
+        counter.drain(1_000, first::put);
+
+        // When
+        counter.add(1_000, 3);
+        counter.add(1_001, 1);
+        Map<Long, Integer> second = new HashMap<>();
+        counter.drain(1_001, second::put);
+
+        // Then
+        assertThat(first).containsExactly(Map.entry(1_000L, 2));
+        assertThat(second).containsOnly(Map.entry(1_000L, 3), Map.entry(1_001L, 1));
+        assertThat(counter.unflushedSum(1_001)).isZero();
+        assertThat(counter.sum(1_001)).isEqualTo(6);
+    }
+
+    @Test
+    void requeue_ShouldRestoreUnflushedCount() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        counter.add(1_000, 4);
+        counter.drain(1_000, (minute, delta) -> {});
+
+        // When
+        counter.requeue(1_000, 4);
+
+        // Then
+        assertThat(counter.unflushedSum(1_000)).isEqualTo(4);
+    }
+}
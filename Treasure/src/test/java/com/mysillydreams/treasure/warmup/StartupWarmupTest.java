@@ -0,0 +1,103 @@
+package com.mysillydreams.treasure.warmup;
+
+import com.mysillydreams.treasure.api.rest.dto.request.SearchRequest;
+import com.mysillydreams.treasure.domain.service.DiscountService;
+import com.mysillydreams.treasure.domain.service.PlanService;
+import com.mysillydreams.treasure.domain.service.PricingService;
+import com.mysillydreams.treasure.domain.service.SearchService;
+import com.mysillydreams.treasure.recommend.SimilarPlanService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StartupWarmupTest {
+
+    private SimpleMeterRegistry registry;
+    private StartupWarmup warmup;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        warmup = new StartupWarmup(mock(PlanService.class), mock(SearchService.class), mock(SimilarPlanService.class),
+                mock(PricingService.class), mock(DiscountService.class), mock(JdbcTemplate.class),
+                mock(PlatformTransactionManager.class), mock(ObjectProvider.class), mock(ObjectProvider.class),
+                registry, Duration.ofSeconds(5), 10, 10, 1, 1);
+    }
+
+    @Test
+    void runSteps_ShouldCountFailuresWithoutStopping() {
+        // Given
+        List<StartupWarmup.Step> steps = List.of(
+                new StartupWarmup.Step("plan-detail", () -> {}),
+                new StartupWarmup.Step("pricing", () -> { throw new IllegalStateException("No price configured"); }),
+                new StartupWarmup.Step("plan-detail", () -> {}));
+
+        // When
+        StartupWarmup.Outcome outcome = warmup.runSteps(steps, System.nanoTime() + Duration.ofSeconds(5).toNanos());
+
+        // Then
+        assertThat(outcome).isEqualTo(new StartupWarmup.Outcome(2, 1, 0));
+        assertThat(registry.get("treasure.warmup.steps").tag("kind", "pricing").tag("outcome", "failed").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("treasure.warmup.progress").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void runSteps_ShouldSkipWhatIsLeftAtTheDeadline() {
+        // Given
+        Runnable slow = () -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        List<StartupWarmup.Step> steps = List.of(
+                new StartupWarmup.Step("search", slow),
+                new StartupWarmup.Step("search", () -> {}),
+                new StartupWarmup.Step("search", () -> {}),
+                new StartupWarmup.Step("search", () -> {}));
+
+        // When
+        StartupWarmup.Outcome outcome = warmup.runSteps(steps, System.nanoTime() + Duration.ofMillis(50).toNanos());
+
+        // Then
+        assertThat(outcome.skipped()).isEqualTo(3);
+        assertThat(registry.get("treasure.warmup.steps").tag("outcome", "skipped").counter().count()).isEqualTo(3.0);
+        assertThat(registry.get("treasure.warmup.progress").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void searches_ShouldStartWithTheUnfilteredListing() {
+        // Given
+        UUID outdoor = UUID.randomUUID();
+        List<StartupWarmup.HotPlan> hot = List.of(
+                new StartupWarmup.HotPlan(UUID.randomUUID(), outdoor, "Pune", "INR", BigDecimal.TEN),
+                new StartupWarmup.HotPlan(UUID.randomUUID(), outdoor, "Goa", "INR", BigDecimal.TEN),
+                new StartupWarmup.HotPlan(UUID.randomUUID(), outdoor, "Pune", "INR", BigDecimal.TEN));
+
+        // When
+        List<SearchRequest> searches = StartupWarmup.searches(hot, 3);
+
+        // Then
+        assertThat(searches).hasSize(3);
+        assertThat(searches.get(0).subcategoryId()).isNull();
+        assertThat(searches.get(0).city()).isNull();
+        assertThat(searches.get(1).subcategoryId()).isEqualTo(outdoor);
+        assertThat(searches.get(2).city()).isEqualTo("Pune");
+    }
+}